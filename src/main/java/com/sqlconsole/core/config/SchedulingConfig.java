@@ -0,0 +1,9 @@
+package com.sqlconsole.core.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** 啟用 @Scheduled 背景工作 (例如關閉閒置的查詢 Cursor) */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -1,19 +1,45 @@
 package com.sqlconsole.core.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.sqlconsole.core.model.dto.ColumnarResult;
+import com.sqlconsole.core.model.dto.IdleTransactionNotice;
+import com.sqlconsole.core.model.dto.ImportReport;
+import com.sqlconsole.core.model.dto.JobStatus;
+import com.sqlconsole.core.model.dto.SchemaSearchResult;
+import com.sqlconsole.core.model.dto.ScriptResult;
 import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.enums.ExportFormat;
 import com.sqlconsole.core.repository.DbConfigRepository;
 import com.sqlconsole.core.repository.UserRepository;
 import com.sqlconsole.core.service.AuditService;
+import com.sqlconsole.core.service.CursorService;
 import com.sqlconsole.core.service.DbConfigService;
+import com.sqlconsole.core.service.IdleTransactionWatchdog;
+import com.sqlconsole.core.service.QueryJob;
+import com.sqlconsole.core.service.QueryJobService;
 import com.sqlconsole.core.service.SqlExecutorService;
+import com.sqlconsole.core.service.StatementRegistry;
 
 @Controller
 public class ConsoleController {
@@ -22,7 +48,12 @@ public class ConsoleController {
   @Autowired private DbConfigService dbConfigService;
   @Autowired private AuditService auditService; // ✅ 新增：改用介面
   @Autowired private SqlExecutorService sqlService;
+  @Autowired private CursorService cursorService;
+  @Autowired private StatementRegistry statementRegistry;
+  @Autowired private QueryJobService queryJobService;
   @Autowired private UserRepository userRepo;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private IdleTransactionWatchdog idleTransactionWatchdog;
 
   @GetMapping("/")
   public String index() {
@@ -45,10 +76,230 @@ public class ConsoleController {
 
   @PostMapping("/api/execute")
   @ResponseBody
-  public SqlResult execute(
-      @RequestParam Long dbId, @RequestParam String sql, Authentication auth, HttpSession session) {
+  public Object execute(
+      @RequestParam Long dbId,
+      @RequestParam String sql,
+      @RequestParam(required = false) String requestId,
+      @RequestParam(defaultValue = "false") boolean async,
+      @RequestParam(required = false) String params,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      Authentication auth,
+      HttpSession session) {
     String role = auth.getAuthorities().stream().findFirst().get().getAuthority();
-    return sqlService.processRequest(dbId, sql, auth.getName(), role, session);
+    Object parameters;
+    try {
+      parameters = parseParameters(params);
+    } catch (JsonProcessingException e) {
+      String msg = "Invalid parameters: " + e.getOriginalMessage();
+      return new SqlResult("ERROR", null, msg, null, null);
+    }
+    if (async) {
+      // 非同步模式：立即回傳工作編號 (同時為可取消的 requestId)，結果由 /api/jobs/{id} 取得
+      try {
+        QueryJob job =
+            queryJobService.submit(
+                session,
+                dbId,
+                jobId ->
+                    sqlService.prepareRequest(
+                        dbId, sql, auth.getName(), role, session, jobId, parameters));
+        return toStatus(job, accept);
+      } catch (IllegalStateException e) {
+        return new SqlResult("ERROR", null, e.getMessage(), null, null);
+      }
+    }
+    return negotiate(
+        sqlService.processRequest(
+            dbId, sql, auth.getName(), role, session, requestId, parameters),
+        accept);
+  }
+
+  /** JSON 陣列 ({@code ?} 參數) 或物件 ({@code :name} 參數)；小數以 BigDecimal 保留精度 */
+  private Object parseParameters(String params) throws JsonProcessingException {
+    if (params == null || params.isBlank()) {
+      return null;
+    }
+    return objectMapper
+        .readerFor(Object.class)
+        .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+        .readValue(params);
+  }
+
+  /** 執行多語句腳本，逐句回傳結果 */
+  @PostMapping("/api/script")
+  @ResponseBody
+  public ScriptResult executeScript(
+      @RequestParam Long dbId,
+      @RequestParam String script,
+      @RequestParam(defaultValue = "false") boolean continueOnError,
+      @RequestParam(required = false) String requestId,
+      Authentication auth,
+      HttpSession session) {
+    String role = auth.getAuthorities().stream().findFirst().get().getAuthority();
+    return sqlService.executeScript(
+        dbId, script, auth.getName(), role, session, continueOnError, requestId);
+  }
+
+  /**
+   * 上傳 CSV/TSV 並匯入指定的資料表
+   *
+   * @param format csv 或 tsv；未指定時依副檔名判斷 (.tsv/.tab 為 tsv)
+   */
+  @PostMapping("/api/import")
+  @ResponseBody
+  public ImportReport importCsv(
+      @RequestParam Long dbId,
+      @RequestParam String table,
+      @RequestParam MultipartFile file,
+      @RequestParam(required = false) String format,
+      @RequestParam(defaultValue = "true") boolean header,
+      @RequestParam(required = false) String requestId,
+      Authentication auth,
+      HttpSession session) {
+    String role = auth.getAuthorities().stream().findFirst().get().getAuthority();
+    String name = String.valueOf(file.getOriginalFilename()).toLowerCase();
+    boolean tsv =
+        format != null
+            ? format.equalsIgnoreCase("tsv")
+            : name.endsWith(".tsv") || name.endsWith(".tab");
+    try {
+      return sqlService.importCsv(
+          dbId,
+          table,
+          file.getInputStream(),
+          tsv ? '\t' : ',',
+          header,
+          auth.getName(),
+          role,
+          session,
+          requestId);
+    } catch (IOException e) {
+      return ImportReport.of("ERROR", null, e.getMessage());
+    }
+  }
+
+  /** 查詢非同步工作的狀態；完成時附上結果 */
+  @GetMapping("/api/jobs/{jobId}")
+  @ResponseBody
+  public Object jobStatus(
+      @PathVariable String jobId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      HttpSession session) {
+    return queryJobService
+        .find(session, jobId)
+        .<Object>map(job -> toStatus(job, accept))
+        .orElseGet(
+            () -> new SqlResult("ERROR", null, "Job not found or expired: " + jobId, null, null));
+  }
+
+  /** 以 Server-Sent Events 訂閱工作完成通知 */
+  @GetMapping(value = "/api/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> jobEvents(@PathVariable String jobId, HttpSession session) {
+    return queryJobService
+        .find(session, jobId)
+        .map(job -> ResponseEntity.ok(queryJobService.subscribe(job)))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /** 串流執行查詢：逐列輸出 JSON，結束時附上 trailer (筆數、耗時)。 */
+  @PostMapping("/api/execute/stream")
+  public ResponseEntity<?> executeStream(
+      @RequestParam Long dbId,
+      @RequestParam String sql,
+      @RequestParam(required = false) String requestId,
+      Authentication auth,
+      HttpSession session)
+      throws SQLException {
+    String role = auth.getAuthorities().stream().findFirst().get().getAuthority();
+    try {
+      StreamingResponseBody body =
+          sqlService.streamRequest(dbId, sql, auth.getName(), role, session, requestId);
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest()
+          .body(new SqlResult("ERROR", null, e.getMessage(), null, null));
+    }
+  }
+
+  /**
+   * 匯出查詢結果為檔案下載 (CSV 或 JSON Lines，可選 gzip)
+   *
+   * @param format csv 或 jsonl
+   */
+  @PostMapping("/api/export")
+  public ResponseEntity<?> export(
+      @RequestParam Long dbId,
+      @RequestParam String sql,
+      @RequestParam(defaultValue = "csv") String format,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      @RequestParam(required = false) String requestId,
+      Authentication auth,
+      HttpSession session)
+      throws SQLException {
+    String role = auth.getAuthorities().stream().findFirst().get().getAuthority();
+    try {
+      ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase());
+      StreamingResponseBody body =
+          sqlService.exportRequest(
+              dbId, sql, auth.getName(), role, session, requestId, exportFormat, gzip);
+
+      String filename =
+          "export-"
+              + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+              + "."
+              + exportFormat.extension()
+              + (gzip ? ".gz" : "");
+      return ResponseEntity.ok()
+          .contentType(
+              MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.contentType()))
+          .header(
+              HttpHeaders.CONTENT_DISPOSITION,
+              ContentDisposition.attachment().filename(filename).build().toString())
+          .body(body);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest()
+          .body(new SqlResult("ERROR", null, e.getMessage(), null, null));
+    }
+  }
+
+  /** 從伺服器端 Cursor 讀取下一頁 */
+  @PostMapping("/api/cursor/next")
+  @ResponseBody
+  public Object fetchNext(
+      @RequestParam String cursorId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      HttpSession session) {
+    try {
+      return negotiate(cursorService.fetchNext(session, cursorId), accept);
+    } catch (SQLException e) {
+      return new SqlResult("ERROR", null, e.getMessage(), null, null);
+    }
+  }
+
+  @PostMapping("/api/cursor/close")
+  @ResponseBody
+  public Map<String, String> closeCursor(@RequestParam String cursorId, HttpSession session) {
+    cursorService.closeCursor(session, cursorId);
+    return Map.of("status", "SUCCESS");
+  }
+
+  /** 此 Session 閒置過久的交易與已被強制回滾的交易，由 Console 定期查詢 */
+  @GetMapping("/api/transactions/idle")
+  @ResponseBody
+  public List<IdleTransactionNotice> idleTransactions(HttpSession session) {
+    return idleTransactionWatchdog.notices(session.getId());
+  }
+
+  /**
+   * 取消自己 Session 中執行中的查詢 (以執行時帶入的 requestId 識別)；非同步工作以工作編號取消，尚在排隊的工作也不再執行
+   */
+  @PostMapping("/api/cancel")
+  @ResponseBody
+  public Map<String, String> cancel(@RequestParam String requestId, HttpSession session) {
+    // 先記錄工作的取消旗標，語句被取消後工作才會結束為 CANCELLED
+    boolean queued = queryJobService.cancel(session, requestId);
+    boolean cancelled = statementRegistry.cancel(session.getId(), requestId);
+    return Map.of("status", queued || cancelled ? "SUCCESS" : "NOT_FOUND");
   }
 
   @PostMapping("/api/approve")
@@ -68,4 +319,45 @@ public class ConsoleController {
       @RequestParam Long dbId, HttpSession session, Authentication auth) {
     return sqlService.getTableSchema(dbId, session, auth);
   }
+
+  /** 資料表名稱；欄位由 /api/schema/columns 依需要取得 (大型 Schema 不必一次傳送所有欄位) */
+  @GetMapping("/api/schema/tables")
+  @ResponseBody
+  public List<String> getSchemaTables(@RequestParam Long dbId, Authentication auth) {
+    return sqlService.getTableNames(dbId, auth);
+  }
+
+  @GetMapping("/api/schema/columns")
+  @ResponseBody
+  public List<String> getSchemaColumns(
+      @RequestParam Long dbId, @RequestParam String table, Authentication auth) {
+    return sqlService.getTableColumns(dbId, table, auth);
+  }
+
+  /** 編輯器自動完成：以輸入中的文字查詢資料表與欄位名稱 */
+  @GetMapping("/api/schema/search")
+  @ResponseBody
+  public SchemaSearchResult searchSchema(
+      @RequestParam Long dbId,
+      @RequestParam String q,
+      @RequestParam(defaultValue = "50") int limit,
+      Authentication auth) {
+    return sqlService.searchSchema(dbId, q, limit, auth);
+  }
+
+  private JobStatus toStatus(QueryJob job, String accept) {
+    SqlResult result = job.getResult();
+    long end = job.isFinished() ? job.getFinishedAt() : System.currentTimeMillis();
+    return new JobStatus(
+        job.getId(),
+        job.getState().name(),
+        job.getSubmittedAt(),
+        end - job.getSubmittedAt(),
+        result == null ? null : negotiate(result, accept));
+  }
+
+  /** 前端在 Accept 要求欄式格式時改回傳 ColumnarResult，否則維持原本的 SqlResult */
+  private Object negotiate(SqlResult result, String accept) {
+    return ColumnarResult.isAccepted(accept) ? ColumnarResult.from(result) : result;
+  }
 }
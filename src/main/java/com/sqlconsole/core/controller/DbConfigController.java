@@ -8,10 +8,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import com.sqlconsole.core.model.dto.CircuitBreakerStatus;
+import com.sqlconsole.core.model.dto.DriverInfo;
 import com.sqlconsole.core.model.entity.DbConfig;
 import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.service.ConnectionCircuitBreaker;
 import com.sqlconsole.core.service.DbConfigService;
+import com.sqlconsole.core.service.DriverRegistry;
 import com.sqlconsole.core.service.EncryptionService;
+import com.sqlconsole.core.service.SchemaCacheService;
+import com.sqlconsole.core.util.SchemaIndex;
 
 @Controller
 @PreAuthorize("hasRole('ADMIN')")
@@ -21,6 +27,12 @@ public class DbConfigController {
 
   @Autowired private EncryptionService encryptionService;
 
+  @Autowired private ConnectionCircuitBreaker connectionCircuitBreaker;
+
+  @Autowired private DriverRegistry driverRegistry;
+
+  @Autowired private SchemaCacheService schemaCacheService;
+
   @GetMapping("/connections")
   public String connectionsPage(Model model) {
     return "connections";
@@ -32,6 +44,20 @@ public class DbConfigController {
     return dbConfigService.getAllConfigs();
   }
 
+  /** 各連線的斷路器狀態 (只列出曾經借用過連線的 DbConfig) */
+  @GetMapping("/api/connections/status")
+  @ResponseBody
+  public List<CircuitBreakerStatus> getConnectionStatus() {
+    return connectionCircuitBreaker.status();
+  }
+
+  /** drivers 目錄下可供 DbConfig 選用的 JDBC Driver */
+  @GetMapping("/api/connections/drivers")
+  @ResponseBody
+  public List<DriverInfo> getDrivers() {
+    return driverRegistry.available();
+  }
+
   @PostMapping("/api/connections")
   @ResponseBody
   public ResponseEntity<?> saveConnection(@RequestBody DbConfig config) {
@@ -61,6 +87,19 @@ public class DbConfigController {
     }
   }
 
+  /** 立即重新載入 Schema 快取 (例如在資料庫外部執行 DDL 後)，所有 Session 共用新的內容 */
+  @PostMapping("/api/connections/{id}/schema/refresh")
+  @ResponseBody
+  public ResponseEntity<?> refreshSchema(@PathVariable Long id) {
+    try {
+      SchemaIndex schema = schemaCacheService.refresh(dbConfigService.getConfigById(id));
+      return ResponseEntity.ok(
+          Map.of("tables", schema.tableCount(), "columns", schema.columnCount()));
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+  }
+
   @PostMapping("/api/connections/test")
   @ResponseBody
   public ResponseEntity<?> testConnection(@RequestBody Map<String, String> payload) {
@@ -69,13 +108,15 @@ public class DbConfigController {
       String jdbcUrl = payload.get("jdbcUrl");
       String dbUser = payload.get("dbUser");
       String dbPassword = payload.get("dbPassword");
+      String driverId = payload.get("driverId");
 
       if (dbTypeStr == null || jdbcUrl == null) {
         return ResponseEntity.badRequest().body(Map.of("message", "Missing parameters"));
       }
 
       DbType dbType = DbType.valueOf(dbTypeStr);
-      String result = dbConfigService.testConnection(dbType, jdbcUrl, dbUser, dbPassword);
+      String result =
+          dbConfigService.testConnection(dbType, driverId, jdbcUrl, dbUser, dbPassword);
 
       if ("SUCCESS".equals(result)) {
         return ResponseEntity.ok(Map.of("status", "SUCCESS", "message", "Connection Successful"));
@@ -0,0 +1,66 @@
+package com.sqlconsole.core.controller;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.sqlconsole.core.model.dto.AdmissionStats;
+import com.sqlconsole.core.model.dto.ConnectionHealth;
+import com.sqlconsole.core.model.dto.ConnectionStats;
+import com.sqlconsole.core.model.dto.PoolStats;
+import com.sqlconsole.core.model.dto.ResultCacheStats;
+import com.sqlconsole.core.model.dto.SchemaCacheStats;
+import com.sqlconsole.core.service.AdmissionControl;
+import com.sqlconsole.core.service.ConnectionHealthService;
+import com.sqlconsole.core.service.ConnectionPoolManager;
+import com.sqlconsole.core.service.ConnectionTracker;
+import com.sqlconsole.core.service.ResultCache;
+import com.sqlconsole.core.service.SchemaCacheService;
+
+/** 執行期的監控數據 (管理者) */
+@RestController
+@PreAuthorize("hasRole('ADMIN')")
+public class MonitorController {
+
+  @Autowired private ResultCache resultCache;
+  @Autowired private ConnectionPoolManager connectionPoolManager;
+  @Autowired private ConnectionTracker connectionTracker;
+  @Autowired private ConnectionHealthService connectionHealthService;
+  @Autowired private AdmissionControl admissionControl;
+  @Autowired private SchemaCacheService schemaCacheService;
+
+  @GetMapping("/api/monitor/result-cache")
+  public ResultCacheStats resultCache() {
+    return resultCache.stats();
+  }
+
+  @GetMapping("/api/monitor/pools")
+  public List<PoolStats> pools() {
+    return connectionPoolManager.stats();
+  }
+
+  /** Session 固定使用中的連線 (擁有者、存在時間、交易狀態) 與洩漏回收次數 */
+  @GetMapping("/api/monitor/connections")
+  public ConnectionStats connections() {
+    return connectionTracker.stats();
+  }
+
+  /** 背景探測的結果與取得連線、探測查詢的延遲分布 */
+  @GetMapping("/api/monitor/health")
+  public List<ConnectionHealth> health() {
+    return connectionHealthService.health();
+  }
+
+  /** 各資料庫執行中與排隊中的語句數 (依使用者)、拒絕次數與排隊等待時間 */
+  @GetMapping("/api/monitor/admission")
+  public List<AdmissionStats> admission() {
+    return admissionControl.stats();
+  }
+
+  /** 各資料庫 Schema 快取的大小、載入時間、是否過期與命中/載入/等待次數 */
+  @GetMapping("/api/monitor/schema-cache")
+  public List<SchemaCacheStats> schemaCache() {
+    return schemaCacheService.stats();
+  }
+}
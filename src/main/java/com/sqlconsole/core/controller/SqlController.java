@@ -37,8 +37,11 @@ public class SqlController {
 
         // Get Connection (reusing session logic)
         Connection conn = dbSessionService.getConnection(session, config);
-
-        // Execute Analyze
-        return sqlExecutorService.getExplainPlan(conn, config, request.sql());
+        try {
+            // Execute Analyze
+            return sqlExecutorService.getExplainPlan(conn, config, request.sql());
+        } finally {
+            dbSessionService.release(session, config.getId(), conn);
+        }
     }
 }
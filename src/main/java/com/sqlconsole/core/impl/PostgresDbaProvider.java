@@ -5,6 +5,9 @@
  */
 package com.sqlconsole.core.impl;
 
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.model.metadata.TableMetadata;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import report.DbaProvider;
@@ -13,15 +16,29 @@ import report.DbaReport;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Component
 public class PostgresDbaProvider implements DbaProvider {
 
+    /** 計畫中的循序掃描，例如 {@code Parallel Seq Scan on public.orders o} */
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\S+)");
+
     @Override
     public DbaReport getExecutionPlan(Connection connection, String sql) {
+        return getExecutionPlan(connection, sql, null);
+    }
+
+    @Override
+    public DbaReport getExecutionPlan(Connection connection, String sql, SchemaMetadata metadata) {
         StringBuilder plan = new StringBuilder();
         // OpenSource 僅限使用 EXPLAIN ANALYZE (PG 語法)
         String explainSql = "EXPLAIN (ANALYZE, BUFFERS, FORMAT TEXT) " + sql;
@@ -33,9 +50,12 @@ public class PostgresDbaProvider implements DbaProvider {
                 plan.append(rs.getString(1)).append("\n");
             }
 
+            List<String> suggestions = new ArrayList<>();
+            suggestions.add("基礎建議：請檢查是否漏掉 Index ");
+            suggestions.addAll(indexSuggestions(plan.toString(), metadata));
             return new DbaReport(
                     plan.toString(),
-                    List.of("基礎建議：請檢查是否漏掉 Index "),
+                    suggestions,
                     0 // 暫不實作耗時解析
             );
         } catch (Exception e) {
@@ -44,6 +64,36 @@ public class PostgresDbaProvider implements DbaProvider {
         }
     }
 
+    /**
+     * 依快取的 Catalog 為循序掃描的資料表提供建議：沒有任何索引，或外鍵欄位沒有索引 (JOIN 時常見的循序掃描原因)
+     */
+    static List<String> indexSuggestions(String plan, SchemaMetadata metadata) {
+        if (metadata == null) {
+            return List.of();
+        }
+        Set<String> suggestions = new LinkedHashSet<>();
+        Matcher m = SEQ_SCAN.matcher(plan);
+        while (m.find()) {
+            Optional<TableMetadata> table = metadata.table(m.group(1));
+            if (table.isEmpty() || !"TABLE".equals(table.get().type())) {
+                continue;
+            }
+            TableMetadata t = table.get();
+            if (t.indexes().isEmpty()) {
+                suggestions.add("資料表 " + t.name() + " 沒有任何索引，Seq Scan 會讀取整個資料表");
+                continue;
+            }
+            for (ForeignKeyMetadata fk : t.foreignKeys()) {
+                if (!t.hasIndexOn(fk.columns().get(0))) {
+                    suggestions.add("資料表 " + t.name() + " 的外鍵欄位 "
+                            + String.join(", ", fk.columns()) + " 沒有索引 (參照 "
+                            + fk.referencedTable() + ")，JOIN 時可能造成 Seq Scan");
+                }
+            }
+        }
+        return List.copyOf(suggestions);
+    }
+
     @Override
     public List<Map<String, Object>> getLiveDiagnostics(Connection connection) {
         // OS 版本僅提供 pg_stat_activity 的基礎計數
@@ -0,0 +1,98 @@
+package com.sqlconsole.core.model.columnar;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.sql.Types;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 單一欄位的欄式 (column-major) 儲存。
+ *
+ * <p>數值與日期欄位使用原生型別陣列 (long[] / double[])，避免每個 cell 都是一個 boxed 物件； null 另以 BitSet 記錄。
+ * 序列化為 JSON 時輸出 {@code {"type": ..., "values": [...], "nulls": [...]}}。
+ */
+public abstract class ColumnVector {
+
+  protected static final int INITIAL_CAPACITY = 64;
+
+  protected final BitSet nulls = new BitSet();
+  protected int size;
+
+  /** 依 JDBC 型別選擇最精簡的儲存方式 */
+  public static ColumnVector forJdbcType(int jdbcType, int precision, int scale) {
+    return switch (jdbcType) {
+      case Types.BIGINT -> new LongVector(false);
+      case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> new LongVector(true);
+      case Types.NUMERIC, Types.DECIMAL ->
+          // 無小數且位數可放進 long 的 NUMBER (例如 Oracle NUMBER(10))
+          scale == 0 && precision > 0 && precision <= 18
+              ? new LongVector(false)
+              : new ObjectVector();
+      case Types.DOUBLE, Types.FLOAT -> new DoubleVector();
+      case Types.REAL -> new FloatVector();
+      case Types.DATE, Types.TIME, Types.TIMESTAMP -> new TimestampVector(jdbcType);
+      case Types.CHAR, Types.VARCHAR, Types.NCHAR, Types.NVARCHAR -> new StringVector();
+      default -> new ObjectVector();
+    };
+  }
+
+  /**
+   * 以 JDBC 回傳的物件新增一筆值。
+   *
+   * @throws IllegalArgumentException 值無法轉成此欄位的原生型別 (由呼叫端改用 {@link ObjectVector})
+   */
+  public abstract void add(Object value);
+
+  public abstract Object get(int row);
+
+  /** 型別標籤，供前端解碼 (long, double, float, date, time, timestamp, string, object) */
+  public abstract String type();
+
+  /** JSON 中的 values 欄位內容 */
+  protected abstract Object wireValues();
+
+  /** 估算佔用的 heap 大小 (bytes)，用於量測與快取計算 */
+  public abstract long estimatedBytes();
+
+  public void addNull() {
+    nulls.set(size);
+    grow();
+    size++;
+  }
+
+  public boolean isNull(int row) {
+    return nulls.get(row);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** 轉換成通用的 ObjectVector，用於遇到非預期型別的值時退回 */
+  public ObjectVector toObjectVector() {
+    ObjectVector vector = new ObjectVector();
+    for (int i = 0; i < size; i++) {
+      vector.add(get(i));
+    }
+    return vector;
+  }
+
+  /** 確保底層陣列可再容納一筆 */
+  protected abstract void grow();
+
+  protected static int newCapacity(int current) {
+    return Math.max(INITIAL_CAPACITY, current + (current >> 1));
+  }
+
+  @JsonValue
+  public Map<String, Object> toWire() {
+    Map<String, Object> wire = new LinkedHashMap<>();
+    wire.put("type", type());
+    wire.put("values", wireValues());
+    if (!nulls.isEmpty()) {
+      wire.put("nulls", nulls.stream().toArray());
+    }
+    return wire;
+  }
+}
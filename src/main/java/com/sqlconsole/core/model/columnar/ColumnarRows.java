@@ -0,0 +1,191 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 以欄式儲存的查詢結果，對外仍呈現為 {@code List<Map<String, Object>>}。
+ *
+ * <p>每一列是建立在欄位向量上的唯讀 Map 檢視，不會為每列複製欄位名稱與 boxed 值。 沿用 SqlResult.rows 的既有程式 (含 JSON
+ * 序列化) 不需修改，需要精簡格式時再直接取用 {@link #vectors()}。
+ */
+public class ColumnarRows extends AbstractList<Map<String, Object>> {
+
+  private final List<String> columns;
+  private final List<ColumnVector> vectors;
+  private final Map<String, Integer> indexOf;
+  private final int rowCount;
+
+  private ColumnarRows(List<String> columns, List<ColumnVector> vectors, int rowCount) {
+    this.columns = columns;
+    this.vectors = vectors;
+    this.rowCount = rowCount;
+    this.indexOf = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      indexOf.put(columns.get(i), i); // 重複欄名時以最後一個為準，與 LinkedHashMap.put 相同
+    }
+  }
+
+  public List<String> columns() {
+    return columns;
+  }
+
+  public List<ColumnVector> vectors() {
+    return vectors;
+  }
+
+  public long estimatedBytes() {
+    return vectors.stream().mapToLong(ColumnVector::estimatedBytes).sum();
+  }
+
+  @Override
+  public Map<String, Object> get(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException(row);
+    }
+    return new RowView(row);
+  }
+
+  @Override
+  public int size() {
+    return rowCount;
+  }
+
+  /** 以已填好的欄位向量建立 (例如由 RowDecoder 解碼的一頁) */
+  public static ColumnarRows of(List<String> columns, List<ColumnVector> vectors, int rowCount) {
+    return new ColumnarRows(columns, vectors, rowCount);
+  }
+
+  /** 依 ResultSetMetaData 為每個欄位選擇儲存型別 (以 getObject 讀值) */
+  public static Builder builder(ResultSetMetaData meta) throws SQLException {
+    int colCount = meta.getColumnCount();
+    List<String> columns = new ArrayList<>(colCount);
+    List<ColumnVector> vectors = new ArrayList<>(colCount);
+    for (int i = 1; i <= colCount; i++) {
+      columns.add(meta.getColumnLabel(i));
+      vectors.add(
+          ColumnVector.forJdbcType(meta.getColumnType(i), meta.getPrecision(i), meta.getScale(i)));
+    }
+    return new Builder(columns, vectors);
+  }
+
+  /** 不知道 JDBC 型別時 (例如由既有的 Map 結果轉換)，全部以 ObjectVector 保存 */
+  public static Builder builder(List<String> columns) {
+    List<ColumnVector> vectors = new ArrayList<>(columns.size());
+    for (int i = 0; i < columns.size(); i++) {
+      vectors.add(new ObjectVector());
+    }
+    return new Builder(List.copyOf(columns), vectors);
+  }
+
+  /** 逐列建立 ColumnarRows */
+  public static class Builder {
+    private final List<String> columns;
+    private final List<ColumnVector> vectors;
+    private int rowCount;
+
+    private Builder(List<String> columns, List<ColumnVector> vectors) {
+      this.columns = columns;
+      this.vectors = vectors;
+    }
+
+    public Builder addRow(ResultSet rs) throws SQLException {
+      for (int i = 0; i < vectors.size(); i++) {
+        add(i, rs.getObject(i + 1));
+      }
+      rowCount++;
+      return this;
+    }
+
+    public Builder addRow(Object... values) {
+      for (int i = 0; i < vectors.size(); i++) {
+        add(i, values[i]);
+      }
+      rowCount++;
+      return this;
+    }
+
+    private void add(int col, Object value) {
+      ColumnVector vector = vectors.get(col);
+      try {
+        vector.add(value);
+      } catch (IllegalArgumentException e) {
+        // Driver 回傳了非預期的型別，此欄改以 ObjectVector 保存
+        ObjectVector fallback = vector.toObjectVector();
+        fallback.add(value);
+        vectors.set(col, fallback);
+      }
+    }
+
+    public ColumnarRows build() {
+      return new ColumnarRows(columns, vectors, rowCount);
+    }
+  }
+
+  /** 單列的唯讀 Map 檢視 */
+  private final class RowView extends AbstractMap<String, Object> {
+    private final int row;
+
+    private RowView(int row) {
+      this.row = row;
+    }
+
+    @Override
+    public Object get(Object key) {
+      Integer col = indexOf.get(key);
+      return col == null ? null : vectors.get(col).get(row);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexOf.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return columns.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          return new Iterator<>() {
+            private int col;
+
+            @Override
+            public boolean hasNext() {
+              return col < columns.size();
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              int c = col++;
+              return new SimpleImmutableEntry<>(columns.get(c), vectors.get(c).get(row));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return columns.size();
+        }
+      };
+    }
+  }
+}
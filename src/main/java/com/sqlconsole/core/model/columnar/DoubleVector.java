@@ -0,0 +1,52 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.util.Arrays;
+
+/** 浮點數欄位，值存於 double[] */
+public class DoubleVector extends ColumnVector {
+
+  private double[] values = new double[0];
+
+  public void addDouble(double value) {
+    grow();
+    values[size++] = value;
+  }
+
+  @Override
+  public void add(Object value) {
+    if (value == null) {
+      addNull();
+    } else if (value instanceof Number n) {
+      addDouble(n.doubleValue());
+    } else {
+      throw new IllegalArgumentException("Not a number: " + value.getClass().getName());
+    }
+  }
+
+  @Override
+  public Object get(int row) {
+    return isNull(row) ? null : Double.valueOf(values[row]);
+  }
+
+  @Override
+  public String type() {
+    return "double";
+  }
+
+  @Override
+  protected Object wireValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public long estimatedBytes() {
+    return 16L + 8L * values.length + nulls.size() / 8;
+  }
+
+  @Override
+  protected void grow() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+  }
+}
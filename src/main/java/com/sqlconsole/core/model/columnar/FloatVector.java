@@ -0,0 +1,55 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.util.Arrays;
+
+/**
+ * 單精度浮點數欄位 (REAL、Oracle BINARY_FLOAT)，值存於 float[]。 不轉成 double，序列化時以 {@link Float#toString}
+ * 的最短表示輸出 (1.1 而非 1.100000023841858)。
+ */
+public class FloatVector extends ColumnVector {
+
+  private float[] values = new float[0];
+
+  public void addFloat(float value) {
+    grow();
+    values[size++] = value;
+  }
+
+  @Override
+  public void add(Object value) {
+    if (value == null) {
+      addNull();
+    } else if (value instanceof Number n) {
+      addFloat(n.floatValue());
+    } else {
+      throw new IllegalArgumentException("Not a number: " + value.getClass().getName());
+    }
+  }
+
+  @Override
+  public Object get(int row) {
+    return isNull(row) ? null : Float.valueOf(values[row]);
+  }
+
+  @Override
+  public String type() {
+    return "float";
+  }
+
+  @Override
+  protected Object wireValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public long estimatedBytes() {
+    return 16L + 4L * values.length + nulls.size() / 8;
+  }
+
+  @Override
+  protected void grow() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.util.Arrays;
+
+/** 整數欄位，值存於 long[] */
+public class LongVector extends ColumnVector {
+
+  private final boolean intValues;
+  private long[] values = new long[0];
+
+  /** @param intValues 讀取時回傳 Integer (INTEGER/SMALLINT)，否則回傳 Long */
+  public LongVector(boolean intValues) {
+    this.intValues = intValues;
+  }
+
+  public void addLong(long value) {
+    grow();
+    values[size++] = value;
+  }
+
+  @Override
+  public void add(Object value) {
+    if (value == null) {
+      addNull();
+    } else if (value instanceof Number n) {
+      addLong(n.longValue());
+    } else {
+      throw new IllegalArgumentException("Not a number: " + value.getClass().getName());
+    }
+  }
+
+  public long getLong(int row) {
+    return values[row];
+  }
+
+  @Override
+  public Object get(int row) {
+    if (isNull(row)) {
+      return null;
+    }
+    return intValues ? Integer.valueOf((int) values[row]) : Long.valueOf(values[row]);
+  }
+
+  @Override
+  public String type() {
+    return "long";
+  }
+
+  @Override
+  protected Object wireValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public long estimatedBytes() {
+    return 16L + 8L * values.length + nulls.size() / 8;
+  }
+
+  @Override
+  protected void grow() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.util.Arrays;
+
+/** 沒有專用儲存方式的欄位 (BigDecimal、LOB、Driver 專屬型別等)，直接保存 JDBC 回傳的物件 */
+public class ObjectVector extends ColumnVector {
+
+  private Object[] values = new Object[0];
+
+  @Override
+  public void add(Object value) {
+    if (value == null) {
+      addNull();
+      return;
+    }
+    grow();
+    values[size++] = value;
+  }
+
+  @Override
+  public Object get(int row) {
+    return values[row];
+  }
+
+  @Override
+  public String type() {
+    return "object";
+  }
+
+  @Override
+  protected Object wireValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public long estimatedBytes() {
+    // 無法得知物件實際大小，以每筆 32 bytes 粗估
+    return 16L + 8L * values.length + 32L * size;
+  }
+
+  @Override
+  protected void grow() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+  }
+}
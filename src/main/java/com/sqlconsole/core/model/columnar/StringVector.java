@@ -0,0 +1,137 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字串欄位，預設使用字典編碼：相同字串只保存一份，每列只存 int 代碼。
+ *
+ * <p>相異值超過 {@link #MAX_DICTIONARY_SIZE} 時視為高基數欄位，改為直接保存字串陣列。
+ */
+public class StringVector extends ColumnVector {
+
+  static final int MAX_DICTIONARY_SIZE = 4096;
+
+  private List<String> dictionary = new ArrayList<>();
+  private Map<String, Integer> codeOf = new HashMap<>();
+  private int[] codes = new int[0];
+
+  /** 非字典模式時使用 */
+  private String[] plain;
+
+  public void addString(String value) {
+    if (value == null) {
+      addNull();
+      return;
+    }
+    if (plain == null) {
+      Integer code = codeOf.get(value);
+      if (code == null && dictionary.size() >= MAX_DICTIONARY_SIZE) {
+        switchToPlain();
+      } else {
+        if (code == null) {
+          code = dictionary.size();
+          dictionary.add(value);
+          codeOf.put(value, code);
+        }
+        grow();
+        codes[size++] = code;
+        return;
+      }
+    }
+    grow();
+    plain[size++] = value;
+  }
+
+  @Override
+  public void add(Object value) {
+    addString(value == null ? null : value.toString());
+  }
+
+  @Override
+  public Object get(int row) {
+    if (isNull(row)) {
+      return null;
+    }
+    return plain != null ? plain[row] : dictionary.get(codes[row]);
+  }
+
+  public boolean isDictionaryEncoded() {
+    return plain == null;
+  }
+
+  @Override
+  public String type() {
+    return "string";
+  }
+
+  /** 相異值不到筆數一半時，傳輸字典代碼才划算 */
+  private boolean wireAsDictionary() {
+    return plain == null && dictionary.size() * 2 <= size;
+  }
+
+  @Override
+  protected Object wireValues() {
+    if (wireAsDictionary()) {
+      return Arrays.copyOf(codes, size);
+    }
+    String[] values = new String[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = (String) get(i);
+    }
+    return values;
+  }
+
+  @Override
+  public Map<String, Object> toWire() {
+    Map<String, Object> wire = super.toWire();
+    if (wireAsDictionary()) {
+      // values 為字典代碼，前端以 dict[code] 還原
+      wire.put("dict", dictionary);
+    }
+    return wire;
+  }
+
+  @Override
+  public long estimatedBytes() {
+    long bytes = 16L + nulls.size() / 8;
+    if (plain != null) {
+      bytes += 8L * plain.length;
+      for (int i = 0; i < size; i++) {
+        bytes += plain[i] == null ? 0 : 40L + 2L * plain[i].length();
+      }
+    } else {
+      bytes += 4L * codes.length;
+      for (String s : dictionary) {
+        bytes += 40L + 2L * s.length() + 48L; // 字串本身 + HashMap entry
+      }
+    }
+    return bytes;
+  }
+
+  @Override
+  protected void grow() {
+    if (plain != null) {
+      if (size == plain.length) {
+        plain = Arrays.copyOf(plain, newCapacity(plain.length));
+      }
+    } else if (size == codes.length) {
+      codes = Arrays.copyOf(codes, newCapacity(codes.length));
+    }
+  }
+
+  private void switchToPlain() {
+    plain = new String[Math.max(codes.length, INITIAL_CAPACITY)];
+    for (int i = 0; i < size; i++) {
+      if (!isNull(i)) {
+        plain[i] = dictionary.get(codes[i]);
+      }
+    }
+    codes = new int[0];
+    dictionary = List.of();
+    codeOf = Map.of();
+  }
+}
@@ -0,0 +1,140 @@
+package com.sqlconsole.core.model.columnar;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * 日期/時間欄位，以 epoch 毫秒存於 long[]。
+ *
+ * <p>毫秒以下的部分 (例如 PostgreSQL timestamp(6)、Oracle TIMESTAMP(9)) 另存於 int[] nanos，只在出現非 0 的值時配置；
+ * 傳輸時以 {@code nanos} 欄位附上。
+ *
+ * <p>DATE 與 TIME 沒有時區，傳輸時以伺服器時區的 {@code yyyy-mm-dd} / {@code hh:mm:ss} 字串表示 (與 getObject 結果的
+ * JSON 相同)，型別為 {@code date} / {@code time}；前端不做 UTC 轉換。
+ */
+public class TimestampVector extends ColumnVector {
+
+  private final int jdbcType;
+  private long[] millis = new long[0];
+
+  /** 毫秒以下的奈秒數 (0–999999)，全部為 0 時為 null */
+  private int[] nanos;
+
+  /** @param jdbcType {@link Types#DATE}、{@link Types#TIME} 或 {@link Types#TIMESTAMP} */
+  public TimestampVector(int jdbcType) {
+    this.jdbcType = jdbcType;
+  }
+
+  public void addMillis(long epochMillis) {
+    addMillis(epochMillis, 0);
+  }
+
+  /** 保留 {@link Timestamp#getNanos()} 的完整精度 */
+  public void addTimestamp(Timestamp ts) {
+    addMillis(ts.getTime(), ts.getNanos() % 1_000_000);
+  }
+
+  private void addMillis(long epochMillis, int subMillisNanos) {
+    grow();
+    if (subMillisNanos != 0) {
+      if (nanos == null) {
+        nanos = new int[millis.length];
+      }
+      nanos[size] = subMillisNanos;
+    }
+    millis[size++] = epochMillis;
+  }
+
+  @Override
+  public void add(Object value) {
+    if (value == null) {
+      addNull();
+    } else if (value instanceof Timestamp ts) {
+      addTimestamp(ts);
+    } else if (value instanceof Date d) {
+      addMillis(d.getTime());
+    } else if (value instanceof LocalDateTime ldt) {
+      addTimestamp(Timestamp.valueOf(ldt));
+    } else if (value instanceof LocalDate ld) {
+      addMillis(java.sql.Date.valueOf(ld).getTime());
+    } else if (value instanceof OffsetDateTime odt) {
+      addTimestamp(Timestamp.from(odt.toInstant()));
+    } else {
+      throw new IllegalArgumentException("Not a date: " + value.getClass().getName());
+    }
+  }
+
+  @Override
+  public Object get(int row) {
+    if (isNull(row)) {
+      return null;
+    }
+    return switch (jdbcType) {
+      case Types.DATE -> new java.sql.Date(millis[row]);
+      case Types.TIME -> new Time(millis[row]);
+      default -> timestamp(row);
+    };
+  }
+
+  private Timestamp timestamp(int row) {
+    Timestamp ts = new Timestamp(millis[row]);
+    if (nanos != null && nanos[row] != 0) {
+      ts.setNanos(ts.getNanos() + nanos[row]);
+    }
+    return ts;
+  }
+
+  @Override
+  public String type() {
+    return switch (jdbcType) {
+      case Types.DATE -> "date";
+      case Types.TIME -> "time";
+      default -> "timestamp";
+    };
+  }
+
+  @Override
+  protected Object wireValues() {
+    if (jdbcType != Types.DATE && jdbcType != Types.TIME) {
+      return Arrays.copyOf(millis, size);
+    }
+    String[] values = new String[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = isNull(i) ? null : get(i).toString();
+    }
+    return values;
+  }
+
+  @Override
+  public Map<String, Object> toWire() {
+    Map<String, Object> wire = super.toWire();
+    if (nanos != null) {
+      // values 為毫秒，前端以 values[i] 加上 nanos[i] 奈秒還原
+      wire.put("nanos", Arrays.copyOf(nanos, size));
+    }
+    return wire;
+  }
+
+  @Override
+  public long estimatedBytes() {
+    long bytes = 16L + 8L * millis.length + nulls.size() / 8;
+    return nanos == null ? bytes : bytes + 4L * nanos.length;
+  }
+
+  @Override
+  protected void grow() {
+    if (size == millis.length) {
+      millis = Arrays.copyOf(millis, newCapacity(millis.length));
+      if (nanos != null) {
+        nanos = Arrays.copyOf(nanos, millis.length);
+      }
+    }
+  }
+}
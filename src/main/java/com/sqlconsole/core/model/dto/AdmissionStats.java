@@ -0,0 +1,15 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.Map;
+
+/** 單一 DbConfig 的語句並行限制與排隊狀態 (等待時間等為自啟動後累計)。 */
+public record AdmissionStats(
+    Long dbId,
+    int limit, // 同時執行的語句數上限
+    int running,
+    int queued,
+    Map<String, Integer> queuedByUser,
+    long admitted, // 取得執行許可的次數 (含排隊後取得)
+    long rejected, // 佇列已滿而拒絕的次數
+    long timedOut, // 排隊逾時的次數
+    LatencyStats queueWait) {} // 排隊後取得許可的等待時間
@@ -0,0 +1,9 @@
+package com.sqlconsole.core.model.dto;
+
+/** 單一 DbConfig 的連線斷路器狀態。 */
+public record CircuitBreakerStatus(
+    Long dbId,
+    String state, // CLOSED / OPEN / HALF_OPEN
+    int consecutiveFailures,
+    long retryInSeconds, // OPEN 時距離下一次試探連線的秒數
+    String lastError) {}
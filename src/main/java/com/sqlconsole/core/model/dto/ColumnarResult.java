@@ -0,0 +1,59 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+import java.util.Map;
+import com.sqlconsole.core.model.columnar.ColumnVector;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+
+/**
+ * SqlResult 的欄式傳輸格式：欄位名稱只出現一次，資料以每欄一個陣列傳送。
+ *
+ * <p>前端在 Accept header 帶 {@link #MEDIA_TYPE} 時使用。
+ */
+public record ColumnarResult(
+    String status,
+    String txStatus,
+    String message,
+    List<String> columns,
+    int rowCount,
+    List<ColumnVector> data,
+    String cursorId,
+    boolean hasMore,
+    String node) {
+
+  public static final String MEDIA_TYPE = "application/vnd.sqlconsole.columnar+json";
+
+  public static ColumnarResult from(SqlResult result) {
+    List<Map<String, Object>> rows = result.rows();
+    List<ColumnVector> data = null;
+    int rowCount = 0;
+
+    if (rows instanceof ColumnarRows columnar) {
+      data = columnar.vectors();
+      rowCount = columnar.size();
+    } else if (rows != null && result.columns() != null) {
+      // 一般 Map 結果 (例如審核工單的回傳) 逐列轉換
+      ColumnarRows.Builder builder = ColumnarRows.builder(result.columns());
+      for (Map<String, Object> row : rows) {
+        builder.addRow(result.columns().stream().map(row::get).toArray());
+      }
+      data = builder.build().vectors();
+      rowCount = rows.size();
+    }
+
+    return new ColumnarResult(
+        result.status(),
+        result.txStatus(),
+        result.message(),
+        result.columns(),
+        rowCount,
+        data,
+        result.cursorId(),
+        result.hasMore(),
+        result.node());
+  }
+
+  public static boolean isAccepted(String acceptHeader) {
+    return acceptHeader != null && acceptHeader.contains(MEDIA_TYPE);
+  }
+}
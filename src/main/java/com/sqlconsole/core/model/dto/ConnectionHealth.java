@@ -0,0 +1,14 @@
+package com.sqlconsole.core.model.dto;
+
+import java.time.Instant;
+
+/** 背景探測得到的單一 DbConfig 健康狀態。 */
+public record ConnectionHealth(
+    Long dbId,
+    String name,
+    String status, // UNKNOWN (尚未探測) / UP / DEGRADED (回應緩慢) / DOWN (探測失敗)
+    Instant lastProbeAt,
+    String lastError,
+    int consecutiveFailures,
+    LatencyStats connect, // 取得連線的時間 (連線池沒有閒置連線時含建立連線與登入)
+    LatencyStats roundTrip) {} // 探測查詢的往返時間
@@ -0,0 +1,23 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+
+/** Session 借用中的連線與回收統計 (次數為自啟動後累計)。 */
+public record ConnectionStats(
+    int open, // 目前由 Session 固定使用的連線
+    int inTransaction, // 其中有未 Commit 寫入的連線
+    long returned, // 正常歸還連線池的次數
+    long closedOnSessionEnd, // Session 失效時回滾並關閉的連線
+    long leaked, // 排程發現擁有者已不存在而回收的連線
+    long idleRolledBack, // 交易閒置超過上限而強制回滾的連線
+    List<ConnectionInfo> connections) {
+
+  public record ConnectionInfo(
+      Long dbId,
+      String owner,
+      String session, // Session ID 前 8 碼
+      long ageSeconds,
+      long idleSeconds,
+      int leases,
+      boolean inTransaction) {}
+}
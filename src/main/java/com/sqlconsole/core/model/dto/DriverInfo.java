@@ -0,0 +1,11 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+
+/** drivers 目錄下的一個 JDBC Driver (DbConfig.driverId 為 {@code name/version})。 */
+public record DriverInfo(
+    String id,
+    String name,
+    String version,
+    List<String> jars,
+    boolean loaded) {} // 已有連線使用而載入
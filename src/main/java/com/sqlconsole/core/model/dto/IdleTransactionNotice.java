@@ -0,0 +1,10 @@
+package com.sqlconsole.core.model.dto;
+
+/** Session 在某個 DB 上閒置中或已被強制回滾的交易，顯示於 Console。 */
+public record IdleTransactionNotice(
+    Long dbId,
+    String dbName,
+    String status, // IDLE (超過警告門檻) / ROLLED_BACK (超過上限已回滾)
+    long idleSeconds,
+    long rollbackInSeconds, // IDLE 時距離強制回滾的秒數，未設定上限時為 -1
+    String message) {}
@@ -0,0 +1,41 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+
+/** CSV/TSV 匯入的結果與吞吐量。 */
+public record ImportReport(
+    String status, // SUCCESS, ERROR (中止), PENDING (待審核)
+    String txStatus, // COMMITTED, UNCOMMIT
+    String message,
+    String mode, // COPY (PostgreSQL COPY FROM STDIN), BATCH (PreparedStatement batch)
+    long rowsRead,
+    long rowsImported,
+    long rowsRejected,
+    long elapsedMs,
+    long rowsPerSecond,
+    List<RejectedRow> rejected) { // 只列出前幾筆，總數見 rowsRejected
+
+  /**
+   * @param line 紀錄在檔案中的起始行號 (1-based)
+   */
+  public record RejectedRow(int line, String reason) {}
+
+  public static ImportReport of(String status, String txStatus, String message) {
+    return new ImportReport(status, txStatus, message, null, 0, 0, 0, 0, 0, List.of());
+  }
+
+  /** 保留統計內容，只替換交易狀態與訊息 */
+  public ImportReport withTxStatus(String newTxStatus, String newMessage) {
+    return new ImportReport(
+        status,
+        newTxStatus,
+        newMessage,
+        mode,
+        rowsRead,
+        rowsImported,
+        rowsRejected,
+        elapsedMs,
+        rowsPerSecond,
+        rejected);
+  }
+}
@@ -0,0 +1,9 @@
+package com.sqlconsole.core.model.dto;
+
+/**
+ * 非同步 SQL 工作的狀態。
+ *
+ * @param result 工作完成後的結果 (SqlResult 或 ColumnarResult)，執行中為 null
+ */
+public record JobStatus(
+    String jobId, String state, long submittedAt, long elapsedMs, Object result) {}
@@ -0,0 +1,5 @@
+package com.sqlconsole.core.model.dto;
+
+/** 延遲分布的摘要 (毫秒)；百分位數為所在區間的上限，不超過 max。 */
+public record LatencyStats(
+    long count, double meanMs, long p50Ms, long p95Ms, long p99Ms, long maxMs) {}
@@ -0,0 +1,11 @@
+package com.sqlconsole.core.model.dto;
+
+/** 單一 DbConfig 連線池的即時狀態。 */
+public record PoolStats(
+    Long dbId,
+    String poolName,
+    int active, // 借出中 (含 Session 固定使用的連線)
+    int idle,
+    int total,
+    int waiting, // 等待借用連線的 Thread 數
+    int maxSize) {}
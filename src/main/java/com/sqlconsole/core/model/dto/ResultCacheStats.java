@@ -0,0 +1,14 @@
+package com.sqlconsole.core.model.dto;
+
+/** 查詢結果快取的統計 (自啟動後累計)。 */
+public record ResultCacheStats(
+    long hits,
+    long misses,
+    double hitRate, // hits / (hits + misses)，尚無查詢時為 0
+    long puts,
+    long evictions, // 因容量不足被移除
+    long expirations, // 因 TTL 到期被移除
+    long invalidations, // 因 DML/DDL 被清除的筆數
+    int entries,
+    long bytes,
+    long maxBytes) {}
@@ -0,0 +1,19 @@
+package com.sqlconsole.core.model.dto;
+
+import java.time.Instant;
+
+/** 單一 DbConfig 的 Schema 快取狀態 (次數為自啟動後累計)。 */
+public record SchemaCacheStats(
+    Long dbId,
+    int tables,
+    int columns,
+    int names, // 名稱索引中不重複的資料表與欄位名稱
+    Instant loadedAt, // 尚未載入時為 null
+    long lastLoadMs, // 最近一次讀取 Catalog 的耗時
+    boolean stale, // 已過期或已標記需重新載入
+    boolean loading,
+    boolean restored, // 內容由重新啟動前的 Snapshot 還原，尚未與 Catalog 比對
+    long hits, // 由快取回應 (含過期後背景重新載入期間)
+    long loads, // 讀取 Catalog 的次數
+    long waits, // 等待其他請求正在進行的載入 (未另外讀取 Catalog)
+    String lastError) {}
@@ -0,0 +1,9 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+
+/** Schema 名稱查詢的一筆結果。 */
+public record SchemaMatch(
+    String name,
+    String type, // TABLE 或 COLUMN
+    List<String> tables) {} // 欄位所屬的資料表 (最多列出 3 個)，資料表時為空
@@ -0,0 +1,6 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+
+/** Schema 名稱查詢的結果；complete 為 true 時已列出所有符合的名稱 (前端可在本地繼續篩選)。 */
+public record SchemaSearchResult(List<SchemaMatch> matches, boolean complete) {}
@@ -0,0 +1,11 @@
+package com.sqlconsole.core.model.dto;
+
+import java.util.List;
+
+/** 多語句腳本的執行結果，逐句列出狀態。 */
+public record ScriptResult(
+    String status, // SUCCESS, ERROR (任一語句失敗)
+    String txStatus, // COMMITTED, UNCOMMIT
+    String message,
+    long elapsedMs,
+    List<StatementResult> statements) {}
@@ -8,4 +8,37 @@ public record SqlResult(
     String txStatus, // COMMITTED, UNCOMMIT
     String message,
     List<String> columns,
-    List<Map<String, Object>> rows) {}
+    List<Map<String, Object>> rows,
+    String cursorId, // 結果尚未讀完時，用於 /api/cursor/next 取下一頁
+    boolean hasMore,
+    String node) { // 執行查詢的節點 (primary / replica-N)，未知時為 null
+
+  public SqlResult(
+      String status,
+      String txStatus,
+      String message,
+      List<String> columns,
+      List<Map<String, Object>> rows,
+      String cursorId,
+      boolean hasMore) {
+    this(status, txStatus, message, columns, rows, cursorId, hasMore, null);
+  }
+
+  public SqlResult(
+      String status,
+      String txStatus,
+      String message,
+      List<String> columns,
+      List<Map<String, Object>> rows) {
+    this(status, txStatus, message, columns, rows, null, false);
+  }
+
+  /** 保留結果內容與 cursor 資訊，只替換交易狀態與訊息 */
+  public SqlResult withTxStatus(String newTxStatus, String newMessage) {
+    return new SqlResult(status, newTxStatus, newMessage, columns, rows, cursorId, hasMore, node);
+  }
+
+  public SqlResult withNode(String newNode) {
+    return new SqlResult(status, txStatus, message, columns, rows, cursorId, hasMore, newNode);
+  }
+}
@@ -0,0 +1,21 @@
+package com.sqlconsole.core.model.dto;
+
+/** 腳本中單一語句的執行結果。 */
+public record StatementResult(
+    int index, // 語句在腳本中的序號 (0-based)
+    int line, // 起始行號
+    String sql, // 語句內容 (過長時截斷)
+    String status, // SUCCESS, ERROR, PENDING, SKIPPED
+    long updateCount, // 影響筆數；查詢或無法得知時為 -1
+    String message) {
+
+  private static final int MAX_SQL_LENGTH = 200;
+
+  public static String preview(String sql) {
+    return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+  }
+
+  public boolean isError() {
+    return "ERROR".equals(status);
+  }
+}
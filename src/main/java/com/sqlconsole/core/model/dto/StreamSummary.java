@@ -0,0 +1,13 @@
+package com.sqlconsole.core.model.dto;
+
+/** 串流執行結束時的摘要，同時作為 JSON 串流最後的 trailer 輸出。 */
+public record StreamSummary(
+    String status, // SUCCESS, ERROR
+    long rowCount,
+    long elapsedMs,
+    String message) {
+
+  public boolean isSuccess() {
+    return "SUCCESS".equals(status);
+  }
+}
@@ -32,6 +32,44 @@ public class DbConfig {
   private String dbUser;
   private String dbPassword;
 
+  /** 每個 Statement 的查詢逾時 (秒)，null 時使用 app.sql.query-timeout-seconds */
+  private Integer queryTimeoutSeconds;
+
+  /** 唯讀查詢結果的快取秒數，null 或 0 表示不快取 */
+  private Integer resultCacheTtlSeconds;
+
+  /** 連線池的連線數上限，null 時使用 app.sql.pool.max-size */
+  private Integer poolMaxSize;
+
+  /** 連線池保留的最少閒置連線數，null 時使用 app.sql.pool.min-idle */
+  private Integer poolMinIdle;
+
+  /** 閒置超過此秒數的連線由連線池關閉，null 時使用 app.sql.pool.idle-timeout-seconds */
+  private Integer poolIdleTimeoutSeconds;
+
+  /** 連線的最長存活秒數 (到期後歸還時汰換)，null 時使用 app.sql.pool.max-lifetime-seconds */
+  private Integer poolMaxLifetimeSeconds;
+
+  /** 同時執行的語句數上限 (超過時排隊)，null 時使用 app.sql.admission.max-concurrent，0 表示不限制 */
+  private Integer maxConcurrentStatements;
+
+  /** 交易閒置 (有未 Commit 的寫入且未執行任何語句) 超過此秒數時警告使用者，null 時使用 app.sql.idle-transaction.warn-seconds */
+  private Integer idleTxWarnSeconds;
+
+  /** 交易閒置超過此秒數時強制回滾，null 時使用 app.sql.idle-transaction.timeout-seconds，0 表示不回滾 */
+  private Integer idleTxTimeoutSeconds;
+
+  /** 建立連線 (含登入) 的逾時秒數，null 時使用 app.sql.login-timeout-seconds */
+  private Integer loginTimeoutSeconds;
+
+  /** drivers 目錄下的 JDBC Driver ({@code name/version})，null 時使用內建的 Driver */
+  @Column(length = 200)
+  private String driverId;
+
+  /** 唯讀查詢可使用的 Replica JDBC URL (每行一個，帳號密碼與 Primary 相同)，null 表示只有 Primary */
+  @Column(length = 2000)
+  private String replicaUrls;
+
   @ManyToMany(mappedBy = "accessibleDatabases")
   @com.fasterxml.jackson.annotation.JsonIgnore // Prevent circular reference
   @ToString.Exclude
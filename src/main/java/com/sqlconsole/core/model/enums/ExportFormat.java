@@ -0,0 +1,23 @@
+package com.sqlconsole.core.model.enums;
+
+/** 查詢結果匯出格式 */
+public enum ExportFormat {
+  CSV("text/csv;charset=UTF-8", "csv"),
+  JSONL("application/x-ndjson", "jsonl"); // JSON Lines：每列一個 JSON 物件
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  public String extension() {
+    return extension;
+  }
+}
@@ -0,0 +1,9 @@
+package com.sqlconsole.core.model.metadata;
+
+/** 資料表的欄位。 */
+public record ColumnMetadata(
+    String name,
+    String typeName, // 資料庫的型別名稱 (例如 VARCHAR2、character varying)
+    Integer size, // 字元長度或數值精度，不適用時為 null
+    Integer scale, // 小數位數，不適用時為 null
+    boolean nullable) {}
@@ -0,0 +1,11 @@
+package com.sqlconsole.core.model.metadata;
+
+import java.util.List;
+
+/** 外鍵；columns 與 referencedColumns 依鍵的順序一一對應。 */
+public record ForeignKeyMetadata(
+    String name,
+    List<String> columns,
+    String referencedSchema,
+    String referencedTable,
+    List<String> referencedColumns) {}
@@ -0,0 +1,6 @@
+package com.sqlconsole.core.model.metadata;
+
+import java.util.List;
+
+/** 資料表的索引 (含主鍵與唯一限制建立的索引)。 */
+public record IndexMetadata(String name, boolean unique, List<String> columns) {}
@@ -0,0 +1,45 @@
+package com.sqlconsole.core.model.metadata;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 單一資料庫的 Catalog：自動完成 ({@link com.sqlconsole.core.util.SchemaIndex}) 與 DBA Provider 共用同一次讀取的結果。
+ *
+ * @param currentSchema 連線目前的 Schema，無法取得時為 null
+ */
+public record SchemaMetadata(String currentSchema, List<TableMetadata> tables) {
+
+  public static final SchemaMetadata EMPTY = new SchemaMetadata(null, List.of());
+
+  /** 資料表名稱 → 欄位名稱；目前 Schema 的資料表不加 Schema，其他 Schema 的資料表為 {@code schema.table} */
+  public Map<String, List<String>> columnNames() {
+    Map<String, List<String>> names = new LinkedHashMap<>();
+    for (TableMetadata table : tables) {
+      names.putIfAbsent(
+          displayName(table), table.columns().stream().map(ColumnMetadata::name).toList());
+    }
+    return names;
+  }
+
+  /** 依名稱 (可加 Schema) 不分大小寫尋找資料表；未加 Schema 時只找目前的 Schema */
+  public Optional<TableMetadata> table(String name) {
+    if (name == null) {
+      return Optional.empty();
+    }
+    return tables.stream()
+        .filter(
+            t ->
+                displayName(t).equalsIgnoreCase(name)
+                    || (t.schema() + "." + t.name()).equalsIgnoreCase(name))
+        .findFirst();
+  }
+
+  private String displayName(TableMetadata table) {
+    return table.schema() == null || table.schema().equals(currentSchema)
+        ? table.name()
+        : table.schema() + "." + table.name();
+  }
+}
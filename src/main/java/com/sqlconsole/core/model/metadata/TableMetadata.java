@@ -0,0 +1,25 @@
+package com.sqlconsole.core.model.metadata;
+
+import java.util.List;
+
+/**
+ * 資料表或 View 的欄位 (依定義順序)、索引與外鍵。
+ *
+ * @param changeMarker 讀取前由 Catalog 取得的變更標記 (例如最後 DDL 時間)，增量更新時與 Catalog 目前的標記比對；
+ *     Dialect 不支援時為 null
+ */
+public record TableMetadata(
+    String schema,
+    String name,
+    String type, // TABLE 或 VIEW
+    List<ColumnMetadata> columns,
+    List<IndexMetadata> indexes,
+    List<ForeignKeyMetadata> foreignKeys,
+    String changeMarker) {
+
+  /** 資料表是否有以 column 為第一個欄位的索引 */
+  public boolean hasIndexOn(String column) {
+    return indexes.stream()
+        .anyMatch(i -> !i.columns().isEmpty() && i.columns().get(0).equalsIgnoreCase(column));
+  }
+}
@@ -0,0 +1,240 @@
+package com.sqlconsole.core.service;
+
+import java.sql.SQLTransientException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.AdmissionStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.util.LatencyHistogram;
+
+/**
+ * 每個 DbConfig 同時執行的語句數上限，超過時排隊，避免多人同時的大查詢拖垮同一個資料庫。
+ *
+ * <p>佇列依使用者做加權公平排程 (Start-time Fair Queuing)：每個請求的順序標籤為 {@code max(虛擬時間,
+ * 該使用者上一個請求的標籤) + 1/權重}，依標籤由小到大放行。 一位使用者一次送出多個請求時，其他使用者新的請求仍排在
+ * 其後續請求之前，不會被餓死。 排隊超過 {@code queue-timeout-ms} 或佇列已滿時丟出 {@link AdmissionRejectedException}。
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+  /** 無法取得執行許可 (排隊逾時或佇列已滿)；SQLState 53000 (資源不足) */
+  public static class AdmissionRejectedException extends SQLTransientException {
+    AdmissionRejectedException(String message) {
+      super(message, "53000");
+    }
+  }
+
+  /** 執行許可，語句結束後 close */
+  public interface Permit extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /** DbConfig 未設定 maxConcurrentStatements 時的預設值，0 表示不限制 */
+  @Value("${app.sql.admission.max-concurrent:8}")
+  private int defaultMaxConcurrent;
+
+  @Value("${app.sql.admission.queue-timeout-ms:30000}")
+  private long queueTimeoutMs;
+
+  /** 每個 DbConfig 排隊中的請求上限 */
+  @Value("${app.sql.admission.max-queue:100}")
+  private int maxQueue;
+
+  /** 使用者的權重，格式 {@code user=weight,...}，未列出的使用者權重為 1 */
+  @Value("${app.sql.admission.user-weights:}")
+  private String userWeights;
+
+  private final Map<Long, Target> targets = new ConcurrentHashMap<>();
+
+  private static final Permit NO_LIMIT = () -> {};
+
+  /**
+   * 取得執行許可，必要時排隊等待。
+   *
+   * @param username 排程公平性的單位
+   */
+  public Permit acquire(DbConfig config, String username) throws AdmissionRejectedException {
+    int limit = limit(config);
+    if (limit <= 0) {
+      return NO_LIMIT;
+    }
+    Target target = targets.computeIfAbsent(config.getId(), id -> new Target());
+    Waiter waiter;
+    synchronized (target) {
+      target.limit = limit;
+      target.dispatch(); // 上限可能已提高
+      if (target.running < limit && target.queue.isEmpty()) {
+        target.running++;
+        target.admitted.increment();
+        return new TargetPermit(target);
+      }
+      if (target.queue.size() >= maxQueue) {
+        target.rejected.increment();
+        throw new AdmissionRejectedException(
+            String.format(
+                "Too many statements queued for database '%s' (%d), try again later",
+                config.getName(), target.queue.size()));
+      }
+      waiter = target.enqueue(username, weight(username));
+    }
+
+    long start = System.nanoTime();
+    boolean interrupted = false;
+    try {
+      waiter.latch.await(queueTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      interrupted = true;
+    }
+    synchronized (target) {
+      if (!waiter.granted) {
+        target.queue.remove(waiter);
+        target.timedOut.increment();
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+        throw new AdmissionRejectedException(
+            String.format(
+                "Database '%s' is busy (%d statements running), waited %dms in queue",
+                config.getName(), target.running, queueTimeoutMs));
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt(); // 已取得許可，保留中斷狀態給後續的執行
+    }
+    target.queueWait.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return new TargetPermit(target);
+  }
+
+  public List<AdmissionStats> stats() {
+    return targets.entrySet().stream()
+        .map(e -> e.getValue().stats(e.getKey()))
+        .sorted(Comparator.comparing(AdmissionStats::dbId))
+        .toList();
+  }
+
+  private int limit(DbConfig config) {
+    Integer limit = config.getMaxConcurrentStatements();
+    return limit != null ? limit : defaultMaxConcurrent;
+  }
+
+  double weight(String username) {
+    if (username == null || userWeights == null || userWeights.isBlank()) {
+      return 1;
+    }
+    for (String entry : userWeights.split(",")) {
+      int eq = entry.indexOf('=');
+      if (eq > 0 && entry.substring(0, eq).trim().equals(username)) {
+        try {
+          double weight = Double.parseDouble(entry.substring(eq + 1).trim());
+          return weight > 0 ? weight : 1;
+        } catch (NumberFormatException e) {
+          log.warn("Invalid admission weight '{}'", entry);
+          return 1;
+        }
+      }
+    }
+    return 1;
+  }
+
+  private static final class Waiter {
+    private final String username;
+    private final double tag;
+    private final long seq;
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private boolean granted;
+
+    private Waiter(String username, double tag, long seq) {
+      this.username = username;
+      this.tag = tag;
+      this.seq = seq;
+    }
+  }
+
+  private static final class Target {
+    private final PriorityQueue<Waiter> queue =
+        new PriorityQueue<>(
+            Comparator.comparingDouble((Waiter w) -> w.tag).thenComparingLong(w -> w.seq));
+    private final Map<String, Double> lastTags = new HashMap<>();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private int limit;
+    private int running;
+    private double virtualTime;
+    private long seq;
+
+    /** 呼叫端持有 Target 的鎖 */
+    private Waiter enqueue(String username, double weight) {
+      String user = username != null ? username : "";
+      double tag = Math.max(virtualTime, lastTags.getOrDefault(user, 0.0)) + 1 / weight;
+      lastTags.put(user, tag);
+      Waiter waiter = new Waiter(user, tag, seq++);
+      queue.add(waiter);
+      return waiter;
+    }
+
+    private synchronized void release() {
+      running--;
+      dispatch();
+    }
+
+    /** 依標籤順序放行排隊的請求直到上限；呼叫端持有 Target 的鎖 */
+    private void dispatch() {
+      while (running < limit && !queue.isEmpty()) {
+        Waiter next = queue.poll();
+        virtualTime = next.tag;
+        running++;
+        next.granted = true;
+        admitted.increment();
+        next.latch.countDown();
+      }
+      lastTags.values().removeIf(tag -> tag <= virtualTime); // 已追上虛擬時間的使用者
+    }
+
+    private synchronized AdmissionStats stats(Long dbId) {
+      Map<String, Integer> byUser = new TreeMap<>();
+      queue.forEach(w -> byUser.merge(w.username, 1, Integer::sum));
+      return new AdmissionStats(
+          dbId,
+          limit,
+          running,
+          queue.size(),
+          byUser,
+          admitted.sum(),
+          rejected.sum(),
+          timedOut.sum(),
+          queueWait.snapshot());
+    }
+  }
+
+  private static final class TargetPermit implements Permit {
+    private final Target target;
+    private boolean closed;
+
+    private TargetPermit(Target target) {
+      this.target = target;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        target.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.sqlconsole.core.service;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.CircuitBreakerStatus;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+/**
+ * 每個 DbConfig 一個連線斷路器，避免資料庫停機時每個請求都等到登入逾時。
+ *
+ * <p>連續 {@code failure-threshold} 次無法建立連線後斷路 (OPEN)，期間的借用立即丟出 {@link CircuitOpenException}。
+ * 等待時間到期後進入 HALF_OPEN，只放行一個試探的借用：成功則恢復 (CLOSED)，失敗則再次斷路，等待時間加倍 (上限
+ * {@code max-backoff-ms})。
+ */
+@Slf4j
+@Component
+public class ConnectionCircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  /** 斷路中的借用；SQLState 08001 (無法建立連線) */
+  public static class CircuitOpenException extends SQLTransientConnectionException {
+    CircuitOpenException(String message) {
+      super(message, "08001");
+    }
+  }
+
+  @Value("${app.sql.circuit-breaker.failure-threshold:3}")
+  private int failureThreshold;
+
+  @Value("${app.sql.circuit-breaker.initial-backoff-ms:5000}")
+  private long initialBackoffMs;
+
+  @Value("${app.sql.circuit-breaker.max-backoff-ms:300000}")
+  private long maxBackoffMs;
+
+  private final Map<Long, Breaker> breakers = new ConcurrentHashMap<>();
+
+  /** 測試時替換 */
+  LongSupplier clock = System::currentTimeMillis;
+
+  /** 借用連線前呼叫；斷路中或已有其他請求在試探時丟出 {@link CircuitOpenException} */
+  public void acquirePermission(DbConfig config) throws CircuitOpenException {
+    Breaker breaker = breakers.computeIfAbsent(config.getId(), id -> new Breaker());
+    long now = clock.getAsLong();
+    synchronized (breaker) {
+      switch (breaker.state) {
+        case CLOSED -> {
+          return;
+        }
+        case OPEN -> {
+          if (now < breaker.openUntil) {
+            throw new CircuitOpenException(
+                String.format(
+                    "Database '%s' is unavailable (circuit open after %d failures, retry in %ds):"
+                        + " %s",
+                    config.getName(),
+                    breaker.consecutiveFailures,
+                    retryInSeconds(breaker, now),
+                    breaker.lastError));
+          }
+          breaker.state = State.HALF_OPEN;
+        }
+        case HALF_OPEN -> {
+          if (breaker.probing) {
+            throw new CircuitOpenException(
+                String.format(
+                    "Database '%s' is unavailable (checking connectivity): %s",
+                    config.getName(),
+                    breaker.lastError));
+          }
+        }
+      }
+      breaker.probing = true;
+      log.info("Probing connectivity of db {} ({})", config.getId(), config.getName());
+    }
+  }
+
+  /** 成功借用連線 */
+  public void onSuccess(Long dbId) {
+    Breaker breaker = breakers.get(dbId);
+    if (breaker == null) {
+      return;
+    }
+    synchronized (breaker) {
+      if (breaker.state != State.CLOSED) {
+        log.info("Connectivity of db {} restored, closing circuit", dbId);
+      }
+      breaker.state = State.CLOSED;
+      breaker.consecutiveFailures = 0;
+      breaker.trips = 0;
+      breaker.probing = false;
+      breaker.lastError = null;
+    }
+  }
+
+  /** 無法建立連線；達到門檻或試探失敗時斷路 */
+  public void onFailure(Long dbId, Exception e) {
+    Breaker breaker = breakers.computeIfAbsent(dbId, id -> new Breaker());
+    long now = clock.getAsLong();
+    synchronized (breaker) {
+      breaker.consecutiveFailures++;
+      breaker.lastError = e.getMessage();
+      breaker.probing = false;
+      if (breaker.state == State.HALF_OPEN || breaker.consecutiveFailures >= failureThreshold) {
+        breaker.trips++;
+        long backoff = backoffMs(breaker.trips);
+        breaker.state = State.OPEN;
+        breaker.openUntil = now + backoff;
+        log.warn(
+            "Circuit for db {} opened after {} failures, retry in {}ms: {}",
+            dbId,
+            breaker.consecutiveFailures,
+            backoff,
+            breaker.lastError);
+      }
+    }
+  }
+
+  /** 清除狀態 (例如 DbConfig 修改或刪除後) */
+  public void reset(Long dbId) {
+    breakers.remove(dbId);
+  }
+
+  public State state(Long dbId) {
+    Breaker breaker = breakers.get(dbId);
+    if (breaker == null) {
+      return State.CLOSED;
+    }
+    synchronized (breaker) {
+      return breaker.state;
+    }
+  }
+
+  public List<CircuitBreakerStatus> status() {
+    long now = clock.getAsLong();
+    return breakers.entrySet().stream()
+        .map(
+            e -> {
+              Breaker b = e.getValue();
+              synchronized (b) {
+                return new CircuitBreakerStatus(
+                    e.getKey(),
+                    b.state.name(),
+                    b.consecutiveFailures,
+                    b.state == State.OPEN ? retryInSeconds(b, now) : 0,
+                    b.lastError);
+              }
+            })
+        .sorted(Comparator.comparing(CircuitBreakerStatus::dbId))
+        .toList();
+  }
+
+  /** 第 n 次連續斷路的等待時間：initial * 2^(n-1)，不超過上限 */
+  long backoffMs(int trips) {
+    int shift = Math.min(trips - 1, 30);
+    return Math.min(maxBackoffMs, initialBackoffMs << shift);
+  }
+
+  private static long retryInSeconds(Breaker breaker, long now) {
+    return Math.max(0, (breaker.openUntil - now + 999) / 1000);
+  }
+
+  private static final class Breaker {
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int trips; // 恢復前連續斷路的次數，決定等待時間
+    private long openUntil;
+    private boolean probing;
+    private String lastError;
+  }
+}
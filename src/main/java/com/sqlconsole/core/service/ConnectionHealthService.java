@@ -0,0 +1,244 @@
+package com.sqlconsole.core.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.sqlconsole.core.model.dto.ConnectionHealth;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.entity.User;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.repository.DbConfigRepository;
+import com.sqlconsole.core.repository.UserRepository;
+import com.sqlconsole.core.util.LatencyHistogram;
+
+/**
+ * 定期探測每個 DbConfig 的連線狀態，並記錄建立連線與探測查詢的延遲分布。
+ *
+ * <p>探測每次直接建立一條新連線並立即關閉 (不經過連線池)，不會為沒有人使用的資料庫建立連線池或保留連線，記錄的也是實際的
+ * 連線時間。 探測成功時通知 {@link ConnectionCircuitBreaker}，斷路中的資料庫恢復後不必等使用者的試探。
+ *
+ * <p>DbConfig 設定了 Replica 時同樣探測每個 Replica URL，探測查詢的往返時間交給 {@link ReplicaRouter} 作為
+ * LEAST_LATENCY 的依據 (不含建立連線的時間)。
+ *
+ * <p>預先建立連線為選用 ({@code app.sql.health.prewarm-on-login})：使用者登入後在背景為其可使用的資料庫向連線池借用一條
+ * 連線 (保留在連線池直到閒置逾時)，第一次查詢不必等待建立連線。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConnectionHealthService {
+
+  private final ConnectionPoolManager connectionPoolManager;
+  private final DbConfigService dbConfigService;
+  private final ConnectionCircuitBreaker circuitBreaker;
+  private final DbConfigRepository dbConfigRepository;
+  private final UserRepository userRepository;
+  private final ReplicaRouter replicaRouter;
+
+  @Value("${app.sql.health.enabled:true}")
+  private boolean enabled;
+
+  /** 探測查詢的逾時 (秒) */
+  @Value("${app.sql.health.timeout-seconds:5}")
+  private int timeoutSeconds;
+
+  /** 建立連線加上探測查詢超過此毫秒數時視為 DEGRADED */
+  @Value("${app.sql.health.degraded-threshold-ms:1000}")
+  private long degradedThresholdMs;
+
+  @Value("${app.sql.health.prewarm-on-login:false}")
+  private boolean prewarmOnLogin;
+
+  private final Map<Long, ProbeState> states = new ConcurrentHashMap<>();
+
+  @Scheduled(
+      initialDelayString = "${app.sql.health.initial-delay-ms:10000}",
+      fixedDelayString = "${app.sql.health.interval-ms:30000}")
+  public void probeAll() {
+    if (!enabled) {
+      return;
+    }
+    List<DbConfig> configs = dbConfigRepository.findAll();
+    Set<Long> ids = configs.stream().map(DbConfig::getId).collect(Collectors.toSet());
+    states.keySet().retainAll(ids); // 已刪除的設定
+
+    // 各資料庫平行探測，單一資料庫緩慢不延誤其他資料庫
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (DbConfig config : configs) {
+        executor.submit(() -> probe(config));
+        List<String> replicas = ConnectionPoolManager.replicaUrls(config);
+        for (int node = 1; node <= replicas.size(); node++) {
+          int replica = node;
+          executor.submit(() -> probeReplica(config, replica, replicas.get(replica - 1)));
+        }
+      }
+    }
+  }
+
+  /** 探測單一資料庫並記錄結果 */
+  void probe(DbConfig config) {
+    ProbeState state = states.computeIfAbsent(config.getId(), id -> new ProbeState());
+    long start = System.nanoTime();
+    try (Connection conn = dbConfigService.createConnection(config)) {
+      long connected = System.nanoTime();
+      try (Statement stmt = conn.createStatement()) {
+        stmt.setQueryTimeout(timeoutSeconds);
+        stmt.execute(probeSql(config.getDbType()));
+      }
+      long done = System.nanoTime();
+      circuitBreaker.onSuccess(config.getId());
+      int previousFailures =
+          state.succeeded(
+              TimeUnit.NANOSECONDS.toMillis(connected - start),
+              TimeUnit.NANOSECONDS.toMillis(done - connected));
+      if (previousFailures > 0) {
+        log.info("Health probe of db {} succeeded again", config.getId());
+      }
+    } catch (SQLException | RuntimeException e) {
+      if (state.failed(e) == 1) { // 只在狀態改變時記錄
+        log.warn("Health probe of db {} failed: {}", config.getId(), e.getMessage());
+      }
+    }
+  }
+
+  /** 探測第 node 個 Replica，記錄探測查詢的往返時間；失敗時由 {@link ReplicaRouter} 在借用時自行略過 */
+  void probeReplica(DbConfig config, int node, String jdbcUrl) {
+    try (Connection conn = dbConfigService.createConnection(config, jdbcUrl);
+        Statement stmt = conn.createStatement()) {
+      stmt.setQueryTimeout(timeoutSeconds);
+      long start = System.nanoTime();
+      stmt.execute(probeSql(config.getDbType()));
+      replicaRouter.recordLatency(
+          config.getId(), node, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    } catch (SQLException | RuntimeException e) {
+      log.debug(
+          "Health probe of replica {} of db {} failed: {}", node, config.getId(), e.getMessage());
+    }
+  }
+
+  /** 各資料庫最便宜的查詢 */
+  static String probeSql(DbType dbType) {
+    if (dbType == null) {
+      return "SELECT 1";
+    }
+    return switch (dbType) {
+      case ORACLE -> "SELECT 1 FROM DUAL";
+      case DB2 -> "SELECT 1 FROM SYSIBM.SYSDUMMY1";
+      case POSTGRESQL, MSSQL, MYSQL, MARIADB -> "SELECT 1";
+    };
+  }
+
+  /** 登入後在背景預先建立使用者可使用的資料庫的連線 */
+  @EventListener
+  @Transactional(readOnly = true)
+  public void onLogin(InteractiveAuthenticationSuccessEvent event) {
+    if (!prewarmOnLogin) {
+      return;
+    }
+    String username = event.getAuthentication().getName();
+    List<DbConfig> configs =
+        userRepository
+            .findByUsername(username)
+            .map(
+                user ->
+                    User.ROLE_ADMIN.equals(user.getRole())
+                        ? dbConfigRepository.findAll()
+                        : List.copyOf(user.getAccessibleDatabases()))
+            .orElse(List.of());
+    for (DbConfig config : configs) {
+      Thread.startVirtualThread(() -> prewarm(config));
+    }
+  }
+
+  private void prewarm(DbConfig config) {
+    try (Connection conn = connectionPoolManager.getConnection(config)) {
+      log.debug("Pre-warmed connection pool of db {}", config.getId());
+    } catch (SQLException | RuntimeException e) {
+      log.debug("Cannot pre-warm connection pool of db {}: {}", config.getId(), e.getMessage());
+    }
+  }
+
+  public List<ConnectionHealth> health() {
+    return dbConfigRepository.findAll().stream()
+        .map(config -> health(config, states.get(config.getId())))
+        .sorted(Comparator.comparing(ConnectionHealth::dbId))
+        .toList();
+  }
+
+  private ConnectionHealth health(DbConfig config, ProbeState state) {
+    if (state == null) {
+      return new ProbeState().toHealth(config, "UNKNOWN");
+    }
+    synchronized (state) {
+      String status;
+      if (state.lastProbeAt == null) {
+        status = "UNKNOWN";
+      } else if (state.consecutiveFailures > 0) {
+        status = "DOWN";
+      } else if (state.lastLatencyMs > degradedThresholdMs) {
+        status = "DEGRADED";
+      } else {
+        status = "UP";
+      }
+      return state.toHealth(config, status);
+    }
+  }
+
+  private static final class ProbeState {
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private Instant lastProbeAt;
+    private long lastLatencyMs;
+    private int consecutiveFailures;
+    private String lastError;
+
+    /** @return 先前的連續失敗次數 */
+    synchronized int succeeded(long connectMs, long roundTripMs) {
+      connect.record(connectMs);
+      roundTrip.record(roundTripMs);
+      lastProbeAt = Instant.now();
+      lastLatencyMs = connectMs + roundTripMs;
+      lastError = null;
+      int previous = consecutiveFailures;
+      consecutiveFailures = 0;
+      return previous;
+    }
+
+    /** @return 連續失敗次數 */
+    synchronized int failed(Exception e) {
+      lastProbeAt = Instant.now();
+      lastError = e.getMessage();
+      return ++consecutiveFailures;
+    }
+
+    ConnectionHealth toHealth(DbConfig config, String status) {
+      return new ConnectionHealth(
+          config.getId(),
+          config.getName(),
+          status,
+          lastProbeAt,
+          lastError,
+          consecutiveFailures,
+          connect.snapshot(),
+          roundTrip.snapshot());
+    }
+  }
+}
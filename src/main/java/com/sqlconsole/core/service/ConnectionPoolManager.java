@@ -0,0 +1,246 @@
+package com.sqlconsole.core.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.PoolStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+/**
+ * 每個 DbConfig 一個有上限的 HikariCP 連線池，於第一次借用時建立。
+ *
+ * <p>連線池大小、閒置與存活時間以 DbConfig 的設定優先，未設定時使用 {@code app.sql.pool.*}。 DbConfig 修改或刪除時
+ * {@link #evict} 關閉舊的連線池，下次借用時以新設定重建。 借出的連線為 autoCommit=false，歸還時由 HikariCP 回滾未
+ * Commit 的交易並還原連線屬性。
+ *
+ * <p>DbConfig 設定了 Replica 時，每個 Replica 另有一個唯讀 (setReadOnly) 的連線池，由 {@link ReplicaRouter} 選擇；
+ * node 0 為 Primary，1 起為 {@link #replicaUrls} 的順序。
+ *
+ * <p>Primary 的借用前經過 {@link ConnectionCircuitBreaker}：資料庫無法連線時，等待新連線的時間以登入逾時為上限，連續失敗後斷路並立即
+ * 失敗，不再佔用呼叫端的 Thread。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolManager {
+
+  private static final String POOL_NAME_PREFIX = "sqlconsole-db-";
+
+  /** Primary 的 node 編號 */
+  public static final int PRIMARY = 0;
+
+  private final EncryptionService encryptionService;
+  private final ConnectionCircuitBreaker circuitBreaker;
+  private final DriverRegistry driverRegistry;
+
+  private final Map<PoolKey, HikariDataSource> pools = new ConcurrentHashMap<>();
+
+  private record PoolKey(Long dbId, int node) {}
+
+  @Value("${app.sql.pool.max-size:10}")
+  private int defaultMaxSize;
+
+  @Value("${app.sql.pool.min-idle:0}")
+  private int defaultMinIdle;
+
+  @Value("${app.sql.pool.idle-timeout-seconds:600}")
+  private int defaultIdleTimeoutSeconds;
+
+  @Value("${app.sql.pool.max-lifetime-seconds:1800}")
+  private int defaultMaxLifetimeSeconds;
+
+  /** 連線池已滿時等待可用連線的上限 (不超過登入逾時)，逾時丟出 SQLException */
+  @Value("${app.sql.pool.connection-timeout-ms:30000}")
+  private long connectionTimeoutMs;
+
+  @Value("${app.sql.login-timeout-seconds:10}")
+  private int defaultLoginTimeoutSeconds;
+
+  /** 每條連線由 Driver 快取的 PreparedStatement 數 */
+  @Value("${app.sql.statement-cache.size:64}")
+  private int statementCacheSize;
+
+  /**
+   * 由此 DbConfig 的連線池借用一條連線，使用完畢需 close() 歸還。
+   *
+   * @throws ConnectionCircuitBreaker.CircuitOpenException 斷路中，未嘗試連線
+   */
+  public Connection getConnection(DbConfig config) throws SQLException {
+    circuitBreaker.acquirePermission(config);
+    try {
+      Connection conn = pool(config, PRIMARY).getConnection();
+      circuitBreaker.onSuccess(config.getId());
+      return conn;
+    } catch (SQLException | RuntimeException e) {
+      if (isPoolExhausted(e)) {
+        circuitBreaker.onSuccess(config.getId()); // 資料庫可連線，只是連線都在使用中
+      } else {
+        circuitBreaker.onFailure(config.getId(), e);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * 由第 node 個 Replica (1 起) 的唯讀連線池借用一條連線，不經過斷路器 (Replica 的健康狀態由 {@link ReplicaRouter}
+   * 判斷)。
+   */
+  public Connection getReplicaConnection(DbConfig config, int node) throws SQLException {
+    if (node < 1 || node > replicaUrls(config).size()) {
+      throw new IllegalArgumentException("No replica " + node + " for db " + config.getId());
+    }
+    return pool(config, node).getConnection();
+  }
+
+  /**
+   * 連線池已建立且連線全部借出中。 借用時 HikariCP 會等待到 connectionTimeout，Replica 在此情況下應直接略過。
+   */
+  public boolean isSaturated(Long dbId, int node) {
+    HikariDataSource pool = pools.get(new PoolKey(dbId, node));
+    HikariPoolMXBean mx = pool != null ? pool.getHikariPoolMXBean() : null;
+    return mx != null
+        && mx.getIdleConnections() == 0
+        && (mx.getTotalConnections() >= pool.getMaximumPoolSize()
+            || mx.getThreadsAwaitingConnection() > 0);
+  }
+
+  /** DbConfig 的 Replica URL (每行或以逗號分隔一個) */
+  public static List<String> replicaUrls(DbConfig config) {
+    String urls = config.getReplicaUrls();
+    if (urls == null || urls.isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(urls.split("[,\\r\\n]+"))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .toList();
+  }
+
+  private HikariDataSource pool(DbConfig config, int node) {
+    return pools.computeIfAbsent(
+        new PoolKey(config.getId(), node), key -> createPool(config, node));
+  }
+
+  /** HikariCP 等待逾時且期間沒有建立連線失敗 (cause 為 null)，表示連線池已滿而非資料庫無法連線 */
+  static boolean isPoolExhausted(Exception e) {
+    return e instanceof SQLTransientConnectionException && e.getCause() == null;
+  }
+
+  /** 關閉並移除連線池 (含 Replica)，並清除斷路器狀態。 借出中的連線在歸還時關閉，不等待使用者結束交易。 */
+  public void evict(Long dbId) {
+    circuitBreaker.reset(dbId);
+    for (PoolKey key : List.copyOf(pools.keySet())) {
+      HikariDataSource pool = key.dbId().equals(dbId) ? pools.remove(key) : null;
+      if (pool != null) {
+        log.info("Closing connection pool {}", pool.getPoolName());
+        // close() 會等待借出中的連線最多數秒，不佔用呼叫端 (設定儲存) 的 Thread
+        Thread.startVirtualThread(pool::close);
+      }
+    }
+  }
+
+  /**
+   * 將借出中的連線自連線池移除並立即關閉實體連線 (執行中的語句會中斷)。 用於擁有者已不存在、無法正常歸還的連線。
+   */
+  public void evictConnection(Long dbId, int node, Connection conn) {
+    HikariDataSource pool = pools.get(new PoolKey(dbId, node));
+    try {
+      if (pool != null) {
+        pool.evictConnection(conn);
+      } else {
+        conn.close(); // 連線池已關閉
+      }
+    } catch (SQLException e) {
+      log.warn("Failed to evict connection from pool {}", dbId, e);
+    }
+  }
+
+  public List<PoolStats> stats() {
+    return pools.entrySet().stream()
+        .map(e -> stats(e.getKey().dbId(), e.getValue()))
+        .sorted(Comparator.comparing(PoolStats::dbId).thenComparing(PoolStats::poolName))
+        .toList();
+  }
+
+  private static PoolStats stats(Long dbId, HikariDataSource pool) {
+    HikariPoolMXBean mx = pool.getHikariPoolMXBean();
+    if (mx == null) {
+      return new PoolStats(dbId, pool.getPoolName(), 0, 0, 0, 0, pool.getMaximumPoolSize());
+    }
+    return new PoolStats(
+        dbId,
+        pool.getPoolName(),
+        mx.getActiveConnections(),
+        mx.getIdleConnections(),
+        mx.getTotalConnections(),
+        mx.getThreadsAwaitingConnection(),
+        pool.getMaximumPoolSize());
+  }
+
+  private HikariDataSource createPool(DbConfig config, int node) {
+    String jdbcUrl = node == PRIMARY ? config.getJdbcUrl() : replicaUrls(config).get(node - 1);
+    int maxSize = orDefault(config.getPoolMaxSize(), defaultMaxSize);
+    int loginTimeoutSeconds =
+        orDefault(config.getLoginTimeoutSeconds(), defaultLoginTimeoutSeconds);
+    HikariConfig hikari = new HikariConfig();
+    hikari.setPoolName(
+        POOL_NAME_PREFIX + config.getId() + (node == PRIMARY ? "" : "-replica-" + node));
+    Properties props =
+        DbConfigService.connectionProperties(
+            config.getDbType(),
+            encryptionService.decrypt(config.getDbUser()),
+            encryptionService.decrypt(config.getDbPassword()),
+            loginTimeoutSeconds);
+    DbConfigService.putStatementCache(props, config.getDbType(), statementCacheSize);
+    String driverId = driverRegistry.resolve(config.getDbType(), config.getDriverId());
+    if (driverId != null) {
+      // 由 drivers 目錄的獨立 ClassLoader 載入的 Driver
+      hikari.setDataSource(driverRegistry.dataSource(driverId, jdbcUrl, props));
+    } else {
+      hikari.setJdbcUrl(jdbcUrl);
+      hikari.setDataSourceProperties(props);
+    }
+    hikari.setAutoCommit(false); // 啟用手動 TCL
+    hikari.setReadOnly(node != PRIMARY);
+    hikari.setMaximumPoolSize(Math.max(1, maxSize));
+    hikari.setMinimumIdle(Math.min(orDefault(config.getPoolMinIdle(), defaultMinIdle), maxSize));
+    hikari.setIdleTimeout(
+        orDefault(config.getPoolIdleTimeoutSeconds(), defaultIdleTimeoutSeconds) * 1000L);
+    hikari.setMaxLifetime(
+        orDefault(config.getPoolMaxLifetimeSeconds(), defaultMaxLifetimeSeconds) * 1000L);
+    // 資料庫無法連線時，借用端最多等待到登入逾時 (HikariCP 會等滿 connectionTimeout 才丟出例外)
+    hikari.setConnectionTimeout(
+        loginTimeoutSeconds > 0
+            ? Math.min(connectionTimeoutMs, loginTimeoutSeconds * 1000L)
+            : connectionTimeoutMs);
+    // 資料庫暫時無法連線時不在建立時失敗，改由 getConnection() 丟出 SQLException
+    hikari.setInitializationFailTimeout(-1);
+
+    log.info("Creating connection pool {} (max {})", hikari.getPoolName(), maxSize);
+    return new HikariDataSource(hikari);
+  }
+
+  private static int orDefault(Integer value, int defaultValue) {
+    return value != null ? value : defaultValue;
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    pools.values().forEach(HikariDataSource::close);
+    pools.clear();
+  }
+}
@@ -0,0 +1,66 @@
+package com.sqlconsole.core.service;
+
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.service.ConnectionTracker.Outcome;
+
+/**
+ * 回收 Session 失效後留下的連線。
+ *
+ * <p>Session 失效時關閉其 Cursor，並回滾、關閉其固定使用的連線，避免未 Commit 的交易持續鎖住資料。
+ * 排程再檢查一次擁有者已不存在的連線 (例如 Session 失效時仍有請求執行中而重新取得連線)，視為洩漏回收。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionReaper implements HttpSessionListener {
+
+  private final ConnectionTracker connectionTracker;
+  private final DbSessionService dbSessionService;
+  private final CursorService cursorService;
+
+  @Override
+  public void sessionCreated(HttpSessionEvent se) {
+    connectionTracker.sessionActive(se.getSession().getId());
+  }
+
+  @Override
+  public void sessionDestroyed(HttpSessionEvent se) {
+    String sessionId = se.getSession().getId();
+    connectionTracker.sessionDestroyed(sessionId);
+    cursorService.closeSessionCursors(sessionId);
+    List<SessionConnection> owned = connectionTracker.ofSession(sessionId);
+    for (SessionConnection conn : owned) {
+      if (conn.isInTransaction()) {
+        log.info(
+            "Session of {} ended with an open transaction on db {}, rolling back",
+            conn.owner(),
+            conn.dbId());
+      }
+      dbSessionService.reclaim(conn, Outcome.SESSION_ENDED);
+    }
+  }
+
+  /** 回收擁有者 Session 已失效的連線 */
+  @Scheduled(fixedDelayString = "${app.sql.connection-reaper.interval-ms:60000}")
+  public void reapOrphans() {
+    long now = System.currentTimeMillis();
+    for (SessionConnection conn : connectionTracker.orphans()) {
+      log.warn(
+          "Reclaiming leaked connection to db {} owned by {} (age {}s, idle {}s, leases {}, in"
+              + " transaction: {})",
+          conn.dbId(),
+          conn.owner(),
+          (now - conn.openedAt()) / 1000,
+          (now - conn.lastUsedAt()) / 1000,
+          conn.leases(),
+          conn.isInTransaction());
+      dbSessionService.reclaim(conn, Outcome.LEAKED);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.sqlconsole.core.service;
+
+import java.sql.Connection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.ConnectionStats;
+import com.sqlconsole.core.model.dto.ConnectionStats.ConnectionInfo;
+
+/**
+ * 追蹤每條由 Session 固定使用的連線 (擁有者、借出時間、最後使用時間、交易狀態) 與存活中的 Session。
+ *
+ * <p>存活的 Session 由 Session 建立/失效事件 ({@link ConnectionReaper}) 與借用連線時維護，擁有者 Session
+ * 已不存在的連線即為洩漏。
+ */
+@Component
+public class ConnectionTracker {
+
+  /** 連線離開追蹤的原因 */
+  enum Outcome {
+    RETURNED,
+    SESSION_ENDED,
+    LEAKED,
+    IDLE_ROLLBACK
+  }
+
+  private final Map<Connection, SessionConnection> open = new ConcurrentHashMap<>();
+  private final Set<String> liveSessions = ConcurrentHashMap.newKeySet();
+
+  private final LongAdder returned = new LongAdder();
+  private final LongAdder closedOnSessionEnd = new LongAdder();
+  private final LongAdder leaked = new LongAdder();
+  private final LongAdder idleRolledBack = new LongAdder();
+
+  void register(SessionConnection conn) {
+    open.put(conn.connection(), conn);
+  }
+
+  void unregister(SessionConnection conn, Outcome outcome) {
+    if (open.remove(conn.connection(), conn)) {
+      switch (outcome) {
+        case RETURNED -> returned.increment();
+        case SESSION_ENDED -> closedOnSessionEnd.increment();
+        case LEAKED -> leaked.increment();
+        case IDLE_ROLLBACK -> idleRolledBack.increment();
+      }
+    }
+  }
+
+  SessionConnection find(Connection conn) {
+    return open.get(conn);
+  }
+
+  List<SessionConnection> ofSession(String sessionId) {
+    return open.values().stream().filter(c -> c.sessionId().equals(sessionId)).toList();
+  }
+
+  /** 有未 Commit 寫入的連線 */
+  List<SessionConnection> inTransaction() {
+    return open.values().stream().filter(SessionConnection::isInTransaction).toList();
+  }
+
+  /** 擁有者 Session 已失效的連線 */
+  List<SessionConnection> orphans() {
+    return open.values().stream().filter(c -> !liveSessions.contains(c.sessionId())).toList();
+  }
+
+  /** Session 建立或借用連線時標記為存活 (伺服器重啟後還原的 Session 不會觸發建立事件) */
+  void sessionActive(String sessionId) {
+    liveSessions.add(sessionId);
+  }
+
+  void sessionDestroyed(String sessionId) {
+    liveSessions.remove(sessionId);
+  }
+
+  public ConnectionStats stats() {
+    long now = System.currentTimeMillis();
+    List<ConnectionInfo> connections =
+        open.values().stream()
+            .sorted(Comparator.comparingLong(SessionConnection::openedAt))
+            .map(
+                c ->
+                    new ConnectionInfo(
+                        c.dbId(),
+                        c.owner(),
+                        c.sessionId().substring(0, Math.min(8, c.sessionId().length())),
+                        (now - c.openedAt()) / 1000,
+                        (now - c.lastUsedAt()) / 1000,
+                        c.leases(),
+                        c.isInTransaction()))
+            .toList();
+    return new ConnectionStats(
+        connections.size(),
+        (int) connections.stream().filter(ConnectionInfo::inTransaction).count(),
+        returned.sum(),
+        closedOnSessionEnd.sum(),
+        leaked.sum(),
+        idleRolledBack.sum(),
+        connections);
+  }
+}
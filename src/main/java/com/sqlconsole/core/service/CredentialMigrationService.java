@@ -0,0 +1,67 @@
+package com.sqlconsole.core.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.repository.DbConfigRepository;
+
+/**
+ * 將 db_configs 中 v1 格式的帳號密碼重新加密為 v2 (見 {@link EncryptionService})。
+ *
+ * <p>啟動完成後執行一次，已是 v2 的資料不會變動，可重複執行。 無法解密的資料 (例如 master-key 已更換) 保持原狀並記錄警告。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CredentialMigrationService {
+
+  private final DbConfigRepository dbConfigRepository;
+  private final EncryptionService encryptionService;
+
+  @Value("${app.security.migrate-credentials-on-startup:true}")
+  private boolean migrateOnStartup;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (migrateOnStartup) {
+      migrateDbConfigs();
+    }
+  }
+
+  /**
+   * 逐筆重新加密並儲存 (每筆各自 Commit，中途失敗時已轉換的資料仍保留)
+   *
+   * @return 轉換的筆數
+   */
+  public int migrateDbConfigs() {
+    int migrated = 0;
+    for (DbConfig config : dbConfigRepository.findAll()) {
+      if (!encryptionService.isLegacy(config.getDbUser())
+          && !encryptionService.isLegacy(config.getDbPassword())) {
+        continue;
+      }
+      try {
+        config.setDbUser(reencrypt(config.getDbUser()));
+        config.setDbPassword(reencrypt(config.getDbPassword()));
+        dbConfigRepository.save(config);
+        migrated++;
+      } catch (RuntimeException e) {
+        log.warn("Cannot re-encrypt credentials of DB config {}", config.getId(), e);
+      }
+    }
+    if (migrated > 0) {
+      log.info("Re-encrypted credentials of {} DB configs to the v2 format", migrated);
+    }
+    return migrated;
+  }
+
+  private String reencrypt(String value) {
+    return encryptionService.isLegacy(value)
+        ? encryptionService.encrypt(encryptionService.decrypt(value))
+        : value;
+  }
+}
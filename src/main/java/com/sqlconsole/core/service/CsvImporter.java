@@ -0,0 +1,443 @@
+package com.sqlconsole.core.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.ImportReport;
+import com.sqlconsole.core.model.dto.ImportReport.RejectedRow;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.util.CsvReader;
+
+/**
+ * 將 CSV/TSV 紀錄逐批寫入指定的資料表，檔案不會整個載入記憶體。
+ *
+ * <p>一般資料庫以 PreparedStatement 的 {@code addBatch/executeBatch} 寫入；PostgreSQL 改用 {@code COPY FROM
+ * STDIN} ({@link CopyManager})，每批轉為一段 CSV 送出。 空欄位一律視為 NULL。
+ *
+ * <p>每批前設 Savepoint，批次失敗時回滾該批後逐筆重寫，以找出並略過有問題的列 (rejected)。 不自行 Commit，交易由呼叫端處理。
+ * COPY 不受查詢逾時與取消影響，只在批次之間的逐筆重寫時生效。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CsvImporter {
+
+  /** 回報中列出的 rejected 明細上限 */
+  static final int REPORTED_REJECTS = 100;
+
+  private static final String IDENT = "[A-Za-z_][A-Za-z0-9_$#]*";
+  private static final Pattern TABLE_NAME = Pattern.compile(IDENT + "(\\." + IDENT + "){0,2}");
+  private static final Pattern COLUMN_NAME = Pattern.compile(IDENT);
+
+  private final StatementRegistry statementRegistry;
+
+  @Value("${app.sql.import.batch-size:1000}")
+  private int batchSize;
+
+  /** rejected 超過此數量時中止匯入 */
+  @Value("${app.sql.import.max-rejected-rows:1000}")
+  private int maxRejectedRows;
+
+  /**
+   * @param table 目標資料表 ({@code [catalog.][schema.]table})，只接受一般識別字
+   * @param header 第一筆紀錄是否為欄位名稱；false 時依資料表的欄位順序對應
+   * @return 統計結果 (txStatus 由呼叫端填入)
+   * @throws IllegalArgumentException 資料表或欄位名稱不合法、檔案為空
+   */
+  public ImportReport load(
+      Connection conn, DbType dbType, String table, CsvReader csv, boolean header, QueryContext ctx)
+      throws SQLException, IOException {
+    if (table == null || !TABLE_NAME.matcher(table).matches()) {
+      throw new IllegalArgumentException("Invalid table name: " + table);
+    }
+    List<String> columns = null;
+    if (header) {
+      List<String> names = csv.next();
+      if (names == null) {
+        throw new IllegalArgumentException("File is empty");
+      }
+      columns = new ArrayList<>();
+      for (String name : names) {
+        String col = name.strip();
+        if (!COLUMN_NAME.matcher(col).matches()) {
+          throw new IllegalArgumentException("Invalid column name in header: " + name);
+        }
+        columns.add(col);
+      }
+    }
+
+    long start = System.nanoTime();
+    Target target = describe(conn, table, columns);
+    boolean copy = dbType == DbType.POSTGRESQL && conn.isWrapperFor(PGConnection.class);
+
+    try (PreparedStatement ps = conn.prepareStatement(target.insertSql())) {
+      if (ctx.queryTimeoutSeconds() > 0) {
+        ps.setQueryTimeout(ctx.queryTimeoutSeconds());
+      }
+      statementRegistry.register(ctx, ps);
+      try {
+        Load load = new Load(conn, target, ps, copy ? copyManager(conn) : null);
+        String status = load.run(csv) ? "SUCCESS" : "ERROR";
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        String msg =
+            "ERROR".equals(status)
+                ? "Aborted: more than " + maxRejectedRows + " rejected rows"
+                : "Imported " + load.imported + " rows, " + load.rejectedCount + " rejected.";
+        return new ImportReport(
+            status,
+            null,
+            msg,
+            copy ? "COPY" : "BATCH",
+            load.read,
+            load.imported,
+            load.rejectedCount,
+            elapsedMs,
+            load.imported * 1000 / Math.max(1, elapsedMs),
+            load.rejected);
+      } finally {
+        statementRegistry.unregister(ctx, ps);
+      }
+    }
+  }
+
+  private static CopyManager copyManager(Connection conn) throws SQLException {
+    return conn.unwrap(PGConnection.class).getCopyAPI();
+  }
+
+  /** 以不回傳資料的查詢取得目標欄位與 JDBC 型別 */
+  private static Target describe(Connection conn, String table, List<String> columns)
+      throws SQLException {
+    String select = columns == null ? "*" : String.join(", ", columns);
+    try (Statement st = conn.createStatement();
+        ResultSet rs = st.executeQuery("SELECT " + select + " FROM " + table + " WHERE 1 = 0")) {
+      ResultSetMetaData meta = rs.getMetaData();
+      int n = meta.getColumnCount();
+      List<String> names = new ArrayList<>(n);
+      int[] types = new int[n];
+      for (int i = 0; i < n; i++) {
+        names.add(columns != null ? columns.get(i) : meta.getColumnName(i + 1));
+        types[i] = meta.getColumnType(i + 1);
+      }
+      return new Target(table, names, types);
+    }
+  }
+
+  /** 匯入目標：欄位名稱與對應的 JDBC 型別 */
+  private record Target(String table, List<String> columns, int[] types) {
+
+    String insertSql() {
+      return "INSERT INTO "
+          + table
+          + " ("
+          + String.join(", ", columns)
+          + ") VALUES ("
+          + String.join(", ", columns.stream().map(c -> "?").toList())
+          + ")";
+    }
+
+    String copySql() {
+      return "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+  }
+
+  /** 檔案中的一筆紀錄 */
+  private record Row(int line, List<String> values) {}
+
+  /**
+   * 將字串轉為欄位型別對應的 Java 物件，交給 Driver 綁定。 無法轉換時丟出 IllegalArgumentException (該列視為 rejected)。
+   */
+  static Object convert(String value, int sqlType) {
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    String v = value.strip();
+    return switch (sqlType) {
+      case Types.BIT, Types.BOOLEAN -> parseBoolean(v);
+      // MySQL INT/BIGINT UNSIGNED 回報為 INTEGER/BIGINT，值可能超過 int/long 的範圍
+      case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> parseInteger(v);
+      case Types.REAL, Types.FLOAT, Types.DOUBLE -> Double.valueOf(v);
+      case Types.NUMERIC, Types.DECIMAL -> new BigDecimal(v);
+      case Types.DATE -> java.sql.Date.valueOf(LocalDate.parse(v));
+      case Types.TIME -> Time.valueOf(v);
+      // Oracle 的 DATE 欄位預設回報為 TIMESTAMP，試算表的日期欄通常只有日期
+      case Types.TIMESTAMP ->
+          v.length() == 10
+              ? Timestamp.valueOf(LocalDate.parse(v).atStartOfDay())
+              : Timestamp.valueOf(v.replace('T', ' '));
+      case Types.TIMESTAMP_WITH_TIMEZONE -> OffsetDateTime.parse(v.replace(' ', 'T'));
+      default -> value;
+    };
+  }
+
+  /** long 範圍內為 Long，超過時為 (整數) BigDecimal */
+  private static Object parseInteger(String v) {
+    try {
+      return Long.valueOf(v);
+    } catch (NumberFormatException e) {
+      try {
+        return new BigDecimal(new BigDecimal(v).toBigIntegerExact());
+      } catch (ArithmeticException notInteger) {
+        throw new NumberFormatException("Not an integer: " + v);
+      }
+    }
+  }
+
+  private static Boolean parseBoolean(String v) {
+    return switch (v.toLowerCase(Locale.ROOT)) {
+      case "true", "t", "1", "yes", "y" -> Boolean.TRUE;
+      case "false", "f", "0", "no", "n" -> Boolean.FALSE;
+      default -> throw new IllegalArgumentException("Not a boolean: " + v);
+    };
+  }
+
+  /** 單次匯入的狀態 */
+  private final class Load {
+    private final Connection conn;
+    private final Target target;
+    private final PreparedStatement ps;
+    private final CopyManager copyManager;
+    private final boolean useSavepoints;
+    private final List<RejectedRow> rejected = new ArrayList<>();
+    private long read;
+    private long imported;
+    private long rejectedCount;
+
+    private Load(Connection conn, Target target, PreparedStatement ps, CopyManager copyManager)
+        throws SQLException {
+      this.conn = conn;
+      this.target = target;
+      this.ps = ps;
+      this.copyManager = copyManager;
+      this.useSavepoints = !conn.getAutoCommit();
+    }
+
+    /** @return false 表示 rejected 過多而中止 */
+    private boolean run(CsvReader csv) throws SQLException, IOException {
+      int width = target.columns().size();
+      List<Row> chunk = new ArrayList<>(batchSize);
+      List<String> record;
+      while ((record = csv.next()) != null) {
+        read++;
+        if (record.size() != width) {
+          reject(csv.recordLine(), "Expected " + width + " fields but found " + record.size());
+        } else {
+          chunk.add(new Row(csv.recordLine(), record));
+          if (chunk.size() >= batchSize) {
+            flush(chunk);
+            chunk.clear();
+          }
+        }
+        if (rejectedCount > maxRejectedRows) {
+          return false;
+        }
+      }
+      if (!chunk.isEmpty()) {
+        flush(chunk);
+      }
+      return rejectedCount <= maxRejectedRows;
+    }
+
+    private void flush(List<Row> chunk) throws SQLException {
+      if (copyManager != null) {
+        copy(chunk);
+      } else {
+        batch(chunk);
+      }
+    }
+
+    /** 以 COPY FROM STDIN 送出一批；失敗時回滾該批並逐筆以 INSERT 重寫 */
+    private void copy(List<Row> chunk) throws SQLException {
+      StringBuilder csv = new StringBuilder(chunk.size() * 64);
+      for (Row row : chunk) {
+        for (int i = 0; i < row.values().size(); i++) {
+          if (i > 0) {
+            csv.append(',');
+          }
+          String value = row.values().get(i);
+          if (!value.isEmpty()) { // 未加引號的空欄位為 NULL
+            csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+          }
+        }
+        csv.append('\n');
+      }
+
+      Savepoint savepoint = setSavepoint();
+      try {
+        imported += copyManager.copyIn(target.copySql(), new StringReader(csv.toString()));
+        releaseSavepoint(savepoint);
+      } catch (IOException | SQLException e) {
+        if (savepoint == null) {
+          throw e instanceof SQLException se ? se : new SQLException(e);
+        }
+        log.debug("COPY failed, replaying {} rows one by one: {}", chunk.size(), e.getMessage());
+        rollbackTo(savepoint);
+        for (Row row : chunk) {
+          single(row);
+        }
+      }
+    }
+
+    /** 以 PreparedStatement batch 送出一批；失敗時找出失敗的列 */
+    private void batch(List<Row> chunk) throws SQLException {
+      List<Row> bound = new ArrayList<>(chunk.size());
+      for (Row row : chunk) {
+        if (bind(row)) {
+          ps.addBatch();
+          bound.add(row);
+        }
+      }
+      if (bound.isEmpty()) {
+        return;
+      }
+
+      Savepoint savepoint = setSavepoint();
+      try {
+        ps.executeBatch();
+        imported += bound.size();
+        releaseSavepoint(savepoint);
+        return;
+      } catch (SQLException e) {
+        ps.clearBatch();
+        if (isCancellation(e)) {
+          throw e;
+        }
+        if (savepoint == null) {
+          recordBatchFailure(bound, e);
+          return;
+        }
+        rollbackTo(savepoint);
+      }
+
+      log.debug("Batch failed, replaying {} rows one by one", bound.size());
+      for (Row row : bound) {
+        single(row);
+      }
+    }
+
+    /**
+     * 自動 Commit 模式下無法回滾，依 BatchUpdateException 的 updateCounts 判斷。 Driver 可能在失敗處停止 (counts
+     * 較短，之後的列逐筆重寫) 或繼續執行 (以 EXECUTE_FAILED 標示)。
+     */
+    private void recordBatchFailure(List<Row> bound, SQLException e) throws SQLException {
+      int[] counts =
+          e instanceof BatchUpdateException bue && bue.getUpdateCounts() != null
+              ? bue.getUpdateCounts()
+              : new int[0];
+      for (int k = 0; k < bound.size(); k++) {
+        if (k < counts.length) {
+          if (counts[k] == Statement.EXECUTE_FAILED) {
+            reject(bound.get(k).line(), e.getMessage());
+          } else {
+            imported++;
+          }
+        } else if (k == counts.length && counts.length < bound.size()) {
+          reject(bound.get(k).line(), e.getMessage());
+        } else {
+          single(bound.get(k));
+        }
+      }
+    }
+
+    private void single(Row row) throws SQLException {
+      if (!bind(row)) {
+        return;
+      }
+      Savepoint savepoint = setSavepoint();
+      try {
+        ps.executeUpdate();
+        imported++;
+        releaseSavepoint(savepoint);
+      } catch (SQLException e) {
+        if (isCancellation(e)) {
+          throw e;
+        }
+        rollbackTo(savepoint);
+        reject(row.line(), e.getMessage());
+      }
+    }
+
+    /** @return false 表示欄位值無法轉換，該列已記為 rejected */
+    private boolean bind(Row row) throws SQLException {
+      int[] types = target.types();
+      Object[] values = new Object[types.length];
+      for (int i = 0; i < types.length; i++) {
+        try {
+          values[i] = convert(row.values().get(i), types[i]);
+        } catch (RuntimeException e) {
+          String column = target.columns().get(i);
+          reject(row.line(), "Column " + column + ": cannot convert '" + row.values().get(i) + "'");
+          return false;
+        }
+      }
+      for (int i = 0; i < types.length; i++) {
+        if (values[i] == null) {
+          ps.setNull(i + 1, types[i]);
+        } else if (types[i] == Types.OTHER) {
+          ps.setObject(i + 1, values[i], Types.OTHER); // 例如 PostgreSQL 的 uuid、jsonb
+        } else {
+          ps.setObject(i + 1, values[i]);
+        }
+      }
+      return true;
+    }
+
+    private void reject(int line, String reason) {
+      rejectedCount++;
+      if (rejected.size() < REPORTED_REJECTS) {
+        rejected.add(new RejectedRow(line, reason));
+      }
+    }
+
+    /** 使用者取消或逾時時中止整個匯入，而不是當成單列錯誤 */
+    private boolean isCancellation(SQLException e) {
+      return e instanceof SQLTimeoutException || "57014".equals(e.getSQLState());
+    }
+
+    private Savepoint setSavepoint() throws SQLException {
+      return useSavepoints ? conn.setSavepoint() : null;
+    }
+
+    private void releaseSavepoint(Savepoint savepoint) {
+      if (savepoint == null) {
+        return;
+      }
+      try {
+        conn.releaseSavepoint(savepoint);
+      } catch (SQLException e) {
+        // Oracle 等不支援 release，交易結束時自然釋放
+        log.trace("releaseSavepoint not supported: {}", e.getMessage());
+      }
+    }
+
+    private void rollbackTo(Savepoint savepoint) throws SQLException {
+      if (savepoint != null) {
+        conn.rollback(savepoint);
+      }
+    }
+  }
+}
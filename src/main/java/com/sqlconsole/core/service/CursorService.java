@@ -0,0 +1,180 @@
+package com.sqlconsole.core.service;
+
+import jakarta.servlet.http.HttpSession;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+/**
+ * 管理伺服器端的查詢 Cursor (分頁讀取)。
+ *
+ * <p>第一頁在執行時立即回傳，剩下的結果留在資料庫端，由 {@code /api/cursor/next} 逐頁讀取。 每個 Session 的開啟數量有上限
+ * (超過時關閉最久未使用的)，閒置過久的 Cursor 由排程自動關閉。
+ *
+ * <p>開啟中的 Cursor 會讓 Session 固定使用同一條連線 ({@link DbSessionService#retain})，關閉後才可能歸還連線池。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CursorService {
+
+  private final JdbcExecutor jdbcExecutor;
+  private final DbSessionService dbSessionService;
+
+  private final Map<String, OpenCursor> cursors = new ConcurrentHashMap<>();
+
+  @Value("${app.sql.page-size:500}")
+  private int pageSize;
+
+  @Value("${app.sql.cursor.max-per-session:5}")
+  private int maxPerSession;
+
+  @Value("${app.sql.cursor.idle-timeout-seconds:300}")
+  private long idleTimeoutSeconds;
+
+  /** Cursor 與其擁有者 (Session / DB)；release 結束 Cursor 對連線的借用 */
+  private record OpenCursor(
+      String id, String sessionId, Long dbId, ResultCursor cursor, Runnable release) {}
+
+  /** 執行 SQL 並回傳第一頁；若還有資料則保留 Cursor 並回傳 cursorId。 */
+  public SqlResult executeFirstPage(
+      HttpSession session, DbConfig config, Connection conn, String sql, QueryContext ctx)
+      throws SQLException {
+    ResultCursor cursor = jdbcExecutor.openCursor(conn, sql, pageSize, config.getDbType(), ctx);
+    try {
+      if (!cursor.isQuery()) {
+        cursor.close();
+        return new SqlResult(
+            "SUCCESS", null, "Affected rows: " + cursor.getUpdateCount(), List.of(), List.of());
+      }
+
+      List<Map<String, Object>> rows = cursor.fetch(pageSize);
+      if (cursor.isExhausted()) {
+        cursor.close();
+        return new SqlResult(
+            "SUCCESS", null, "Query returned " + rows.size() + " rows.", cursor.getColumns(), rows);
+      }
+
+      String cursorId =
+          register(
+              session.getId(),
+              config.getId(),
+              cursor,
+              dbSessionService.retain(session, config.getId(), conn));
+      return new SqlResult(
+          "SUCCESS",
+          null,
+          "Fetched first " + rows.size() + " rows (more available).",
+          cursor.getColumns(),
+          rows,
+          cursorId,
+          true);
+    } catch (SQLException e) {
+      cursor.close();
+      throw e;
+    }
+  }
+
+  /** 從既有 Cursor 讀取下一頁。讀完後自動關閉。 */
+  public SqlResult fetchNext(HttpSession session, String cursorId) throws SQLException {
+    OpenCursor open = cursors.get(cursorId);
+    if (open == null || !open.sessionId().equals(session.getId())) {
+      return new SqlResult("ERROR", null, "Cursor not found or expired: " + cursorId, null, null);
+    }
+
+    ResultCursor cursor = open.cursor();
+    try {
+      List<Map<String, Object>> rows = cursor.fetch(pageSize);
+      boolean hasMore = !cursor.isExhausted();
+      if (!hasMore) {
+        closeCursor(cursorId);
+      }
+      String msg =
+          hasMore
+              ? "Fetched " + cursor.getFetchedRows() + " rows so far (more available)."
+              : "Query returned " + cursor.getFetchedRows() + " rows.";
+      return new SqlResult(
+          "SUCCESS", null, msg, cursor.getColumns(), rows, hasMore ? cursorId : null, hasMore);
+    } catch (SQLException e) {
+      closeCursor(cursorId);
+      throw e;
+    }
+  }
+
+  /** 由使用者主動關閉 Cursor (只能關閉自己 Session 的) */
+  public void closeCursor(HttpSession session, String cursorId) {
+    OpenCursor open = cursors.get(cursorId);
+    if (open != null && open.sessionId().equals(session.getId())) {
+      closeCursor(cursorId);
+    }
+  }
+
+  private void closeCursor(String cursorId) {
+    OpenCursor open = cursors.remove(cursorId);
+    if (open != null) {
+      open.cursor().close();
+      open.release().run();
+    }
+  }
+
+  /** 關閉某 Session 在某個 DB 上的所有 Cursor (例如 COMMIT/ROLLBACK 之後) */
+  public void closeCursors(HttpSession session, Long dbId) {
+    cursors.values().stream()
+        .filter(c -> c.sessionId().equals(session.getId()) && c.dbId().equals(dbId))
+        .map(OpenCursor::id)
+        .toList()
+        .forEach(this::closeCursor);
+  }
+
+  /** 關閉某 Session 的所有 Cursor (Session 失效時) */
+  public void closeSessionCursors(String sessionId) {
+    cursors.values().stream()
+        .filter(c -> c.sessionId().equals(sessionId))
+        .map(OpenCursor::id)
+        .toList()
+        .forEach(this::closeCursor);
+  }
+
+  /** 定期關閉閒置過久的 Cursor，釋放資料庫端資源 */
+  @Scheduled(fixedDelayString = "${app.sql.cursor.sweep-interval-ms:30000}")
+  public void closeIdleCursors() {
+    long deadline = System.currentTimeMillis() - idleTimeoutSeconds * 1000;
+    cursors.values().stream()
+        .filter(c -> c.cursor().getLastAccessMillis() < deadline)
+        .map(OpenCursor::id)
+        .toList()
+        .forEach(
+            id -> {
+              log.debug("Closing idle cursor {}", id);
+              closeCursor(id);
+            });
+  }
+
+  private String register(String sessionId, Long dbId, ResultCursor cursor, Runnable release) {
+    // 超過上限時，先關閉此 Session 最久未使用的 Cursor
+    List<OpenCursor> owned =
+        cursors.values().stream()
+            .filter(c -> c.sessionId().equals(sessionId))
+            .sorted(Comparator.comparingLong(c -> c.cursor().getLastAccessMillis()))
+            .toList();
+    for (int i = 0; i <= owned.size() - maxPerSession; i++) {
+      log.debug("Cursor limit reached for session, closing {}", owned.get(i).id());
+      closeCursor(owned.get(i).id());
+    }
+
+    String cursorId = UUID.randomUUID().toString();
+    cursors.put(cursorId, new OpenCursor(cursorId, sessionId, dbId, cursor, release));
+    return cursorId;
+  }
+}
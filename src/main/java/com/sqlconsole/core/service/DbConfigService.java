@@ -10,6 +10,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,17 @@ public class DbConfigService {
   @Autowired private DbConfigRepository dbConfigRepository;
   @Autowired private UserRepository userRepository;
   @Autowired private EncryptionService encryptionService;
+  @Autowired private ResultCache resultCache;
+  @Autowired private ConnectionPoolManager connectionPoolManager;
+  @Autowired private DriverRegistry driverRegistry;
+  @Autowired private ReplicaRouter replicaRouter;
+  @Autowired private SchemaCacheService schemaCacheService;
+
+  /** PgJDBC preparedStatementCacheQueries 的預設值 */
+  private static final int PGJDBC_DEFAULT_STATEMENT_CACHE = 256;
+
+  @Value("${app.sql.login-timeout-seconds:10}")
+  private int defaultLoginTimeoutSeconds;
 
   @Transactional(readOnly = true)
   public List<DbConfig> getAllConfigs() {
@@ -60,6 +72,18 @@ public class DbConfigService {
               dto.setName(c.getName());
               dto.setDbType(c.getDbType());
               dto.setJdbcUrl(c.getJdbcUrl());
+              dto.setQueryTimeoutSeconds(c.getQueryTimeoutSeconds());
+              dto.setResultCacheTtlSeconds(c.getResultCacheTtlSeconds());
+              dto.setPoolMaxSize(c.getPoolMaxSize());
+              dto.setPoolMinIdle(c.getPoolMinIdle());
+              dto.setPoolIdleTimeoutSeconds(c.getPoolIdleTimeoutSeconds());
+              dto.setPoolMaxLifetimeSeconds(c.getPoolMaxLifetimeSeconds());
+              dto.setLoginTimeoutSeconds(c.getLoginTimeoutSeconds());
+              dto.setMaxConcurrentStatements(c.getMaxConcurrentStatements());
+              dto.setIdleTxWarnSeconds(c.getIdleTxWarnSeconds());
+              dto.setIdleTxTimeoutSeconds(c.getIdleTxTimeoutSeconds());
+              dto.setDriverId(c.getDriverId());
+              dto.setReplicaUrls(c.getReplicaUrls());
               try {
                 dto.setDbUser(encryptionService.decrypt(c.getDbUser()));
               } catch (Exception e) {
@@ -88,6 +112,19 @@ public class DbConfigService {
       existing.setName(config.getName());
       existing.setDbType(config.getDbType());
       existing.setJdbcUrl(config.getJdbcUrl());
+      existing.setQueryTimeoutSeconds(config.getQueryTimeoutSeconds());
+      existing.setResultCacheTtlSeconds(config.getResultCacheTtlSeconds());
+      existing.setPoolMaxSize(config.getPoolMaxSize());
+      existing.setPoolMinIdle(config.getPoolMinIdle());
+      existing.setPoolIdleTimeoutSeconds(config.getPoolIdleTimeoutSeconds());
+      existing.setPoolMaxLifetimeSeconds(config.getPoolMaxLifetimeSeconds());
+      existing.setLoginTimeoutSeconds(config.getLoginTimeoutSeconds());
+      existing.setMaxConcurrentStatements(config.getMaxConcurrentStatements());
+      existing.setIdleTxWarnSeconds(config.getIdleTxWarnSeconds());
+      existing.setIdleTxTimeoutSeconds(config.getIdleTxTimeoutSeconds());
+      existing.setDriverId(blankToNull(config.getDriverId()));
+      existing.setReplicaUrls(blankToNull(config.getReplicaUrls()));
+      resultCache.invalidate(existing.getId()); // 連線目標或快取設定可能已改變
 
       // Handle User: Always encrypt as UI sends plain text
       if (config.getDbUser() != null) {
@@ -101,9 +138,14 @@ public class DbConfigService {
         existing.setDbPassword(encryptionService.encrypt(config.getDbPassword()));
       }
 
-      return dbConfigRepository.save(existing);
+      DbConfig saved = dbConfigRepository.save(existing);
+      connectionPoolManager.evict(saved.getId()); // 下次借用時以新設定重建連線池
+      replicaRouter.reset(saved.getId());
+      schemaCacheService.invalidate(saved.getId());
+      return saved;
     } else {
       // New config
+      config.setDriverId(blankToNull(config.getDriverId()));
       if (config.getDbUser() != null) {
         config.setDbUser(encryptionService.encrypt(config.getDbUser()));
       }
@@ -117,15 +159,31 @@ public class DbConfigService {
   @Transactional
   public void deleteConfig(Long id) {
     dbConfigRepository.deleteById(id);
+    resultCache.invalidate(id);
+    connectionPoolManager.evict(id);
+    replicaRouter.reset(id);
+    schemaCacheService.invalidate(id);
   }
 
   /** Creates a raw JDBC connection for the given config. Decrypts credentials before connecting. */
   public Connection createConnection(DbConfig config) throws SQLException {
+    return createConnection(config, config.getJdbcUrl());
+  }
+
+  /** 同上，連線到 DbConfig 的另一個 URL (Replica)，使用相同的帳號與 Driver */
+  public Connection createConnection(DbConfig config, String jdbcUrl) throws SQLException {
     String decryptedUser = encryptionService.decrypt(config.getDbUser());
     String decryptedPassword = encryptionService.decrypt(config.getDbPassword());
+    int loginTimeout =
+        config.getLoginTimeoutSeconds() != null
+            ? config.getLoginTimeoutSeconds()
+            : defaultLoginTimeoutSeconds;
 
-    return createConnection(
-        config.getDbType(), config.getJdbcUrl(), decryptedUser, decryptedPassword);
+    return connect(
+        config.getDbType(),
+        config.getDriverId(),
+        jdbcUrl,
+        connectionProperties(config.getDbType(), decryptedUser, decryptedPassword, loginTimeout));
   }
 
   /**
@@ -134,7 +192,44 @@ public class DbConfigService {
    */
   public Connection createConnection(DbType dbType, String url, String user, String password)
       throws SQLException {
+    return createConnection(dbType, null, url, user, password);
+  }
+
+  /** 同上，使用 drivers 目錄下的 Driver (driverId 為 null 時見 {@link DriverRegistry#resolve}) */
+  public Connection createConnection(
+      DbType dbType, String driverId, String url, String user, String password)
+      throws SQLException {
+    return connect(
+        dbType,
+        driverId,
+        url,
+        connectionProperties(dbType, user, password, defaultLoginTimeoutSeconds));
+  }
+
+  private Connection connect(DbType dbType, String driverId, String url, Properties props)
+      throws SQLException {
+    String resolved = driverRegistry.resolve(dbType, driverId);
+    if (resolved != null) {
+      return driverRegistry.connect(resolved, url, props);
+    }
+    return DriverManager.getConnection(url, props);
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value;
+  }
+
+  /**
+   * Driver 連線參數 (user/password、Oracle 的 internal_logon 與登入逾時)，連線池也使用相同的參數。
+   *
+   * @param loginTimeoutSeconds 建立 TCP 連線與登入的逾時，0 表示使用 Driver 預設值
+   */
+  static Properties connectionProperties(
+      DbType dbType, String user, String password, int loginTimeoutSeconds) {
     Properties props = new Properties();
+    if (loginTimeoutSeconds > 0 && dbType != null) {
+      putLoginTimeout(props, dbType, loginTimeoutSeconds);
+    }
 
     if (user != null) {
       String finalUser = user;
@@ -155,13 +250,66 @@ public class DbConfigService {
     if (password != null) {
       props.put("password", password);
     }
+    return props;
+  }
 
-    return DriverManager.getConnection(url, props);
+  /** 各 Driver 的連線逾時參數名稱與單位不同；URL 中已指定的值以 Driver 的規則為準 */
+  private static void putLoginTimeout(Properties props, DbType dbType, int seconds) {
+    String millis = String.valueOf(seconds * 1000L);
+    switch (dbType) {
+      case POSTGRESQL -> {
+        props.put("connectTimeout", String.valueOf(seconds));
+        props.put("loginTimeout", String.valueOf(seconds));
+      }
+      case MYSQL, MARIADB -> props.put("connectTimeout", millis);
+      case ORACLE -> props.put("oracle.net.CONNECT_TIMEOUT", millis);
+      case MSSQL, DB2 -> props.put("loginTimeout", String.valueOf(seconds));
+    }
+  }
+
+  /**
+   * 啟用 Driver 的 Statement 快取：每條實體連線以 LRU 保留最近 prepare 的 SQL，PreparedStatement 關閉後再次 prepare
+   * 相同 SQL 時重用，不需重新 Parse。 HikariCP 在歸還連線時關閉借出期間的 Statement，所以快取由 Driver 在實體連線上維護。
+   * DB2 (JCC) 只在 ConnectionPoolDataSource 支援 Statement 快取，不設定。 PgJDBC 預設已快取 256 個語句，只在設定值較大時
+   * 覆寫；SQL Server 的快取需另外關閉預設為 true 的 disableStatementPooling 才會生效。
+   *
+   * @param size 每條連線快取的語句數，0 表示不設定 (使用 Driver 預設值)
+   */
+  static void putStatementCache(Properties props, DbType dbType, int size) {
+    if (size <= 0 || dbType == null) {
+      return;
+    }
+    String entries = String.valueOf(size);
+    switch (dbType) {
+      case POSTGRESQL -> {
+        if (size > PGJDBC_DEFAULT_STATEMENT_CACHE) {
+          props.put("preparedStatementCacheQueries", entries);
+        }
+      }
+      case MYSQL, MARIADB -> {
+        props.put("useServerPrepStmts", "true");
+        props.put("cachePrepStmts", "true");
+        props.put("prepStmtCacheSize", entries);
+        props.put("prepStmtCacheSqlLimit", "8192");
+      }
+      case ORACLE -> props.put("oracle.jdbc.implicitStatementCacheSize", entries);
+      case MSSQL -> {
+        props.put("disableStatementPooling", "false");
+        props.put("statementPoolingCacheSize", entries);
+      }
+      case DB2 -> {}
+    }
   }
 
   /** Tests a connection using provided (plain text) parameters. */
   public String testConnection(DbType dbType, String url, String user, String password) {
-    try (Connection conn = createConnection(dbType, url, user, password)) {
+    return testConnection(dbType, null, url, user, password);
+  }
+
+  /** 使用指定的 Driver 測試連線 */
+  public String testConnection(
+      DbType dbType, String driverId, String url, String user, String password) {
+    try (Connection conn = createConnection(dbType, driverId, url, user, password)) {
       return "SUCCESS";
     } catch (SQLException e) {
       log.error("Connection test failed", e);
@@ -3,38 +3,304 @@ package com.sqlconsole.core.service;
 import jakarta.servlet.http.HttpSession;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.WebUtils;
 import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.service.ConnectionTracker.Outcome;
 
-/** 管理 Session 中的 JDBC 連線 */
+/**
+ * 管理 Session 使用的 JDBC 連線。
+ *
+ * <p>連線向 {@link ConnectionPoolManager} 借用，Session 只在需要時固定 (pin) 同一條連線：請求執行中、有尚未
+ * COMMIT/ROLLBACK 的寫入 ({@link #markInTransaction})、或有未讀完的 Cursor ({@link #retain})。 三者都結束後
+ * {@link #release} 將連線歸還連線池 (唯讀查詢開啟的交易由連線池回滾)，閒置的 Session 不佔用資料庫連線。
+ *
+ * <p>HikariCP 歸還時只還原 autoCommit、readOnly、isolation、catalog 與 schema，以 SQL 改變的 Session 狀態 (例如
+ * {@code SET search_path}、{@code ALTER SESSION SET CURRENT_SCHEMA}、{@code SET ROLE}、{@code USE db}、暫存表) 會
+ * 留給下一個借用者。 執行過這類語句 (非唯讀也非 DML，見 {@link #markSessionStateChanged}) 的連線在 COMMIT/ROLLBACK 前
+ * 固定於 Session，結束時自連線池移除並關閉實體連線，不再借給其他使用者。
+ *
+ * <p>唯讀查詢可由 {@link #getReadConnection} 改向 Replica 借用 (不在交易中時)，同樣以 {@link #release} 結束。 Session
+ * 在每個 DB 上最多持有一條 Replica 連線，同時進行的查詢與 Cursor 共用，避免少數使用者的 Cursor 佔滿 Replica 連線池。
+ *
+ * <p>固定中的連線都登記在 {@link ConnectionTracker}；Session 失效時由 {@link ConnectionReaper} 回滾並關閉，交易閒置
+ * 過久時由 {@link IdleTransactionWatchdog} 回滾並關閉。
+ */
+@Slf4j
 @Service
 public class DbSessionService {
 
-  @Autowired private DbConfigService dbConfigService;
+  private static final String ATTR_PREFIX = "CONN_";
+  private static final String REPLICA_ATTR_PREFIX = "REPLICA_";
 
+  @Autowired private ConnectionPoolManager connectionPoolManager;
+  @Autowired private ConnectionTracker connectionTracker;
+  @Autowired private ReplicaRouter replicaRouter;
+
+  /**
+   * 取得 Session 在此 DB 上固定使用的連線，沒有時向連線池借用。 每次取得都必須以 {@link #release} 結束。
+   */
   public Connection getConnection(HttpSession session, DbConfig config) throws SQLException {
-    String key = "CONN_" + config.getId();
-    Connection conn = (Connection) session.getAttribute(key);
+    String key = ATTR_PREFIX + config.getId();
+    synchronized (WebUtils.getSessionMutex(session)) {
+      SessionConnection pinned = find(session, config.getId());
+      if (pinned != null) {
+        if (!pinned.connection().isClosed() && pinned.acquire()) {
+          return pinned.connection();
+        }
+        // 連線已被關閉 (例如資料庫端中斷)，交易已不存在
+        if (pinned.forceRelease()) {
+          connectionTracker.unregister(pinned, Outcome.RETURNED);
+        }
+      }
+
+      Connection conn = connectionPoolManager.getConnection(config);
+      pinned = new SessionConnection(conn, config.getId(), session.getId(), owner(session));
+      try {
+        conn.setAutoCommit(false); // 啟用手動 TCL
+        pinned.acquire();
+        session.setAttribute(key, pinned);
+      } catch (SQLException | IllegalStateException e) {
+        closeQuietly(conn); // Session 已失效時不留下無人持有的連線
+        throw e;
+      }
+      connectionTracker.sessionActive(session.getId());
+      connectionTracker.register(pinned);
+      return conn;
+    }
+  }
+
+  /**
+   * 唯讀查詢使用的連線：DbConfig 有可用的 Replica 且 Session 在此 DB 上沒有未 Commit 的交易時向 Replica 借用，
+   * 否則同 {@link #getConnection}。 每次取得都必須以 {@link #release} 結束。
+   */
+  public Connection getReadConnection(HttpSession session, DbConfig config) throws SQLException {
+    if (!replicaRouter.hasReplicas(config) || isInTransaction(session, config.getId())) {
+      return getConnection(session, config);
+    }
+    synchronized (WebUtils.getSessionMutex(session)) {
+      SessionConnection leased = find(session, REPLICA_ATTR_PREFIX, config.getId());
+      if (leased != null) {
+        if (!leased.connection().isClosed() && leased.acquire()) {
+          return leased.connection();
+        }
+        if (leased.forceRelease()) {
+          connectionTracker.unregister(leased, Outcome.RETURNED);
+        }
+      }
+
+      ReplicaRouter.Routed routed = replicaRouter.route(config);
+      if (routed == null) {
+        return getConnection(session, config); // Replica 全部無法使用或連線池已滿
+      }
+      Connection conn = routed.connection();
+      leased =
+          new SessionConnection(
+              conn, config.getId(), routed.node(), session.getId(), owner(session));
+      try {
+        leased.acquire();
+        session.setAttribute(REPLICA_ATTR_PREFIX + config.getId(), leased);
+      } catch (IllegalStateException e) {
+        closeQuietly(conn); // Session 已失效時不留下無人持有的連線
+        throw e;
+      }
+      connectionTracker.sessionActive(session.getId());
+      connectionTracker.register(leased);
+      return conn;
+    }
+  }
 
-    if (conn == null || conn.isClosed()) {
-      // Use DbConfigService to create connection (handles decryption and roles)
-      conn = dbConfigService.createConnection(config);
-      conn.setAutoCommit(false); // 啟用手動 TCL
-      session.setAttribute(key, conn);
+  /** 連線所在的節點 ("primary" 或 "replica-N")，用於顯示查詢由哪個節點執行 */
+  public String nodeOf(Connection conn) {
+    SessionConnection pinned = connectionTracker.find(conn);
+    return pinned == null || pinned.node() == ConnectionPoolManager.PRIMARY
+        ? "primary"
+        : "replica-" + pinned.node();
+  }
+
+  /** 結束一次 {@link #getConnection}；沒有其他借用且不在交易中時將連線歸還連線池 */
+  public void release(HttpSession session, Long dbConfigId, Connection conn) {
+    SessionConnection pinned = connectionTracker.find(conn);
+    if (pinned != null) {
+      release(session, pinned);
+    } else {
+      closeQuietly(conn); // 連線已被回收 (Session 失效)，只關閉這次借用
+    }
+  }
+
+  /**
+   * 請求結束後仍需使用此連線時 (未讀完的 Cursor) 增加一次借用。
+   *
+   * @return 結束這次借用的動作，重複執行只生效一次
+   */
+  public Runnable retain(HttpSession session, Long dbConfigId, Connection conn) {
+    SessionConnection pinned = connectionTracker.find(conn);
+    if (pinned == null || !pinned.acquire()) {
+      return () -> {};
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    return () -> {
+      if (done.compareAndSet(false, true)) {
+        release(session, pinned);
+      }
+    };
+  }
+
+  /** 連線上有尚未 Commit 的寫入，在 {@link #endTransaction} 前不歸還連線池 */
+  public void markInTransaction(HttpSession session, Long dbConfigId) {
+    SessionConnection pinned = find(session, dbConfigId);
+    if (pinned != null) {
+      pinned.setInTransaction(true);
+    }
+  }
+
+  /**
+   * 連線執行過可能改變 Session 狀態的語句，之後的歸還 ({@link #release}、{@link #closeConnection} 等) 改為自連線池移除
+   */
+  public void markSessionStateChanged(HttpSession session, Long dbConfigId) {
+    SessionConnection pinned = find(session, dbConfigId);
+    if (pinned != null) {
+      pinned.markSessionStateChanged();
     }
-    return conn;
   }
 
+  /** 交易已 Commit/Rollback。 連線在呼叫端 {@link #release} 時歸還。 */
+  public void endTransaction(HttpSession session, Long dbConfigId) {
+    SessionConnection pinned = find(session, dbConfigId);
+    if (pinned != null) {
+      pinned.setInTransaction(false);
+    }
+  }
+
+  public boolean isInTransaction(HttpSession session, Long dbConfigId) {
+    SessionConnection pinned = find(session, dbConfigId);
+    return pinned != null && pinned.isInTransaction();
+  }
+
+  /** 立即關閉 Session 在此 DB 上的連線 (未 Commit 的交易由連線池回滾) */
   public void closeConnection(HttpSession session, Long dbConfigId) {
-    String key = "CONN_" + dbConfigId;
-    Connection conn = (Connection) session.getAttribute(key);
-    if (conn != null) {
+    SessionConnection pinned = find(session, dbConfigId);
+    if (pinned != null) {
+      if (pinned.forceRelease()) {
+        returnToPool(pinned);
+        connectionTracker.unregister(pinned, Outcome.RETURNED);
+      }
+      session.removeAttribute(ATTR_PREFIX + dbConfigId);
+    }
+  }
+
+  /**
+   * 回收擁有者已不存在的連線：先回滾未 Commit 的交易。 沒有執行中的請求時歸還連線池，否則自連線池移除並中斷。
+   *
+   * @param outcome Session 失效時的正常回收，或排程發現的洩漏
+   */
+  void reclaim(SessionConnection pinned, Outcome outcome) {
+    if (!pinned.forceRelease()) {
+      return;
+    }
+    Connection conn = pinned.connection();
+    if (pinned.leases() > 0) {
+      connectionPoolManager.evictConnection(pinned.dbId(), pinned.node(), conn);
+    } else {
       try {
-        conn.close();
-      } catch (Exception e) {
+        if (!conn.isClosed() && !conn.getAutoCommit()) {
+          conn.rollback();
+        }
+      } catch (SQLException e) {
+        log.warn("Rollback of orphaned connection failed", e);
+      }
+      returnToPool(pinned);
+    }
+    connectionTracker.unregister(pinned, outcome);
+  }
+
+  /**
+   * 交易閒置達到上限時回滾並將連線歸還連線池。 Session 仍保留舊的連線物件，下次取得時因已結束而改借新的連線。
+   *
+   * @return 是否已回滾 (期間再次使用或已結束時不回滾)
+   */
+  boolean rollbackIdle(SessionConnection pinned, long now, long limitMillis) {
+    if (!pinned.releaseIfIdleInTransaction(now, limitMillis)) {
+      return false;
+    }
+    Connection conn = pinned.connection();
+    try {
+      if (!conn.isClosed()) {
+        conn.rollback();
+      }
+    } catch (SQLException e) {
+      // 關閉時由連線池回滾
+      log.warn("Rollback of idle transaction on db {} failed", pinned.dbId(), e);
+    }
+    returnToPool(pinned);
+    connectionTracker.unregister(pinned, Outcome.IDLE_ROLLBACK);
+    return true;
+  }
+
+  private void release(HttpSession session, SessionConnection pinned) {
+    if (!pinned.release()) {
+      if (pinned.isReleased()) {
+        closeQuietly(pinned.connection()); // 已被回收，只關閉這次借用
       }
-      session.removeAttribute(key);
+      return;
+    }
+    returnToPool(pinned);
+    connectionTracker.unregister(pinned, Outcome.RETURNED);
+    String prefix = pinned.node() == ConnectionPoolManager.PRIMARY ? ATTR_PREFIX : REPLICA_ATTR_PREFIX;
+    String key = prefix + pinned.dbId();
+    try {
+      if (session.getAttribute(key) == pinned) {
+        session.removeAttribute(key);
+      }
+    } catch (IllegalStateException e) {
+      // Session 已失效
+    }
+  }
+
+  private static SessionConnection find(HttpSession session, Long dbConfigId) {
+    return find(session, ATTR_PREFIX, dbConfigId);
+  }
+
+  private static SessionConnection find(HttpSession session, String prefix, Long dbConfigId) {
+    try {
+      return session.getAttribute(prefix + dbConfigId) instanceof SessionConnection p
+          ? p
+          : null;
+    } catch (IllegalStateException e) {
+      return null; // Session 已失效
+    }
+  }
+
+  /** 登入者名稱，用於追蹤連線的擁有者 (非同步工作的 Thread 沒有 SecurityContext，改由 Session 取得) */
+  private static String owner(HttpSession session) {
+    Object ctx =
+        session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+    if (ctx instanceof SecurityContext sc && sc.getAuthentication() != null) {
+      return sc.getAuthentication().getName();
+    }
+    return null;
+  }
+
+  /** 歸還連線池；Session 狀態已改變時自連線池移除，下一個借用者取得新的實體連線 */
+  private void returnToPool(SessionConnection pinned) {
+    if (pinned.isSessionStateChanged()) {
+      connectionPoolManager.evictConnection(pinned.dbId(), pinned.node(), pinned.connection());
+    } else {
+      closeQuietly(pinned.connection());
+    }
+  }
+
+  /** close() 將連線歸還連線池 */
+  private static void closeQuietly(Connection conn) {
+    try {
+      conn.close();
+    } catch (SQLException e) {
+      log.warn("Failed to return connection to pool", e);
     }
   }
 }
@@ -0,0 +1,321 @@
+package com.sqlconsole.core.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.DriverInfo;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.util.SqlConsoleClassLoader;
+
+/**
+ * 由 drivers 目錄載入的 JDBC Driver，每個 {@code name/version} 一個獨立的 {@link SqlConsoleClassLoader}。
+ *
+ * <p>目錄結構為 {@code <app.sql.drivers.dir>/<name>/<version>/*.jar}，DbConfig.driverId 指定 {@code name/version}；
+ * 未指定時見 {@link #resolve}。 Driver 在第一次建立連線時才載入，不經由 DriverManager 註冊，只供使用它的 DbConfig
+ * 使用。
+ *
+ * <p>WAR 只內建 PgJDBC (CsvImporter 依賴其 CopyManager)，其他廠商的 Driver 由 {@code ./gradlew installJdbcDrivers}
+ * 安裝到 drivers 目錄 (見 build.gradle)，未使用的 Driver 不會被載入。
+ */
+@Slf4j
+@Component
+public class DriverRegistry {
+
+  /** name/version，不得以 . 開頭 (避免 .. 跳出 drivers 目錄) */
+  private static final Pattern DRIVER_ID = Pattern.compile("[\\w-][\\w.-]*/[\\w-][\\w.-]*");
+
+  private static final Pattern NUMBER = Pattern.compile("\\d{1,18}");
+
+  @Value("${app.sql.drivers.dir:drivers}")
+  private String driversDir;
+
+  private final Map<String, LoadedDriver> loaded = new ConcurrentHashMap<>();
+
+  private record LoadedDriver(SqlConsoleClassLoader classLoader, List<Driver> drivers) {}
+
+  /**
+   * DbConfig 使用的 driverId: 有指定時直接使用，否則為 drivers 目錄下 {@code <dbType 小寫>/} 中版本最新的一個。
+   *
+   * @return null 表示使用應用程式 Classpath 上的 Driver (DriverManager)；PostgreSQL 一律如此，CsvImporter 需要
+   *     與內建 PgJDBC 相同的類別
+   */
+  public String resolve(DbType dbType, String driverId) {
+    if (driverId != null && !driverId.isBlank()) {
+      return driverId;
+    }
+    if (dbType == null || dbType == DbType.POSTGRESQL) {
+      return null;
+    }
+    String name = dbType.name().toLowerCase(Locale.ROOT);
+    Path dir = Path.of(driversDir).resolve(name);
+    if (!Files.isDirectory(dir)) {
+      return null;
+    }
+    try (Stream<Path> versions = Files.list(dir)) {
+      String latest = null;
+      for (Path version : versions.filter(Files::isDirectory).toList()) {
+        String v = version.getFileName().toString();
+        if (!jars(version).isEmpty() && (latest == null || compareVersions(v, latest) > 0)) {
+          latest = v;
+        }
+      }
+      return latest != null ? name + "/" + latest : null;
+    } catch (IOException e) {
+      log.warn("Cannot list JDBC drivers in {}", dir, e);
+      return null;
+    }
+  }
+
+  /** 依數字段比較版本 (19.29.0.0 大於 19.3.0.0)，非數字段以字串比較 */
+  static int compareVersions(String a, String b) {
+    String[] x = a.split("[.-]");
+    String[] y = b.split("[.-]");
+    for (int i = 0; i < Math.min(x.length, y.length); i++) {
+      int c =
+          NUMBER.matcher(x[i]).matches() && NUMBER.matcher(y[i]).matches()
+              ? Long.compare(Long.parseLong(x[i]), Long.parseLong(y[i]))
+              : x[i].compareTo(y[i]);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return Integer.compare(x.length, y.length);
+  }
+
+  /** 以指定的 Driver 建立連線 */
+  public Connection connect(String driverId, String url, Properties props) throws SQLException {
+    LoadedDriver driver = load(driverId);
+    // 部分 Driver (例如 Oracle 的 NLS 資源) 由 Context ClassLoader 載入資源
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+    thread.setContextClassLoader(driver.classLoader());
+    try {
+      for (Driver d : driver.drivers()) {
+        if (d.acceptsURL(url)) {
+          Connection conn = d.connect(url, props);
+          if (conn != null) {
+            return conn;
+          }
+        }
+      }
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+    throw new SQLException("No driver in " + driverId + " accepts URL " + url, "08001");
+  }
+
+  /** 供連線池使用的 DataSource，每次建立連線都使用指定的 Driver 與參數 */
+  public DataSource dataSource(String driverId, String url, Properties props) {
+    return new DriverDataSource(this, driverId, url, props);
+  }
+
+  /** drivers 目錄下可用的 Driver */
+  public List<DriverInfo> available() {
+    Path root = Path.of(driversDir);
+    if (!Files.isDirectory(root)) {
+      return List.of();
+    }
+    List<DriverInfo> drivers = new ArrayList<>();
+    try (Stream<Path> names = Files.list(root)) {
+      for (Path name : names.filter(Files::isDirectory).toList()) {
+        try (Stream<Path> versions = Files.list(name)) {
+          for (Path version : versions.filter(Files::isDirectory).toList()) {
+            String id = name.getFileName() + "/" + version.getFileName();
+            List<String> jars =
+                jars(version).stream().map(p -> p.getFileName().toString()).toList();
+            if (!jars.isEmpty()) {
+              drivers.add(
+                  new DriverInfo(
+                      id,
+                      name.getFileName().toString(),
+                      version.getFileName().toString(),
+                      jars,
+                      loaded.containsKey(id)));
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Cannot list JDBC drivers in {}", root, e);
+    }
+    drivers.sort(Comparator.comparing(DriverInfo::id));
+    return drivers;
+  }
+
+  /** 已載入的 Driver 在第一次使用後保留到應用程式結束 (已建立的連線仍依賴其類別) */
+  private LoadedDriver load(String driverId) throws SQLException {
+    LoadedDriver driver = loaded.get(driverId);
+    if (driver != null) {
+      return driver;
+    }
+    synchronized (loaded) {
+      driver = loaded.get(driverId);
+      if (driver == null) {
+        driver = doLoad(driverId);
+        loaded.put(driverId, driver);
+      }
+      return driver;
+    }
+  }
+
+  private LoadedDriver doLoad(String driverId) throws SQLException {
+    if (driverId == null || !DRIVER_ID.matcher(driverId).matches()) {
+      throw new SQLException("Invalid driver id: " + driverId);
+    }
+    Path dir = Path.of(driversDir).resolve(driverId);
+    List<Path> jars;
+    try {
+      jars = Files.isDirectory(dir) ? jars(dir) : List.of();
+    } catch (IOException e) {
+      throw new SQLException("Cannot read driver directory " + dir, e);
+    }
+    if (jars.isEmpty()) {
+      throw new SQLException("JDBC driver not found: " + dir.toAbsolutePath());
+    }
+
+    URL[] urls = new URL[jars.size()];
+    try {
+      for (int i = 0; i < urls.length; i++) {
+        urls[i] = jars.get(i).toUri().toURL();
+      }
+    } catch (MalformedURLException e) {
+      throw new SQLException("Invalid driver path " + dir, e);
+    }
+
+    long start = System.nanoTime();
+    SqlConsoleClassLoader classLoader = new SqlConsoleClassLoader(driverId, urls);
+    List<Driver> drivers = new ArrayList<>();
+    try {
+      for (Driver d : ServiceLoader.load(Driver.class, classLoader)) {
+        if (d.getClass().getClassLoader() == classLoader) {
+          drivers.add(d);
+        }
+      }
+    } catch (ServiceConfigurationError e) {
+      closeQuietly(classLoader);
+      throw new SQLException("Cannot load JDBC driver " + driverId + ": " + e.getMessage(), e);
+    }
+    if (drivers.isEmpty()) {
+      closeQuietly(classLoader);
+      throw new SQLException("No java.sql.Driver service found in " + dir.toAbsolutePath());
+    }
+    log.info(
+        "Loaded JDBC driver {} ({}) in {}ms",
+        driverId,
+        drivers.stream().map(d -> d.getClass().getName()).toList(),
+        (System.nanoTime() - start) / 1_000_000);
+    return new LoadedDriver(classLoader, drivers);
+  }
+
+  private static List<Path> jars(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(p -> p.getFileName().toString().endsWith(".jar")).sorted().toList();
+    }
+  }
+
+  private static void closeQuietly(SqlConsoleClassLoader classLoader) {
+    try {
+      classLoader.close();
+    } catch (IOException e) {
+      log.debug("Failed to close class loader {}", classLoader.getName(), e);
+    }
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    loaded.values().forEach(d -> closeQuietly(d.classLoader()));
+    loaded.clear();
+  }
+
+  /** 以 {@link DriverRegistry#connect} 建立連線的 DataSource (HikariCP 只呼叫無參數的 getConnection) */
+  private static final class DriverDataSource implements DataSource {
+    private final DriverRegistry registry;
+    private final String driverId;
+    private final String url;
+    private final Properties props;
+    private int loginTimeout;
+
+    private DriverDataSource(
+        DriverRegistry registry, String driverId, String url, Properties props) {
+      this.registry = registry;
+      this.driverId = driverId;
+      this.url = url;
+      this.props = props;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return registry.connect(driverId, url, props);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      Properties withUser = new Properties();
+      withUser.putAll(props);
+      withUser.put("user", username);
+      withUser.put("password", password);
+      return registry.connect(driverId, url, withUser);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+      return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {}
+
+    // 登入逾時由 Driver 參數設定 (DbConfigService#connectionProperties)
+    @Override
+    public void setLoginTimeout(int seconds) {
+      loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+      return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+      if (iface.isInstance(this)) {
+        return iface.cast(this);
+      }
+      throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+      return iface.isInstance(this);
+    }
+  }
+}
@@ -1,21 +1,52 @@
 package com.sqlconsole.core.service;
 
+import jakarta.annotation.PostConstruct;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.sqlconsole.core.util.EncryptionUtil;
 
+/**
+ * 加解密 DbConfig 的帳號密碼。
+ *
+ * <p>新密文一律為 v2 格式，使用啟動時由 master-key 衍生一次的金鑰，解密不需要 PBKDF2 計算。 舊的 v1 密文 (每筆各自的
+ * Salt) 仍可解密，衍生出的金鑰依 Salt 快取 (有上限的 LRU)，並由 {@link CredentialMigrationService} 轉為 v2。
+ */
 @Service
 public class EncryptionService {
 
   @Value("${app.security.master-key}")
   private String masterKey;
 
+  /** v1 金鑰快取的上限 (筆數，約等於 v1 密文的數量) */
+  @Value("${app.security.legacy-key-cache-size:1024}")
+  private int legacyKeyCacheSize;
+
+  private SecretKey dataKey;
+
+  private Map<String, SecretKey> legacyKeys;
+
+  @PostConstruct
+  void init() throws Exception {
+    dataKey = EncryptionUtil.deriveMasterKey(masterKey);
+    legacyKeys =
+        new LinkedHashMap<>(64, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, SecretKey> eldest) {
+            return size() > legacyKeyCacheSize;
+          }
+        };
+  }
+
   public String encrypt(String plainText) {
     if (plainText == null || plainText.isEmpty()) {
       return plainText;
     }
     try {
-      return EncryptionUtil.encrypt(plainText, masterKey);
+      return EncryptionUtil.encryptV2(plainText, dataKey);
     } catch (Exception e) {
       throw new RuntimeException("Encryption failed", e);
     }
@@ -26,9 +57,35 @@ public class EncryptionService {
       return encryptedText;
     }
     try {
-      return EncryptionUtil.decrypt(encryptedText, masterKey);
+      if (EncryptionUtil.isV2(encryptedText)) {
+        return EncryptionUtil.decryptV2(encryptedText, dataKey);
+      }
+      return EncryptionUtil.decrypt(encryptedText, this::legacyKey);
     } catch (Exception e) {
       throw new RuntimeException("Decryption failed", e);
     }
   }
+
+  /** 是否為需要轉換為 v2 的舊格式密文 */
+  public boolean isLegacy(String encryptedText) {
+    return encryptedText != null
+        && !encryptedText.isEmpty()
+        && !EncryptionUtil.isV2(encryptedText);
+  }
+
+  /** 依 Salt 取得 v1 金鑰；未命中時在鎖外衍生，避免一筆 PBKDF2 計算擋住其他解密 */
+  private SecretKey legacyKey(byte[] salt) throws Exception {
+    String cacheKey = Base64.getEncoder().encodeToString(salt);
+    synchronized (legacyKeys) {
+      SecretKey cached = legacyKeys.get(cacheKey);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    SecretKey derived = EncryptionUtil.deriveKey(masterKey, salt);
+    synchronized (legacyKeys) {
+      legacyKeys.put(cacheKey, derived);
+    }
+    return derived;
+  }
 }
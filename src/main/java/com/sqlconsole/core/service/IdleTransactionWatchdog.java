@@ -0,0 +1,189 @@
+package com.sqlconsole.core.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.IdleTransactionNotice;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.entity.SqlHistory;
+import com.sqlconsole.core.repository.DbConfigRepository;
+import com.sqlconsole.core.repository.SqlHistoryRepository;
+
+/**
+ * 監看有未 Commit 寫入的連線，避免使用者執行 UPDATE 後離開而長時間鎖住資料。
+ *
+ * <p>交易閒置 (沒有執行中的請求或 Cursor) 超過警告門檻時，Console 經由 {@link #notices} 顯示警告；超過上限時回滾並將連線
+ * 歸還連線池，記錄於 sql_history。 回滾的通知保留到使用者在該 DB 執行 COMMIT/ROLLBACK 或開始新的交易為止 (最多一小時)，
+ * 期間的 COMMIT 回報錯誤而非成功。 門檻以 DbConfig 的設定
+ * 優先，未設定時使用 {@code app.sql.idle-transaction.*}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdleTransactionWatchdog {
+
+  /** 回滾通知在未被取出時保留的時間 */
+  private static final long NOTICE_RETENTION_MS = 3_600_000;
+
+  private final ConnectionTracker connectionTracker;
+  private final DbSessionService dbSessionService;
+  private final DbConfigRepository dbConfigRepository;
+  private final SqlHistoryRepository historyRepo;
+
+  @Value("${app.sql.idle-transaction.warn-seconds:300}")
+  private int defaultWarnSeconds;
+
+  @Value("${app.sql.idle-transaction.timeout-seconds:1800}")
+  private int defaultTimeoutSeconds;
+
+  /** sessionId → 尚未取出的回滾通知 */
+  private final Map<String, List<RolledBack>> rolledBack = new ConcurrentHashMap<>();
+
+  /** 測試時替換 */
+  LongSupplier clock = System::currentTimeMillis;
+
+  private record RolledBack(IdleTransactionNotice notice, long at) {}
+
+  @Scheduled(fixedDelayString = "${app.sql.idle-transaction.check-interval-ms:15000}")
+  public void check() {
+    long now = clock.getAsLong();
+    Map<Long, Optional<DbConfig>> configs = new HashMap<>();
+    for (SessionConnection conn : connectionTracker.inTransaction()) {
+      long idle = conn.idleInTransactionMillis(now);
+      if (idle < 0) {
+        continue;
+      }
+      DbConfig config =
+          configs.computeIfAbsent(conn.dbId(), dbConfigRepository::findById).orElse(null);
+      long timeoutMs = timeoutSeconds(config) * 1000L;
+      long warnMs = warnSeconds(config) * 1000L;
+      if (timeoutMs > 0 && idle >= timeoutMs) {
+        if (dbSessionService.rollbackIdle(conn, now, timeoutMs)) {
+          onRolledBack(conn, config, idle, now);
+        }
+      } else if (warnMs > 0 && idle >= warnMs && conn.markIdleWarned()) {
+        log.warn(
+            "Transaction of {} on db {} has been idle for {}s",
+            conn.owner(),
+            conn.dbId(),
+            idle / 1000);
+      }
+    }
+    rolledBack.values().forEach(list -> removeExpired(list, now));
+    rolledBack.values().removeIf(List::isEmpty);
+  }
+
+  /** Session 目前閒置中的交易與尚未取出的回滾通知 */
+  public List<IdleTransactionNotice> notices(String sessionId) {
+    long now = clock.getAsLong();
+    List<IdleTransactionNotice> notices = new ArrayList<>();
+    for (SessionConnection conn : connectionTracker.ofSession(sessionId)) {
+      long idle = conn.idleInTransactionMillis(now);
+      if (idle < 0) {
+        continue;
+      }
+      DbConfig config = dbConfigRepository.findById(conn.dbId()).orElse(null);
+      int warnSeconds = warnSeconds(config);
+      if (warnSeconds <= 0 || idle < warnSeconds * 1000L) {
+        continue;
+      }
+      int timeoutSeconds = timeoutSeconds(config);
+      long rollbackIn = timeoutSeconds > 0 ? Math.max(0, timeoutSeconds - idle / 1000) : -1;
+      notices.add(
+          new IdleTransactionNotice(
+              conn.dbId(),
+              name(config, conn.dbId()),
+              "IDLE",
+              idle / 1000,
+              rollbackIn,
+              String.format(
+                  "Uncommitted transaction on '%s' has been idle for %ds%s. COMMIT or ROLLBACK to"
+                      + " release its locks.",
+                  name(config, conn.dbId()),
+                  idle / 1000,
+                  rollbackIn >= 0 ? ", it will be rolled back in " + rollbackIn + "s" : "")));
+    }
+    List<RolledBack> pending = rolledBack.get(sessionId);
+    if (pending != null) {
+      synchronized (pending) {
+        pending.forEach(r -> notices.add(r.notice()));
+      }
+    }
+    return notices;
+  }
+
+  /**
+   * 取出此 DB 的回滾通知，於 COMMIT/ROLLBACK 時呼叫 (COMMIT 時告知交易已不存在)。 回滾後又有新的寫入時也會呼叫，
+   * 之後的 COMMIT 屬於新的交易。
+   */
+  public Optional<IdleTransactionNotice> takeRolledBack(String sessionId, Long dbId) {
+    List<RolledBack> pending = rolledBack.get(sessionId);
+    if (pending == null) {
+      return Optional.empty();
+    }
+    synchronized (pending) {
+      for (RolledBack r : pending) {
+        if (r.notice().dbId().equals(dbId)) {
+          pending.remove(r);
+          return Optional.of(r.notice());
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private void onRolledBack(SessionConnection conn, DbConfig config, long idle, long now) {
+    String dbName = name(config, conn.dbId());
+    log.warn(
+        "Rolled back transaction of {} on db {} after {}s idle", conn.owner(), dbName, idle / 1000);
+    historyRepo.save(
+        new SqlHistory(
+            conn.owner(),
+            dbName,
+            "ROLLBACK -- idle in transaction for " + idle / 1000 + "s",
+            "AUTO_ROLLBACK"));
+    IdleTransactionNotice notice =
+        new IdleTransactionNotice(
+            conn.dbId(),
+            dbName,
+            "ROLLED_BACK",
+            idle / 1000,
+            0,
+            String.format(
+                "Uncommitted transaction on '%s' was rolled back after %ds idle.",
+                dbName, idle / 1000));
+    rolledBack
+        .computeIfAbsent(conn.sessionId(), id -> Collections.synchronizedList(new ArrayList<>()))
+        .add(new RolledBack(notice, now));
+  }
+
+  private static void removeExpired(List<RolledBack> list, long now) {
+    synchronized (list) {
+      list.removeIf(r -> now - r.at() > NOTICE_RETENTION_MS);
+    }
+  }
+
+  private int warnSeconds(DbConfig config) {
+    Integer value = config != null ? config.getIdleTxWarnSeconds() : null;
+    return value != null ? value : defaultWarnSeconds;
+  }
+
+  private int timeoutSeconds(DbConfig config) {
+    Integer value = config != null ? config.getIdleTxTimeoutSeconds() : null;
+    return value != null ? value : defaultTimeoutSeconds;
+  }
+
+  private static String name(DbConfig config, Long dbId) {
+    return config != null ? config.getName() : "db " + dbId;
+  }
+}
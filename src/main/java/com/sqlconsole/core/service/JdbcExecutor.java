@@ -1,42 +1,52 @@
 package com.sqlconsole.core.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.dto.StreamSummary;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+import com.sqlconsole.core.service.codec.RowDecoder;
+import com.sqlconsole.core.util.SqlParameters;
 
 /** 負責單純的 JDBC 執行與結果集轉換。 讓 Service 層專注於流程控制，而非 JDBC API 細節。 */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class JdbcExecutor {
 
+  private final ObjectMapper objectMapper;
+  private final ColumnCodecRegistry codecRegistry;
+  private final StatementRegistry statementRegistry;
+
   public SqlResult executeSql(Connection conn, String sql) throws SQLException {
     String status = "SUCCESS";
     String msg;
     List<String> columns = new ArrayList<>();
-    List<Map<String, Object>> rows = new ArrayList<>();
+    List<Map<String, Object>> rows = List.of();
 
-    // 去除結尾分號
-    String executableSql = sql.trim();
-    if (executableSql.endsWith(";")) {
-      executableSql = executableSql.substring(0, executableSql.length() - 1);
-    }
+    String executableSql = stripTrailingSemicolon(sql);
 
     try (Statement stmt = conn.createStatement()) {
       boolean hasResultSet = stmt.execute(executableSql);
       if (hasResultSet) {
         try (ResultSet rs = stmt.getResultSet()) {
-          ResultSetMetaData meta = rs.getMetaData();
-          int colCount = meta.getColumnCount();
-          for (int i = 1; i <= colCount; i++) columns.add(meta.getColumnLabel(i));
+          RowDecoder decoder = codecRegistry.decoderFor(rs.getMetaData(), null);
+          columns.addAll(decoder.columns());
 
-          while (rs.next()) {
-            Map<String, Object> row = new LinkedHashMap<>();
-            for (String col : columns) row.put(col, rs.getObject(col));
-            rows.add(row);
-          }
+          RowDecoder.Page page = decoder.newPage();
+          while (rs.next()) page.decodeRow(rs);
+          rows = page.build();
           msg = "Query returned " + rows.size() + " rows.";
         }
       } else {
@@ -45,4 +55,185 @@ public class JdbcExecutor {
     }
     return new SqlResult(status, null, msg, columns, rows);
   }
+
+  /**
+   * 執行 SQL 但不讀取結果，回傳可分頁讀取的 {@link ResultCursor}。 Statement 在 cursor 關閉前保持開啟。
+   *
+   * <p>Statement 只在 execute 期間登記為可取消；之後的分頁讀取筆數有限，由 Cursor 的關閉機制處理。
+   *
+   * <p>{@link QueryContext#hasParameters()} 時以 PreparedStatement 綁定參數執行。
+   *
+   * @param fetchSize 每次向資料庫抓取的列數 (Driver 層級的 buffer 大小)
+   */
+  public ResultCursor openCursor(
+      Connection conn, String sql, int fetchSize, DbType dbType, QueryContext ctx)
+      throws SQLException {
+    Statement stmt = statementFor(conn, sql, fetchSize, ctx);
+    statementRegistry.register(ctx, stmt);
+    try {
+      execute(stmt, sql);
+      ResultSet rs = stmt.getResultSet();
+      RowDecoder decoder = rs == null ? null : codecRegistry.decoderFor(rs.getMetaData(), dbType);
+      return new ResultCursor(stmt, decoder);
+    } catch (SQLException e) {
+      stmt.close();
+      throw e;
+    } finally {
+      statementRegistry.unregister(ctx, stmt);
+    }
+  }
+
+  /**
+   * 串流執行 SQL，逐列將結果寫入輸出串流，不在記憶體中累積整個結果集。
+   *
+   * <p>輸出格式: {@code {"columns":[...],"rows":[[...],...],"trailer":{...}}}。 rows 以陣列表示
+   * (欄位順序同 columns)，trailer 於串流結束時寫出，包含筆數與耗時。 若查詢中途失敗，已送出的列不會收回，
+   * 錯誤會記錄在 trailer 的 status/message。
+   *
+   * @param fetchSize 每次向資料庫抓取的列數 (Driver 層級的 buffer 大小)
+   */
+  public StreamSummary streamSql(
+      Connection conn,
+      String sql,
+      int fetchSize,
+      DbType dbType,
+      QueryContext ctx,
+      OutputStream out)
+      throws IOException {
+    long start = System.nanoTime();
+    long rowCount = 0;
+    String status = "SUCCESS";
+    String msg;
+
+    JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    gen.writeStartObject();
+    gen.writeArrayFieldStart("columns");
+    boolean inRows = false;
+
+    Statement stmt = null;
+    try {
+      stmt = statementFor(conn, sql, fetchSize, ctx);
+      statementRegistry.register(ctx, stmt);
+      boolean hasResultSet = execute(stmt, sql);
+      if (hasResultSet) {
+        try (ResultSet rs = stmt.getResultSet()) {
+          RowDecoder decoder = codecRegistry.decoderFor(rs.getMetaData(), dbType);
+          int colCount = decoder.columnCount();
+          for (String col : decoder.columns()) gen.writeString(col);
+          gen.writeEndArray();
+
+          gen.writeArrayFieldStart("rows");
+          inRows = true;
+          // 先讀完整列再輸出，避免讀取中途失敗時留下半列
+          Object[] cells = new Object[colCount];
+          while (rs.next()) {
+            for (int i = 0; i < colCount; i++) cells[i] = decoder.read(rs, i);
+            gen.writeStartArray();
+            for (Object cell : cells) gen.writeObject(cell);
+            gen.writeEndArray();
+            rowCount++;
+          }
+          msg = "Query returned " + rowCount + " rows.";
+        }
+      } else {
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("rows");
+        inRows = true;
+        msg = "Affected rows: " + stmt.getUpdateCount();
+      }
+    } catch (SQLException e) {
+      status = "ERROR";
+      msg = e.getMessage();
+      if (!inRows) {
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("rows");
+      }
+    } finally {
+      if (stmt != null) {
+        statementRegistry.unregister(ctx, stmt);
+        closeQuietly(stmt);
+      }
+    }
+    gen.writeEndArray();
+
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    StreamSummary summary = new StreamSummary(status, rowCount, elapsedMs, msg);
+    gen.writeObjectFieldStart("trailer");
+    gen.writeStringField("status", summary.status());
+    gen.writeNumberField("rowCount", summary.rowCount());
+    gen.writeNumberField("elapsedMs", summary.elapsedMs());
+    gen.writeStringField("message", summary.message());
+    gen.writeEndObject();
+    gen.writeEndObject();
+    gen.flush();
+    return summary;
+  }
+
+  /** 建立 Statement 並套用 fetchSize 與查詢逾時 */
+  Statement createStatement(Connection conn, int fetchSize, QueryContext ctx)
+      throws SQLException {
+    return configure(conn.createStatement(), fetchSize, ctx);
+  }
+
+  /**
+   * 沒有參數時同 {@link #createStatement}；有參數時將 SQL 轉換為 PreparedStatement 並綁定參數值。
+   *
+   * <p>相同 SQL 不同參數值的查詢不必重新 Hard Parse。 PreparedStatement 關閉後由 Driver 的 Statement 快取保留 (見
+   * {@link DbConfigService#putStatementCache})，同一條實體連線再次 prepare 相同 SQL 時重用。
+   */
+  private Statement statementFor(Connection conn, String sql, int fetchSize, QueryContext ctx)
+      throws SQLException {
+    if (!ctx.hasParameters()) {
+      return createStatement(conn, fetchSize, ctx);
+    }
+    SqlParameters.Bound bound = SqlParameters.bind(stripTrailingSemicolon(sql), ctx.parameters());
+    PreparedStatement ps = configure(conn.prepareStatement(bound.sql()), fetchSize, ctx);
+    try {
+      for (int i = 0; i < bound.values().size(); i++) {
+        ps.setObject(i + 1, bound.values().get(i));
+      }
+      return ps;
+    } catch (SQLException e) {
+      ps.close();
+      throw e;
+    }
+  }
+
+  private static boolean execute(Statement stmt, String sql) throws SQLException {
+    return stmt instanceof PreparedStatement ps
+        ? ps.execute()
+        : stmt.execute(stripTrailingSemicolon(sql));
+  }
+
+  /** 套用 fetchSize 與查詢逾時 */
+  private static <S extends Statement> S configure(S stmt, int fetchSize, QueryContext ctx)
+      throws SQLException {
+    try {
+      stmt.setFetchSize(fetchSize);
+      if (ctx.queryTimeoutSeconds() > 0) {
+        stmt.setQueryTimeout(ctx.queryTimeoutSeconds());
+      }
+      return stmt;
+    } catch (SQLException e) {
+      stmt.close();
+      throw e;
+    }
+  }
+
+  private void closeQuietly(Statement stmt) {
+    try {
+      stmt.close();
+    } catch (SQLException e) {
+      log.warn("Failed to close statement", e);
+    }
+  }
+
+  /** 去除結尾分號 */
+  static String stripTrailingSemicolon(String sql) {
+    String executableSql = sql.trim();
+    if (executableSql.endsWith(";")) {
+      executableSql = executableSql.substring(0, executableSql.length() - 1);
+    }
+    return executableSql;
+  }
 }
@@ -0,0 +1,35 @@
+package com.sqlconsole.core.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 單次執行的附帶資訊：用於登記可取消的 Statement、套用逾時與綁定參數。
+ *
+ * @param sessionId 發出請求的 HttpSession
+ * @param requestId 前端產生的請求識別碼；為 null 時不登記，無法取消
+ * @param queryTimeoutSeconds {@link java.sql.Statement#setQueryTimeout(int)}，0 表示不限制
+ * @param parameters {@code ?} 參數的值 (List) 或 {@code :name} 參數的值 (Map)，見 {@link
+ *     com.sqlconsole.core.util.SqlParameters}；null 時 SQL 原樣執行
+ */
+public record QueryContext(
+    String sessionId, String requestId, int queryTimeoutSeconds, Object parameters) {
+
+  /** 內部查詢 (例如讀取 Schema) 使用：不登記、不設逾時 */
+  public static final QueryContext NONE = new QueryContext(null, null, 0);
+
+  public QueryContext(String sessionId, String requestId, int queryTimeoutSeconds) {
+    this(sessionId, requestId, queryTimeoutSeconds, null);
+  }
+
+  public boolean isCancellable() {
+    return sessionId != null && requestId != null && !requestId.isBlank();
+  }
+
+  /** 是否以 PreparedStatement 綁定參數執行 */
+  public boolean hasParameters() {
+    return parameters instanceof Collection<?> c
+        ? !c.isEmpty()
+        : parameters instanceof Map<?, ?> m ? !m.isEmpty() : parameters != null;
+  }
+}
@@ -0,0 +1,68 @@
+package com.sqlconsole.core.service;
+
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+import com.sqlconsole.core.model.dto.SqlResult;
+
+/** 非同步執行中的 SQL 工作。結果保留到 {@link QueryJobService} 的保留時間到期為止。 */
+@Getter
+public class QueryJob {
+
+  public enum State {
+    PENDING, // 等待同一連線上的前一個工作
+    RUNNING,
+    DONE,
+    FAILED,
+    CANCELLED // 開始執行前或執行中被取消
+  }
+
+  private final String id;
+  private final String sessionId;
+  private final Long dbId;
+  private final long submittedAt = System.currentTimeMillis();
+  private final CompletableFuture<SqlResult> future = new CompletableFuture<>();
+  private volatile State state = State.PENDING;
+  private volatile long finishedAt;
+  private volatile boolean cancelRequested;
+
+  QueryJob(String id, String sessionId, Long dbId) {
+    this.id = id;
+    this.sessionId = sessionId;
+    this.dbId = dbId;
+  }
+
+  void markRunning() {
+    state = State.RUNNING;
+  }
+
+  void complete(SqlResult result) {
+    finishedAt = System.currentTimeMillis();
+    state = State.DONE;
+    future.complete(result);
+  }
+
+  void fail(Throwable error) {
+    finishedAt = System.currentTimeMillis();
+    state = State.FAILED;
+    future.complete(new SqlResult("ERROR", null, error.getMessage(), null, null));
+  }
+
+  void requestCancel() {
+    cancelRequested = true;
+  }
+
+  void cancel(SqlResult result) {
+    finishedAt = System.currentTimeMillis();
+    state = State.CANCELLED;
+    future.complete(result);
+  }
+
+  public boolean isFinished() {
+    return future.isDone();
+  }
+
+  /** 已完成時回傳結果，否則為 null */
+  public SqlResult getResult() {
+    return future.getNow(null);
+  }
+}
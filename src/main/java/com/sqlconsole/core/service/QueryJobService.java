@@ -0,0 +1,198 @@
+package com.sqlconsole.core.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.sqlconsole.core.model.dto.SqlResult;
+
+/**
+ * 以 Virtual Thread 非同步執行 SQL，立即回傳工作編號。
+ *
+ * <p>前端以 {@code /api/jobs/{id}} 輪詢或訂閱 {@code /api/jobs/{id}/events} (SSE) 取得完成通知。
+ * 同一 Session 在同一個 DB 上的工作共用一條連線，因此依提交順序逐一執行。 結果 (最多一頁) 在完成後保留 {@code
+ * app.sql.jobs.retention-seconds} 秒，每個 Session 另有保留數量上限。
+ *
+ * <p>等待連線鎖或並行名額 ({@link AdmissionControl}) 的工作尚未登記在 {@link StatementRegistry}，取消時在工作上記錄取消
+ * 旗標，取得連線鎖後與取得並行名額後 (見 {@link SqlExecutorService}) 檢查，不再執行。
+ */
+@Slf4j
+@Service
+public class QueryJobService {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<String, QueryJob> jobs = new ConcurrentHashMap<>();
+
+  @Value("${app.sql.jobs.retention-seconds:600}")
+  private long retentionSeconds;
+
+  @Value("${app.sql.jobs.max-per-session:20}")
+  private int maxPerSession;
+
+  @Value("${app.sql.jobs.sse-timeout-ms:600000}")
+  private long sseTimeoutMs;
+
+  /**
+   * 提交工作。
+   *
+   * @param prepare 以工作編號 (同時作為可取消的 requestId) 建立實際工作；於呼叫端 Thread 執行，權限錯誤會直接拋出
+   * @throws IllegalStateException 此 Session 執行中的工作已達上限
+   */
+  public QueryJob submit(
+      HttpSession session, Long dbId, Function<String, Supplier<SqlResult>> prepare) {
+    long running =
+        jobs.values().stream()
+            .filter(job -> job.getSessionId().equals(session.getId()) && !job.isFinished())
+            .count();
+    if (running >= maxPerSession) {
+      throw new IllegalStateException("Too many running jobs in this session: " + running);
+    }
+
+    String jobId = UUID.randomUUID().toString();
+    Supplier<SqlResult> work = prepare.apply(jobId);
+
+    QueryJob job = new QueryJob(jobId, session.getId(), dbId);
+    jobs.put(jobId, job);
+    evictOverflow(session.getId());
+
+    ReentrantLock lock = connectionLock(session, dbId);
+    executor.execute(() -> run(job, lock, work));
+    return job;
+  }
+
+  private void run(QueryJob job, ReentrantLock lock, Supplier<SqlResult> work) {
+    lock.lock();
+    try {
+      if (job.isCancelRequested()) {
+        job.cancel(new SqlResult("ERROR", null, "Cancelled before execution", null, null));
+        return;
+      }
+      job.markRunning();
+      SqlResult result = work.get();
+      if (job.isCancelRequested() && "ERROR".equals(result.status())) {
+        job.cancel(result);
+      } else {
+        job.complete(result);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Query job {} failed", job.getId(), e);
+      job.fail(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 只能查詢自己 Session 的工作 */
+  public Optional<QueryJob> find(HttpSession session, String jobId) {
+    QueryJob job = jobs.get(jobId);
+    if (job == null || !job.getSessionId().equals(session.getId())) {
+      return Optional.empty();
+    }
+    return Optional.of(job);
+  }
+
+  /**
+   * 取消尚未完成的工作。 執行中的語句另由 {@link StatementRegistry#cancel} 取消。
+   *
+   * @return 找到自己 Session 中未完成的工作時為 true
+   */
+  public boolean cancel(HttpSession session, String jobId) {
+    QueryJob job = jobs.get(jobId);
+    if (job == null || !job.getSessionId().equals(session.getId()) || job.isFinished()) {
+      return false;
+    }
+    job.requestCancel();
+    log.info("Cancel requested for query job {}", jobId);
+    return true;
+  }
+
+  /** 工作 (以工作編號作為 requestId) 是否已被要求取消；不是非同步工作的 requestId 一律為 false */
+  public boolean isCancelRequested(String sessionId, String jobId) {
+    if (sessionId == null || jobId == null) {
+      return false;
+    }
+    QueryJob job = jobs.get(jobId);
+    return job != null && job.getSessionId().equals(sessionId) && job.isCancelRequested();
+  }
+
+  /**
+   * 訂閱工作完成事件：先送出目前狀態 ({@code status})，完成時送出 {@code done} 後結束串流。 結果本身由前端再以 {@code
+   * /api/jobs/{id}} 取得 (可協商欄式格式)。
+   */
+  public SseEmitter subscribe(QueryJob job) {
+    SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+    try {
+      emitter.send(SseEmitter.event().name("status").data(job.getState().name()));
+    } catch (IOException e) {
+      emitter.completeWithError(e);
+      return emitter;
+    }
+    job.getFuture()
+        .whenComplete(
+            (result, error) -> {
+              try {
+                emitter.send(SseEmitter.event().name("done").data(job.getState().name()));
+                emitter.complete();
+              } catch (IOException | IllegalStateException e) {
+                // 前端已離線或 emitter 已逾時
+                emitter.completeWithError(e);
+              }
+            });
+    return emitter;
+  }
+
+  /** 移除超過保留時間的已完成工作 */
+  @Scheduled(fixedDelayString = "${app.sql.jobs.sweep-interval-ms:30000}")
+  public void evictExpired() {
+    long cutoff = System.currentTimeMillis() - retentionSeconds * 1000;
+    jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < cutoff);
+  }
+
+  /** 超過每個 Session 的上限時，先移除最早完成的工作 (執行中的不移除) */
+  private void evictOverflow(String sessionId) {
+    List<QueryJob> finished =
+        jobs.values().stream()
+            .filter(job -> job.getSessionId().equals(sessionId) && job.isFinished())
+            .sorted(Comparator.comparingLong(QueryJob::getFinishedAt))
+            .toList();
+    long owned = jobs.values().stream().filter(job -> job.getSessionId().equals(sessionId)).count();
+    for (QueryJob job : finished) {
+      if (owned <= maxPerSession) {
+        break;
+      }
+      jobs.remove(job.getId());
+      owned--;
+    }
+  }
+
+  /** 與 Session 中的連線 (CONN_{dbId}) 對應的鎖，隨 Session 一起失效 */
+  private synchronized ReentrantLock connectionLock(HttpSession session, Long dbId) {
+    String key = "JOB_LOCK_" + dbId;
+    ReentrantLock lock = (ReentrantLock) session.getAttribute(key);
+    if (lock == null) {
+      lock = new ReentrantLock();
+      session.setAttribute(key, lock);
+    }
+    return lock;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
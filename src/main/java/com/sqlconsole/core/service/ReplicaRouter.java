@@ -0,0 +1,151 @@
+package com.sqlconsole.core.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+/**
+ * 為唯讀查詢選擇 DbConfig 的 Replica。
+ *
+ * <p>依 {@code app.sql.replica.strategy} 輪流 (ROUND_ROBIN) 或選擇往返延遲最低的 Replica (LEAST_LATENCY)。 延遲為
+ * {@link ConnectionHealthService} 定期對各 Replica 執行探測查詢的往返時間 ({@link #recordLatency}，以指數移動平均
+ * 計算)；尚無樣本的 Replica 視為 0，延遲相同時輪流使用。 停用健康探測時 LEAST_LATENCY 等同 ROUND_ROBIN。
+ *
+ * <p>無法取得連線的 Replica 在 {@code retry-after-ms} 內略過，連線池已滿的 Replica 不等待直接略過；全部無法使用時由呼叫端
+ * 改用 Primary。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplicaRouter {
+
+  public enum Strategy {
+    ROUND_ROBIN,
+    LEAST_LATENCY
+  }
+
+  /** 借用到的 Replica 連線與其 node 編號 (1 起) */
+  public record Routed(Connection connection, int node) {}
+
+  private record NodeKey(Long dbId, int node) {}
+
+  private final ConnectionPoolManager connectionPoolManager;
+
+  @Value("${app.sql.replica.strategy:ROUND_ROBIN}")
+  private Strategy strategy;
+
+  @Value("${app.sql.replica.retry-after-ms:30000}")
+  private long retryAfterMs;
+
+  private final Map<Long, AtomicInteger> nextNode = new ConcurrentHashMap<>();
+  private final Map<NodeKey, NodeState> nodes = new ConcurrentHashMap<>();
+
+  public boolean hasReplicas(DbConfig config) {
+    return !ConnectionPoolManager.replicaUrls(config).isEmpty();
+  }
+
+  /**
+   * 向可用的 Replica 借用一條唯讀連線，使用完畢需 close() 歸還。
+   *
+   * @return null 表示沒有設定 Replica 或全部無法使用
+   */
+  public Routed route(DbConfig config) {
+    int count = ConnectionPoolManager.replicaUrls(config).size();
+    if (count == 0) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    for (int node : order(config.getId(), count)) {
+      NodeState state =
+          nodes.computeIfAbsent(new NodeKey(config.getId(), node), k -> new NodeState());
+      if (!state.isAvailable(now) || connectionPoolManager.isSaturated(config.getId(), node)) {
+        continue;
+      }
+      try {
+        Connection conn = connectionPoolManager.getReplicaConnection(config, node);
+        state.succeeded();
+        return new Routed(conn, node);
+      } catch (SQLException | RuntimeException e) {
+        if (ConnectionPoolManager.isPoolExhausted(e)) {
+          continue; // Replica 可連線，只是連線都在使用中
+        }
+        state.failed(System.currentTimeMillis() + retryAfterMs);
+        log.warn(
+            "Replica {} of db {} unavailable for {}ms: {}",
+            node,
+            config.getId(),
+            retryAfterMs,
+            e.getMessage());
+      }
+    }
+    return null;
+  }
+
+  /** 記錄第 node 個 Replica 一次探測查詢的往返時間 */
+  public void recordLatency(Long dbId, int node, long micros) {
+    nodes.computeIfAbsent(new NodeKey(dbId, node), k -> new NodeState()).recordLatency(micros);
+  }
+
+  /** DbConfig 修改或刪除後清除狀態 */
+  public void reset(Long dbId) {
+    nextNode.remove(dbId);
+    nodes.keySet().removeIf(key -> key.dbId().equals(dbId));
+  }
+
+  /** 嘗試的順序 (node 編號 1..count) */
+  private List<Integer> order(Long dbId, int count) {
+    List<Integer> order = new ArrayList<>(count);
+    AtomicInteger next = nextNode.computeIfAbsent(dbId, id -> new AtomicInteger());
+    int start = Math.floorMod(next.getAndIncrement(), count);
+    for (int i = 0; i < count; i++) {
+      order.add((start + i) % count + 1);
+    }
+    if (strategy == Strategy.LEAST_LATENCY) {
+      // 穩定排序：延遲相同 (例如尚無樣本) 時維持輪流的順序
+      order.sort(Comparator.comparingDouble(node -> latency(dbId, node)));
+    }
+    return order;
+  }
+
+  private double latency(Long dbId, int node) {
+    NodeState state = nodes.get(new NodeKey(dbId, node));
+    return state == null ? 0 : state.latencyMicros();
+  }
+
+  private static final class NodeState {
+    private static final double ALPHA = 0.2;
+
+    private double latencyMicros;
+    private long unavailableUntil;
+
+    synchronized boolean isAvailable(long now) {
+      return now >= unavailableUntil;
+    }
+
+    synchronized void succeeded() {
+      unavailableUntil = 0;
+    }
+
+    synchronized void recordLatency(long micros) {
+      latencyMicros = latencyMicros == 0 ? micros : ALPHA * micros + (1 - ALPHA) * latencyMicros;
+    }
+
+    synchronized void failed(long until) {
+      unavailableUntil = until;
+    }
+
+    synchronized double latencyMicros() {
+      return latencyMicros;
+    }
+  }
+}
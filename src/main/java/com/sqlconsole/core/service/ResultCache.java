@@ -0,0 +1,190 @@
+package com.sqlconsole.core.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+import com.sqlconsole.core.model.dto.ResultCacheStats;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.util.SqlClassifier;
+
+/**
+ * 唯讀查詢結果的快取，以 dbId 與正規化後的 SQL 為鍵，依保留的總 bytes (而非筆數) 做 LRU 淘汰。
+ *
+ * <p>只對 {@link DbConfig#getResultCacheTtlSeconds()} 大於 0 的連線啟用，且只快取已完整讀取 (沒有 Cursor)
+ * 的結果。 透過 {@link SqlExecutorService} 執行的 DML/DDL 會清除該 dbId 的所有快取。
+ *
+ * <p>Session 有尚未 Commit 的寫入時 ({@link DbSessionService#isInTransaction})，該 Session 的查詢不讀也不寫快取，
+ * 避免看到或散布未 Commit 的資料 (由 {@link SqlExecutorService} 判斷)。
+ */
+@Slf4j
+@Component
+public class ResultCache {
+
+  /** 估算每筆快取的固定開銷 (鍵、SqlResult 與 Map 節點) */
+  private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+  @Value("${app.sql.result-cache.max-bytes:67108864}")
+  private long maxBytes;
+
+  /** 單一結果超過此大小時不快取，避免一次擠掉大量其他結果 */
+  @Value("${app.sql.result-cache.max-entry-bytes:4194304}")
+  private long maxEntryBytes;
+
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalBytes;
+
+  /** 每次清除遞增，用來丟棄清除前就開始執行的查詢結果 */
+  private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  private record Key(Long dbId, String sql) {}
+
+  private record Entry(SqlResult result, long bytes, long expiresAt) {}
+
+  /** 此連線的這個語句是否使用快取 */
+  public boolean isEnabled(DbConfig config, String sql) {
+    Integer ttl = config.getResultCacheTtlSeconds();
+    return ttl != null && ttl > 0 && maxBytes > 0 && SqlClassifier.isCacheable(sql);
+  }
+
+  /** 目前的版本號，於執行查詢前取得並在 {@link #put} 時帶入 */
+  public long generation(Long dbId) {
+    return generations.computeIfAbsent(dbId, id -> new AtomicLong()).get();
+  }
+
+  public Optional<SqlResult> get(DbConfig config, String sql) {
+    Key key = new Key(config.getId(), SqlClassifier.normalize(sql));
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+        remove(key);
+        expirations.increment();
+        entry = null;
+      }
+      if (entry == null) {
+        misses.increment();
+        return Optional.empty();
+      }
+      hits.increment();
+      return Optional.of(entry.result());
+    }
+  }
+
+  /**
+   * 放入完整讀取的結果。 取得 generation 之後該 dbId 若被清除過，則不放入。
+   *
+   * @param generation 執行查詢前由 {@link #generation(Long)} 取得
+   */
+  public void put(DbConfig config, String sql, SqlResult result, long generation) {
+    if (result.hasMore() || !"SUCCESS".equals(result.status())) {
+      return;
+    }
+    long bytes = estimateBytes(result);
+    if (bytes > maxEntryBytes || bytes > maxBytes) {
+      return;
+    }
+    Key key = new Key(config.getId(), SqlClassifier.normalize(sql));
+    long expiresAt = System.currentTimeMillis() + config.getResultCacheTtlSeconds() * 1000L;
+    synchronized (this) {
+      if (generation(config.getId()) != generation) {
+        return;
+      }
+      remove(key);
+      entries.put(key, new Entry(result, bytes, expiresAt));
+      totalBytes += bytes;
+      puts.increment();
+      evictIfNeeded();
+    }
+  }
+
+  /** 清除某個連線的所有快取 (該連線執行了 DML/DDL) */
+  public void invalidate(Long dbId) {
+    generations.computeIfAbsent(dbId, id -> new AtomicLong()).incrementAndGet();
+    int removed = 0;
+    synchronized (this) {
+      Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<Key, Entry> e = it.next();
+        if (e.getKey().dbId().equals(dbId)) {
+          totalBytes -= e.getValue().bytes();
+          it.remove();
+          removed++;
+        }
+      }
+    }
+    if (removed > 0) {
+      invalidations.add(removed);
+      log.debug("Invalidated {} cached results for db {}", removed, dbId);
+    }
+  }
+
+  public synchronized ResultCacheStats stats() {
+    long h = hits.sum();
+    long m = misses.sum();
+    return new ResultCacheStats(
+        h,
+        m,
+        h + m == 0 ? 0 : (double) h / (h + m),
+        puts.sum(),
+        evictions.sum(),
+        expirations.sum(),
+        invalidations.sum(),
+        entries.size(),
+        totalBytes,
+        maxBytes);
+  }
+
+  /** 依存取順序由最久未使用的開始淘汰，直到總量低於上限 */
+  private void evictIfNeeded() {
+    Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && it.hasNext()) {
+      Map.Entry<Key, Entry> eldest = it.next();
+      totalBytes -= eldest.getValue().bytes();
+      it.remove();
+      evictions.increment();
+    }
+  }
+
+  private void remove(Key key) {
+    Entry old = entries.remove(key);
+    if (old != null) {
+      totalBytes -= old.bytes();
+    }
+  }
+
+  /** 欄式結果依欄位向量估算；其他結果以每格 32 bytes 粗估 */
+  static long estimateBytes(SqlResult result) {
+    long bytes = ENTRY_OVERHEAD_BYTES;
+    List<String> columns = result.columns();
+    if (columns != null) {
+      for (String col : columns) {
+        bytes += 40 + 2L * col.length();
+      }
+    }
+    if (result.message() != null) {
+      bytes += 40 + 2L * result.message().length();
+    }
+    if (result.rows() instanceof ColumnarRows columnar) {
+      bytes += columnar.estimatedBytes();
+    } else if (result.rows() != null && columns != null) {
+      bytes += 32L * result.rows().size() * columns.size();
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,88 @@
+package com.sqlconsole.core.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+import com.sqlconsole.core.service.codec.RowDecoder;
+
+/**
+ * 包裝一組尚未讀完的 Statement/ResultSet，讓查詢結果可以分頁讀取。
+ *
+ * <p>非查詢語句 (DML/DDL) 沒有 ResultSet，只會帶回 updateCount。 呼叫端負責在讀完或逾時後呼叫 {@link #close()}。
+ */
+@Slf4j
+public class ResultCursor implements AutoCloseable {
+
+  private final Statement stmt;
+  private final ResultSet rs;
+  private final RowDecoder decoder;
+  @Getter private final List<String> columns;
+  @Getter private final int updateCount;
+  @Getter private boolean exhausted;
+  /** ResultSet 已前進到一筆尚未放入任何一頁的列 (預讀的結果) */
+  private boolean pending;
+  @Getter private long fetchedRows;
+  @Getter private volatile long lastAccessMillis = System.currentTimeMillis();
+
+  /** @param decoder 查詢結果的解碼器；非查詢語句為 null */
+  ResultCursor(Statement stmt, RowDecoder decoder) throws SQLException {
+    this.stmt = stmt;
+    this.decoder = decoder;
+    if (decoder != null) {
+      this.rs = stmt.getResultSet();
+      this.columns = decoder.columns();
+      this.updateCount = -1;
+    } else {
+      this.rs = null;
+      this.columns = List.of();
+      this.updateCount = stmt.getUpdateCount();
+      this.exhausted = true;
+    }
+  }
+
+  public boolean isQuery() {
+    return rs != null;
+  }
+
+  /**
+   * 讀取下一批資料，最多 maxRows 筆。讀到結尾時 {@link #isExhausted()} 變為 true。
+   *
+   * <p>頁面填滿後再預讀一列：剩餘的列剛好填滿一頁時，這一頁就是最後一頁，不必再多一次請求才得知讀完 (期間 Cursor 佔用連線)。
+   * 預讀的列留在 ResultSet 的目前位置，下次讀取時放在頁首。
+   */
+  public synchronized ColumnarRows fetch(int maxRows) throws SQLException {
+    lastAccessMillis = System.currentTimeMillis();
+    if (exhausted) {
+      return ColumnarRows.builder(columns).build();
+    }
+    RowDecoder.Page page = decoder.newPage();
+    while (page.rowCount() < maxRows) {
+      if (!pending && !rs.next()) {
+        exhausted = true;
+        break;
+      }
+      pending = false;
+      page.decodeRow(rs);
+    }
+    if (!exhausted) {
+      pending = rs.next();
+      exhausted = !pending;
+    }
+    fetchedRows += page.rowCount();
+    return page.build();
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      stmt.close(); // 連同 ResultSet 一併關閉
+    } catch (SQLException e) {
+      log.warn("Failed to close cursor statement", e);
+    }
+    exhausted = true;
+  }
+}
@@ -0,0 +1,185 @@
+package com.sqlconsole.core.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.StreamSummary;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.enums.ExportFormat;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+import com.sqlconsole.core.service.codec.RowDecoder;
+
+/**
+ * 將查詢結果直接從 ResultSet 逐列寫成 CSV 或 JSON Lines，記憶體用量與筆數無關。
+ *
+ * <p>與 {@link JdbcExecutor#streamSql} 不同，輸出是給檔案下載用的純資料格式，沒有 trailer；
+ * 中途失敗時由呼叫端中斷回應，讓下載顯示為失敗而不是留下不完整的檔案。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResultExporter {
+
+  private static final int WRITE_BUFFER = 64 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final ColumnCodecRegistry codecRegistry;
+  private final StatementRegistry statementRegistry;
+  private final JdbcExecutor jdbcExecutor;
+
+  /**
+   * @param fetchSize 每次向資料庫抓取的列數；MySQL 改用逐列串流 (見 {@link #streamingFetchSize})
+   */
+  public StreamSummary export(
+      Connection conn,
+      String sql,
+      int fetchSize,
+      DbType dbType,
+      QueryContext ctx,
+      ExportFormat format,
+      OutputStream out)
+      throws IOException {
+    long start = System.nanoTime();
+    long rowCount = 0;
+    String status = "SUCCESS";
+    String msg;
+
+    Statement stmt = null;
+    try {
+      stmt = jdbcExecutor.createStatement(conn, streamingFetchSize(dbType, fetchSize), ctx);
+      statementRegistry.register(ctx, stmt);
+      if (!stmt.execute(JdbcExecutor.stripTrailingSemicolon(sql))) {
+        throw new SQLException("Statement did not return a result set");
+      }
+      try (ResultSet rs = stmt.getResultSet()) {
+        RowDecoder decoder = codecRegistry.decoderFor(rs.getMetaData(), dbType);
+        rowCount =
+            format == ExportFormat.CSV
+                ? writeCsv(rs, decoder, out)
+                : writeJsonLines(rs, decoder, out);
+        msg = "Exported " + rowCount + " rows.";
+      }
+    } catch (SQLException e) {
+      status = "ERROR";
+      msg = e.getMessage();
+    } finally {
+      if (stmt != null) {
+        statementRegistry.unregister(ctx, stmt);
+        try {
+          stmt.close();
+        } catch (SQLException e) {
+          log.warn("Failed to close export statement", e);
+        }
+      }
+    }
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    return new StreamSummary(status, rowCount, elapsedMs, msg);
+  }
+
+  /**
+   * MySQL Connector/J 預設會將整個結果集讀進記憶體，fetchSize 為 {@link Integer#MIN_VALUE} 時才逐列串流。 其餘 Driver
+   * (含 MariaDB 3.x) 依 fetchSize 分批讀取。
+   */
+  static int streamingFetchSize(DbType dbType, int fetchSize) {
+    return dbType == DbType.MYSQL ? Integer.MIN_VALUE : fetchSize;
+  }
+
+  /** 第一列為欄位名稱；開頭加上 BOM 讓 Excel 以 UTF-8 開啟 */
+  private long writeCsv(ResultSet rs, RowDecoder decoder, OutputStream out)
+      throws SQLException, IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+    writer.write('\uFEFF');
+    writeCsvLine(writer, decoder.columns());
+
+    int colCount = decoder.columnCount();
+    String[] cells = new String[colCount];
+    long rowCount = 0;
+    while (rs.next()) {
+      for (int i = 0; i < colCount; i++) cells[i] = csvText(decoder.read(rs, i));
+      writeCsvLine(writer, Arrays.asList(cells));
+      rowCount++;
+    }
+    writer.flush();
+    return rowCount;
+  }
+
+  private static void writeCsvLine(Writer writer, List<String> cells) throws IOException {
+    for (int i = 0; i < cells.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writer.write(csvEscape(cells.get(i)));
+    }
+    writer.write("\r\n");
+  }
+
+  /** NULL 輸出為空欄位 */
+  private static String csvText(Object value) {
+    if (value == null) {
+      return null;
+    }
+    return value instanceof byte[] bytes
+        ? Base64.getEncoder().encodeToString(bytes)
+        : value.toString();
+  }
+
+  /** RFC 4180：含分隔字元、引號、換行或前後空白時加上引號 */
+  static String csvEscape(String value) {
+    if (value == null || value.isEmpty()) {
+      return "";
+    }
+    boolean quote =
+        value.indexOf(',') >= 0
+            || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0
+            || value.indexOf('\r') >= 0
+            || Character.isWhitespace(value.charAt(0))
+            || Character.isWhitespace(value.charAt(value.length() - 1));
+    return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+  }
+
+  /** 每列一個 JSON 物件，以換行分隔 */
+  private long writeJsonLines(ResultSet rs, RowDecoder decoder, OutputStream out)
+      throws SQLException, IOException {
+    JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    // 物件之間改以換行分隔，而非預設的空白
+    gen.setRootValueSeparator((SerializableString) null);
+    List<String> columns = decoder.columns();
+    int colCount = decoder.columnCount();
+    Object[] cells = new Object[colCount];
+    long rowCount = 0;
+    while (rs.next()) {
+      // 先讀完整列再輸出，避免讀取中途失敗時留下半列
+      for (int i = 0; i < colCount; i++) cells[i] = decoder.read(rs, i);
+      gen.writeStartObject();
+      for (int i = 0; i < colCount; i++) {
+        gen.writeFieldName(columns.get(i));
+        gen.writeObject(cells[i]);
+      }
+      gen.writeEndObject();
+      gen.writeRaw('\n');
+      rowCount++;
+    }
+    gen.flush();
+    return rowCount;
+  }
+}
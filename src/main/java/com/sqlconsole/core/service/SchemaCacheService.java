@@ -0,0 +1,253 @@
+package com.sqlconsole.core.service;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.sqlconsole.core.model.dto.SchemaCacheStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.service.metadata.SchemaMetadataLoader;
+import com.sqlconsole.core.service.metadata.SchemaSnapshotStore;
+import com.sqlconsole.core.util.SchemaIndex;
+
+/**
+ * 各 DbConfig 的 Schema (資料表、欄位、索引與外鍵) 快取，所有 Session 共用。
+ *
+ * <p>同一個資料庫同時只有一個請求讀取 Catalog (single-flight)，其他請求等待同一次載入的結果。 快取超過 {@code ttl-seconds}
+ * 或被標記需重新載入 (例如執行 DDL 後) 時，仍先回應舊的內容，並在背景增量更新 (只重新讀取 Catalog 中變更標記
+ * 改變的資料表)；管理者的 {@link #refresh} 則完整讀取。 讀取 Catalog 使用連線池的連線，不佔用
+ * 使用者 Session 的連線或交易 ({@link SchemaMetadataLoader})。 載入後建立名稱索引 ({@link SchemaIndex})，供自動完成
+ * 分段取得資料表、欄位與查詢名稱；完整的 {@link SchemaMetadata} 另供 DBA Provider 使用。 權限檢查由呼叫端負責。
+ *
+ * <p>每次載入後保存 Snapshot ({@link SchemaSnapshotStore})。 重新啟動後第一次讀取時先以 Snapshot 回應，並視為需重新
+ * 載入，在背景以變更標記比對 Catalog (只讀取變更的資料表)。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchemaCacheService {
+
+  /** 重新載入失敗後，再次嘗試前的等待時間 */
+  private static final long RETRY_AFTER_FAILURE_MS = 30_000;
+
+  private final SchemaMetadataLoader metadataLoader;
+  private final SchemaSnapshotStore snapshotStore;
+
+  @Value("${app.sql.schema-cache.ttl-seconds:600}")
+  private long ttlSeconds;
+
+  private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+  /** 測試時替換 */
+  LongSupplier clock = System::currentTimeMillis;
+
+  /** 資料表與欄位 (依 Catalog 順序) 及名稱索引 */
+  public SchemaIndex get(DbConfig config) throws SQLException {
+    Entry entry = entries.computeIfAbsent(config.getId(), id -> new Entry());
+    CompletableFuture<Snapshot> flight;
+    synchronized (entry) {
+      if (entry.schema == null && !entry.restoreTried) {
+        restore(entry, config);
+      }
+      if (entry.schema != null) {
+        if (entry.needsReload(clock.getAsLong(), ttlSeconds * 1000) && entry.loading == null) {
+          startLoad(entry, config, entry.schema.metadata()); // 背景增量更新，先回應舊的內容
+        }
+        entry.hits++;
+        return entry.schema.index();
+      }
+      if (entry.loading != null) {
+        entry.waits++;
+        flight = entry.loading;
+      } else {
+        flight = startLoad(entry, config, null);
+      }
+    }
+    return await(flight).index();
+  }
+
+  /** 立即重新載入 (管理者)，等待載入完成；已有載入進行中時等待該次載入 */
+  public SchemaIndex refresh(DbConfig config) throws SQLException {
+    Entry entry = entries.computeIfAbsent(config.getId(), id -> new Entry());
+    CompletableFuture<Snapshot> flight;
+    synchronized (entry) {
+      flight = entry.loading != null ? entry.loading : startLoad(entry, config, null);
+    }
+    return await(flight).index();
+  }
+
+  /** 已快取的 Catalog，尚未載入時回傳 null (不觸發載入，例如 Explain 的建議只在已有資料時提供) */
+  public SchemaMetadata peek(Long dbId) {
+    Entry entry = entries.get(dbId);
+    if (entry == null) {
+      return null;
+    }
+    synchronized (entry) {
+      return entry.schema == null ? null : entry.schema.metadata();
+    }
+  }
+
+  /** 標記需重新載入 (例如執行 DDL 後)；下次讀取時在背景重新載入 */
+  public void markStale(Long dbId) {
+    Entry entry = entries.get(dbId);
+    if (entry != null) {
+      synchronized (entry) {
+        entry.stale = true;
+      }
+    }
+  }
+
+  /** 移除快取與 Snapshot (DbConfig 修改或刪除後，連線目標可能已改變) */
+  public void invalidate(Long dbId) {
+    entries.remove(dbId);
+    snapshotStore.delete(dbId);
+  }
+
+  public List<SchemaCacheStats> stats() {
+    long now = clock.getAsLong();
+    return entries.entrySet().stream()
+        .map(e -> e.getValue().stats(e.getKey(), now, ttlSeconds * 1000))
+        .sorted(Comparator.comparing(SchemaCacheStats::dbId))
+        .toList();
+  }
+
+  /**
+   * 呼叫端持有 entry 的鎖
+   *
+   * @param previous 增量更新的基礎，null 時完整讀取
+   */
+  private CompletableFuture<Snapshot> startLoad(
+      Entry entry, DbConfig config, SchemaMetadata previous) {
+    CompletableFuture<Snapshot> flight = new CompletableFuture<>();
+    entry.loading = flight;
+    entry.loads++;
+    // 在獨立的 Thread 載入：等待中的請求逾時或中斷時，載入仍完成並放入快取
+    Thread.startVirtualThread(
+        () -> {
+          long start = System.nanoTime();
+          try {
+            SchemaMetadata metadata = load(config, previous);
+            Snapshot schema = new Snapshot(metadata, new SchemaIndex(metadata.columnNames()));
+            synchronized (entry) {
+              entry.loaded(schema, clock.getAsLong(), (System.nanoTime() - start) / 1_000_000);
+            }
+            flight.complete(schema);
+            snapshotStore.write(config, metadata, clock.getAsLong());
+          } catch (SQLException | RuntimeException e) {
+            log.warn("Failed to load schema of db {}: {}", config.getId(), e.getMessage());
+            synchronized (entry) {
+              entry.failed(e, clock.getAsLong());
+            }
+            flight.completeExceptionally(e);
+          }
+        });
+    return flight;
+  }
+
+  /** 呼叫端持有 entry 的鎖；只在第一次讀取時嘗試 */
+  private void restore(Entry entry, DbConfig config) {
+    entry.restoreTried = true;
+    SchemaSnapshotStore.Restored restored = snapshotStore.read(config);
+    if (restored != null) {
+      SchemaMetadata metadata = restored.metadata();
+      entry.restored(
+          new Snapshot(metadata, new SchemaIndex(metadata.columnNames())),
+          restored.savedAt().toEpochMilli());
+      log.info(
+          "Restored schema of db {} from snapshot saved at {}", config.getId(), restored.savedAt());
+    }
+  }
+
+  private static Snapshot await(CompletableFuture<Snapshot> flight) throws SQLException {
+    try {
+      return flight.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while loading schema", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof SQLException sql) {
+        throw sql;
+      }
+      throw new SQLException("Failed to load schema: " + e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  /** 讀取 Catalog，previous 不為 null 時增量更新 (測試時覆寫) */
+  SchemaMetadata load(DbConfig config, SchemaMetadata previous) throws SQLException {
+    return metadataLoader.reload(config, previous);
+  }
+
+  /** 同一次載入的 Catalog 與名稱索引 */
+  private record Snapshot(SchemaMetadata metadata, SchemaIndex index) {}
+
+  /** 欄位皆由 entry 的鎖保護 */
+  private static final class Entry {
+    private Snapshot schema; // 最近一次成功載入的內容
+    private long loadedAt;
+    private long lastLoadMs;
+    private boolean stale;
+    private long retryAt; // 重新載入失敗後，此時間前不再嘗試
+    private boolean restoreTried;
+    private boolean restored; // 內容由 Snapshot 還原，尚未與 Catalog 比對
+    private CompletableFuture<Snapshot> loading;
+    private String lastError;
+    private long hits;
+    private long loads;
+    private long waits;
+
+    boolean needsReload(long now, long ttlMs) {
+      return (stale || now - loadedAt >= ttlMs) && now >= retryAt;
+    }
+
+    void loaded(Snapshot schema, long now, long elapsedMs) {
+      this.schema = schema;
+      loadedAt = now;
+      lastLoadMs = elapsedMs;
+      stale = false;
+      restored = false;
+      retryAt = 0;
+      lastError = null;
+      loading = null;
+    }
+
+    void restored(Snapshot schema, long savedAt) {
+      this.schema = schema;
+      loadedAt = savedAt;
+      stale = true;
+      restored = true;
+    }
+
+    void failed(Exception e, long now) {
+      lastError = e.getMessage();
+      retryAt = now + RETRY_AFTER_FAILURE_MS;
+      loading = null;
+    }
+
+    synchronized SchemaCacheStats stats(Long dbId, long now, long ttlMs) {
+      return new SchemaCacheStats(
+          dbId,
+          schema == null ? 0 : schema.index().tableCount(),
+          schema == null ? 0 : schema.index().columnCount(),
+          schema == null ? 0 : schema.index().nameCount(),
+          schema == null ? null : Instant.ofEpochMilli(loadedAt),
+          lastLoadMs,
+          schema != null && (stale || now - loadedAt >= ttlMs),
+          loading != null,
+          restored,
+          hits,
+          loads,
+          waits,
+          lastError);
+    }
+  }
+}
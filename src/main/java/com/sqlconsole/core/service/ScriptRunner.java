@@ -0,0 +1,290 @@
+package com.sqlconsole.core.service;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.dto.StatementResult;
+import com.sqlconsole.core.util.SqlClassifier;
+import com.sqlconsole.core.util.SqlScriptSplitter;
+import com.sqlconsole.core.util.SqlScriptSplitter.ScriptStatement;
+
+/**
+ * 在同一條連線 (Session 的手動 Commit 交易) 上依序執行多個語句。
+ *
+ * <p>連續的 DML (INSERT/UPDATE/DELETE/MERGE) 以 {@code addBatch/executeBatch} 一次送出，減少來回次數； 其餘語句逐一執行。
+ * 不自行 Commit，腳本中的 COMMIT/ROLLBACK 則轉為 {@link Connection#commit()}/{@link Connection#rollback()}。
+ *
+ * <p>遇錯繼續 (continueOnError) 時每個批次/語句前設 Savepoint，失敗只回滾該段，避免 PostgreSQL 整個交易進入 aborted
+ * 狀態；批次失敗時回滾後逐句重跑，以找出失敗的語句。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScriptRunner {
+
+  private static final Set<String> BATCHABLE = Set.of("INSERT", "UPDATE", "DELETE", "MERGE");
+
+  private final JdbcExecutor jdbcExecutor;
+  private final StatementRegistry statementRegistry;
+
+  @Value("${app.sql.script.batch-size:500}")
+  private int batchSize;
+
+  /**
+   * 腳本的執行結果。
+   *
+   * @param pendingWrites 最後一個 COMMIT/ROLLBACK 之後是否還有執行成功的寫入 (交易仍未結束)
+   * @param transactionEnded 腳本中是否有執行成功的 COMMIT/ROLLBACK
+   */
+  public record Outcome(
+      List<StatementResult> results, boolean pendingWrites, boolean transactionEnded) {}
+
+  /**
+   * @param gate 回傳非 null 時該語句不執行，改以回傳結果的狀態 (例如 PENDING 待審核) 記錄
+   */
+  public Outcome run(
+      Connection conn,
+      List<ScriptStatement> statements,
+      boolean continueOnError,
+      QueryContext ctx,
+      Function<String, SqlResult> gate)
+      throws SQLException {
+    Run run = new Run(conn, statements, continueOnError && !conn.getAutoCommit(), ctx, gate);
+    int i = 0;
+    while (i < statements.size()) {
+      int end = i + 1;
+      if (run.gate(i) == null && isBatchable(statements.get(i))) {
+        while (end < statements.size()
+            && end - i < batchSize
+            && isBatchable(statements.get(end))
+            && run.gate(end) == null) {
+          end++;
+        }
+      }
+
+      boolean failed = end - i > 1 ? run.batch(i, end) : run.single(i);
+      if (failed && !continueOnError) {
+        break;
+      }
+      i = end;
+    }
+
+    // 因錯誤停止後，剩下的語句標示為未執行
+    for (int k = run.results.size(); k < statements.size(); k++) {
+      run.results.add(result(statements.get(k), k, "SKIPPED", -1, "Not executed"));
+    }
+    return new Outcome(run.results, run.pendingWrites, run.transactionEnded);
+  }
+
+  private static boolean isBatchable(ScriptStatement stmt) {
+    return BATCHABLE.contains(SqlScriptSplitter.leadingKeyword(stmt.sql()));
+  }
+
+  private static StatementResult result(
+      ScriptStatement stmt, int index, String status, long updateCount, String message) {
+    return new StatementResult(
+        index,
+        stmt.line(),
+        StatementResult.preview(stmt.sql()),
+        status,
+        Math.max(updateCount, -1),
+        message);
+  }
+
+  /** 影響筆數可能為 SUCCESS_NO_INFO (-2) 等無法得知的值 */
+  private static String countMessage(long count) {
+    return count >= 0 ? "Affected rows: " + count : "Executed";
+  }
+
+  /** 單次腳本執行的狀態 */
+  private final class Run {
+    private final Connection conn;
+    private final List<ScriptStatement> statements;
+    private final boolean useSavepoints;
+    private final QueryContext ctx;
+    private final Function<String, SqlResult> gate;
+    private final SqlResult[] gateResults;
+    private final boolean[] gated;
+    private final List<StatementResult> results = new ArrayList<>();
+    private boolean pendingWrites;
+    private boolean transactionEnded;
+
+    private Run(
+        Connection conn,
+        List<ScriptStatement> statements,
+        boolean useSavepoints,
+        QueryContext ctx,
+        Function<String, SqlResult> gate) {
+      this.conn = conn;
+      this.statements = statements;
+      this.useSavepoints = useSavepoints;
+      this.ctx = ctx;
+      this.gate = gate;
+      this.gateResults = new SqlResult[statements.size()];
+      this.gated = new boolean[statements.size()];
+    }
+
+    /** gate 可能有副作用 (例如建立審核工單)，每個語句只呼叫一次 */
+    private SqlResult gate(int index) {
+      if (!gated[index]) {
+        gateResults[index] = gate.apply(statements.get(index).sql());
+        gated[index] = true;
+      }
+      return gateResults[index];
+    }
+
+    /** @return 是否失敗 */
+    private boolean single(int index) throws SQLException {
+      ScriptStatement stmt = statements.get(index);
+      SqlResult gateResult = gate(index);
+      if (gateResult != null) {
+        results.add(result(stmt, index, gateResult.status(), -1, gateResult.message()));
+        return false;
+      }
+
+      String upper = stmt.sql().toUpperCase().replaceAll("\\s+", " ");
+      if (upper.equals("COMMIT") || upper.equals("COMMIT WORK")) {
+        conn.commit();
+        endTransaction();
+        results.add(result(stmt, index, "SUCCESS", -1, "Commit Success"));
+        return false;
+      }
+      if (upper.equals("ROLLBACK") || upper.equals("ROLLBACK WORK")) {
+        conn.rollback();
+        endTransaction();
+        results.add(result(stmt, index, "SUCCESS", -1, "Rollback Success"));
+        return false;
+      }
+
+      Savepoint savepoint = setSavepoint();
+      Statement st = jdbcExecutor.createStatement(conn, 0, ctx);
+      statementRegistry.register(ctx, st);
+      try {
+        boolean hasResultSet = st.execute(stmt.sql());
+        int count = hasResultSet ? -1 : st.getUpdateCount();
+        String msg =
+            hasResultSet
+                ? "Query executed (rows are not returned in script mode)"
+                : countMessage(count);
+        results.add(result(stmt, index, "SUCCESS", count, msg));
+        pendingWrites |= !SqlClassifier.isReadOnly(stmt.sql());
+        releaseSavepoint(savepoint);
+        return false;
+      } catch (SQLException e) {
+        rollbackTo(savepoint);
+        results.add(result(stmt, index, "ERROR", -1, e.getMessage()));
+        return true;
+      } finally {
+        statementRegistry.unregister(ctx, st);
+        st.close();
+      }
+    }
+
+    /** 以 JDBC batch 執行 [from, to) 的 DML；@return 是否有語句失敗 */
+    private boolean batch(int from, int to) throws SQLException {
+      Savepoint savepoint = setSavepoint();
+      Statement st = jdbcExecutor.createStatement(conn, 0, ctx);
+      statementRegistry.register(ctx, st);
+      try {
+        for (int k = from; k < to; k++) {
+          st.addBatch(statements.get(k).sql());
+        }
+        int[] counts = st.executeBatch();
+        for (int k = from; k < to; k++) {
+          int count = k - from < counts.length ? counts[k - from] : Statement.SUCCESS_NO_INFO;
+          results.add(result(statements.get(k), k, "SUCCESS", count, countMessage(count)));
+        }
+        pendingWrites = true;
+        releaseSavepoint(savepoint);
+        return false;
+      } catch (SQLException e) {
+        if (savepoint == null) {
+          recordBatchFailure(from, to, e);
+          return true;
+        }
+        rollbackTo(savepoint);
+      } finally {
+        statementRegistry.unregister(ctx, st);
+        st.close();
+      }
+
+      // 回到批次開始前，逐句重跑以找出失敗的語句
+      log.debug("Batch failed, replaying {} statements one by one", to - from);
+      boolean failed = false;
+      for (int k = from; k < to; k++) {
+        failed |= single(k);
+      }
+      return failed;
+    }
+
+    /**
+     * 不使用 Savepoint 時 (遇錯即停) 依 BatchUpdateException 的 updateCounts 判斷失敗位置。 Driver 可能在失敗處停止
+     * (counts 較短) 或繼續執行 (以 EXECUTE_FAILED 標示)。
+     */
+    private void recordBatchFailure(int from, int to, SQLException e) {
+      int[] counts =
+          e instanceof BatchUpdateException bue && bue.getUpdateCounts() != null
+              ? bue.getUpdateCounts()
+              : new int[0];
+      int failedAt = from + counts.length;
+      for (int j = 0; j < counts.length; j++) {
+        if (counts[j] == Statement.EXECUTE_FAILED) {
+          failedAt = from + j;
+          break;
+        }
+      }
+      failedAt = Math.min(failedAt, to - 1);
+      for (int k = from; k < failedAt; k++) {
+        int count = counts[k - from];
+        results.add(result(statements.get(k), k, "SUCCESS", count, countMessage(count)));
+        pendingWrites = true;
+      }
+      results.add(result(statements.get(failedAt), failedAt, "ERROR", -1, e.getMessage()));
+    }
+
+    /** 腳本中的 COMMIT/ROLLBACK 之前的寫入已不在交易中 */
+    private void endTransaction() {
+      pendingWrites = false;
+      transactionEnded = true;
+    }
+
+    private Savepoint setSavepoint() throws SQLException {
+      return useSavepoints ? conn.setSavepoint() : null;
+    }
+
+    private void releaseSavepoint(Savepoint savepoint) {
+      if (savepoint == null) {
+        return;
+      }
+      try {
+        conn.releaseSavepoint(savepoint);
+      } catch (SQLException e) {
+        // Oracle 等不支援 release，交易結束時自然釋放
+        log.trace("releaseSavepoint not supported: {}", e.getMessage());
+      }
+    }
+
+    private void rollbackTo(Savepoint savepoint) {
+      if (savepoint == null) {
+        return;
+      }
+      try {
+        conn.rollback(savepoint);
+      } catch (SQLException e) {
+        // 例如 Oracle DDL 隱含 Commit 後 Savepoint 已不存在
+        log.warn("Rollback to savepoint failed: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.sqlconsole.core.service;
+
+import java.sql.Connection;
+
+/**
+ * Session 在某個 DB 上固定使用的一條連線，記錄借用數與交易狀態，並由 {@link ConnectionTracker} 追蹤。
+ *
+ * <p>借用數為執行中的請求與未讀完的 Cursor；借用數歸零且不在交易中時歸還連線池。 在交易中且沒有借用時，距最後一次使用的
+ * 時間即為交易閒置時間 ({@link IdleTransactionWatchdog})。
+ */
+final class SessionConnection {
+
+  private final Connection connection;
+  private final Long dbId;
+  private final int node; // ConnectionPoolManager 的 node 編號 (0 為 Primary)
+  private final String sessionId;
+  private final String owner;
+  private final long openedAt = System.currentTimeMillis();
+  private volatile long lastUsedAt = openedAt;
+
+  private int leases;
+  private boolean inTransaction;
+  private boolean released;
+  private boolean idleWarned; // 本次閒置已發出警告
+  private boolean sessionStateChanged; // 執行過可能改變 Session 狀態的語句，不可歸還連線池
+
+  SessionConnection(Connection connection, Long dbId, String sessionId, String owner) {
+    this(connection, dbId, ConnectionPoolManager.PRIMARY, sessionId, owner);
+  }
+
+  SessionConnection(
+      Connection connection, Long dbId, int node, String sessionId, String owner) {
+    this.connection = connection;
+    this.dbId = dbId;
+    this.node = node;
+    this.sessionId = sessionId;
+    this.owner = owner;
+  }
+
+  synchronized boolean acquire() {
+    if (released) {
+      return false;
+    }
+    leases++;
+    lastUsedAt = System.currentTimeMillis();
+    idleWarned = false;
+    return true;
+  }
+
+  /** 結束一次借用，回傳是否應歸還連線池 */
+  synchronized boolean release() {
+    leases--;
+    lastUsedAt = System.currentTimeMillis();
+    if (leases > 0 || inTransaction || released) {
+      return false;
+    }
+    released = true;
+    return true;
+  }
+
+  /** 不論借用數強制結束，回傳是否由這次呼叫結束 (尚未被歸還或關閉) */
+  synchronized boolean forceRelease() {
+    boolean wasReleased = released;
+    released = true;
+    return !wasReleased;
+  }
+
+  synchronized void setInTransaction(boolean inTransaction) {
+    this.inTransaction = inTransaction;
+  }
+
+  /** 交易中且沒有執行中的請求或 Cursor 時，距最後一次使用的毫秒數；否則為 -1 */
+  synchronized long idleInTransactionMillis(long now) {
+    if (!inTransaction || released || leases > 0) {
+      return -1;
+    }
+    return now - lastUsedAt;
+  }
+
+  /**
+   * 交易閒置達到上限時結束此連線 (之後的 {@link #acquire} 失敗，Session 改借新的連線)，由呼叫端回滾並關閉。
+   *
+   * @return 是否由這次呼叫結束
+   */
+  synchronized boolean releaseIfIdleInTransaction(long now, long limitMillis) {
+    long idle = idleInTransactionMillis(now);
+    if (idle < 0 || idle < limitMillis) {
+      return false;
+    }
+    released = true;
+    inTransaction = false;
+    return true;
+  }
+
+  /** 本次閒置是否第一次警告 (再次使用後重設) */
+  synchronized boolean markIdleWarned() {
+    boolean first = !idleWarned;
+    idleWarned = true;
+    return first;
+  }
+
+  synchronized void markSessionStateChanged() {
+    sessionStateChanged = true;
+  }
+
+  synchronized boolean isSessionStateChanged() {
+    return sessionStateChanged;
+  }
+
+  synchronized boolean isInTransaction() {
+    return inTransaction;
+  }
+
+  synchronized boolean isReleased() {
+    return released;
+  }
+
+  synchronized int leases() {
+    return leases;
+  }
+
+  Connection connection() {
+    return connection;
+  }
+
+  Long dbId() {
+    return dbId;
+  }
+
+  int node() {
+    return node;
+  }
+
+  String sessionId() {
+    return sessionId;
+  }
+
+  String owner() {
+    return owner;
+  }
+
+  long openedAt() {
+    return openedAt;
+  }
+
+  long lastUsedAt() {
+    return lastUsedAt;
+  }
+}
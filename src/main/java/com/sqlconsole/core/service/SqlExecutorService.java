@@ -1,29 +1,50 @@
 package com.sqlconsole.core.service;
 
 import jakarta.servlet.http.HttpSession;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import report.DbaProvider;
 import report.DbaReport;
+import com.sqlconsole.core.model.dto.IdleTransactionNotice;
+import com.sqlconsole.core.model.dto.ImportReport;
+import com.sqlconsole.core.model.dto.SchemaSearchResult;
+import com.sqlconsole.core.model.dto.ScriptResult;
 import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.dto.StatementResult;
+import com.sqlconsole.core.model.dto.StreamSummary;
 import com.sqlconsole.core.model.entity.DbConfig;
 import com.sqlconsole.core.model.entity.SqlHistory;
 import com.sqlconsole.core.model.entity.User;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.enums.ExportFormat;
 import com.sqlconsole.core.repository.DbConfigRepository;
 import com.sqlconsole.core.repository.SqlHistoryRepository;
 import com.sqlconsole.core.repository.UserRepository;
+import com.sqlconsole.core.util.CsvReader;
+import com.sqlconsole.core.util.SchemaIndex;
+import com.sqlconsole.core.util.SqlClassifier;
+import com.sqlconsole.core.util.SqlScriptSplitter;
+import com.sqlconsole.core.util.SqlScriptSplitter.ScriptStatement;
 
 /** 處理 SQL 解析、執行與審核。 */
 @Slf4j
@@ -37,10 +58,34 @@ public class SqlExecutorService {
   private final DbSessionService dbSessionService;
   private final JdbcExecutor jdbcExecutor; // ✅ 注入新的 Helper
   private final UserRepository userRepository;
+  private final CursorService cursorService;
+  private final ScriptRunner scriptRunner;
+  private final CsvImporter csvImporter;
+  private final ResultExporter resultExporter;
+  private final ResultCache resultCache;
+  private final AdmissionControl admissionControl;
+  private final IdleTransactionWatchdog idleTransactionWatchdog;
+  private final SchemaCacheService schemaCacheService;
+  private final QueryJobService queryJobService;
 
   // 自動收集所有 Provider (包含 OS 版與未來 Premium 版)
   private final List<DbaProvider> dbaProviders;
 
+  @Value("${app.sql.stream-fetch-size:500}")
+  private int streamFetchSize;
+
+  /** 匯出時每次向資料庫抓取的列數，大於畫面查詢以減少來回次數 */
+  @Value("${app.sql.export.fetch-size:5000}")
+  private int exportFetchSize;
+
+  /** DbConfig 未設定 queryTimeoutSeconds 時的預設值，0 表示不限制 */
+  @Value("${app.sql.query-timeout-seconds:0}")
+  private int defaultQueryTimeoutSeconds;
+
+  /** /api/schema/search 每次最多回傳的名稱數 */
+  @Value("${app.sql.schema-cache.max-search-results:200}")
+  private int maxSchemaMatches;
+
   /**
    * 獲取資料庫執行計畫 (Requirement 13)
    */
@@ -53,7 +98,7 @@ public class SqlExecutorService {
     if (provider.isPresent()) {
       log.debug("Using DBA Provider: {} for DB Type: {}",
               provider.get().getClass().getSimpleName(), config.getDbType());
-      return provider.get().getExecutionPlan(conn, sql);
+      return provider.get().getExecutionPlan(conn, sql, schemaCacheService.peek(config.getId()));
     }
 
     log.warn("No DBA Provider found for DB Type: {}", config.getDbType());
@@ -79,6 +124,24 @@ public class SqlExecutorService {
 
   public Map<String, List<String>> getTableSchema(
       Long dbId, HttpSession session, Authentication auth) {
+    return schemaIndex(dbId, auth).tables();
+  }
+
+  /** 資料表名稱 (自動完成先取得名稱，欄位在需要時由 {@link #getTableColumns} 取得) */
+  public List<String> getTableNames(Long dbId, Authentication auth) {
+    return schemaIndex(dbId, auth).tableNames();
+  }
+
+  public List<String> getTableColumns(Long dbId, String table, Authentication auth) {
+    return schemaIndex(dbId, auth).columns(table);
+  }
+
+  /** 以前綴 (或名稱片段的前綴) 查詢資料表與欄位名稱 */
+  public SchemaSearchResult searchSchema(Long dbId, String query, int limit, Authentication auth) {
+    return schemaIndex(dbId, auth).search(query, Math.min(limit, maxSchemaMatches));
+  }
+
+  private SchemaIndex schemaIndex(Long dbId, Authentication auth) {
     String role =
         auth.getAuthorities().stream()
             .findFirst()
@@ -89,58 +152,12 @@ public class SqlExecutorService {
 
     DbConfig config =
         dbConfigRepo.findById(dbId).orElseThrow(() -> new RuntimeException("DB Not Found"));
-    String url = config.getJdbcUrl().toLowerCase();
-    String sql = "";
-
-    // Determine SQL based on DB Type
-    if (url.contains(":oracle:")) {
-      sql = "SELECT table_name, column_name FROM user_tab_columns ORDER BY table_name, column_id";
-    } else if (url.contains(":postgresql:")) {
-      sql =
-          "SELECT table_name, column_name FROM information_schema.columns WHERE table_schema NOT IN ('information_schema', 'pg_catalog') ORDER BY table_name, ordinal_position";
-    } else if (url.contains(":db2:")) {
-      sql =
-          "SELECT tabname AS table_name, colname AS column_name FROM syscat.columns WHERE tabschema = CURRENT SCHEMA ORDER BY tabname, colno";
-    } else if (url.contains(":sqlserver:")) {
-      sql =
-          "SELECT table_name, column_name FROM information_schema.columns WHERE table_schema = SCHEMA_NAME() ORDER BY table_name, ordinal_position";
-    } else if (url.contains(":mysql:")) {
-      sql =
-          "SELECT table_name, column_name FROM information_schema.columns WHERE table_schema = DATABASE() ORDER BY table_name, ordinal_position";
-    } else if (url.contains(":h2:")) {
-      sql =
-          "SELECT table_name, column_name FROM information_schema.columns WHERE table_schema = 'PUBLIC' ORDER BY table_name, ordinal_position";
-    } else {
-      return Collections.emptyMap();
-    }
-
     try {
-      Connection conn = dbSessionService.getConnection(session, config);
-      SqlResult result = jdbcExecutor.executeSql(conn, sql);
-
-      if ("SUCCESS".equals(result.status()) && result.rows() != null) {
-        // Group by Table Name
-        return result.rows().stream()
-            .collect(
-                Collectors.groupingBy(
-                    row ->
-                        row.values().stream()
-                            .findFirst()
-                            .orElse("UNKNOWN")
-                            .toString(), // First column is Table
-                    Collectors.mapping(
-                        row ->
-                            row.values().stream()
-                                .skip(1)
-                                .findFirst()
-                                .orElse("UNKNOWN")
-                                .toString(), // Second column is Column
-                        Collectors.toList())));
-      }
+      return schemaCacheService.get(config);
     } catch (SQLException e) {
       log.error("Failed to fetch schema", e);
+      return SchemaIndex.EMPTY;
     }
-    return Collections.emptyMap();
   }
 
   /**
@@ -161,12 +178,89 @@ public class SqlExecutorService {
         || upper.startsWith("GRANT");
   }
 
+  /** 會改變資料表或欄位定義的語句 */
+  private static boolean isDdl(String sql) {
+    String upper = sql.trim().toUpperCase();
+    return upper.startsWith("CREATE")
+        || upper.startsWith("ALTER")
+        || upper.startsWith("DROP")
+        || upper.startsWith("RENAME");
+  }
+
   public SqlResult processRequest(
       Long dbId, String sql, String username, String role, HttpSession session) {
+    return processRequest(dbId, sql, username, role, session, null);
+  }
+
+  /**
+   * @param requestId 前端產生的請求識別碼，可用於 {@code /api/cancel} 取消執行中的查詢
+   */
+  public SqlResult processRequest(
+      Long dbId,
+      String sql,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId) {
+    return processRequest(dbId, sql, username, role, session, requestId, null);
+  }
+
+  /**
+   * @param parameters {@code ?} 參數的值 (List) 或 {@code :name} 參數的值 (Map)，null 時 SQL 原樣執行
+   */
+  public SqlResult processRequest(
+      Long dbId,
+      String sql,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId,
+      Object parameters) {
+    return prepareRequest(dbId, sql, username, role, session, requestId, parameters).get();
+  }
+
+  /**
+   * 在呼叫端 Thread 同步完成權限檢查並載入 DbConfig，回傳實際執行 SQL 的工作。
+   *
+   * <p>User 的資料庫權限為 Lazy 關聯，必須在 Request Thread (Open Session In View) 中讀取；
+   * 回傳的工作則可交由其他 Thread 執行 (見 {@link QueryJobService})。
+   */
+  public Supplier<SqlResult> prepareRequest(
+      Long dbId,
+      String sql,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId) {
+    return prepareRequest(dbId, sql, username, role, session, requestId, null);
+  }
+
+  /**
+   * @param parameters {@code ?} 參數的值 (List) 或 {@code :name} 參數的值 (Map)，null 時 SQL 原樣執行
+   */
+  public Supplier<SqlResult> prepareRequest(
+      Long dbId,
+      String sql,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId,
+      Object parameters) {
     validateAccess(dbId, username, role);
 
     DbConfig config =
         dbConfigRepo.findById(dbId).orElseThrow(() -> new RuntimeException("DB Not Found"));
+    return () -> dispatch(session, config, sql, username, role, requestId, parameters);
+  }
+
+  private SqlResult dispatch(
+      HttpSession session,
+      DbConfig config,
+      String sql,
+      String username,
+      String role,
+      String requestId,
+      Object parameters) {
     String upperSql = sql.trim().toUpperCase();
 
     if (upperSql.equals("COMMIT")) return executeTcl(session, config, true);
@@ -174,13 +268,341 @@ public class SqlExecutorService {
 
     if (isRestricted(sql) && !role.equals("ROLE_AUDITOR")) {
       // 呼叫介面，付費版會攔截並回傳 PENDING，免費版回傳 null
-      SqlResult auditResult = auditService.checkAndAudit(username, dbId, sql);
+      SqlResult auditResult = auditService.checkAndAudit(username, config.getId(), sql);
       if (auditResult != null) {
         return auditResult;
       }
     }
 
-    return executeRawSql(session, config, sql, username, false);
+    return executeRawSql(session, config, sql, username, false, requestId, parameters);
+  }
+
+  /**
+   * 串流執行查詢 (不將結果集整個載入記憶體)。
+   *
+   * <p>權限檢查與取得連線在呼叫端的 Request Thread 同步完成，回傳的 {@link StreamingResponseBody}
+   * 則由 Spring MVC 非同步寫出，結束後寫入執行歷史。 只接受唯讀語句 ({@link SqlClassifier#isReadOnly})，
+   * 寫入需經過 {@code /api/execute} 的審核流程與交易狀態管理。
+   */
+  public StreamingResponseBody streamRequest(
+      Long dbId,
+      String sql,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId)
+      throws SQLException {
+    validateAccess(dbId, username, role);
+
+    DbConfig config =
+        dbConfigRepo.findById(dbId).orElseThrow(() -> new RuntimeException("DB Not Found"));
+    // 寫入 (含 MERGE、CALL、PL/SQL 區塊) 不會被標記為交易中，歸還連線時會被連線池回滾
+    if (!SqlClassifier.isReadOnly(sql)) {
+      throw new IllegalArgumentException("Streaming mode only supports queries: " + sql);
+    }
+
+    Connection conn = dbSessionService.getReadConnection(session, config);
+    QueryContext ctx = queryContext(session, config, requestId);
+    return out -> {
+      StreamSummary summary;
+      try {
+        summary = jdbcExecutor.streamSql(conn, sql, streamFetchSize, config.getDbType(), ctx, out);
+        if (!summary.isSuccess()) {
+          rollback(session, config, conn);
+        }
+      } finally {
+        dbSessionService.release(session, config.getId(), conn);
+      }
+      log.debug(
+          "Streamed {} rows in {} ms from {}",
+          summary.rowCount(),
+          summary.elapsedMs(),
+          config.getName());
+      historyRepo.save(new SqlHistory(username, config.getName(), sql, summary.status()));
+    };
+  }
+
+  /**
+   * 將查詢結果匯出為檔案。 與 {@link #streamRequest} 相同只接受唯讀語句，在 Request Thread 完成權限檢查與取得
+   * 連線，回傳的 {@link StreamingResponseBody} 重新執行查詢並直接從 ResultSet 寫出，結束後寫入執行歷史。
+   *
+   * <p>查詢中途失敗時丟出 IOException 中斷回應，避免使用者拿到看似完整的檔案。
+   *
+   * @param gzip 是否以 gzip 壓縮輸出
+   */
+  public StreamingResponseBody exportRequest(
+      Long dbId,
+      String sql,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId,
+      ExportFormat format,
+      boolean gzip)
+      throws SQLException {
+    validateAccess(dbId, username, role);
+
+    DbConfig config =
+        dbConfigRepo.findById(dbId).orElseThrow(() -> new RuntimeException("DB Not Found"));
+    // 同 streamRequest：寫入不會被標記為交易中，匯出後會被連線池回滾
+    if (!SqlClassifier.isReadOnly(sql)) {
+      throw new IllegalArgumentException("Export only supports queries: " + sql);
+    }
+
+    Connection conn = dbSessionService.getReadConnection(session, config);
+    QueryContext ctx = queryContext(session, config, requestId);
+    return out -> {
+      StreamSummary summary;
+      try {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        summary =
+            resultExporter.export(
+                conn, sql, exportFetchSize, config.getDbType(), ctx, format, target);
+        if (target instanceof GZIPOutputStream gz) {
+          gz.finish();
+        }
+        if (!summary.isSuccess()) {
+          rollback(session, config, conn);
+        }
+      } catch (IOException e) {
+        // 多半是使用者中斷下載
+        historyRepo.save(new SqlHistory(username, config.getName(), sql, "ERROR"));
+        throw e;
+      } finally {
+        dbSessionService.release(session, config.getId(), conn);
+      }
+      log.info(
+          "Exported {} rows as {} in {} ms from {}",
+          summary.rowCount(),
+          format,
+          summary.elapsedMs(),
+          config.getName());
+      historyRepo.save(new SqlHistory(username, config.getName(), sql, summary.status()));
+      if (!summary.isSuccess()) {
+        throw new IOException("Export failed: " + summary.message());
+      }
+    };
+  }
+
+  /**
+   * 執行多語句腳本。語句在 Session 的手動 Commit 交易中依序執行，不會自動 Commit。
+   *
+   * <p>需審核的語句與單句執行相同交由 {@link AuditService} 判斷。 遇錯即停時與單句執行一致，回滾整個交易。
+   *
+   * @param continueOnError true 時失敗的語句只回滾自身 (Savepoint)，繼續執行後續語句
+   */
+  public ScriptResult executeScript(
+      Long dbId,
+      String script,
+      String username,
+      String role,
+      HttpSession session,
+      boolean continueOnError,
+      String requestId) {
+    validateAccess(dbId, username, role);
+
+    DbConfig config =
+        dbConfigRepo.findById(dbId).orElseThrow(() -> new RuntimeException("DB Not Found"));
+    List<ScriptStatement> statements =
+        SqlScriptSplitter.split(script, config.getDbType() == DbType.ORACLE);
+    if (statements.isEmpty()) {
+      return new ScriptResult("ERROR", null, "No statements found", 0, List.of());
+    }
+
+    long start = System.currentTimeMillis();
+    boolean auditor = role.equals("ROLE_AUDITOR");
+    String status = "SUCCESS";
+    String txStatus = "UNCOMMIT";
+    String msg;
+    List<StatementResult> results = List.of();
+    Connection conn = null;
+    try {
+      // 腳本中可能有 COMMIT/ROLLBACK，先關閉此連線上的 Cursor
+      cursorService.closeCursors(session, config.getId());
+      conn = dbSessionService.getConnection(session, config);
+      ScriptRunner.Outcome outcome =
+          scriptRunner.run(
+              conn,
+              statements,
+              continueOnError,
+              queryContext(session, config, requestId),
+              sql ->
+                  isRestricted(sql) && !auditor
+                      ? auditService.checkAndAudit(username, config.getId(), sql)
+                      : null);
+      results = outcome.results();
+      // SET search_path、暫存表等不會隨歸還連線池而還原 (失敗的語句也可能已部分生效)
+      if (statements.stream().anyMatch(statement -> changesSessionState(statement.sql()))) {
+        dbSessionService.markSessionStateChanged(session, config.getId());
+      }
+
+      long failed = results.stream().filter(StatementResult::isError).count();
+      msg = "Executed " + statements.size() + " statements, " + failed + " failed.";
+      boolean ddl = statements.stream().anyMatch(statement -> isDdl(statement.sql()));
+      if (outcome.pendingWrites()) {
+        afterWrite(session, config, conn, ddl);
+      } else {
+        // 腳本以 COMMIT/ROLLBACK 結束 (例如 INSERT ...; COMMIT;)，連線不必再固定於 Session
+        if (hasWrites(statements, results)
+            || outcome.transactionEnded()
+                && dbSessionService.isInTransaction(session, config.getId())) {
+          invalidateCaches(config, ddl);
+        }
+        if (outcome.transactionEnded()) {
+          idleTransactionWatchdog.takeRolledBack(session.getId(), config.getId());
+          dbSessionService.endTransaction(session, config.getId());
+        }
+      }
+      if (failed > 0) {
+        status = "ERROR";
+        if (!continueOnError && !conn.getAutoCommit()) {
+          conn.rollback();
+          dbSessionService.endTransaction(session, config.getId());
+          msg += " (Transaction rolled back)";
+        }
+      }
+      boolean rolledBack = failed > 0 && !continueOnError;
+      boolean ended = outcome.transactionEnded() && !outcome.pendingWrites();
+      txStatus = conn.getAutoCommit() || rolledBack || ended ? "COMMITTED" : "UNCOMMIT";
+    } catch (SQLException e) {
+      status = "ERROR";
+      msg = e.getMessage();
+      if (conn != null) {
+        try {
+          if (!conn.getAutoCommit()) {
+            conn.rollback();
+            dbSessionService.endTransaction(session, config.getId());
+            msg += " (Transaction rolled back)";
+          }
+          txStatus = "COMMITTED";
+        } catch (SQLException ex) {
+          log.error("Rollback failed", ex);
+        }
+      }
+    } finally {
+      if (conn != null) {
+        dbSessionService.release(session, config.getId(), conn);
+      }
+    }
+
+    historyRepo.save(
+        new SqlHistory(username, config.getName(), truncateForHistory(script), status));
+    return new ScriptResult(status, txStatus, msg, System.currentTimeMillis() - start, results);
+  }
+
+  /**
+   * 將上傳的 CSV/TSV 匯入資料表。與腳本相同在 Session 的交易中執行，不會自動 Commit；中止時回滾整個交易。
+   *
+   * <p>匯入等同 INSERT，非 Auditor 需先經過 {@link AuditService} (付費版會攔截並回傳 PENDING，檔案不會被執行)。
+   *
+   * @param delimiter 欄位分隔字元 ({@code ,} 或 {@code \t})
+   * @param header 第一列是否為欄位名稱
+   */
+  public ImportReport importCsv(
+      Long dbId,
+      String table,
+      InputStream in,
+      char delimiter,
+      boolean header,
+      String username,
+      String role,
+      HttpSession session,
+      String requestId) {
+    validateAccess(dbId, username, role);
+
+    DbConfig config =
+        dbConfigRepo.findById(dbId).orElseThrow(() -> new RuntimeException("DB Not Found"));
+    String historySql = "-- import\nINSERT INTO " + table + " (...)";
+    if (!role.equals("ROLE_AUDITOR")) {
+      SqlResult auditResult = auditService.checkAndAudit(username, config.getId(), historySql);
+      if (auditResult != null) {
+        return ImportReport.of(auditResult.status(), auditResult.txStatus(), auditResult.message());
+      }
+    }
+
+    ImportReport report;
+    Connection conn = null;
+    try (CsvReader csv =
+        new CsvReader(
+            new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), delimiter)) {
+      conn = dbSessionService.getConnection(session, config);
+      report =
+          csvImporter.load(
+              conn,
+              config.getDbType(),
+              table,
+              csv,
+              header,
+              queryContext(session, config, requestId));
+      if (report.status().equals("SUCCESS")) {
+        if (report.rowsImported() > 0) {
+          afterWrite(session, config, conn, false);
+        }
+        report =
+            report.withTxStatus(
+                conn.getAutoCommit() ? "COMMITTED" : "UNCOMMIT", report.message());
+      } else {
+        String msg =
+            conn.getAutoCommit()
+                ? report.message()
+                : report.message() + " (Transaction rolled back)";
+        report = report.withTxStatus(rollback(session, config, conn), msg);
+      }
+    } catch (IllegalArgumentException e) {
+      report = ImportReport.of("ERROR", null, e.getMessage());
+    } catch (SQLException | IOException e) {
+      String txStatus = conn != null ? rollback(session, config, conn) : null;
+      report = ImportReport.of("ERROR", txStatus, e.getMessage());
+    } finally {
+      if (conn != null) {
+        dbSessionService.release(session, config.getId(), conn);
+      }
+    }
+
+    log.info(
+        "Imported {} rows ({} rejected) into {}.{} in {} ms",
+        report.rowsImported(),
+        report.rowsRejected(),
+        config.getName(),
+        table,
+        report.elapsedMs());
+    historyRepo.save(new SqlHistory(username, config.getName(), historySql, report.status()));
+    return report;
+  }
+
+  /** 匯入、匯出或串流查詢失敗時回滾整個交易，回傳之後的交易狀態 */
+  private String rollback(HttpSession session, DbConfig config, Connection conn) {
+    try {
+      if (!conn.getAutoCommit()) {
+        conn.rollback();
+        dbSessionService.endTransaction(session, config.getId());
+      }
+      return "COMMITTED";
+    } catch (SQLException ex) {
+      log.error("Rollback failed", ex);
+      return "UNCOMMIT";
+    }
+  }
+
+  /** 非唯讀也非 DML 的語句 (SET、USE、CALL、DDL 等) 可能改變連線的 Session 狀態 */
+  private static boolean changesSessionState(String sql) {
+    return !SqlClassifier.isReadOnly(sql) && !SqlClassifier.isDml(sql);
+  }
+
+  /** 腳本中是否有執行成功的寫入語句 */
+  private static boolean hasWrites(
+      List<ScriptStatement> statements, List<StatementResult> results) {
+    return results.stream()
+        .anyMatch(
+            r ->
+                r.status().equals("SUCCESS")
+                    && !SqlClassifier.isReadOnly(statements.get(r.index()).sql()));
+  }
+
+  /** sql_history.sql_content 長度上限為 2000 */
+  private static String truncateForHistory(String script) {
+    String content = "-- script\n" + script.strip();
+    return content.length() <= 2000 ? content : content.substring(0, 1997) + "...";
   }
 
   /**
@@ -192,14 +614,37 @@ public class SqlExecutorService {
    * @return
    */
   private SqlResult executeTcl(HttpSession session, DbConfig config, boolean commit) {
+    // 交易閒置過久已被回滾時，COMMIT 不能讓使用者以為寫入已生效
+    Optional<IdleTransactionNotice> rolledBack =
+        idleTransactionWatchdog.takeRolledBack(session.getId(), config.getId());
+    if (commit && rolledBack.isPresent()) {
+      return new SqlResult(
+          "ERROR",
+          "COMMITTED",
+          rolledBack.get().message() + " Nothing was committed.",
+          null,
+          null);
+    }
+    Connection conn = null;
     try {
-      Connection conn = dbSessionService.getConnection(session, config);
+      // 交易結束後多數 Driver 會讓 Cursor 失效，先行關閉
+      cursorService.closeCursors(session, config.getId());
+      conn = dbSessionService.getConnection(session, config);
       if (commit) conn.commit();
       else conn.rollback();
+      if (commit && dbSessionService.isInTransaction(session, config.getId())) {
+        resultCache.invalidate(config.getId());
+      }
+      // 交易結束，連線在下方 release 時歸還連線池
+      dbSessionService.endTransaction(session, config.getId());
       return new SqlResult(
           "SUCCESS", "COMMITTED", commit ? "Commit Success" : "Rollback Success", null, null);
     } catch (SQLException e) {
       return new SqlResult("ERROR", "UNCOMMIT", e.getMessage(), null, null);
+    } finally {
+      if (conn != null) {
+        dbSessionService.release(session, config.getId(), conn);
+      }
     }
   }
 
@@ -214,22 +659,69 @@ public class SqlExecutorService {
       String sql,
       String executor,
       boolean autoCommitAfterExec) {
+    return executeRawSql(session, config, sql, executor, autoCommitAfterExec, null, null);
+  }
+
+  private SqlResult executeRawSql(
+      HttpSession session,
+      DbConfig config,
+      String sql,
+      String executor,
+      boolean autoCommitAfterExec,
+      String requestId,
+      Object parameters) {
     String status = "SUCCESS";
     String msg;
     String txStatus = "UNCOMMIT";
     SqlResult result = null;
     Connection conn = null;
+    AdmissionControl.Permit permit = null;
+    QueryContext ctx = queryContext(session, config, requestId, parameters);
+    // 快取以 SQL 文字為鍵，綁定參數的查詢不快取
+    boolean cacheable =
+        !ctx.hasParameters()
+            && !dbSessionService.isInTransaction(session, config.getId())
+            && resultCache.isEnabled(config, sql);
+    long generation = cacheable ? resultCache.generation(config.getId()) : 0;
+
+    // 命中快取時不需連線，也不佔用並行名額 (Session 的連線一律為手動 Commit)
+    Optional<SqlResult> cached = cacheable ? resultCache.get(config, sql) : Optional.empty();
+    if (cached.isPresent()) {
+      historyRepo.save(new SqlHistory(executor, config.getName(), sql, status));
+      return cached.get().withTxStatus(txStatus, cached.get().message() + " (cached)");
+    }
 
     try {
-      conn = dbSessionService.getConnection(session, config);
+      // 超過資料庫的並行上限時排隊 (COMMIT/ROLLBACK 不經過此處，不會被擋住)
+      permit = admissionControl.acquire(config, executor);
+      // 排隊期間已被取消的非同步工作不再執行 (SQLState 57014: query_canceled)
+      if (queryJobService.isCancelRequested(ctx.sessionId(), ctx.requestId())) {
+        throw new SQLException("Cancelled while queued", "57014");
+      }
 
-      // ✅ 將繁瑣的 JDBC 操作委派給 JdbcExecutor
-      result = jdbcExecutor.executeSql(conn, sql);
+      // 唯讀查詢在沒有未 Commit 的交易時可由 Replica 執行
+      conn =
+          SqlClassifier.isReadOnly(sql)
+              ? dbSessionService.getReadConnection(session, config)
+              : dbSessionService.getConnection(session, config);
+
+      // ✅ 查詢只回傳第一頁，其餘留在伺服器端 Cursor 由 /api/cursor/next 讀取
+      result = cursorService.executeFirstPage(session, config, conn, sql, ctx);
       msg = result.message();
+      if (cacheable) {
+        resultCache.put(config, sql, result, generation);
+      } else if (!SqlClassifier.isReadOnly(sql)) {
+        afterWrite(session, config, conn, isDdl(sql));
+        if (changesSessionState(sql)) {
+          dbSessionService.markSessionStateChanged(session, config.getId());
+        }
+      }
 
       // 處理自動 Commit (針對審核通過的工單)
       if (autoCommitAfterExec && !conn.getAutoCommit()) {
+        cursorService.closeCursors(session, config.getId());
         conn.commit();
+        dbSessionService.endTransaction(session, config.getId());
         msg += " (Auto Committed by System)";
       }
 
@@ -241,7 +733,7 @@ public class SqlExecutorService {
       }
 
       // Rebuild result with txStatus
-      result = new SqlResult(result.status(), txStatus, msg, result.columns(), result.rows());
+      result = result.withTxStatus(txStatus, msg).withNode(dbSessionService.nodeOf(conn));
 
     } catch (SQLException e) {
       status = "ERROR";
@@ -253,6 +745,7 @@ public class SqlExecutorService {
           if (!conn.getAutoCommit()) {
             log.warn("⚠️ SQL Error, Rolling back...");
             conn.rollback();
+            dbSessionService.endTransaction(session, config.getId());
             msg += " (Transaction rolled back)";
             txStatus = "COMMITTED";
           } else {
@@ -263,9 +756,52 @@ public class SqlExecutorService {
         }
       }
       result = new SqlResult("ERROR", txStatus, msg, null, null);
+    } finally {
+      if (conn != null) {
+        dbSessionService.release(session, config.getId(), conn);
+      }
+      if (permit != null) {
+        permit.close();
+      }
     }
 
     historyRepo.save(new SqlHistory(executor, config.getName(), sql, status));
     return result;
   }
+
+  /**
+   * 寫入 (DML/DDL) 後清除此連線的查詢快取。 尚未 Commit 時 Session 固定使用此連線直到 COMMIT/ROLLBACK，
+   * Commit 時再清除一次快取，因為其他 Session 在這段期間仍可能快取到 Commit 前的資料。
+   */
+  private void afterWrite(HttpSession session, DbConfig config, Connection conn, boolean ddl)
+      throws SQLException {
+    invalidateCaches(config, ddl);
+    if (!conn.getAutoCommit()) {
+      // 新交易的 COMMIT 不應被先前閒置回滾的通知擋下
+      idleTransactionWatchdog.takeRolledBack(session.getId(), config.getId());
+      dbSessionService.markInTransaction(session, config.getId());
+    }
+  }
+
+  private void invalidateCaches(DbConfig config, boolean ddl) {
+    resultCache.invalidate(config.getId());
+    if (ddl) {
+      schemaCacheService.markStale(config.getId()); // 下次讀取 Schema 時在背景重新載入
+    }
+  }
+
+  /** 查詢逾時以 DbConfig 設定優先，未設定時使用全域預設 */
+  private QueryContext queryContext(HttpSession session, DbConfig config, String requestId) {
+    return queryContext(session, config, requestId, null);
+  }
+
+  private QueryContext queryContext(
+      HttpSession session, DbConfig config, String requestId, Object parameters) {
+    Integer timeout = config.getQueryTimeoutSeconds();
+    return new QueryContext(
+        session != null ? session.getId() : null,
+        requestId,
+        timeout != null ? timeout : defaultQueryTimeoutSeconds,
+        parameters);
+  }
 }
@@ -0,0 +1,63 @@
+package com.sqlconsole.core.service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 執行中的 Statement 登記表，以 (Session, requestId) 為鍵。
+ *
+ * <p>執行 SQL 的 Request Thread 會卡在 {@code stmt.execute} 直到資料庫回應，取消必須由另一個請求呼叫
+ * {@link Statement#cancel()}。 只能取消自己 Session 的請求。
+ */
+@Slf4j
+@Component
+public class StatementRegistry {
+
+  private final Map<String, Statement> inFlight = new ConcurrentHashMap<>();
+
+  public void register(QueryContext ctx, Statement stmt) {
+    if (ctx.isCancellable()) {
+      inFlight.put(key(ctx.sessionId(), ctx.requestId()), stmt);
+    }
+  }
+
+  /** 執行結束後移除；只移除同一個 Statement，避免誤刪重複 requestId 的新登記 */
+  public void unregister(QueryContext ctx, Statement stmt) {
+    if (ctx.isCancellable()) {
+      inFlight.remove(key(ctx.sessionId(), ctx.requestId()), stmt);
+    }
+  }
+
+  /**
+   * 取消執行中的查詢。
+   *
+   * @return 找到並送出取消時為 true；查詢已結束或不存在時為 false
+   */
+  public boolean cancel(String sessionId, String requestId) {
+    Statement stmt = inFlight.get(key(sessionId, requestId));
+    if (stmt == null) {
+      return false;
+    }
+    try {
+      stmt.cancel();
+      log.info("Cancelled request {} of session {}", requestId, sessionId);
+      return true;
+    } catch (SQLException e) {
+      // 部分 Driver 在 Statement 剛結束時會拋出例外，視為已無可取消的查詢
+      log.warn("Failed to cancel request {}: {}", requestId, e.getMessage());
+      return false;
+    }
+  }
+
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private static String key(String sessionId, String requestId) {
+    return sessionId + ":" + requestId;
+  }
+}
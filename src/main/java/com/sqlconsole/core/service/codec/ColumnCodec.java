@@ -0,0 +1,22 @@
+package com.sqlconsole.core.service.codec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import com.sqlconsole.core.model.columnar.ColumnVector;
+
+/**
+ * 單一欄位型別的解碼方式：以欄位索引 (非欄名) 讀取，並直接寫入對應的原生型別向量。
+ *
+ * <p>由 {@link ColumnCodecRegistry} 在讀取 ResultSetMetaData 時為每個欄位決定一次，之後每列都使用同一個 codec。
+ */
+public interface ColumnCodec<V extends ColumnVector> {
+
+  /** 建立存放此欄位的向量 */
+  V newVector();
+
+  /** 讀取目前這一列的值並寫入向量 */
+  void decode(ResultSet rs, int index, V target) throws SQLException;
+
+  /** 讀取目前這一列的值 (已轉為標準 Java 型別，供串流輸出使用) */
+  Object read(ResultSet rs, int index) throws SQLException;
+}
@@ -0,0 +1,156 @@
+package com.sqlconsole.core.service.codec;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/**
+ * 依 (DbType, JDBC 型別) 決定每個欄位使用的 {@link ColumnCodec}。
+ *
+ * <p>查找順序：資料庫專屬設定 → 通用 JDBC 型別 → {@link ColumnCodecs#OBJECT}。 只在讀取 metadata 時查找一次，之後每列直接使用
+ * {@link RowDecoder} 中綁定好的 codec。
+ */
+@Component
+public class ColumnCodecRegistry {
+
+  /** Oracle 專屬型別代碼 (oracle.jdbc.OracleTypes)，避免直接依賴 ojdbc */
+  static final int ORACLE_TIMESTAMPTZ = -101;
+
+  static final int ORACLE_TIMESTAMPLTZ = -102;
+  static final int ORACLE_BINARY_FLOAT = 100;
+  static final int ORACLE_BINARY_DOUBLE = 101;
+
+  /** SQL Server DATETIMEOFFSET (microsoft.sql.Types) */
+  static final int MSSQL_DATETIMEOFFSET = -155;
+
+  @FunctionalInterface
+  public interface CodecFactory {
+    /** @param typeName 資料庫的型別名稱 (ResultSetMetaData#getColumnTypeName)，可能為 null */
+    ColumnCodec<?> create(int precision, int scale, String typeName);
+  }
+
+  private final Map<Integer, CodecFactory> generic = new HashMap<>();
+  private final Map<DbType, Map<Integer, CodecFactory>> vendor = new EnumMap<>(DbType.class);
+
+  public ColumnCodecRegistry() {
+    register(null, Types.BIGINT, ColumnCodecs.LONG);
+    register(null, Types.INTEGER, ColumnCodecs.INT);
+    register(null, Types.SMALLINT, ColumnCodecs.INT);
+    register(null, Types.TINYINT, ColumnCodecs.INT);
+    register(
+        null,
+        Types.NUMERIC,
+        (precision, scale, typeName) ->
+            scale == 0 && precision > 0 && precision <= 18
+                ? ColumnCodecs.LONG
+                : ColumnCodecs.DECIMAL);
+    register(null, Types.DECIMAL, generic.get(Types.NUMERIC));
+    register(null, Types.DOUBLE, ColumnCodecs.DOUBLE);
+    register(null, Types.FLOAT, ColumnCodecs.DOUBLE);
+    register(null, Types.REAL, ColumnCodecs.FLOAT);
+    register(null, Types.DATE, ColumnCodecs.DATE);
+    register(null, Types.TIME, ColumnCodecs.TIME);
+    register(null, Types.TIMESTAMP, ColumnCodecs.TIMESTAMP);
+    register(null, Types.TIMESTAMP_WITH_TIMEZONE, ColumnCodecs.OFFSET_TIMESTAMP);
+    for (int type :
+        new int[] {
+          Types.CHAR,
+          Types.VARCHAR,
+          Types.NCHAR,
+          Types.NVARCHAR,
+          Types.LONGVARCHAR,
+          Types.LONGNVARCHAR,
+          Types.CLOB,
+          Types.NCLOB
+        }) {
+      register(null, type, ColumnCodecs.STRING);
+    }
+
+    // Oracle: TIMESTAMP WITH (LOCAL) TIME ZONE 與 BINARY_FLOAT/DOUBLE 為專屬型別代碼
+    register(DbType.ORACLE, ORACLE_TIMESTAMPTZ, ColumnCodecs.OFFSET_TIMESTAMP);
+    register(DbType.ORACLE, ORACLE_TIMESTAMPLTZ, ColumnCodecs.TIMESTAMP);
+    register(DbType.ORACLE, ORACLE_BINARY_FLOAT, ColumnCodecs.FLOAT);
+    register(DbType.ORACLE, ORACLE_BINARY_DOUBLE, ColumnCodecs.DOUBLE);
+
+    // PostgreSQL: json/jsonb/uuid/inet/interval 等回傳 PGobject (Types.OTHER)，陣列以文字呈現
+    register(DbType.POSTGRESQL, Types.OTHER, ColumnCodecs.STRING);
+    register(DbType.POSTGRESQL, Types.ARRAY, ColumnCodecs.STRING);
+    register(DbType.POSTGRESQL, Types.SQLXML, ColumnCodecs.STRING);
+
+    register(DbType.MSSQL, MSSQL_DATETIMEOFFSET, ColumnCodecs.OFFSET_TIMESTAMP);
+    register(DbType.MSSQL, Types.SQLXML, ColumnCodecs.STRING);
+
+    // MySQL/MariaDB: UNSIGNED 的範圍超過同名的有號型別，BIGINT UNSIGNED 以 getObject 讀為 BigInteger
+    for (DbType dbType : new DbType[] {DbType.MYSQL, DbType.MARIADB}) {
+      register(
+          dbType,
+          Types.BIGINT,
+          (precision, scale, typeName) ->
+              isUnsigned(typeName) || precision > 19 ? ColumnCodecs.OBJECT : ColumnCodecs.LONG);
+      register(
+          dbType,
+          Types.INTEGER,
+          (precision, scale, typeName) ->
+              isUnsigned(typeName) ? ColumnCodecs.LONG : ColumnCodecs.INT);
+    }
+  }
+
+  private static boolean isUnsigned(String typeName) {
+    return typeName != null && typeName.toUpperCase().contains("UNSIGNED");
+  }
+
+  /** 註冊 codec；dbType 為 null 時表示所有資料庫通用 */
+  public void register(DbType dbType, int jdbcType, ColumnCodec<?> codec) {
+    register(dbType, jdbcType, (precision, scale, typeName) -> codec);
+  }
+
+  public void register(DbType dbType, int jdbcType, CodecFactory factory) {
+    if (dbType == null) {
+      generic.put(jdbcType, factory);
+    } else {
+      vendor.computeIfAbsent(dbType, k -> new HashMap<>()).put(jdbcType, factory);
+    }
+  }
+
+  public ColumnCodec<?> resolve(DbType dbType, int jdbcType, int precision, int scale) {
+    return resolve(dbType, jdbcType, null, precision, scale);
+  }
+
+  public ColumnCodec<?> resolve(
+      DbType dbType, int jdbcType, String typeName, int precision, int scale) {
+    CodecFactory factory = null;
+    if (dbType != null) {
+      Map<Integer, CodecFactory> overrides = vendor.get(dbType);
+      if (overrides != null) {
+        factory = overrides.get(jdbcType);
+      }
+    }
+    if (factory == null) {
+      factory = generic.get(jdbcType);
+    }
+    return factory == null ? ColumnCodecs.OBJECT : factory.create(precision, scale, typeName);
+  }
+
+  /** 為結果集的每個欄位決定 codec */
+  public RowDecoder decoderFor(ResultSetMetaData meta, DbType dbType) throws SQLException {
+    int colCount = meta.getColumnCount();
+    String[] columns = new String[colCount];
+    ColumnCodec<?>[] codecs = new ColumnCodec<?>[colCount];
+    for (int i = 1; i <= colCount; i++) {
+      columns[i - 1] = meta.getColumnLabel(i);
+      codecs[i - 1] =
+          resolve(
+              dbType,
+              meta.getColumnType(i),
+              meta.getColumnTypeName(i),
+              meta.getPrecision(i),
+              meta.getScale(i));
+    }
+    return new RowDecoder(columns, codecs);
+  }
+}
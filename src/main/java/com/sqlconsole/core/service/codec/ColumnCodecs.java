@@ -0,0 +1,249 @@
+package com.sqlconsole.core.service.codec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import com.sqlconsole.core.model.columnar.DoubleVector;
+import com.sqlconsole.core.model.columnar.FloatVector;
+import com.sqlconsole.core.model.columnar.LongVector;
+import com.sqlconsole.core.model.columnar.ObjectVector;
+import com.sqlconsole.core.model.columnar.StringVector;
+import com.sqlconsole.core.model.columnar.TimestampVector;
+
+/** 內建的 {@link ColumnCodec} 實作，全部使用 typed getter 並以 wasNull() 判斷 null。 */
+public final class ColumnCodecs {
+
+  private ColumnCodecs() {}
+
+  /** BIGINT 與可放進 long 的整數型 NUMERIC */
+  public static final ColumnCodec<LongVector> LONG = new LongCodec(false);
+
+  /** INTEGER / SMALLINT / TINYINT，讀出為 Integer */
+  public static final ColumnCodec<LongVector> INT = new LongCodec(true);
+
+  public static final ColumnCodec<DoubleVector> DOUBLE =
+      new ColumnCodec<>() {
+        @Override
+        public DoubleVector newVector() {
+          return new DoubleVector();
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, DoubleVector target) throws SQLException {
+          double v = rs.getDouble(index);
+          if (rs.wasNull()) {
+            target.addNull();
+          } else {
+            target.addDouble(v);
+          }
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          double v = rs.getDouble(index);
+          return rs.wasNull() ? null : v;
+        }
+      };
+
+  /** REAL / BINARY_FLOAT：以 getFloat 讀取，避免 getDouble 放大單精度的誤差 (1.1f 成為 1.100000023841858) */
+  public static final ColumnCodec<FloatVector> FLOAT =
+      new ColumnCodec<>() {
+        @Override
+        public FloatVector newVector() {
+          return new FloatVector();
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, FloatVector target) throws SQLException {
+          float v = rs.getFloat(index);
+          if (rs.wasNull()) {
+            target.addNull();
+          } else {
+            target.addFloat(v);
+          }
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          float v = rs.getFloat(index);
+          return rs.wasNull() ? null : v;
+        }
+      };
+
+  /** 以 getTimestamp 讀取，避免 Driver 專屬型別 (例如 oracle.sql.TIMESTAMP) */
+  public static final ColumnCodec<TimestampVector> TIMESTAMP =
+      new ColumnCodec<>() {
+        @Override
+        public TimestampVector newVector() {
+          return new TimestampVector(java.sql.Types.TIMESTAMP);
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, TimestampVector target) throws SQLException {
+          Timestamp ts = rs.getTimestamp(index);
+          if (ts == null) {
+            target.addNull();
+          } else {
+            target.addTimestamp(ts);
+          }
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          return rs.getTimestamp(index);
+        }
+      };
+
+  /**
+   * TIMESTAMP WITH TIME ZONE / DATETIMEOFFSET：以 getObject(OffsetDateTime) 讀取並保留時區位移 (getTimestamp 會轉成
+   * JVM 時區而遺失位移)，以 ISO-8601 字串呈現。
+   */
+  public static final ColumnCodec<StringVector> OFFSET_TIMESTAMP =
+      new ColumnCodec<>() {
+        @Override
+        public StringVector newVector() {
+          return new StringVector();
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, StringVector target) throws SQLException {
+          target.addString((String) read(rs, index));
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          OffsetDateTime value = rs.getObject(index, OffsetDateTime.class);
+          return value == null ? null : value.toString();
+        }
+      };
+
+  public static final ColumnCodec<TimestampVector> DATE =
+      new ColumnCodec<>() {
+        @Override
+        public TimestampVector newVector() {
+          return new TimestampVector(java.sql.Types.DATE);
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, TimestampVector target) throws SQLException {
+          java.sql.Date d = rs.getDate(index);
+          if (d == null) {
+            target.addNull();
+          } else {
+            target.addMillis(d.getTime());
+          }
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          return rs.getDate(index);
+        }
+      };
+
+  public static final ColumnCodec<TimestampVector> TIME =
+      new ColumnCodec<>() {
+        @Override
+        public TimestampVector newVector() {
+          return new TimestampVector(java.sql.Types.TIME);
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, TimestampVector target) throws SQLException {
+          java.sql.Time t = rs.getTime(index);
+          if (t == null) {
+            target.addNull();
+          } else {
+            target.addMillis(t.getTime());
+          }
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          return rs.getTime(index);
+        }
+      };
+
+  /** 字元型別，以及 CLOB、PGobject 等以字串呈現即可的型別 */
+  public static final ColumnCodec<StringVector> STRING =
+      new ColumnCodec<>() {
+        @Override
+        public StringVector newVector() {
+          return new StringVector();
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, StringVector target) throws SQLException {
+          target.addString(rs.getString(index));
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          return rs.getString(index);
+        }
+      };
+
+  /** 有小數或位數過大的 NUMERIC/DECIMAL */
+  public static final ColumnCodec<ObjectVector> DECIMAL =
+      new ColumnCodec<>() {
+        @Override
+        public ObjectVector newVector() {
+          return new ObjectVector();
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, ObjectVector target) throws SQLException {
+          target.add(rs.getBigDecimal(index));
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          return rs.getBigDecimal(index);
+        }
+      };
+
+  /** 其餘型別維持 getObject (以索引讀取) */
+  public static final ColumnCodec<ObjectVector> OBJECT =
+      new ColumnCodec<>() {
+        @Override
+        public ObjectVector newVector() {
+          return new ObjectVector();
+        }
+
+        @Override
+        public void decode(ResultSet rs, int index, ObjectVector target) throws SQLException {
+          target.add(rs.getObject(index));
+        }
+
+        @Override
+        public Object read(ResultSet rs, int index) throws SQLException {
+          return rs.getObject(index);
+        }
+      };
+
+  private record LongCodec(boolean intValues) implements ColumnCodec<LongVector> {
+    @Override
+    public LongVector newVector() {
+      return new LongVector(intValues);
+    }
+
+    @Override
+    public void decode(ResultSet rs, int index, LongVector target) throws SQLException {
+      long v = rs.getLong(index);
+      if (rs.wasNull()) {
+        target.addNull();
+      } else {
+        target.addLong(v);
+      }
+    }
+
+    @Override
+    public Object read(ResultSet rs, int index) throws SQLException {
+      long v = rs.getLong(index);
+      if (rs.wasNull()) {
+        return null;
+      }
+      return intValues ? Integer.valueOf((int) v) : Long.valueOf(v);
+    }
+  }
+}
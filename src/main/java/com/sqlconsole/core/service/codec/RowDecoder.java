@@ -0,0 +1,84 @@
+package com.sqlconsole.core.service.codec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import com.sqlconsole.core.model.columnar.ColumnVector;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+
+/**
+ * 一個結果集的解碼器：每個欄位已綁定好 codec 與欄位索引。
+ *
+ * <p>每列的解碼只是依序呼叫各欄的 codec，不再依欄名查找，也不經過 getObject 回傳 Driver 專屬型別。
+ */
+public final class RowDecoder {
+
+  private final List<String> columns;
+  private final ColumnCodec<?>[] codecs;
+
+  RowDecoder(String[] columns, ColumnCodec<?>[] codecs) {
+    this.columns = List.of(columns);
+    this.codecs = codecs;
+  }
+
+  public List<String> columns() {
+    return columns;
+  }
+
+  public int columnCount() {
+    return codecs.length;
+  }
+
+  /** 讀取目前這一列第 col 欄 (0-based) 的值 */
+  public Object read(ResultSet rs, int col) throws SQLException {
+    return codecs[col].read(rs, col + 1);
+  }
+
+  /** 開始新的一頁 (一組新的欄位向量) */
+  public Page newPage() {
+    return new Page();
+  }
+
+  /** 欄位與向量綁定後的讀取器 */
+  private record BoundColumn<V extends ColumnVector>(ColumnCodec<V> codec, int index, V vector) {
+    static <V extends ColumnVector> BoundColumn<V> bind(ColumnCodec<V> codec, int index) {
+      return new BoundColumn<>(codec, index, codec.newVector());
+    }
+
+    void decode(ResultSet rs) throws SQLException {
+      codec.decode(rs, index, vector);
+    }
+  }
+
+  /** 一頁資料的累積器 */
+  public final class Page {
+    private final BoundColumn<?>[] bound = new BoundColumn<?>[codecs.length];
+    private int rowCount;
+
+    private Page() {
+      for (int i = 0; i < codecs.length; i++) {
+        bound[i] = BoundColumn.bind(codecs[i], i + 1);
+      }
+    }
+
+    public void decodeRow(ResultSet rs) throws SQLException {
+      for (BoundColumn<?> column : bound) {
+        column.decode(rs);
+      }
+      rowCount++;
+    }
+
+    public int rowCount() {
+      return rowCount;
+    }
+
+    public ColumnarRows build() {
+      List<ColumnVector> vectors = new ArrayList<>(bound.length);
+      for (BoundColumn<?> column : bound) {
+        vectors.add(column.vector());
+      }
+      return ColumnarRows.of(columns, vectors, rowCount);
+    }
+  }
+}
@@ -0,0 +1,222 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+
+/**
+ * 以資料庫的 Catalog View 讀取整個 Schema，每種資料一次查詢 (DatabaseMetaData 的索引與外鍵需要每個資料表各查詢一次)。
+ *
+ * <p>查詢中的 {@code ?} 依序輪流綁定 Schema 名稱與資料表名稱的 LIKE 模式 (以 {@code !} 跳脫，讀取整個 Schema 時為
+ * {@code %})，因此每個 Schema 條件之後都要有 {@code AND <資料表欄位> LIKE ? ESCAPE '!'}。 結果欄位依序為:
+ *
+ * <ul>
+ *   <li>變更標記 (可省略): 資料表、標記，只綁定 Schema 名稱
+ *   <li>資料表: 名稱、類型 (含 VIEW 者視為 View)
+ *   <li>欄位: 資料表、欄位、型別名稱、長度或精度、小數位數、可否為 NULL (NO/N 表示不可)，依資料表與欄位順序排序
+ *   <li>索引: 資料表、索引、是否唯一 (非 0 表示唯一)、欄位，依資料表、索引與欄位順序排序
+ *   <li>外鍵: 資料表、名稱、欄位、參照的 Schema、參照的資料表、參照的欄位，依資料表、名稱與欄位順序排序
+ * </ul>
+ */
+public abstract class CatalogSqlDialect implements MetadataDialect {
+
+  private final Set<DbType> dbTypes;
+  private final String currentSchemaSql;
+  private final String tablesSql;
+  private final String columnsSql;
+  private final String indexesSql;
+  private final String foreignKeysSql;
+  private final String changeMarkersSql;
+
+  protected CatalogSqlDialect(
+      Set<DbType> dbTypes,
+      String currentSchemaSql,
+      String tablesSql,
+      String columnsSql,
+      String indexesSql,
+      String foreignKeysSql) {
+    this(dbTypes, currentSchemaSql, tablesSql, columnsSql, indexesSql, foreignKeysSql, null);
+  }
+
+  protected CatalogSqlDialect(
+      Set<DbType> dbTypes,
+      String currentSchemaSql,
+      String tablesSql,
+      String columnsSql,
+      String indexesSql,
+      String foreignKeysSql,
+      String changeMarkersSql) {
+    this.dbTypes = dbTypes;
+    this.currentSchemaSql = currentSchemaSql;
+    this.tablesSql = tablesSql;
+    this.columnsSql = columnsSql;
+    this.indexesSql = indexesSql;
+    this.foreignKeysSql = foreignKeysSql;
+    this.changeMarkersSql = changeMarkersSql;
+  }
+
+  @Override
+  public Set<DbType> dbTypes() {
+    return dbTypes;
+  }
+
+  @Override
+  public String currentSchema(Connection conn) throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(currentSchemaSql)) {
+      return rs.next() ? trim(rs.getString(1)) : null;
+    }
+  }
+
+  @Override
+  public Map<String, String> changeMarkers(Connection conn, String schema, int fetchSize)
+      throws SQLException {
+    if (changeMarkersSql == null) {
+      return null;
+    }
+    Map<String, String> markers = new LinkedHashMap<>();
+    query(
+        conn,
+        changeMarkersSql,
+        new String[] {schema},
+        fetchSize,
+        rs -> markers.put(trim(rs.getString(1)), rs.getString(2)));
+    return markers;
+  }
+
+  @Override
+  public Map<String, String> tables(Connection conn, String schema, String table, int fetchSize)
+      throws SQLException {
+    Map<String, String> tables = new LinkedHashMap<>();
+    query(
+        conn,
+        tablesSql,
+        params(schema, table),
+        fetchSize,
+        rs -> tables.put(trim(rs.getString(1)), tableType(rs.getString(2))));
+    return tables;
+  }
+
+  @Override
+  public Map<String, List<ColumnMetadata>> columns(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException {
+    Map<String, List<ColumnMetadata>> columns = new LinkedHashMap<>();
+    query(
+        conn,
+        columnsSql,
+        params(schema, table),
+        fetchSize,
+        rs ->
+            columns
+                .computeIfAbsent(trim(rs.getString(1)), t -> new ArrayList<>())
+                .add(
+                    new ColumnMetadata(
+                        trim(rs.getString(2)),
+                        trim(rs.getString(3)),
+                        integer(rs, 4),
+                        integer(rs, 5),
+                        nullable(rs.getString(6)))));
+    columns.replaceAll((name, list) -> List.copyOf(list));
+    return columns;
+  }
+
+  @Override
+  public Map<String, List<IndexMetadata>> indexes(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException {
+    MetadataGroups groups = new MetadataGroups();
+    query(
+        conn,
+        indexesSql,
+        params(schema, table),
+        fetchSize,
+        rs ->
+            groups.index(
+                trim(rs.getString(1)),
+                trim(rs.getString(2)),
+                rs.getInt(3) != 0,
+                trim(rs.getString(4))));
+    return groups.indexes();
+  }
+
+  @Override
+  public Map<String, List<ForeignKeyMetadata>> foreignKeys(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException {
+    MetadataGroups groups = new MetadataGroups();
+    query(
+        conn,
+        foreignKeysSql,
+        params(schema, table),
+        fetchSize,
+        rs ->
+            groups.foreignKey(
+                trim(rs.getString(1)),
+                trim(rs.getString(2)),
+                trim(rs.getString(3)),
+                trim(rs.getString(4)),
+                trim(rs.getString(5)),
+                trim(rs.getString(6))));
+    return groups.foreignKeys();
+  }
+
+  @FunctionalInterface
+  private interface RowHandler {
+    void accept(ResultSet rs) throws SQLException;
+  }
+
+  /** Schema 名稱與資料表名稱的 LIKE 模式 */
+  private static String[] params(String schema, String table) {
+    return new String[] {schema, table == null ? "%" : likeLiteral(table)};
+  }
+
+  /** 跳脫 LIKE 的萬用字元 (資料表名稱常含 {@code _}) */
+  static String likeLiteral(String name) {
+    return name.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+  }
+
+  /** 依序輪流綁定 params */
+  private static void query(
+      Connection conn, String sql, String[] params, int fetchSize, RowHandler handler)
+      throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      ps.setFetchSize(fetchSize);
+      int count = (int) sql.chars().filter(c -> c == '?').count();
+      for (int i = 0; i < count; i++) {
+        ps.setString(i + 1, params[i % params.length]);
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          handler.accept(rs);
+        }
+      }
+    }
+  }
+
+  static String tableType(String type) {
+    return type != null && type.toUpperCase().contains("VIEW") ? "VIEW" : "TABLE";
+  }
+
+  static boolean nullable(String value) {
+    return value == null || !(value.equalsIgnoreCase("NO") || value.equalsIgnoreCase("N"));
+  }
+
+  static Integer integer(ResultSet rs, int column) throws SQLException {
+    long value = rs.getLong(column);
+    return rs.wasNull() ? null : (int) Math.min(value, Integer.MAX_VALUE);
+  }
+
+  /** DB2 與 Oracle 的 CHAR 欄位可能補空白 */
+  static String trim(String value) {
+    return value == null ? null : value.stripTrailing();
+  }
+}
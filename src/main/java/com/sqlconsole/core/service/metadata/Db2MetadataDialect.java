@@ -0,0 +1,36 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/** DB2 LUW：目前 Schema (CURRENT SCHEMA) 的資料表，由 SYSCAT 目錄檢視取得 */
+@Component
+public class Db2MetadataDialect extends CatalogSqlDialect {
+
+  public Db2MetadataDialect() {
+    super(
+        Set.of(DbType.DB2),
+        "SELECT CURRENT SCHEMA FROM SYSIBM.SYSDUMMY1",
+        "SELECT tabname, CASE type WHEN 'V' THEN 'VIEW' ELSE 'TABLE' END FROM syscat.tables"
+            + " WHERE tabschema = ? AND tabname LIKE ? ESCAPE '!'"
+            + " AND type IN ('T', 'V', 'S', 'G', 'N') ORDER BY tabname",
+        "SELECT tabname, colname, typename, length, scale, nulls FROM syscat.columns"
+            + " WHERE tabschema = ? AND tabname LIKE ? ESCAPE '!' ORDER BY tabname, colno",
+        "SELECT i.tabname, i.indname, CASE WHEN i.uniquerule IN ('U', 'P') THEN 1 ELSE 0 END,"
+            + " c.colname"
+            + " FROM syscat.indexes i"
+            + " JOIN syscat.indexcoluse c ON c.indschema = i.indschema AND c.indname = i.indname"
+            + " WHERE i.tabschema = ? AND i.tabname LIKE ? ESCAPE '!'"
+            + " ORDER BY i.tabname, i.indname, c.colseq",
+        "SELECT r.tabname, r.constname, k.colname, r.reftabschema, r.reftabname, pk.colname"
+            + " FROM syscat.references r"
+            + " JOIN syscat.keycoluse k ON k.constname = r.constname"
+            + " AND k.tabschema = r.tabschema AND k.tabname = r.tabname"
+            + " JOIN syscat.keycoluse pk ON pk.constname = r.refkeyname"
+            + " AND pk.tabschema = r.reftabschema AND pk.tabname = r.reftabname"
+            + " AND pk.colseq = k.colseq"
+            + " WHERE r.tabschema = ? AND r.tabname LIKE ? ESCAPE '!'"
+            + " ORDER BY r.tabname, r.constname, k.colseq");
+  }
+}
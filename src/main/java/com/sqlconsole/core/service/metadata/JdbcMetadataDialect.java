@@ -0,0 +1,146 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+
+/**
+ * 以 {@link DatabaseMetaData} 讀取 Catalog，適用於沒有專屬 {@link MetadataDialect} 的資料庫 (例如 H2 或未設定
+ * DbType 的連線)。
+ *
+ * <p>資料表與欄位各一次呼叫；索引與外鍵的 API 只能指定單一資料表，每個資料表各呼叫一次，資料表多時較慢。
+ */
+public class JdbcMetadataDialect implements MetadataDialect {
+
+  @Override
+  public Set<DbType> dbTypes() {
+    return Set.of();
+  }
+
+  @Override
+  public String currentSchema(Connection conn) throws SQLException {
+    try {
+      return conn.getSchema();
+    } catch (AbstractMethodError | SQLException e) {
+      return null; // JDBC 4.1 之前的 Driver
+    }
+  }
+
+  @Override
+  public Map<String, String> tables(Connection conn, String schema, String table, int fetchSize)
+      throws SQLException {
+    DatabaseMetaData meta = conn.getMetaData();
+    Map<String, String> tables = new LinkedHashMap<>();
+    try (ResultSet rs = meta.getTables(null, schema, pattern(meta, table), null)) {
+      rs.setFetchSize(fetchSize);
+      while (rs.next()) {
+        String name = rs.getString("TABLE_NAME");
+        String type = rs.getString("TABLE_TYPE");
+        if (matches(table, name) && (type == null || !type.toUpperCase().contains("SYSTEM"))) {
+          tables.put(name, CatalogSqlDialect.tableType(type));
+        }
+      }
+    }
+    return tables;
+  }
+
+  @Override
+  public Map<String, List<ColumnMetadata>> columns(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException {
+    DatabaseMetaData meta = conn.getMetaData();
+    Map<String, List<ColumnMetadata>> columns = new LinkedHashMap<>();
+    try (ResultSet rs = meta.getColumns(null, schema, pattern(meta, table), "%")) {
+      rs.setFetchSize(fetchSize);
+      while (rs.next()) {
+        String name = rs.getString("TABLE_NAME");
+        if (!matches(table, name)) {
+          continue;
+        }
+        columns
+            .computeIfAbsent(name, t -> new ArrayList<>())
+            .add(
+                new ColumnMetadata(
+                    rs.getString("COLUMN_NAME"),
+                    rs.getString("TYPE_NAME"),
+                    CatalogSqlDialect.integer(rs, rs.findColumn("COLUMN_SIZE")),
+                    CatalogSqlDialect.integer(rs, rs.findColumn("DECIMAL_DIGITS")),
+                    rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls));
+      }
+    }
+    columns.replaceAll((name, list) -> List.copyOf(list));
+    return columns;
+  }
+
+  @Override
+  public Map<String, List<IndexMetadata>> indexes(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException {
+    DatabaseMetaData meta = conn.getMetaData();
+    MetadataGroups groups = new MetadataGroups();
+    for (String name : tables(conn, schema, table, fetchSize).keySet()) {
+      try (ResultSet rs = meta.getIndexInfo(null, schema, name, false, true)) {
+        while (rs.next()) {
+          if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+            continue;
+          }
+          groups.index(
+              name,
+              rs.getString("INDEX_NAME"),
+              !rs.getBoolean("NON_UNIQUE"),
+              rs.getString("COLUMN_NAME"));
+        }
+      }
+    }
+    return groups.indexes();
+  }
+
+  @Override
+  public Map<String, List<ForeignKeyMetadata>> foreignKeys(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException {
+    DatabaseMetaData meta = conn.getMetaData();
+    MetadataGroups groups = new MetadataGroups();
+    for (String name : tables(conn, schema, table, fetchSize).keySet()) {
+      try (ResultSet rs = meta.getImportedKeys(null, schema, name)) {
+        while (rs.next()) {
+          String key = rs.getString("FK_NAME");
+          groups.foreignKey(
+              name,
+              key != null ? key : rs.getString("PKTABLE_NAME"),
+              rs.getString("FKCOLUMN_NAME"),
+              rs.getString("PKTABLE_SCHEM"),
+              rs.getString("PKTABLE_NAME"),
+              rs.getString("PKCOLUMN_NAME"));
+        }
+      }
+    }
+    return groups.foreignKeys();
+  }
+
+  private static boolean matches(String table, String name) {
+    return table == null || table.equals(name);
+  }
+
+  /** 資料表名稱的模式：null 表示全部，否則跳脫萬用字元 (Driver 不支援跳脫時由呼叫端再比對名稱) */
+  private static String pattern(DatabaseMetaData meta, String table) throws SQLException {
+    if (table == null) {
+      return "%";
+    }
+    String escape = meta.getSearchStringEscape();
+    if (escape == null || escape.isEmpty()) {
+      return table;
+    }
+    return table
+        .replace(escape, escape + escape)
+        .replace("%", escape + "%")
+        .replace("_", escape + "_");
+  }
+}
@@ -0,0 +1,56 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+
+/**
+ * 讀取資料庫 Catalog 的方式，由 {@link MetadataDialectRegistry} 依 {@link DbType} 選用。
+ *
+ * <p>四種資料 (資料表、欄位、索引、外鍵) 各自以一次查詢讀取整個 Schema，由 {@link SchemaMetadataLoader} 以不同的連線
+ * 平行呼叫；回傳的 Map 以資料表名稱為 key。 參數 table 不為 null 時只讀取該資料表 (增量更新時重新讀取變更的資料表)。
+ */
+public interface MetadataDialect {
+
+  /** 適用的資料庫 */
+  Set<DbType> dbTypes();
+
+  /** 連線目前的 Schema (未加 Schema 的名稱所在的 Schema)，無法取得時為 null */
+  String currentSchema(Connection conn) throws SQLException;
+
+  /** 要讀取的 Schema，預設只有目前的 Schema (可能為 null) */
+  default List<String> schemas(Connection conn, String currentSchema) throws SQLException {
+    return Collections.singletonList(currentSchema);
+  }
+
+  /**
+   * 資料表名稱 → 變更標記 (資料表的定義、索引或外鍵改變後標記即不同，例如最後 DDL 時間)。
+   *
+   * @return 不支援時回傳 null (只能完整重新載入)
+   */
+  default Map<String, String> changeMarkers(Connection conn, String schema, int fetchSize)
+      throws SQLException {
+    return null;
+  }
+
+  /** 資料表名稱 → 類型 (TABLE 或 VIEW)，依名稱排序 */
+  Map<String, String> tables(Connection conn, String schema, String table, int fetchSize)
+      throws SQLException;
+
+  /** 資料表名稱 → 欄位 (依定義順序) */
+  Map<String, List<ColumnMetadata>> columns(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException;
+
+  Map<String, List<IndexMetadata>> indexes(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException;
+
+  Map<String, List<ForeignKeyMetadata>> foreignKeys(
+      Connection conn, String schema, String table, int fetchSize) throws SQLException;
+}
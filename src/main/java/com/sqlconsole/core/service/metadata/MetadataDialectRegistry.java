@@ -0,0 +1,31 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/** 依 DbConfig 的 {@link DbType} 選擇讀取 Catalog 的方式；未設定或沒有專屬實作時使用 DatabaseMetaData */
+@Component
+public class MetadataDialectRegistry {
+
+  private final Map<DbType, MetadataDialect> dialects = new EnumMap<>(DbType.class);
+  private final MetadataDialect fallback = new JdbcMetadataDialect();
+
+  public MetadataDialectRegistry(List<MetadataDialect> dialects) {
+    for (MetadataDialect dialect : dialects) {
+      for (DbType type : dialect.dbTypes()) {
+        MetadataDialect previous = this.dialects.putIfAbsent(type, dialect);
+        if (previous != null) {
+          throw new IllegalStateException(
+              "Duplicate metadata dialect for " + type + ": " + previous.getClass().getName());
+        }
+      }
+    }
+  }
+
+  public MetadataDialect forType(DbType type) {
+    return type == null ? fallback : dialects.getOrDefault(type, fallback);
+  }
+}
@@ -0,0 +1,88 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+
+/** 把每列一個欄位的索引與外鍵查詢結果依 (資料表, 名稱) 組合，欄位依列的順序；運算式索引沒有欄位名稱，略過該列 */
+final class MetadataGroups {
+
+  private final Map<String, Map<String, Group>> tables = new LinkedHashMap<>();
+
+  private static final class Group {
+    private final boolean unique;
+    private final String referencedSchema;
+    private final String referencedTable;
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> referencedColumns = new ArrayList<>();
+
+    private Group(boolean unique, String referencedSchema, String referencedTable) {
+      this.unique = unique;
+      this.referencedSchema = referencedSchema;
+      this.referencedTable = referencedTable;
+    }
+  }
+
+  void index(String table, String name, boolean unique, String column) {
+    if (column == null) {
+      return;
+    }
+    group(table, name, unique, null, null).columns.add(column);
+  }
+
+  void foreignKey(
+      String table,
+      String name,
+      String column,
+      String referencedSchema,
+      String referencedTable,
+      String referencedColumn) {
+    if (column == null || referencedColumn == null) {
+      return;
+    }
+    Group group = group(table, name, false, referencedSchema, referencedTable);
+    group.columns.add(column);
+    group.referencedColumns.add(referencedColumn);
+  }
+
+  private Group group(
+      String table, String name, boolean unique, String referencedSchema, String referencedTable) {
+    return tables
+        .computeIfAbsent(table, t -> new LinkedHashMap<>())
+        .computeIfAbsent(name, n -> new Group(unique, referencedSchema, referencedTable));
+  }
+
+  Map<String, List<IndexMetadata>> indexes() {
+    Map<String, List<IndexMetadata>> result = new LinkedHashMap<>();
+    tables.forEach(
+        (table, groups) -> {
+          List<IndexMetadata> indexes = new ArrayList<>();
+          groups.forEach(
+              (name, g) -> indexes.add(new IndexMetadata(name, g.unique, List.copyOf(g.columns))));
+          result.put(table, List.copyOf(indexes));
+        });
+    return result;
+  }
+
+  Map<String, List<ForeignKeyMetadata>> foreignKeys() {
+    Map<String, List<ForeignKeyMetadata>> result = new LinkedHashMap<>();
+    tables.forEach(
+        (table, groups) -> {
+          List<ForeignKeyMetadata> keys = new ArrayList<>();
+          groups.forEach(
+              (name, g) ->
+                  keys.add(
+                      new ForeignKeyMetadata(
+                          name,
+                          List.copyOf(g.columns),
+                          g.referencedSchema,
+                          g.referencedTable,
+                          List.copyOf(g.referencedColumns))));
+          result.put(table, List.copyOf(keys));
+        });
+    return result;
+  }
+}
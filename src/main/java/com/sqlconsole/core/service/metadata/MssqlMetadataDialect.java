@@ -0,0 +1,48 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/** SQL Server：使用者預設 Schema (SCHEMA_NAME()) 的資料表，索引與外鍵由 sys 目錄檢視取得 */
+@Component
+public class MssqlMetadataDialect extends CatalogSqlDialect {
+
+  public MssqlMetadataDialect() {
+    super(
+        Set.of(DbType.MSSQL),
+        "SELECT SCHEMA_NAME()",
+        "SELECT table_name, table_type FROM information_schema.tables"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!' ORDER BY table_name",
+        "SELECT table_name, column_name, data_type,"
+            + " COALESCE(character_maximum_length, numeric_precision), numeric_scale, is_nullable"
+            + " FROM information_schema.columns"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY table_name, ordinal_position",
+        "SELECT t.name, i.name, CAST(i.is_unique AS int), c.name"
+            + " FROM sys.indexes i"
+            + " JOIN sys.tables t ON t.object_id = i.object_id"
+            + " JOIN sys.index_columns ic"
+            + " ON ic.object_id = i.object_id AND ic.index_id = i.index_id"
+            + " JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id"
+            + " WHERE SCHEMA_NAME(t.schema_id) = ? AND t.name LIKE ? ESCAPE '!'"
+            + " AND i.name IS NOT NULL"
+            + " AND ic.is_included_column = 0"
+            + " ORDER BY t.name, i.name, ic.key_ordinal",
+        "SELECT t.name, fk.name, c.name, SCHEMA_NAME(rt.schema_id), rt.name, rc.name"
+            + " FROM sys.foreign_keys fk"
+            + " JOIN sys.tables t ON t.object_id = fk.parent_object_id"
+            + " JOIN sys.tables rt ON rt.object_id = fk.referenced_object_id"
+            + " JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id"
+            + " JOIN sys.columns c"
+            + " ON c.object_id = fkc.parent_object_id AND c.column_id = fkc.parent_column_id"
+            + " JOIN sys.columns rc"
+            + " ON rc.object_id = fkc.referenced_object_id"
+            + " AND rc.column_id = fkc.referenced_column_id"
+            + " WHERE SCHEMA_NAME(t.schema_id) = ? AND t.name LIKE ? ESCAPE '!'"
+            + " ORDER BY t.name, fk.name, fkc.constraint_column_id",
+        // 建立或修改索引時資料表的 modify_date 也會更新
+        "SELECT name, CONVERT(varchar(33), modify_date, 126) FROM sys.objects"
+            + " WHERE SCHEMA_NAME(schema_id) = ? AND type IN ('U', 'V')");
+  }
+}
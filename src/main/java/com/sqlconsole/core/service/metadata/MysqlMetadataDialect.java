@@ -0,0 +1,41 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/** MySQL 與 MariaDB：目前資料庫 (DATABASE()) 的資料表，皆由 information_schema 取得 */
+@Component
+public class MysqlMetadataDialect extends CatalogSqlDialect {
+
+  public MysqlMetadataDialect() {
+    super(
+        Set.of(DbType.MYSQL, DbType.MARIADB),
+        "SELECT DATABASE()",
+        "SELECT table_name, table_type FROM information_schema.tables"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!' ORDER BY table_name",
+        "SELECT table_name, column_name, column_type,"
+            + " COALESCE(character_maximum_length, numeric_precision), numeric_scale, is_nullable"
+            + " FROM information_schema.columns"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY table_name, ordinal_position",
+        "SELECT table_name, index_name, 1 - non_unique, column_name"
+            + " FROM information_schema.statistics"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY table_name, index_name, seq_in_index",
+        "SELECT table_name, constraint_name, column_name, referenced_table_schema,"
+            + " referenced_table_name, referenced_column_name"
+            + " FROM information_schema.key_column_usage"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!'"
+            + " AND referenced_table_name IS NOT NULL"
+            + " ORDER BY table_name, constraint_name, ordinal_position",
+        // update_time 在資料異動時也會改變 (多讀取而已)；create_time 在重建資料表的 ALTER 時改變，
+        // 不重建的 ALTER (例如 INSTANT 新增欄位、新增索引) 由欄位與索引欄位的數量判斷
+        "SELECT t.table_name, CONCAT_WS('/', t.create_time, t.update_time,"
+            + " (SELECT COUNT(*) FROM information_schema.columns c"
+            + " WHERE c.table_schema = t.table_schema AND c.table_name = t.table_name),"
+            + " (SELECT COUNT(*) FROM information_schema.statistics s"
+            + " WHERE s.table_schema = t.table_schema AND s.table_name = t.table_name))"
+            + " FROM information_schema.tables t WHERE t.table_schema = ?");
+  }
+}
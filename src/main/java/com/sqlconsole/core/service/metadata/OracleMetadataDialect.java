@@ -0,0 +1,48 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/** Oracle：目前 Schema (CURRENT_SCHEMA) 的資料表、View 與其欄位、索引、外鍵 */
+@Component
+public class OracleMetadataDialect extends CatalogSqlDialect {
+
+  public OracleMetadataDialect() {
+    super(
+        Set.of(DbType.ORACLE),
+        "SELECT SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') FROM DUAL",
+        "SELECT table_name, 'TABLE' FROM all_tables"
+            + " WHERE owner = ? AND table_name LIKE ? ESCAPE '!' AND dropped = 'NO'"
+            + " UNION ALL SELECT view_name, 'VIEW' FROM all_views"
+            + " WHERE owner = ? AND view_name LIKE ? ESCAPE '!'"
+            + " ORDER BY 1",
+        "SELECT table_name, column_name, data_type,"
+            + " CASE WHEN data_type IN ('NUMBER', 'FLOAT') THEN data_precision"
+            + " ELSE char_length END,"
+            + " data_scale, nullable"
+            + " FROM all_tab_columns WHERE owner = ? AND table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY table_name, column_id",
+        "SELECT ic.table_name, ic.index_name,"
+            + " CASE i.uniqueness WHEN 'UNIQUE' THEN 1 ELSE 0 END, ic.column_name"
+            + " FROM all_ind_columns ic"
+            + " JOIN all_indexes i ON i.owner = ic.index_owner AND i.index_name = ic.index_name"
+            + " WHERE ic.table_owner = ? AND ic.table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY ic.table_name, ic.index_name, ic.column_position",
+        "SELECT c.table_name, c.constraint_name, cc.column_name, r.owner, r.table_name,"
+            + " rc.column_name"
+            + " FROM all_constraints c"
+            + " JOIN all_cons_columns cc"
+            + " ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name"
+            + " JOIN all_constraints r"
+            + " ON r.owner = c.r_owner AND r.constraint_name = c.r_constraint_name"
+            + " JOIN all_cons_columns rc ON rc.owner = r.owner"
+            + " AND rc.constraint_name = r.constraint_name AND rc.position = cc.position"
+            + " WHERE c.constraint_type = 'R' AND c.owner = ? AND c.table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY c.table_name, c.constraint_name, cc.position",
+        // 建立索引或外鍵也會更新資料表的 last_ddl_time
+        "SELECT object_name, TO_CHAR(last_ddl_time, 'YYYYMMDDHH24MISS') FROM all_objects"
+            + " WHERE owner = ? AND object_type IN ('TABLE', 'VIEW')"
+            + " AND object_name NOT LIKE 'BIN$%'");
+  }
+}
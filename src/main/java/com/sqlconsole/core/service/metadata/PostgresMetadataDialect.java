@@ -0,0 +1,83 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.enums.DbType;
+
+/**
+ * PostgreSQL：讀取所有非系統 Schema (與 search_path 無關)，索引與外鍵由 pg_catalog 取得。 PostgreSQL 不記錄 DDL 時間，
+ * 變更標記由系統目錄的列版本推估 (不使用 Event Trigger)。
+ */
+@Component
+public class PostgresMetadataDialect extends CatalogSqlDialect {
+
+  public PostgresMetadataDialect() {
+    super(
+        Set.of(DbType.POSTGRESQL),
+        "SELECT current_schema()",
+        "SELECT c.relname, CASE WHEN c.relkind IN ('v', 'm') THEN 'VIEW' ELSE 'TABLE' END"
+            + " FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace"
+            + " WHERE n.nspname = ? AND c.relname LIKE ? ESCAPE '!'"
+            + " AND c.relkind IN ('r', 'p', 'v', 'm', 'f')"
+            + " ORDER BY c.relname",
+        "SELECT table_name, column_name, data_type,"
+            + " COALESCE(character_maximum_length, numeric_precision), numeric_scale, is_nullable"
+            + " FROM information_schema.columns"
+            + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!'"
+            + " ORDER BY table_name, ordinal_position",
+        "SELECT t.relname, i.relname, CASE WHEN ix.indisunique THEN 1 ELSE 0 END, a.attname"
+            + " FROM pg_index ix"
+            + " JOIN pg_class t ON t.oid = ix.indrelid"
+            + " JOIN pg_class i ON i.oid = ix.indexrelid"
+            + " JOIN pg_namespace n ON n.oid = t.relnamespace"
+            + " CROSS JOIN LATERAL unnest(ix.indkey::smallint[]) WITH ORDINALITY AS k(attnum, pos)"
+            + " JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum"
+            + " WHERE n.nspname = ? AND t.relname LIKE ? ESCAPE '!'"
+            + " ORDER BY t.relname, i.relname, k.pos",
+        "SELECT t.relname, con.conname, a.attname, rn.nspname, rt.relname, ra.attname"
+            + " FROM pg_constraint con"
+            + " JOIN pg_class t ON t.oid = con.conrelid"
+            + " JOIN pg_namespace n ON n.oid = t.relnamespace"
+            + " JOIN pg_class rt ON rt.oid = con.confrelid"
+            + " JOIN pg_namespace rn ON rn.oid = rt.relnamespace"
+            + " CROSS JOIN LATERAL unnest(con.conkey, con.confkey)"
+            + " WITH ORDINALITY AS k(attnum, refnum, pos)"
+            + " JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum"
+            + " JOIN pg_attribute ra ON ra.attrelid = con.confrelid AND ra.attnum = k.refnum"
+            + " WHERE con.contype = 'f' AND n.nspname = ? AND t.relname LIKE ? ESCAPE '!'"
+            + " ORDER BY t.relname, con.conname, k.pos",
+        // 沒有 DDL 時間：以 pg_class 與 pg_attribute 列的 xmin (ALTER 時改寫，ANALYZE/VACUUM 原地更新不變)
+        // 及索引、外鍵的數量與最大 OID 組成
+        "SELECT c.relname, c.oid || ':' || c.xmin || ':' || c.relnatts"
+            + " || ':' || (SELECT max(a.xmin::text::bigint) FROM pg_attribute a"
+            + " WHERE a.attrelid = c.oid AND a.attnum > 0)"
+            + " || ':' || (SELECT count(*) || '/' || COALESCE(max(i.indexrelid::bigint), 0)"
+            + " FROM pg_index i WHERE i.indrelid = c.oid)"
+            + " || ':' || (SELECT count(*) || '/' || COALESCE(max(con.oid::bigint), 0)"
+            + " FROM pg_constraint con WHERE con.conrelid = c.oid AND con.contype = 'f')"
+            + " FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace"
+            + " WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v', 'm', 'f')");
+  }
+
+  @Override
+  public List<String> schemas(Connection conn, String currentSchema) throws SQLException {
+    List<String> schemas = new ArrayList<>();
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs =
+            stmt.executeQuery(
+                "SELECT nspname FROM pg_namespace"
+                    + " WHERE nspname <> 'information_schema' AND nspname NOT LIKE 'pg\\_%'"
+                    + " AND has_schema_privilege(nspname, 'USAGE') ORDER BY nspname")) {
+      while (rs.next()) {
+        schemas.add(rs.getString(1));
+      }
+    }
+    return schemas;
+  }
+}
@@ -0,0 +1,282 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.model.metadata.TableMetadata;
+import com.sqlconsole.core.service.ConnectionPoolManager;
+
+/**
+ * 讀取 DbConfig 的 Catalog (資料表、欄位、索引、外鍵)。
+ *
+ * <p>先以一條連線取得目前的 Schema、要讀取的 Schema 與各資料表的變更標記，再把每個 Schema 的四種查詢交給最多
+ * {@code parallelism} 個 Thread 平行執行，每個查詢各自向連線池借用連線。 相同的名稱 (例如 ID、VARCHAR) 共用同一個字串。
+ *
+ * <p>增量更新 ({@link #reload}) 比對變更標記，只重新讀取新增或變更的資料表並移除已刪除的資料表，其餘沿用前一次的結果。
+ * 變更標記在讀取資料前取得，讀取期間發生的 DDL 會在下一次比對時被發現。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMetadataLoader {
+
+  private final ConnectionPoolManager connectionPoolManager;
+  private final MetadataDialectRegistry dialectRegistry;
+
+  /** 讀取 Catalog 時每次向資料庫抓取的列數 */
+  @Value("${app.sql.schema-cache.fetch-size:5000}")
+  private int fetchSize;
+
+  /** 同一個資料庫同時執行的 Catalog 查詢數 (各佔用一條連線池的連線) */
+  @Value("${app.sql.schema-cache.parallelism:4}")
+  private int parallelism;
+
+  /** 增量更新時變更的資料表超過此數量則改為完整讀取 (逐一讀取資料表不如整個 Schema 一次查詢) */
+  @Value("${app.sql.schema-cache.incremental-max-tables:50}")
+  private int incrementalMaxTables;
+
+  @FunctionalInterface
+  private interface Fetch<T> {
+    T apply(MetadataDialect dialect, Connection conn, String schema) throws SQLException;
+  }
+
+  /** 單一 Schema 的四種查詢 */
+  private record SchemaFetches(
+      String schema,
+      Future<Map<String, String>> tables,
+      Future<Map<String, List<ColumnMetadata>>> columns,
+      Future<Map<String, List<IndexMetadata>>> indexes,
+      Future<Map<String, List<ForeignKeyMetadata>>> foreignKeys) {}
+
+  /** 增量更新時的資料表：沿用前一次的結果 (kept) 或重新讀取 */
+  private record Slot(String schema, String table, String marker, TableMetadata kept) {}
+
+  /** 完整讀取 */
+  public SchemaMetadata load(DbConfig config) throws SQLException {
+    return reload(config, null);
+  }
+
+  /**
+   * 以 previous 為基礎增量更新；previous 為 null、目前的 Schema 改變、Dialect 不支援變更標記或變更的資料表過多時完整讀取。
+   */
+  public SchemaMetadata reload(DbConfig config, SchemaMetadata previous) throws SQLException {
+    MetadataDialect dialect = dialectRegistry.forType(config.getDbType());
+    String currentSchema;
+    Map<String, Map<String, String>> markers = new LinkedHashMap<>(); // Schema → 資料表 → 變更標記
+    try (Connection conn = connectionPoolManager.getConnection(config)) {
+      currentSchema = dialect.currentSchema(conn);
+      for (String schema : dialect.schemas(conn, currentSchema)) {
+        markers.put(schema, dialect.changeMarkers(conn, schema, fetchSize));
+      }
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, parallelism), Thread.ofVirtual().factory());
+    try {
+      if (previous != null
+          && Objects.equals(previous.currentSchema(), currentSchema)
+          && !markers.containsValue(null)) {
+        SchemaMetadata patched = patch(executor, config, dialect, previous, markers);
+        if (patched != null) {
+          return patched;
+        }
+      }
+      return loadAll(executor, config, dialect, currentSchema, markers);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private SchemaMetadata loadAll(
+      ExecutorService executor,
+      DbConfig config,
+      MetadataDialect dialect,
+      String currentSchema,
+      Map<String, Map<String, String>> markers)
+      throws SQLException {
+    List<SchemaFetches> fetches = new ArrayList<>();
+    for (String schema : markers.keySet()) {
+      fetches.add(
+          new SchemaFetches(
+              schema,
+              submit(
+                  executor, config, dialect, schema, (d, c, s) -> d.tables(c, s, null, fetchSize)),
+              submit(
+                  executor, config, dialect, schema, (d, c, s) -> d.columns(c, s, null, fetchSize)),
+              submit(
+                  executor, config, dialect, schema, (d, c, s) -> d.indexes(c, s, null, fetchSize)),
+              submit(
+                  executor,
+                  config,
+                  dialect,
+                  schema,
+                  (d, c, s) -> d.foreignKeys(c, s, null, fetchSize))));
+    }
+
+    Map<String, String> names = new HashMap<>();
+    List<TableMetadata> tables = new ArrayList<>();
+    for (SchemaFetches f : fetches) {
+      Map<String, List<ColumnMetadata>> columns = await(f.columns());
+      Map<String, List<IndexMetadata>> indexes = await(f.indexes());
+      Map<String, List<ForeignKeyMetadata>> foreignKeys = await(f.foreignKeys());
+      Map<String, String> schemaMarkers = markers.get(f.schema());
+      await(f.tables())
+          .forEach(
+              (table, type) ->
+                  tables.add(
+                      intern(
+                          names,
+                          new TableMetadata(
+                              f.schema(),
+                              table,
+                              type,
+                              columns.getOrDefault(table, List.of()),
+                              indexes.getOrDefault(table, List.of()),
+                              foreignKeys.getOrDefault(table, List.of()),
+                              schemaMarkers == null ? null : schemaMarkers.get(table)))));
+    }
+    return new SchemaMetadata(currentSchema, List.copyOf(tables));
+  }
+
+  /** 只重新讀取標記改變的資料表；變更的資料表過多時回傳 null */
+  private SchemaMetadata patch(
+      ExecutorService executor,
+      DbConfig config,
+      MetadataDialect dialect,
+      SchemaMetadata previous,
+      Map<String, Map<String, String>> markers)
+      throws SQLException {
+    Map<String, Map<String, TableMetadata>> before = new HashMap<>();
+    for (TableMetadata table : previous.tables()) {
+      before.computeIfAbsent(table.schema(), s -> new HashMap<>()).put(table.name(), table);
+    }
+    List<Slot> slots = new ArrayList<>();
+    int changed = 0;
+    for (Map.Entry<String, Map<String, String>> e : markers.entrySet()) {
+      Map<String, TableMetadata> tables = before.getOrDefault(e.getKey(), Map.of());
+      for (Map.Entry<String, String> m : e.getValue().entrySet()) {
+        TableMetadata old = tables.get(m.getKey());
+        boolean same =
+            old != null && m.getValue() != null && m.getValue().equals(old.changeMarker());
+        slots.add(new Slot(e.getKey(), m.getKey(), m.getValue(), same ? old : null));
+        changed += same ? 0 : 1;
+      }
+    }
+    if (changed > incrementalMaxTables) {
+      log.debug("{} tables of db {} changed, reloading all", changed, config.getId());
+      return null;
+    }
+
+    List<Future<TableMetadata>> results = new ArrayList<>();
+    for (Slot slot : slots) {
+      results.add(
+          slot.kept() != null
+              ? CompletableFuture.completedFuture(slot.kept())
+              : submit(
+                  executor,
+                  config,
+                  dialect,
+                  slot.schema(),
+                  (d, c, s) -> fetchTable(d, c, s, slot.table(), slot.marker())));
+    }
+    Map<String, String> names = new HashMap<>();
+    List<TableMetadata> tables = new ArrayList<>();
+    for (int i = 0; i < slots.size(); i++) {
+      TableMetadata table = await(results.get(i));
+      if (table != null) {
+        tables.add(slots.get(i).kept() != null ? table : intern(names, table));
+      }
+    }
+    log.debug("Patched {} changed tables of db {}", changed, config.getId());
+    return new SchemaMetadata(previous.currentSchema(), List.copyOf(tables));
+  }
+
+  /** 讀取單一資料表；已不存在 (在讀取標記之後刪除) 時回傳 null */
+  private TableMetadata fetchTable(
+      MetadataDialect dialect, Connection conn, String schema, String table, String marker)
+      throws SQLException {
+    String type = dialect.tables(conn, schema, table, fetchSize).get(table);
+    if (type == null) {
+      return null;
+    }
+    return new TableMetadata(
+        schema,
+        table,
+        type,
+        dialect.columns(conn, schema, table, fetchSize).getOrDefault(table, List.of()),
+        dialect.indexes(conn, schema, table, fetchSize).getOrDefault(table, List.of()),
+        dialect.foreignKeys(conn, schema, table, fetchSize).getOrDefault(table, List.of()),
+        marker);
+  }
+
+  private <T> Future<T> submit(
+      ExecutorService executor,
+      DbConfig config,
+      MetadataDialect dialect,
+      String schema,
+      Fetch<T> fetch) {
+    return executor.submit(
+        () -> {
+          try (Connection conn = connectionPoolManager.getConnection(config)) {
+            return fetch.apply(dialect, conn, schema);
+          }
+        });
+  }
+
+  private static <T> T await(Future<T> future) throws SQLException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while loading schema", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof SQLException sql) {
+        throw sql;
+      }
+      throw new SQLException("Failed to load schema: " + e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  private static String intern(Map<String, String> names, String name) {
+    return name == null ? null : names.computeIfAbsent(name, n -> n);
+  }
+
+  private static TableMetadata intern(Map<String, String> names, TableMetadata table) {
+    return new TableMetadata(
+        intern(names, table.schema()),
+        intern(names, table.name()),
+        table.type(),
+        table.columns().stream()
+            .map(
+                c ->
+                    new ColumnMetadata(
+                        intern(names, c.name()),
+                        intern(names, c.typeName()),
+                        c.size(),
+                        c.scale(),
+                        c.nullable()))
+            .toList(),
+        table.indexes(),
+        table.foreignKeys(),
+        table.changeMarker());
+  }
+}
@@ -0,0 +1,248 @@
+package com.sqlconsole.core.service.metadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.model.metadata.TableMetadata;
+
+/**
+ * {@link SchemaMetadata} 的二進位格式。
+ *
+ * <p>所有字串 (名稱、型別、變更標記) 只存一次於字串表，其餘以字串表的位置 (0 表示 null) 參照；整數皆為 varint。 結構為
+ * {@code MAGIC, VERSION, savedAt, 字串表, fingerprint, currentSchema, 資料表...}，最後 4 bytes 是之前內容的 CRC32。
+ * 解碼時相同的字串共用同一個物件，與 {@link SchemaMetadataLoader} 讀取的結果相同。
+ */
+final class SchemaSnapshotCodec {
+
+  private static final int MAGIC = 0x5351_4D44; // "SQMD"
+  private static final int VERSION = 2; // 2: fingerprint 改為雜湊值，舊檔視為損毀並刪除
+
+  private SchemaSnapshotCodec() {}
+
+  /** 解碼的結果；fingerprint 為寫入時 DbConfig 連線目標的雜湊值 */
+  record Decoded(String fingerprint, long savedAt, SchemaMetadata metadata) {}
+
+  static byte[] encode(String fingerprint, long savedAt, SchemaMetadata metadata) {
+    Writer body = new Writer();
+    body.string(fingerprint);
+    body.string(metadata.currentSchema());
+    body.varint(metadata.tables().size());
+    for (TableMetadata table : metadata.tables()) {
+      body.string(table.schema());
+      body.string(table.name());
+      body.string(table.type());
+      body.string(table.changeMarker());
+      body.varint(table.columns().size());
+      for (ColumnMetadata column : table.columns()) {
+        body.string(column.name());
+        body.string(column.typeName());
+        body.nullableInt(column.size());
+        body.nullableInt(column.scale());
+        body.varint(column.nullable() ? 1 : 0);
+      }
+      body.varint(table.indexes().size());
+      for (IndexMetadata index : table.indexes()) {
+        body.string(index.name());
+        body.varint(index.unique() ? 1 : 0);
+        body.strings(index.columns());
+      }
+      body.varint(table.foreignKeys().size());
+      for (ForeignKeyMetadata fk : table.foreignKeys()) {
+        body.string(fk.name());
+        body.strings(fk.columns());
+        body.string(fk.referencedSchema());
+        body.string(fk.referencedTable());
+        body.strings(fk.referencedColumns());
+      }
+    }
+
+    Writer out = new Writer();
+    out.int32(MAGIC);
+    out.varint(VERSION);
+    out.int64(savedAt);
+    out.varint(body.strings.size());
+    for (String s : body.strings) {
+      byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+      out.varint(utf8.length);
+      out.bytes.write(utf8, 0, utf8.length);
+    }
+    out.bytes.writeBytes(body.bytes.toByteArray());
+    CRC32 crc = new CRC32();
+    crc.update(out.bytes.toByteArray());
+    out.int32((int) crc.getValue());
+    return out.bytes.toByteArray();
+  }
+
+  /**
+   * @throws IOException 格式或版本不符，或內容已損毀
+   */
+  static Decoded decode(ByteBuffer buffer) throws IOException {
+    ByteBuffer in = buffer.duplicate();
+    if (in.remaining() < 8 || in.getInt(0) != MAGIC) {
+      throw new IOException("Not a schema snapshot");
+    }
+    int end = in.limit() - 4;
+    CRC32 crc = new CRC32();
+    crc.update(in.duplicate().limit(end));
+    if ((int) crc.getValue() != in.getInt(end)) {
+      throw new IOException("Schema snapshot checksum mismatch");
+    }
+    in.limit(end).position(4);
+    try {
+      Reader r = new Reader(in);
+      int version = r.varint();
+      if (version != VERSION) {
+        throw new IOException("Unsupported schema snapshot version " + version);
+      }
+      long savedAt = in.getLong();
+      String[] strings = new String[r.varint()];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] utf8 = new byte[r.varint()];
+        in.get(utf8);
+        strings[i] = new String(utf8, StandardCharsets.UTF_8);
+      }
+      r.strings = strings;
+
+      String fingerprint = r.string();
+      String currentSchema = r.string();
+      List<TableMetadata> tables = new ArrayList<>();
+      for (int t = r.varint(); t > 0; t--) {
+        String schema = r.string();
+        String name = r.string();
+        String type = r.string();
+        String marker = r.string();
+        List<ColumnMetadata> columns = new ArrayList<>();
+        for (int i = r.varint(); i > 0; i--) {
+          columns.add(
+              new ColumnMetadata(
+                  r.string(), r.string(), r.nullableInt(), r.nullableInt(), r.varint() != 0));
+        }
+        List<IndexMetadata> indexes = new ArrayList<>();
+        for (int i = r.varint(); i > 0; i--) {
+          indexes.add(new IndexMetadata(r.string(), r.varint() != 0, r.strings()));
+        }
+        List<ForeignKeyMetadata> foreignKeys = new ArrayList<>();
+        for (int i = r.varint(); i > 0; i--) {
+          foreignKeys.add(
+              new ForeignKeyMetadata(r.string(), r.strings(), r.string(), r.string(), r.strings()));
+        }
+        tables.add(
+            new TableMetadata(
+                schema,
+                name,
+                type,
+                List.copyOf(columns),
+                List.copyOf(indexes),
+                List.copyOf(foreignKeys),
+                marker));
+      }
+      return new Decoded(
+          fingerprint, savedAt, new SchemaMetadata(currentSchema, List.copyOf(tables)));
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | NullPointerException e) {
+      throw new IOException("Corrupt schema snapshot", e);
+    }
+  }
+
+  private static final class Writer {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    void varint(int value) {
+      while ((value & ~0x7F) != 0) {
+        bytes.write((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes.write(value);
+    }
+
+    /** null 為 0，其餘為 zigzag + 1 (Oracle 的小數位數可能為負數) */
+    void nullableInt(Integer value) {
+      varint(value == null ? 0 : ((value << 1) ^ (value >> 31)) + 1);
+    }
+
+    void int32(int value) {
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        bytes.write(value >>> shift);
+      }
+    }
+
+    void int64(long value) {
+      int32((int) (value >>> 32));
+      int32((int) value);
+    }
+
+    void string(String value) {
+      if (value == null) {
+        varint(0);
+        return;
+      }
+      Integer id = ids.get(value);
+      if (id == null) {
+        strings.add(value);
+        id = strings.size();
+        ids.put(value, id);
+      }
+      varint(id);
+    }
+
+    void strings(List<String> values) {
+      varint(values.size());
+      values.forEach(this::string);
+    }
+  }
+
+  private static final class Reader {
+    private final ByteBuffer in;
+    private String[] strings;
+
+    Reader(ByteBuffer in) {
+      this.in = in;
+    }
+
+    int varint() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        byte b = in.get();
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IOException("Corrupt schema snapshot: varint too long");
+    }
+
+    Integer nullableInt() throws IOException {
+      int v = varint();
+      if (v == 0) {
+        return null;
+      }
+      int zigzag = v - 1;
+      return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    String string() throws IOException {
+      int id = varint();
+      return id == 0 ? null : strings[id - 1];
+    }
+
+    List<String> strings() throws IOException {
+      List<String> values = new ArrayList<>();
+      for (int i = varint(); i > 0; i--) {
+        values.add(string());
+      }
+      return List.copyOf(values);
+    }
+  }
+}
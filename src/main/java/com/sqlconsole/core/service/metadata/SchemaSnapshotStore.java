@@ -0,0 +1,178 @@
+package com.sqlconsole.core.service.metadata;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+
+/**
+ * 各 DbConfig 最近一次讀取的 Catalog 存於本機的 Snapshot 檔 ({@code <snapshot-dir>/<dbId>.snapshot})，重新啟動後
+ * 不必先讀取 Catalog 即可回應自動完成。
+ *
+ * <p>啟動時把既有的檔案 Memory-map，第一次使用時才解碼。 Snapshot 記錄寫入時的連線目標 (JDBC URL、帳號、DbType) 的
+ * SHA-256 雜湊值 (JDBC URL 可能含有密碼，不以明文寫入本機檔案)，與目前的 DbConfig 不同時不使用。
+ * 是否仍與 Catalog 一致由 {@link com.sqlconsole.core.service.SchemaCacheService} 以變更標記在背景比對。 寫入先寫暫存檔再置換，讀取到損毀的檔案時刪除。
+ */
+@Slf4j
+@Component
+public class SchemaSnapshotStore {
+
+  private static final String SUFFIX = ".snapshot";
+
+  /** Snapshot 目錄，空白表示不保存 */
+  @Value("${app.sql.schema-cache.snapshot-dir:schema-snapshots}")
+  private String snapshotDir;
+
+  /** 啟動時 Map 的檔案，解碼後移除 */
+  private final Map<Long, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+  /** 由 Snapshot 還原的 Catalog 與當時讀取的時間 */
+  public record Restored(SchemaMetadata metadata, Instant savedAt) {}
+
+  @PostConstruct
+  void mapExisting() {
+    Path dir = dir();
+    if (dir == null || !Files.isDirectory(dir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : files.toList()) {
+        Long dbId = dbId(file);
+        if (dbId != null) {
+          try {
+            mapped.put(dbId, map(file));
+          } catch (IOException e) {
+            log.warn("Failed to map schema snapshot {}: {}", file, e.getMessage());
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Failed to list schema snapshots in {}: {}", dir, e.getMessage());
+    }
+    log.info("Mapped {} schema snapshots from {}", mapped.size(), dir);
+  }
+
+  /** DbConfig 的 Snapshot；不存在、連線目標已改變或已損毀時回傳 null */
+  public Restored read(DbConfig config) {
+    Path file = file(config.getId());
+    if (file == null) {
+      return null;
+    }
+    try {
+      MappedByteBuffer buffer = mapped.remove(config.getId());
+      if (buffer == null) {
+        if (!Files.isRegularFile(file)) {
+          return null;
+        }
+        buffer = map(file);
+      }
+      SchemaSnapshotCodec.Decoded decoded = SchemaSnapshotCodec.decode(buffer);
+      if (!fingerprint(config).equals(decoded.fingerprint())) {
+        log.info("Ignoring schema snapshot of db {}: connection target changed", config.getId());
+        return null;
+      }
+      return new Restored(decoded.metadata(), Instant.ofEpochMilli(decoded.savedAt()));
+    } catch (IOException e) {
+      log.warn("Discarding schema snapshot of db {}: {}", config.getId(), e.getMessage());
+      delete(config.getId());
+      return null;
+    }
+  }
+
+  /** 保存 Catalog (覆寫前一次的 Snapshot)；失敗時只記錄 */
+  public void write(DbConfig config, SchemaMetadata metadata, long savedAt) {
+    Path file = file(config.getId());
+    if (file == null) {
+      return;
+    }
+    try {
+      byte[] bytes = SchemaSnapshotCodec.encode(fingerprint(config), savedAt, metadata);
+      Files.createDirectories(file.getParent());
+      Path tmp = Files.createTempFile(file.getParent(), config.getId() + "-", ".tmp");
+      try {
+        Files.write(tmp, bytes);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      mapped.remove(config.getId());
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to write schema snapshot of db {}: {}", config.getId(), e.getMessage());
+    }
+  }
+
+  /** 刪除 Snapshot (DbConfig 修改或刪除後) */
+  public void delete(Long dbId) {
+    mapped.remove(dbId);
+    Path file = file(dbId);
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Failed to delete schema snapshot of db {}: {}", dbId, e.getMessage());
+    }
+  }
+
+  private Path dir() {
+    return snapshotDir == null || snapshotDir.isBlank() ? null : Path.of(snapshotDir);
+  }
+
+  private Path file(Long dbId) {
+    Path dir = dir();
+    return dir == null || dbId == null ? null : dir.resolve(dbId + SUFFIX);
+  }
+
+  private static Long dbId(Path file) {
+    String name = file.getFileName().toString();
+    if (!name.endsWith(SUFFIX)) {
+      return null;
+    }
+    try {
+      return Long.valueOf(name.substring(0, name.length() - SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static MappedByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /** 連線目標的 SHA-256；任一項改變時 Catalog 可能完全不同 */
+  static String fingerprint(DbConfig config) {
+    String target =
+        Objects.toString(config.getDbType(), "")
+            + "|"
+            + Objects.toString(config.getJdbcUrl(), "")
+            + "|"
+            + Objects.toString(config.getDbUser(), "");
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(target.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e); // 每個 JDK 都必須提供
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.sqlconsole.core.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 逐筆讀取 CSV/TSV 紀錄 (RFC 4180)，不會將整個檔案載入記憶體。
+ *
+ * <p>欄位可用雙引號包住，引號內可含分隔字元與換行，{@code ""} 代表一個雙引號。 行尾接受 {@code \n} 與 {@code
+ * \r\n}，檔案開頭的 UTF-8 BOM 會被略過。 空行不視為紀錄。
+ */
+public class CsvReader implements AutoCloseable {
+
+  private static final int EOF = -1;
+
+  private final Reader reader;
+  private final char delimiter;
+  private final StringBuilder field = new StringBuilder();
+  private int peeked = -2; // -2 表示沒有預讀的字元
+  private int line = 1;
+  private int recordLine;
+  private boolean started;
+
+  /** @param reader 建議傳入有緩衝的 Reader */
+  public CsvReader(Reader reader, char delimiter) {
+    this.reader = reader;
+    this.delimiter = delimiter;
+  }
+
+  /** 讀取下一筆紀錄，檔案結束時回傳 null */
+  public List<String> next() throws IOException {
+    if (!started) {
+      started = true;
+      if (peek() == '\uFEFF') {
+        read();
+      }
+    }
+    // 略過空行
+    while (peek() == '\n' || peek() == '\r') {
+      readLineEnd();
+    }
+    if (peek() == EOF) {
+      return null;
+    }
+
+    recordLine = line;
+    List<String> record = new ArrayList<>();
+    while (true) {
+      record.add(readField());
+      int c = peek();
+      if (c == delimiter) {
+        read();
+      } else {
+        if (c != EOF) {
+          readLineEnd();
+        }
+        return record;
+      }
+    }
+  }
+
+  /** 最後一次 {@link #next()} 回傳的紀錄在檔案中的起始行號 (1-based)，用於錯誤回報 */
+  public int recordLine() {
+    return recordLine;
+  }
+
+  private String readField() throws IOException {
+    field.setLength(0);
+    if (peek() != '"') {
+      int c;
+      while ((c = peek()) != EOF && c != delimiter && c != '\n' && c != '\r') {
+        field.append((char) read());
+      }
+      return field.toString();
+    }
+
+    read(); // 開頭引號
+    while (true) {
+      int c = read();
+      if (c == EOF) {
+        throw new IOException("Unterminated quoted field starting at line " + recordLine);
+      }
+      if (c == '"') {
+        if (peek() == '"') {
+          field.append((char) read());
+          continue;
+        }
+        // 結束引號之後到分隔字元前的內容照原樣接上 (寬鬆處理不合規格的檔案)
+        while ((c = peek()) != EOF && c != delimiter && c != '\n' && c != '\r') {
+          field.append((char) read());
+        }
+        return field.toString();
+      }
+      if (c == '\n') {
+        line++;
+      }
+      field.append((char) c);
+    }
+  }
+
+  private void readLineEnd() throws IOException {
+    if (read() == '\r' && peek() == '\n') {
+      read();
+    }
+    line++;
+  }
+
+  private int peek() throws IOException {
+    if (peeked == -2) {
+      peeked = reader.read();
+    }
+    return peeked;
+  }
+
+  private int read() throws IOException {
+    int c = peek();
+    peeked = -2;
+    return c;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -15,7 +15,17 @@ import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.extern.slf4j.Slf4j;
 
-/** 安全加密工具類別 - 採用 AES-256-GCM 演算法 支援 Salt 機制與 PBKDF2 金鑰衍生 */
+/**
+ * 安全加密工具類別 - 採用 AES-256-GCM 演算法 支援 Salt 機制與 PBKDF2 金鑰衍生
+ *
+ * <p>密文有兩種格式：
+ *
+ * <ul>
+ *   <li>v1 (無前綴)：Base64([Salt(16)] + [IV(12)] + [CipherText])，每筆以自己的 Salt 衍生金鑰，解密一次需要完整的
+ *       PBKDF2 計算。
+ *   <li>v2 ({@code v2:} 前綴)：Base64([IV(12)] + [CipherText])，使用 {@link #deriveMasterKey} 在啟動時衍生一次的金鑰。
+ * </ul>
+ */
 @Slf4j
 public class EncryptionUtil {
 
@@ -26,8 +36,23 @@ public class EncryptionUtil {
   private static final int ITERATION_COUNT = 65536;
   private static final int KEY_LENGTH_BIT = 256;
 
+  /** v2 密文前綴 */
+  public static final String V2_PREFIX = "v2:";
+
+  /** v2 主金鑰只在啟動時衍生一次，可使用較高的迭代次數 */
+  private static final int V2_ITERATION_COUNT = 600_000;
+
+  private static final byte[] V2_SALT =
+      "sqlconsole/credentials/v2".getBytes(StandardCharsets.UTF_8);
+
+  /** 依 Salt 取得 v1 金鑰 (可由呼叫端快取) */
+  @FunctionalInterface
+  public interface KeyResolver {
+    SecretKey forSalt(byte[] salt) throws Exception;
+  }
+
   /**
-   * 加密字串
+   * 加密字串 (v1 格式，新資料請使用 {@link #encryptV2})
    *
    * @param plainText 明文
    * @param masterPassword 系統主密鑰 (建議從環境變數讀取)
@@ -68,6 +93,17 @@ public class EncryptionUtil {
    * @return 解密後的明文
    */
   public static String decrypt(String encryptedBase64, String masterPassword) throws Exception {
+    return decrypt(encryptedBase64, salt -> deriveKey(masterPassword, salt));
+  }
+
+  /**
+   * 解密 v1 字串，金鑰由 resolver 依密文中的 Salt 提供
+   *
+   * @param encryptedBase64 加密後的 Base64 字串 (v1 格式)
+   * @param resolver 依 Salt 取得金鑰
+   * @return 解密後的明文
+   */
+  public static String decrypt(String encryptedBase64, KeyResolver resolver) throws Exception {
     byte[] decode = Base64.getDecoder().decode(encryptedBase64);
     ByteBuffer byteBuffer = ByteBuffer.wrap(decode);
 
@@ -83,23 +119,72 @@ public class EncryptionUtil {
     byte[] cipherText = new byte[byteBuffer.remaining()];
     byteBuffer.get(cipherText);
 
-    // 4. 衍生金鑰
-    SecretKey secretKey = deriveKey(masterPassword, salt);
+    // 4. 取得金鑰
+    SecretKey secretKey = resolver.forSalt(salt);
 
     // 5. 執行解密
-    Cipher cipher = Cipher.getInstance(ENCRYPTION_ALGO);
-    GCMParameterSpec spec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-    cipher.init(Cipher.DECRYPT_MODE, secretKey, spec);
-    byte[] plainText = cipher.doFinal(cipherText);
+    byte[] plainText = doFinal(Cipher.DECRYPT_MODE, secretKey, iv, cipherText);
+    return new String(plainText, StandardCharsets.UTF_8);
+  }
 
+  /**
+   * 以主金鑰加密為 v2 格式
+   *
+   * @param plainText 明文
+   * @param masterKey {@link #deriveMasterKey} 的結果
+   * @return {@code v2:} + Base64([IV(12)] + [CipherText])
+   */
+  public static String encryptV2(String plainText, SecretKey masterKey) throws Exception {
+    byte[] iv = new byte[IV_LENGTH_BYTE];
+    new SecureRandom().nextBytes(iv);
+    byte[] cipherText =
+        doFinal(Cipher.ENCRYPT_MODE, masterKey, iv, plainText.getBytes(StandardCharsets.UTF_8));
+
+    ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
+    byteBuffer.put(iv);
+    byteBuffer.put(cipherText);
+    return V2_PREFIX + Base64.getEncoder().encodeToString(byteBuffer.array());
+  }
+
+  /** 解密 v2 格式 */
+  public static String decryptV2(String encrypted, SecretKey masterKey) throws Exception {
+    byte[] decode = Base64.getDecoder().decode(encrypted.substring(V2_PREFIX.length()));
+    ByteBuffer byteBuffer = ByteBuffer.wrap(decode);
+    byte[] iv = new byte[IV_LENGTH_BYTE];
+    byteBuffer.get(iv);
+    byte[] cipherText = new byte[byteBuffer.remaining()];
+    byteBuffer.get(cipherText);
+    byte[] plainText = doFinal(Cipher.DECRYPT_MODE, masterKey, iv, cipherText);
     return new String(plainText, StandardCharsets.UTF_8);
   }
 
-  /** 使用 PBKDF2 與 Salt 衍生高強度金鑰 */
-  private static SecretKey deriveKey(String password, byte[] salt)
+  public static boolean isV2(String encrypted) {
+    return encrypted.startsWith(V2_PREFIX);
+  }
+
+  /** 由系統主密鑰衍生 v2 使用的金鑰 (耗時，只在啟動時呼叫一次) */
+  public static SecretKey deriveMasterKey(String masterPassword)
+      throws NoSuchAlgorithmException, InvalidKeySpecException {
+    return deriveKey(masterPassword, V2_SALT, V2_ITERATION_COUNT);
+  }
+
+  private static byte[] doFinal(int mode, SecretKey key, byte[] iv, byte[] input)
+      throws Exception {
+    Cipher cipher = Cipher.getInstance(ENCRYPTION_ALGO);
+    cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+    return cipher.doFinal(input);
+  }
+
+  /** 使用 PBKDF2 與 Salt 衍生高強度金鑰 (v1) */
+  public static SecretKey deriveKey(String password, byte[] salt)
+      throws NoSuchAlgorithmException, InvalidKeySpecException {
+    return deriveKey(password, salt, ITERATION_COUNT);
+  }
+
+  private static SecretKey deriveKey(String password, byte[] salt, int iterations)
       throws NoSuchAlgorithmException, InvalidKeySpecException {
     SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-    KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, ITERATION_COUNT, KEY_LENGTH_BIT);
+    KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_LENGTH_BIT);
     return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
   }
 }
@@ -0,0 +1,66 @@
+package com.sqlconsole.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import com.sqlconsole.core.model.dto.LatencyStats;
+
+/**
+ * 固定區間 (約 1-2-5 倍數) 的延遲直方圖，可多個 Thread 同時記錄。
+ *
+ * <p>只保存各區間的次數，記憶體固定；百分位數以區間上限近似。
+ */
+public final class LatencyHistogram {
+
+  /** 各區間的上限 (毫秒，含)；最後一個區間收錄其餘所有值 */
+  private static final long[] BOUNDS = {
+    1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, Long.MAX_VALUE
+  };
+
+  private final AtomicLongArray counts = new AtomicLongArray(BOUNDS.length);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  public void record(long millis) {
+    long value = Math.max(0, millis);
+    int i = 0;
+    while (value > BOUNDS[i]) {
+      i++;
+    }
+    counts.incrementAndGet(i);
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  public LatencyStats snapshot() {
+    long[] snapshot = new long[BOUNDS.length];
+    long total = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    long maxValue = max.get();
+    if (total == 0) {
+      return new LatencyStats(0, 0, 0, 0, 0, 0);
+    }
+    return new LatencyStats(
+        total,
+        (double) sum.sum() / total,
+        percentile(snapshot, total, 0.50, maxValue),
+        percentile(snapshot, total, 0.95, maxValue),
+        percentile(snapshot, total, 0.99, maxValue),
+        maxValue);
+  }
+
+  private static long percentile(long[] snapshot, long total, double p, long maxValue) {
+    long rank = (long) Math.ceil(total * p);
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(BOUNDS[i], maxValue);
+      }
+    }
+    return maxValue;
+  }
+}
@@ -0,0 +1,299 @@
+package com.sqlconsole.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import com.sqlconsole.core.model.dto.SchemaMatch;
+import com.sqlconsole.core.model.dto.SchemaSearchResult;
+
+/**
+ * 單一資料庫的資料表與欄位，以及供自動完成使用的名稱索引 (不可變，可由多個執行緒共用)。
+ *
+ * <p>不重複的名稱 (資料表與欄位) 依大寫排序後放入壓縮路徑的 Trie，前綴查詢只走訪符合的子樹。 前綴符合的結果不足時，
+ * 再找名稱中以 {@code _}、{@code $}、{@code #} 或大小寫變化分隔的片段開頭符合者 (例如 {@code cust} 找到
+ * {@code ORDER_CUSTOMER_ID})。
+ */
+public final class SchemaIndex {
+
+  private static final byte TABLE = 1;
+  private static final byte COLUMN = 2;
+  private static final int MAX_TABLES_PER_MATCH = 3;
+
+  private static final char[] NO_LABEL = new char[0];
+  private static final Node[] NO_CHILDREN = new Node[0];
+  private static final int[] NO_IDS = new int[0];
+
+  public static final SchemaIndex EMPTY = new SchemaIndex(Map.of());
+
+  private final Map<String, List<String>> tables;
+  private final Map<String, String> tablesByUpperName;
+  private final String[] tableNames;
+  private final int columnCount;
+
+  // 依大寫排序的不重複名稱，陣列索引即 Trie 中的 id
+  private final String[] names;
+  private final byte[] kinds;
+  private final int[][] columnTables; // 含此欄位的資料表 (tableNames 的索引)，非欄位時為 null
+  private final Node root = new Node(NO_LABEL);
+
+  /**
+   * @param tables 資料表名稱 → 欄位名稱 (依 Catalog 順序)，不可變
+   */
+  public SchemaIndex(Map<String, List<String>> tables) {
+    this.tables = tables;
+    this.tableNames = tables.keySet().toArray(String[]::new);
+    this.tablesByUpperName = new HashMap<>();
+
+    // 名稱 → 種類 (資料表/欄位) 與含此欄位的資料表
+    Map<String, byte[]> kindByName = new TreeMap<>(SchemaIndex::compareNames);
+    Map<String, List<Integer>> tablesByColumn = new HashMap<>();
+    int columns = 0;
+    for (int t = 0; t < tableNames.length; t++) {
+      String table = tableNames[t];
+      tablesByUpperName.putIfAbsent(upper(table), table);
+      kindByName.computeIfAbsent(table, n -> new byte[1])[0] |= TABLE;
+      for (String column : tables.get(table)) {
+        kindByName.computeIfAbsent(column, n -> new byte[1])[0] |= COLUMN;
+        List<Integer> ids = tablesByColumn.computeIfAbsent(column, c -> new ArrayList<>());
+        if (ids.isEmpty() || ids.get(ids.size() - 1) != t) {
+          ids.add(t);
+        }
+        columns++;
+      }
+    }
+    this.columnCount = columns;
+
+    int size = kindByName.size();
+    this.names = new String[size];
+    this.kinds = new byte[size];
+    this.columnTables = new int[size][];
+    int id = 0;
+    for (Map.Entry<String, byte[]> e : kindByName.entrySet()) {
+      names[id] = e.getKey();
+      kinds[id] = e.getValue()[0];
+      List<Integer> ids = tablesByColumn.get(e.getKey());
+      if (ids != null) {
+        columnTables[id] = ids.stream().mapToInt(Integer::intValue).toArray();
+      }
+      insert(upper(names[id]), id);
+      id++;
+    }
+  }
+
+  /** 資料表名稱 → 欄位名稱 */
+  public Map<String, List<String>> tables() {
+    return tables;
+  }
+
+  /** 資料表名稱 (依 Catalog 順序) */
+  public List<String> tableNames() {
+    return List.of(tableNames);
+  }
+
+  /** 資料表的欄位 (名稱先完全比對，再不分大小寫比對)；不存在時回傳空的 List */
+  public List<String> columns(String table) {
+    List<String> columns = tables.get(table);
+    if (columns == null && table != null) {
+      String name = tablesByUpperName.get(upper(table));
+      columns = name == null ? null : tables.get(name);
+    }
+    return columns == null ? List.of() : columns;
+  }
+
+  public int tableCount() {
+    return tableNames.length;
+  }
+
+  public int columnCount() {
+    return columnCount;
+  }
+
+  /** 索引中不重複的名稱數 */
+  public int nameCount() {
+    return names.length;
+  }
+
+  /**
+   * 不分大小寫查詢名稱：先列出以 query 開頭者，再列出片段以 query 開頭者，各自依字母順序。
+   *
+   * @param limit 最多回傳的名稱數；結果未截斷時 {@link SchemaSearchResult#complete()} 為 true
+   */
+  public SchemaSearchResult search(String query, int limit) {
+    String prefix = upper(query == null ? "" : query.trim());
+    if (prefix.isEmpty() || limit <= 0) {
+      return new SchemaSearchResult(List.of(), false);
+    }
+    Set<Integer> ids = new LinkedHashSet<>();
+    Node node = find(prefix);
+    if (node != null) {
+      collect(node, ids, limit + 1);
+    }
+    for (int id = 0; id < names.length && ids.size() <= limit; id++) {
+      if (!ids.contains(id) && segmentStartsWith(names[id], prefix)) {
+        ids.add(id);
+      }
+    }
+
+    // 同時是資料表與欄位的名稱列為兩筆
+    List<SchemaMatch> matches = new ArrayList<>();
+    for (int id : ids) {
+      if ((kinds[id] & TABLE) != 0) {
+        matches.add(new SchemaMatch(names[id], "TABLE", List.of()));
+      }
+      if ((kinds[id] & COLUMN) != 0) {
+        matches.add(new SchemaMatch(names[id], "COLUMN", tablesOf(id)));
+      }
+    }
+    if (matches.size() > limit) {
+      return new SchemaSearchResult(List.copyOf(matches.subList(0, limit)), false);
+    }
+    return new SchemaSearchResult(matches, ids.size() <= limit);
+  }
+
+  private List<String> tablesOf(int id) {
+    int[] ids = columnTables[id];
+    int n = Math.min(ids.length, MAX_TABLES_PER_MATCH);
+    List<String> result = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      result.add(tableNames[ids[i]]);
+    }
+    return result;
+  }
+
+  /** name 中是否有片段 (不含開頭) 不分大小寫以 prefix 開頭 */
+  private static boolean segmentStartsWith(String name, String prefix) {
+    for (int i = 1; i <= name.length() - prefix.length(); i++) {
+      char previous = name.charAt(i - 1);
+      boolean boundary =
+          previous == '_'
+              || previous == '$'
+              || previous == '#'
+              || (Character.isLowerCase(previous) && Character.isUpperCase(name.charAt(i)));
+      if (boundary && name.regionMatches(true, i, prefix, 0, prefix.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String upper(String name) {
+    return name.toUpperCase(Locale.ROOT);
+  }
+
+  private static int compareNames(String a, String b) {
+    int c = upper(a).compareTo(upper(b));
+    return c != 0 ? c : a.compareTo(b);
+  }
+
+  // ---- 壓縮路徑的 Trie ----
+
+  private static final class Node {
+    private char[] label; // 由父節點到此節點的字元
+    private Node[] children = NO_CHILDREN; // 依 label 的第一個字元排序
+    private int[] ids = NO_IDS; // 大寫後等於此路徑的名稱
+
+    private Node(char[] label) {
+      this.label = label;
+    }
+
+    /** 第一個字元為 c 的子節點的位置；不存在時為 -(插入位置) - 1 */
+    private int indexOf(char c) {
+      int low = 0;
+      int high = children.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        char key = children[mid].label[0];
+        if (key < c) {
+          low = mid + 1;
+        } else if (key > c) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+  }
+
+  private void insert(String key, int id) {
+    Node node = root;
+    int i = 0;
+    while (i < key.length()) {
+      int index = node.indexOf(key.charAt(i));
+      if (index < 0) {
+        Node leaf = new Node(key.substring(i).toCharArray());
+        leaf.ids = new int[] {id};
+        int at = -index - 1;
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, at);
+        children[at] = leaf;
+        System.arraycopy(node.children, at, children, at + 1, node.children.length - at);
+        node.children = children;
+        return;
+      }
+      Node child = node.children[index];
+      int common = 0;
+      while (common < child.label.length
+          && i + common < key.length()
+          && child.label[common] == key.charAt(i + common)) {
+        common++;
+      }
+      if (common < child.label.length) {
+        // 拆開 child 的 label：共同的部分成為新的中間節點
+        Node middle = new Node(Arrays.copyOfRange(child.label, 0, common));
+        child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+        middle.children = new Node[] {child};
+        node.children[index] = middle;
+        child = middle;
+      }
+      node = child;
+      i += common;
+    }
+    node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+    node.ids[node.ids.length - 1] = id;
+  }
+
+  /** 路徑以 prefix 開頭的子樹的根；prefix 結束於 label 中間時回傳該節點 */
+  private Node find(String prefix) {
+    Node node = root;
+    int i = 0;
+    while (i < prefix.length()) {
+      int index = node.indexOf(prefix.charAt(i));
+      if (index < 0) {
+        return null;
+      }
+      Node child = node.children[index];
+      int n = Math.min(child.label.length, prefix.length() - i);
+      for (int k = 0; k < n; k++) {
+        if (child.label[k] != prefix.charAt(i + k)) {
+          return null;
+        }
+      }
+      node = child;
+      i += n;
+    }
+    return node;
+  }
+
+  /** 依字母順序 (名稱是另一名稱的前綴時在前) 收集子樹中的名稱，最多 max 個 */
+  private static void collect(Node node, Set<Integer> ids, int max) {
+    for (int id : node.ids) {
+      if (ids.size() >= max) {
+        return;
+      }
+      ids.add(id);
+    }
+    for (Node child : node.children) {
+      if (ids.size() >= max) {
+        return;
+      }
+      collect(child, ids, max);
+    }
+  }
+}
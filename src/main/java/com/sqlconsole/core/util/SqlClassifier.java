@@ -0,0 +1,160 @@
+package com.sqlconsole.core.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 判斷單一語句是否唯讀。 以保守為原則：無法確定時一律視為會寫入。
+ *
+ * <p>掃描時略過字串、引號識別字與註解，只看關鍵字。 {@code WITH ... DELETE}、{@code SELECT ... INTO}、{@code SELECT
+ * ... FOR UPDATE}、序列取值等雖以 SELECT/WITH 開頭，仍視為寫入。 無法辨識函式內部的副作用。
+ */
+public final class SqlClassifier {
+
+  private static final Set<String> READ_ONLY_LEADING =
+      Set.of("SELECT", "WITH", "VALUES", "SHOW", "DESCRIBE", "DESC");
+
+  private static final Set<String> DML_LEADING =
+      Set.of("INSERT", "UPDATE", "DELETE", "MERGE", "WITH", "UPSERT", "REPLACE");
+
+  /** 出現在唯讀語句開頭之後，代表會寫入或鎖定資料的關鍵字 */
+  private static final Set<String> WRITE_KEYWORDS =
+      Set.of("INSERT", "UPDATE", "DELETE", "MERGE", "INTO", "FOR", "LOCK", "NEXTVAL", "SETVAL");
+
+  private SqlClassifier() {}
+
+  /** 是否為唯讀語句 (查詢結果可以快取、執行後不需要讓快取失效) */
+  public static boolean isReadOnly(String sql) {
+    if (sql == null) {
+      return false;
+    }
+    Set<String> words = keywords(sql);
+    if (words == null || words.isEmpty()) {
+      return false;
+    }
+    String leading = words.iterator().next();
+    if (!READ_ONLY_LEADING.contains(leading)) {
+      return false;
+    }
+    return words.stream().noneMatch(WRITE_KEYWORDS::contains);
+  }
+
+  /**
+   * 是否為只影響資料列的 DML (INSERT/UPDATE/DELETE/MERGE，含 {@code WITH ... DELETE})。 其他會寫入的語句 (SET、
+   * ALTER SESSION、USE、CALL、DDL、PL/SQL 區塊等) 可能改變連線的 Session 狀態。
+   */
+  public static boolean isDml(String sql) {
+    if (sql == null || isReadOnly(sql)) {
+      return false;
+    }
+    Set<String> words = keywords(sql);
+    return words != null && !words.isEmpty() && DML_LEADING.contains(words.iterator().next());
+  }
+
+  /** 與 {@link #isReadOnly} 相同，但不含 SHOW/DESCRIBE 等中繼資料指令 (結果隨 Session 而異，不適合共用) */
+  public static boolean isCacheable(String sql) {
+    if (!isReadOnly(sql)) {
+      return false;
+    }
+    String leading = SqlScriptSplitter.leadingKeyword(sql);
+    return leading.equals("SELECT") || leading.equals("WITH") || leading.equals("VALUES");
+  }
+
+  /**
+   * 正規化 SQL 作為快取鍵：去除註解與結尾分號，字串以外的連續空白合併為一個空白。 字串內容與大小寫維持不變。
+   */
+  public static String normalize(String sql) {
+    StringBuilder out = new StringBuilder(sql.length());
+    int len = sql.length();
+    int i = 0;
+    boolean space = false;
+    while (i < len) {
+      char c = sql.charAt(i);
+      char next = i + 1 < len ? sql.charAt(i + 1) : '\0';
+      if (c == '-' && next == '-') {
+        int nl = sql.indexOf('\n', i);
+        i = nl < 0 ? len : nl;
+        space = true;
+      } else if (c == '/' && next == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? len : end + 2;
+        space = true;
+      } else if (Character.isWhitespace(c)) {
+        space = true;
+        i++;
+      } else {
+        if (space && out.length() > 0) {
+          out.append(' ');
+        }
+        space = false;
+        if (c == '\'' || c == '"' || c == '`') {
+          int end = skipQuoted(sql, i, c);
+          out.append(sql, i, end);
+          i = end;
+        } else {
+          out.append(c);
+          i++;
+        }
+      }
+    }
+    int end = out.length();
+    while (end > 0 && (out.charAt(end - 1) == ';' || out.charAt(end - 1) == ' ')) {
+      end--;
+    }
+    out.setLength(end);
+    return out.toString();
+  }
+
+  /**
+   * 依出現順序回傳語句中的關鍵字 (大寫)，第一個即為語句開頭。 語句中間有分號 (多個語句) 時回傳 null。
+   */
+  private static Set<String> keywords(String sql) {
+    Set<String> words = new LinkedHashSet<>();
+    int len = sql.length();
+    int i = 0;
+    while (i < len) {
+      char c = sql.charAt(i);
+      char next = i + 1 < len ? sql.charAt(i + 1) : '\0';
+      if (c == '-' && next == '-') {
+        int nl = sql.indexOf('\n', i);
+        i = nl < 0 ? len : nl;
+      } else if (c == '/' && next == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? len : end + 2;
+      } else if (c == '\'' || c == '"' || c == '`') {
+        i = skipQuoted(sql, i, c);
+      } else if (c == ';') {
+        if (!sql.substring(i + 1).isBlank()) {
+          return null;
+        }
+        i++;
+      } else if (Character.isLetter(c) || c == '_') {
+        int start = i;
+        while (i < len && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+          i++;
+        }
+        words.add(sql.substring(start, i).toUpperCase(Locale.ROOT));
+      } else {
+        i++;
+      }
+    }
+    return words;
+  }
+
+  /** 引號內以連續兩個引號跳脫，回傳結束引號之後的位置 */
+  private static int skipQuoted(String sql, int pos, char close) {
+    int i = pos + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == close) {
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == close) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return sql.length();
+  }
+}
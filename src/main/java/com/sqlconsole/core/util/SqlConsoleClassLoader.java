@@ -0,0 +1,28 @@
+package com.sqlconsole.core.util;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * 單一 JDBC Driver (名稱 + 版本) 專用的 ClassLoader。
+ *
+ * <p>Parent 為 Platform ClassLoader，只看得到 JDK (含 java.sql)，看不到應用程式 Classpath 上的 Driver，
+ * 因此同一個 Driver 的不同版本 (例如 Oracle 11g 與 19c) 可同時載入而不互相衝突。 Driver 依賴的其他 Jar 需放在同一個目錄。
+ */
+public class SqlConsoleClassLoader extends URLClassLoader {
+
+  static {
+    registerAsParallelCapable();
+  }
+
+  private final String driverId;
+
+  public SqlConsoleClassLoader(String driverId, URL[] jars) {
+    super("driver-" + driverId, jars, ClassLoader.getPlatformClassLoader());
+    this.driverId = driverId;
+  }
+
+  public String getDriverId() {
+    return driverId;
+  }
+}
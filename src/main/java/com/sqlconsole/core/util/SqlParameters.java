@@ -0,0 +1,165 @@
+package com.sqlconsole.core.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 將含 {@code ?} 或 {@code :name} 參數的 SQL 轉換為 PreparedStatement 可執行的形式，並依順序排列參數值。
+ *
+ * <p>掃描時略過字串、引號識別字、註解、PostgreSQL 的 {@code ::} 轉型與 {@code $$} 字串，以及 {@code :=}。 同一語句不可混用
+ * {@code ?} 與 {@code :name}；同名參數可出現多次。 只在請求帶有參數值時使用，未帶參數的 SQL 維持原樣執行。
+ */
+public final class SqlParameters {
+
+  /**
+   * 轉換後的 SQL 與依序綁定的值。
+   *
+   * @param sql 參數皆改為 {@code ?} 的 SQL
+   * @param values 第 i 個 {@code ?} 的值
+   */
+  public record Bound(String sql, List<Object> values) {}
+
+  private SqlParameters() {}
+
+  /**
+   * @param values {@code ?} 參數為依序的 List，{@code :name} 參數為以名稱為鍵的 Map
+   * @throws SQLException 參數個數或名稱不符 (SQLState 07001)，或值不是純量
+   */
+  public static Bound bind(String sql, Object values) throws SQLException {
+    List<String> names = new ArrayList<>();
+    String jdbcSql = parse(sql, names);
+    boolean named = names.stream().anyMatch(n -> n != null);
+    if (named && names.contains(null)) {
+      throw new SQLException("Cannot mix ? and :name parameters in one statement", "07001");
+    }
+
+    List<Object> bound = new ArrayList<>(names.size());
+    if (named) {
+      if (!(values instanceof Map<?, ?> map)) {
+        throw new SQLException("Named parameters require an object of values", "07001");
+      }
+      for (String name : names) {
+        if (!map.containsKey(name)) {
+          throw new SQLException("No value for parameter :" + name, "07001");
+        }
+        bound.add(scalar(name, map.get(name)));
+      }
+    } else {
+      if (!(values instanceof List<?> list)) {
+        throw new SQLException("Positional parameters require an array of values", "07001");
+      }
+      if (list.size() != names.size()) {
+        throw new SQLException(
+            String.format(
+                "Statement has %d parameters but %d values were given", names.size(), list.size()),
+            "07001");
+      }
+      for (int i = 0; i < list.size(); i++) {
+        bound.add(scalar(String.valueOf(i + 1), list.get(i)));
+      }
+    }
+    return new Bound(jdbcSql, bound);
+  }
+
+  /** 只接受 JSON 的純量 (字串、數字、布林、null) */
+  private static Object scalar(String name, Object value) throws SQLException {
+    if (value == null
+        || value instanceof String
+        || value instanceof Boolean
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof BigInteger
+        || value instanceof BigDecimal
+        || value instanceof Double) {
+      return value;
+    }
+    throw new SQLException("Unsupported value for parameter " + name + ": " + value, "22023");
+  }
+
+  /**
+   * 將 {@code :name} 改為 {@code ?}，依出現順序記錄參數名稱 ({@code ?} 記錄為 null)。
+   *
+   * @param names 輸出參數
+   */
+  static String parse(String sql, List<String> names) {
+    StringBuilder out = new StringBuilder(sql.length());
+    int n = sql.length();
+    int i = 0;
+    while (i < n) {
+      char c = sql.charAt(i);
+      int end = i + 1;
+      if (c == '\'' || c == '"' || c == '`') {
+        end = skipQuoted(sql, i, c);
+      } else if (c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+        end = sql.indexOf('\n', i);
+        end = end < 0 ? n : end;
+      } else if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+        end = sql.indexOf("*/", i + 2);
+        end = end < 0 ? n : end + 2;
+      } else if (c == '$') {
+        end = skipDollarQuoted(sql, i);
+      } else if (c == '?') {
+        names.add(null);
+      } else if (c == ':') {
+        if (i + 1 < n && (sql.charAt(i + 1) == ':' || sql.charAt(i + 1) == '=')) {
+          end = i + 2; // PostgreSQL 的 :: 轉型、PL/SQL 的 :=
+        } else if (i + 1 < n && isNameChar(sql.charAt(i + 1)) && !precededByName(sql, i)) {
+          end = i + 1;
+          while (end < n && isNameChar(sql.charAt(end))) {
+            end++;
+          }
+          names.add(sql.substring(i + 1, end));
+          out.append('?');
+          i = end;
+          continue;
+        }
+      }
+      out.append(sql, i, end);
+      i = end;
+    }
+    return out.toString();
+  }
+
+  private static boolean isNameChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+
+  /** 例如 {@code a:b} (MySQL 的 JSON 路徑等)，不是參數 */
+  private static boolean precededByName(String sql, int colon) {
+    return colon > 0 && isNameChar(sql.charAt(colon - 1));
+  }
+
+  /** 回傳結尾引號之後的位置；連續兩個引號為跳脫 */
+  private static int skipQuoted(String sql, int start, char quote) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == quote) {
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return sql.length();
+  }
+
+  /** PostgreSQL 的 {@code $tag$...$tag$}；不是 dollar quote 時只略過 {@code $} */
+  private static int skipDollarQuoted(String sql, int start) {
+    int tagEnd = start + 1;
+    while (tagEnd < sql.length() && isNameChar(sql.charAt(tagEnd))) {
+      tagEnd++;
+    }
+    if (tagEnd >= sql.length() || sql.charAt(tagEnd) != '$' || precededByName(sql, start)) {
+      return start + 1;
+    }
+    String tag = sql.substring(start, tagEnd + 1);
+    int close = sql.indexOf(tag, tagEnd + 1);
+    return close < 0 ? sql.length() : close + tag.length();
+  }
+}
@@ -0,0 +1,238 @@
+package com.sqlconsole.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 將多語句 SQL 腳本切成單一語句。
+ *
+ * <p>以簡單的 Lexer 掃描，下列內容中的分號不會被視為語句結尾:
+ *
+ * <ul>
+ *   <li>字串 {@code '...'} (含 {@code ''} 跳脫) 與識別字 {@code "..."}、{@code `...`}、{@code [...]}
+ *   <li>註解 {@code -- ...} 與 {@code /* ... *&#47;} (PostgreSQL 的巢狀區塊註解亦可)
+ *   <li>PostgreSQL 的 dollar-quoting {@code $$...$$}、{@code $tag$...$tag$}
+ *   <li>Oracle PL/SQL 區塊 (DECLARE/BEGIN、CREATE FUNCTION/PROCEDURE/PACKAGE/TRIGGER/TYPE BODY)，
+ *       與 SQL*Plus 相同以單獨一行的 {@code /} 結束。 只在 {@code plsqlBlocks} 為 true 時啟用，
+ *       避免 PostgreSQL 的 {@code BEGIN;} 被誤判
+ * </ul>
+ *
+ * 單獨一行的 {@code /} 也可作為一般語句的結尾。 註解會保留在語句中 (部分 Optimizer hint 寫在註解裡)，只含註解的片段則略過。
+ */
+public final class SqlScriptSplitter {
+
+  private static final Pattern PLSQL_START =
+      Pattern.compile(
+          "^(DECLARE|BEGIN|CREATE\\s+(OR\\s+REPLACE\\s+)?"
+              + "((NON)?EDITIONABLE\\s+)?(FUNCTION|PROCEDURE|PACKAGE|TRIGGER|TYPE\\s+BODY))\\b.*",
+          Pattern.DOTALL);
+
+  private SqlScriptSplitter() {}
+
+  /**
+   * @param sql 語句內容 (不含結尾分號)
+   * @param line 語句在腳本中的起始行號 (1-based)
+   */
+  public record ScriptStatement(String sql, int line) {}
+
+  public static List<ScriptStatement> split(String script) {
+    return split(script, false);
+  }
+
+  /** @param plsqlBlocks 是否辨識 Oracle PL/SQL 區塊 */
+  public static List<ScriptStatement> split(String script, boolean plsqlBlocks) {
+    List<ScriptStatement> result = new ArrayList<>();
+    if (script == null) {
+      return result;
+    }
+
+    int len = script.length();
+    int start = 0;
+    int line = 1;
+    int startLine = 1;
+    boolean hasCode = false; // 目前片段中是否有註解以外的內容
+    Boolean plsql = null; // 遇到片段中第一個分號時判斷一次
+    int i = 0;
+
+    while (i < len) {
+      char c = script.charAt(i);
+      char next = i + 1 < len ? script.charAt(i + 1) : '\0';
+
+      if (c == '\n') {
+        line++;
+        i++;
+      } else if (c == '-' && next == '-') {
+        i = indexOrEnd(script, "\n", i + 2);
+      } else if (c == '/' && next == '*') {
+        int end = skipBlockComment(script, i);
+        line += countLines(script, i, end);
+        i = end;
+      } else if (c == '\'' || c == '"' || c == '`' || c == '[') {
+        int end = skipQuoted(script, i, c == '[' ? ']' : c);
+        line += countLines(script, i, end);
+        hasCode = true;
+        i = end;
+      } else if (c == '$' && dollarTag(script, i) != null) {
+        String tag = dollarTag(script, i);
+        int end = indexOrEnd(script, tag, i + tag.length());
+        end = Math.min(len, end + tag.length());
+        line += countLines(script, i, end);
+        hasCode = true;
+        i = end;
+      } else if (c == ';') {
+        if (plsql == null) {
+          plsql = plsqlBlocks && isPlsqlBlock(script, start, i);
+        }
+        i++;
+        if (!plsql) {
+          add(result, script, start, i - 1, startLine, hasCode);
+          start = i;
+          startLine = line;
+          hasCode = false;
+          plsql = null;
+        }
+      } else if (c == '/' && isSlashLine(script, i)) {
+        add(result, script, start, i, startLine, hasCode);
+        i = indexOrEnd(script, "\n", i);
+        start = i;
+        startLine = line;
+        hasCode = false;
+        plsql = null;
+      } else {
+        if (!Character.isWhitespace(c)) {
+          hasCode = true;
+        }
+        i++;
+      }
+    }
+    add(result, script, start, len, startLine, hasCode);
+    return result;
+  }
+
+  private static void add(
+      List<ScriptStatement> result, String script, int from, int to, int line, boolean hasCode) {
+    if (!hasCode) {
+      return;
+    }
+    String raw = script.substring(from, to);
+    // 行號以第一個非空白字元為準
+    int lead = 0;
+    while (lead < raw.length() && Character.isWhitespace(raw.charAt(lead))) {
+      if (raw.charAt(lead) == '\n') {
+        line++;
+      }
+      lead++;
+    }
+    result.add(new ScriptStatement(raw.strip(), line));
+  }
+
+  /** 略過開頭的空白與註解後的第一個關鍵字 (大寫)，用於判斷語句種類 */
+  public static String leadingKeyword(String sql) {
+    String s = stripLeadingComments(sql);
+    int end = 0;
+    while (end < s.length() && Character.isLetter(s.charAt(end))) {
+      end++;
+    }
+    return s.substring(0, end).toUpperCase(Locale.ROOT);
+  }
+
+  /** 片段開頭為 PL/SQL 區塊時，分號屬於區塊內容，需等到單獨一行的 / 才結束 */
+  private static boolean isPlsqlBlock(String script, int from, int to) {
+    String head = stripLeadingComments(script.substring(from, to)).toUpperCase(Locale.ROOT);
+    return PLSQL_START.matcher(head).matches();
+  }
+
+  private static String stripLeadingComments(String text) {
+    String s = text.stripLeading();
+    while (true) {
+      if (s.startsWith("--")) {
+        int nl = s.indexOf('\n');
+        s = nl < 0 ? "" : s.substring(nl + 1).stripLeading();
+      } else if (s.startsWith("/*")) {
+        s = s.substring(Math.min(s.length(), skipBlockComment(s, 0))).stripLeading();
+      } else {
+        return s;
+      }
+    }
+  }
+
+  /** 單獨一行 (前後只有空白) 的 / */
+  private static boolean isSlashLine(String script, int pos) {
+    int lineStart = script.lastIndexOf('\n', pos - 1) + 1;
+    int lineEnd = indexOrEnd(script, "\n", pos);
+    return script.substring(lineStart, lineEnd).strip().equals("/");
+  }
+
+  /** 支援巢狀的區塊註解，回傳註解結束後的位置 */
+  private static int skipBlockComment(String script, int pos) {
+    int depth = 0;
+    int i = pos;
+    while (i < script.length()) {
+      if (script.startsWith("/*", i)) {
+        depth++;
+        i += 2;
+      } else if (script.startsWith("*/", i)) {
+        depth--;
+        i += 2;
+        if (depth == 0) {
+          return i;
+        }
+      } else {
+        i++;
+      }
+    }
+    return script.length();
+  }
+
+  /** 引號內以連續兩個引號跳脫，回傳結束引號之後的位置 */
+  private static int skipQuoted(String script, int pos, char close) {
+    int i = pos + 1;
+    while (i < script.length()) {
+      if (script.charAt(i) == close) {
+        if (i + 1 < script.length() && script.charAt(i + 1) == close) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return script.length();
+  }
+
+  /** 若 pos 為 $tag$ 的開頭則回傳整個 tag (含兩個 $)，否則為 null (例如 $1 參數) */
+  private static String dollarTag(String script, int pos) {
+    if (pos > 0 && Character.isJavaIdentifierPart(script.charAt(pos - 1))) {
+      return null; // 識別字中的 $ (例如 Oracle 的 V$SESSION)
+    }
+    int i = pos + 1;
+    while (i < script.length()) {
+      char c = script.charAt(i);
+      if (c == '$') {
+        return script.substring(pos, i + 1);
+      }
+      if (!(Character.isLetter(c) || c == '_' || (i > pos + 1 && Character.isDigit(c)))) {
+        return null;
+      }
+      i++;
+    }
+    return null;
+  }
+
+  private static int indexOrEnd(String script, String target, int from) {
+    int idx = script.indexOf(target, from);
+    return idx < 0 ? script.length() : idx;
+  }
+
+  private static int countLines(String script, int from, int to) {
+    int n = 0;
+    for (int i = from; i < to; i++) {
+      if (script.charAt(i) == '\n') {
+        n++;
+      }
+    }
+    return n;
+  }
+}
@@ -8,6 +8,7 @@ package report;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
 
 /**
  * 虛擬 DBA 供應商介面 (Requirement 13)
@@ -23,6 +24,17 @@ public interface DbaProvider {
      */
     DbaReport getExecutionPlan(Connection connection, String sql);
 
+    /**
+     * 獲取 SQL 的執行計畫，並可參考已快取的 Catalog (索引、外鍵) 提供建議
+     * @param connection 資料庫連線
+     * @param sql 原始 SQL 指令
+     * @param metadata 已快取的 Catalog，尚未載入時為 null
+     * @return 標準化後的診斷報告
+     */
+    default DbaReport getExecutionPlan(Connection connection, String sql, SchemaMetadata metadata) {
+        return getExecutionPlan(connection, sql);
+    }
+
     /**
      * 獲取資料庫即時健康指標 (Diagnostics)
      * @param connection 資料庫連線
@@ -24797,8 +24797,75 @@ var PLSQL = /* @__PURE__ */ SQLDialect.define({
 });
 
 // editor.js
-var languageConf = new Compartment();
-var initialSchema = {};
+var schemaDbId = null;
+var schemaTables = /* @__PURE__ */ new Map();
+var columnCache = /* @__PURE__ */ new Map();
+var identifier = /^[\w$#]*$/;
+function fetchJson(url, params) {
+  return fetch(url + "?" + new URLSearchParams(params), { headers: { Accept: "application/json" } }).then((res) => res.ok ? res.json() : Promise.reject(new Error(res.statusText)));
+}
+function tableColumns(table) {
+  if (!columnCache.has(table)) {
+    const columns = fetchJson("/api/schema/columns", { dbId: schemaDbId, table }).catch(() => {
+      columnCache.delete(table);
+      return [];
+    });
+    columnCache.set(table, columns);
+  }
+  return columnCache.get(table);
+}
+function resolveTable(state, name, pos) {
+  const table = schemaTables.get(name.toUpperCase());
+  if (table) {
+    return table;
+  }
+  const doc2 = state.sliceDoc(Math.max(0, pos - 5e3), Math.min(state.doc.length, pos + 5e3));
+  const alias = new RegExp("([\\w$#]+)\\s+(?:AS\\s+)?" + name.replace(/\$/g, "\\$") + "(?![\\w$#])", "gi");
+  for (const m of doc2.matchAll(alias)) {
+    const candidate = schemaTables.get(m[1].toUpperCase());
+    if (candidate) {
+      return candidate;
+    }
+  }
+  return null;
+}
+async function schemaCompletion2(context) {
+  const dbId = schemaDbId;
+  if (!dbId) {
+    return null;
+  }
+  const member = context.matchBefore(/[\w$#]+\.[\w$#]*$/);
+  if (member) {
+    const dot = member.text.indexOf(".");
+    const table = resolveTable(context.state, member.text.substring(0, dot), member.from);
+    if (!table) {
+      return null;
+    }
+    const columns = await tableColumns(table);
+    return {
+      from: member.from + dot + 1,
+      options: columns.map((c) => ({ label: c, type: "property", detail: table })),
+      validFor: identifier
+    };
+  }
+  const word = context.matchBefore(/[\w$#]+$/);
+  if (!word) {
+    return null;
+  }
+  const result = await fetchJson("/api/schema/search", { dbId, q: word.text, limit: 100 }).catch(() => null);
+  if (!result || context.aborted || dbId !== schemaDbId) {
+    return null;
+  }
+  return {
+    from: word.from,
+    options: result.matches.map((m) => m.type === "TABLE" ? { label: m.name, type: "type", detail: "table" } : { label: m.name, type: "property", detail: m.tables.join(", ") }),
+    validFor: result.complete ? identifier : void 0
+  };
+}
+var sqlLanguage = [
+  sql({ upperCaseKeywords: true }),
+  StandardSQL.language.data.of({ autocomplete: schemaCompletion2 })
+];
 function getSmartSql(view) {
   const state = view.state;
   const selection = state.selection.main;
@@ -24820,12 +24887,11 @@ function getSmartSql(view) {
   return doc2.substring(start, end).trim();
 }
 window.getSmartSql = () => getSmartSql(window.editorView);
-window.updateEditorSchema = (schemaData) => {
-  const newSchema = schemaData || {};
-  window.editorView.dispatch({
-    effects: languageConf.reconfigure(sql({ schema: newSchema, upperCaseKeywords: true }))
-  });
-  console.log("Editor schema updated with metadata:", newSchema);
+window.setEditorDatabase = (dbId, tableNames) => {
+  schemaDbId = dbId || null;
+  schemaTables = new Map((tableNames || []).map((t) => [t.toUpperCase(), t]));
+  columnCache = /* @__PURE__ */ new Map();
+  console.log("Editor schema switched to db", dbId, "with", schemaTables.size, "tables");
 };
 var runQuery = (view) => {
   window.doSql("EXEC");
@@ -24856,7 +24922,7 @@ window.editorView = new EditorView({
   extensions: [
     Prec.highest(keymap.of(myKeymap)),
     basicSetup,
-    languageConf.of(sql({ schema: initialSchema, upperCaseKeywords: true }))
+    sqlLanguage
   ],
   parent: document.getElementById("editor")
 });
@@ -1,15 +1,93 @@
 import {EditorView, basicSetup} from "codemirror"
-import {EditorState, Prec, Compartment} from "@codemirror/state"
+import {EditorState, Prec} from "@codemirror/state"
 import {keymap} from "@codemirror/view"
-import {sql} from "@codemirror/lang-sql"
+import {sql, StandardSQL} from "@codemirror/lang-sql"
 import {defaultKeymap} from "@codemirror/commands"
 import {acceptCompletion, completionStatus} from "@codemirror/autocomplete"
 
-// Language Compartment for dynamic schema updates
-const languageConf = new Compartment;
+// Schema completion is served by the backend in tiers: table names when a DB is selected,
+// prefix search (/api/schema/search) while typing, columns of one table after "table."
+let schemaDbId = null;
+let schemaTables = new Map(); // upper-case name -> table name
+let columnCache = new Map(); // table name -> Promise of column names
+const identifier = /^[\w$#]*$/;
 
-// Initial Schema (empty)
-const initialSchema = {};
+function fetchJson(url, params) {
+    return fetch(url + "?" + new URLSearchParams(params), {headers: {Accept: "application/json"}})
+        .then(res => res.ok ? res.json() : Promise.reject(new Error(res.statusText)));
+}
+
+function tableColumns(table) {
+    if (!columnCache.has(table)) {
+        const columns = fetchJson("/api/schema/columns", {dbId: schemaDbId, table: table})
+            .catch(() => {
+                columnCache.delete(table);
+                return [];
+            });
+        columnCache.set(table, columns);
+    }
+    return columnCache.get(table);
+}
+
+// "o." where o is a table name or an alias ("FROM orders o", "JOIN orders AS o")
+function resolveTable(state, name, pos) {
+    const table = schemaTables.get(name.toUpperCase());
+    if (table) {
+        return table;
+    }
+    const doc = state.sliceDoc(Math.max(0, pos - 5000), Math.min(state.doc.length, pos + 5000));
+    const alias = new RegExp("([\\w$#]+)\\s+(?:AS\\s+)?" + name.replace(/\$/g, "\\$") + "(?![\\w$#])", "gi");
+    for (const m of doc.matchAll(alias)) {
+        const candidate = schemaTables.get(m[1].toUpperCase());
+        if (candidate) {
+            return candidate;
+        }
+    }
+    return null;
+}
+
+async function schemaCompletion(context) {
+    const dbId = schemaDbId;
+    if (!dbId) {
+        return null;
+    }
+    const member = context.matchBefore(/[\w$#]+\.[\w$#]*$/);
+    if (member) {
+        const dot = member.text.indexOf(".");
+        const table = resolveTable(context.state, member.text.substring(0, dot), member.from);
+        if (!table) {
+            return null;
+        }
+        const columns = await tableColumns(table);
+        return {
+            from: member.from + dot + 1,
+            options: columns.map(c => ({label: c, type: "property", detail: table})),
+            validFor: identifier
+        };
+    }
+    const word = context.matchBefore(/[\w$#]+$/);
+    if (!word) {
+        return null;
+    }
+    const result = await fetchJson("/api/schema/search", {dbId: dbId, q: word.text, limit: 100})
+        .catch(() => null);
+    if (!result || context.aborted || dbId !== schemaDbId) {
+        return null;
+    }
+    return {
+        from: word.from,
+        options: result.matches.map(m => m.type === "TABLE"
+            ? {label: m.name, type: "type", detail: "table"}
+            : {label: m.name, type: "property", detail: m.tables.join(", ")}),
+        // A complete result can be filtered locally as the user keeps typing
+        validFor: result.complete ? identifier : undefined
+    };
+}
+
+const sqlLanguage = [
+    sql({upperCaseKeywords: true}),
+    StandardSQL.language.data.of({autocomplete: schemaCompletion})
+];
 
 // Smart SQL Extraction
 function getSmartSql(view) {
@@ -43,16 +121,12 @@ function getSmartSql(view) {
 // Global hook for doSql to access
 window.getSmartSql = () => getSmartSql(window.editorView);
 
-// Global hook to update schema
-window.updateEditorSchema = (schemaData) => {
-    // schemaData is now expected to be { "TableName": ["Col1", "Col2"], ... }
-    // The CM6 sql extension accepts exactly this format.
-    const newSchema = schemaData || {};
-
-    window.editorView.dispatch({
-        effects: languageConf.reconfigure(sql({schema: newSchema, upperCaseKeywords: true}))
-    });
-    console.log("Editor schema updated with metadata:", newSchema);
+// Global hook to switch the database used for schema completion
+window.setEditorDatabase = (dbId, tableNames) => {
+    schemaDbId = dbId || null;
+    schemaTables = new Map((tableNames || []).map(t => [t.toUpperCase(), t]));
+    columnCache = new Map();
+    console.log("Editor schema switched to db", dbId, "with", schemaTables.size, "tables");
 };
 
 // Command Handlers
@@ -92,7 +166,7 @@ window.editorView = new EditorView({
     extensions: [
         Prec.highest(keymap.of(myKeymap)),
         basicSetup,
-        languageConf.of(sql({schema: initialSchema, upperCaseKeywords: true}))
+        sqlLanguage
     ],
     parent: document.getElementById("editor")
 });
@@ -1,6 +1,7 @@
 package com.sqlconsole.controller;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -8,6 +9,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.sqlconsole.core.controller.ConsoleController;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,13 +20,19 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import com.sqlconsole.core.model.dto.SchemaMatch;
+import com.sqlconsole.core.model.dto.SchemaSearchResult;
 import com.sqlconsole.core.model.dto.SqlResult;
 import com.sqlconsole.core.repository.DbConfigRepository;
 import com.sqlconsole.core.repository.UserRepository;
 import com.sqlconsole.core.service.AuditService;
 import com.sqlconsole.core.service.AuthService;
+import com.sqlconsole.core.service.CursorService;
 import com.sqlconsole.core.service.DbConfigService;
+import com.sqlconsole.core.service.IdleTransactionWatchdog;
+import com.sqlconsole.core.service.QueryJobService;
 import com.sqlconsole.core.service.SqlExecutorService;
+import com.sqlconsole.core.service.StatementRegistry;
 
 @WebMvcTest(ConsoleController.class)
 class ConsoleControllerTest {
@@ -33,11 +43,15 @@ class ConsoleControllerTest {
   @MockitoBean private DbConfigRepository dbConfigRepo;
   @MockitoBean private AuditService auditService;
   @MockitoBean private SqlExecutorService sqlService;
+  @MockitoBean private CursorService cursorService;
+  @MockitoBean private StatementRegistry statementRegistry;
+  @MockitoBean private QueryJobService queryJobService;
   @MockitoBean private UserRepository userRepo;
   @MockitoBean private AuthService authService;
   // 因為 AuthService 被 Mock 了，導致 PasswordEncoder 消失，必須手動補回來
   @MockitoBean private PasswordEncoder passwordEncoder;
   @MockitoBean private DbConfigService dbConfigService;
+  @MockitoBean private IdleTransactionWatchdog idleTransactionWatchdog;
 
   @Test
   @WithMockUser(username = "admin", roles = "AUDITOR")
@@ -62,7 +76,8 @@ class ConsoleControllerTest {
   void testExecuteApi() throws Exception {
     // Arrange: 模擬 Service 回傳成功結果
     SqlResult mockResult = new SqlResult("SUCCESS", "UNCOMMIT", "OK", null, null);
-    when(sqlService.processRequest(any(), any(), any(), any(), any())).thenReturn(mockResult);
+    when(sqlService.processRequest(any(), any(), any(), any(), any(), any(), any()))
+        .thenReturn(mockResult);
 
     // Act & Assert
     mockMvc
@@ -75,6 +90,64 @@ class ConsoleControllerTest {
         .andExpect(jsonPath("$.status").value("SUCCESS"));
   }
 
+  @Test
+  @WithMockUser(username = "user", roles = "USER")
+  @DisplayName("執行 SQL API - 參數以 JSON 傳入，小數保留精度")
+  void testExecuteApi_WithParameters() throws Exception {
+    SqlResult mockResult = new SqlResult("SUCCESS", "UNCOMMIT", "OK", null, null);
+    when(sqlService.processRequest(any(), any(), any(), any(), any(), any(), any()))
+        .thenReturn(mockResult);
+
+    mockMvc
+        .perform(
+            post("/api/execute")
+                .param("dbId", "1")
+                .param("sql", "SELECT * FROM t WHERE id = :id AND price > :price")
+                .param("params", "{\"id\": 7, \"price\": 0.1}")
+                .with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("SUCCESS"));
+    verify(sqlService)
+        .processRequest(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(Map.of("id", 7, "price", new BigDecimal("0.1"))));
+
+    mockMvc
+        .perform(
+            post("/api/execute")
+                .param("dbId", "1")
+                .param("sql", "SELECT ?")
+                .param("params", "[1,")
+                .with(csrf()))
+        .andExpect(jsonPath("$.status").value("ERROR"));
+  }
+
+  @Test
+  @WithMockUser(username = "user", roles = "USER")
+  @DisplayName("Schema 名稱查詢 API - 回傳符合的資料表與欄位及結果是否完整")
+  void testSchemaSearchApi() throws Exception {
+    when(sqlService.searchSchema(eq(1L), eq("ord"), eq(100), any()))
+        .thenReturn(
+            new SchemaSearchResult(
+                List.of(
+                    new SchemaMatch("ORDERS", "TABLE", List.of()),
+                    new SchemaMatch("ORDER_ID", "COLUMN", List.of("ORDER_ITEMS"))),
+                true));
+
+    mockMvc
+        .perform(
+            get("/api/schema/search").param("dbId", "1").param("q", "ord").param("limit", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.complete").value(true))
+        .andExpect(jsonPath("$.matches[0].name").value("ORDERS"))
+        .andExpect(jsonPath("$.matches[1].tables[0]").value("ORDER_ITEMS"));
+  }
+
   @Test
   @WithMockUser(username = "user", roles = "USER")
   @DisplayName("審核 API - 一般使用者應無權限")
@@ -0,0 +1,118 @@
+package com.sqlconsole.core.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+import com.sqlconsole.core.service.codec.RowDecoder;
+
+/**
+ * 比較三種解碼方式讀取 1M 列的耗時: 逐列 LinkedHashMap (依欄名)、getObject 欄式、RowDecoder typed getter。
+ *
+ * <p>執行方式: {@code ./gradlew test -Dbenchmark=true --tests '*DecodingBenchmark'}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DecodingBenchmark {
+
+  private static final int ROWS = 1_000_000;
+  private static final int ROUNDS = 5;
+  private static final String QUERY = "SELECT * FROM wide_orders";
+
+  @Test
+  void compareDecoders() throws Exception {
+    try (Connection conn =
+            DriverManager.getConnection("jdbc:h2:mem:decoding_bench;DB_CLOSE_DELAY=-1", "sa", "");
+        Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          "CREATE TABLE wide_orders AS SELECT X AS order_id, CAST(MOD(X, 1000) AS INT) AS"
+              + " customer_id, CAST(X * 1.25 AS DOUBLE) AS order_amount,"
+              + " CASE MOD(X, 3) WHEN 0 THEN 'SHIPPED' ELSE 'PENDING' END AS order_status,"
+              + " DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') AS created_at"
+              + " FROM SYSTEM_RANGE(1, "
+              + ROWS
+              + ")");
+      ColumnCodecRegistry registry = new ColumnCodecRegistry();
+
+      // 第一輪為 warm-up，不列入
+      long maps = 0;
+      long objects = 0;
+      long typed = 0;
+      for (int round = 0; round <= ROUNDS; round++) {
+        long t0 = System.nanoTime();
+        int a = readAsMaps(stmt).size();
+        long t1 = System.nanoTime();
+        int b = readWithGetObject(stmt).size();
+        long t2 = System.nanoTime();
+        int c = readWithDecoder(stmt, registry).size();
+        long t3 = System.nanoTime();
+        if (a != ROWS || b != ROWS || c != ROWS) {
+          throw new IllegalStateException("Unexpected row count");
+        }
+        if (round > 0) {
+          maps += t1 - t0;
+          objects += t2 - t1;
+          typed += t3 - t2;
+        }
+      }
+
+      log.info(
+          "{} rows, avg of {} rounds | label maps={} ms, getObject columnar={} ms,"
+              + " RowDecoder={} ms",
+          ROWS,
+          ROUNDS,
+          maps / ROUNDS / 1_000_000,
+          objects / ROUNDS / 1_000_000,
+          typed / ROUNDS / 1_000_000);
+      stmt.execute("DROP TABLE wide_orders");
+    }
+  }
+
+  private List<Map<String, Object>> readAsMaps(Statement stmt) throws Exception {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    try (ResultSet rs = stmt.executeQuery(QUERY)) {
+      ResultSetMetaData meta = rs.getMetaData();
+      while (rs.next()) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+          String label = meta.getColumnLabel(i);
+          row.put(label, rs.getObject(label));
+        }
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private ColumnarRows readWithGetObject(Statement stmt) throws Exception {
+    try (ResultSet rs = stmt.executeQuery(QUERY)) {
+      ColumnarRows.Builder builder = ColumnarRows.builder(rs.getMetaData());
+      while (rs.next()) {
+        builder.addRow(rs);
+      }
+      return builder.build();
+    }
+  }
+
+  private ColumnarRows readWithDecoder(Statement stmt, ColumnCodecRegistry registry)
+      throws Exception {
+    try (ResultSet rs = stmt.executeQuery(QUERY)) {
+      RowDecoder.Page page = registry.decoderFor(rs.getMetaData(), DbType.POSTGRESQL).newPage();
+      while (rs.next()) {
+        page.decodeRow(rs);
+      }
+      return page.build();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.sqlconsole.core.benchmark;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Driver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.service.DriverRegistry;
+
+/**
+ * 量測 JDBC Driver 的載入成本 (耗時、類別數與 Metaspace)，比較原本六個 Driver 都在 WAR Classpath 上與目前只內建 PgJDBC、
+ * 其他 Driver 依需求由 drivers 目錄載入的差異。
+ *
+ * <ul>
+ *   <li>baseline: 六個 Driver 的 Jar 在同一個 ClassLoader，如同 DriverManager 第一次取得連線時以 ServiceLoader 載入並
+ *       初始化全部的 Driver
+ *   <li>PgJDBC only: 目前的 WAR，DriverManager 只找到內建的 PgJDBC
+ *   <li>PgJDBC + Oracle: 目前的 WAR 再由 {@link DriverRegistry} 載入一個廠商 Driver
+ * </ul>
+ *
+ * <p>廠商 Driver 取自 installJdbcDrivers 安裝的 drivers 目錄 ({@code benchmark.drivers.dir})，PgJDBC 取自測試 Classpath。
+ * 每個 Driver 以 connect() 觸發初始化 (URL 指向不存在的主機，連線失敗不影響量測)。 baseline 最後執行，與前兩項共用的 JDK
+ * 類別已載入，結果對 baseline 有利。
+ *
+ * <p>執行方式: {@code ./gradlew test -Dbenchmark=true --tests '*DriverLoadingBenchmark'}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DriverLoadingBenchmark {
+
+  private static final String PG_URL = "jdbc:postgresql://127.0.0.1:1/x";
+
+  /** 各 DbType 可被其 Driver 接受的 URL */
+  private record Target(DbType dbType, String url) {}
+
+  private static final List<Target> VENDORS =
+      List.of(
+          new Target(DbType.ORACLE, "jdbc:oracle:thin:@127.0.0.1:1/x"),
+          new Target(DbType.DB2, "jdbc:db2://127.0.0.1:1/x"),
+          new Target(DbType.MSSQL, "jdbc:sqlserver://127.0.0.1:1"),
+          new Target(DbType.MYSQL, "jdbc:mysql://127.0.0.1:1/x"),
+          new Target(DbType.MARIADB, "jdbc:mariadb://127.0.0.1:1/x"));
+
+  @Test
+  void compareLoading() throws Exception {
+    Path driversDir = Path.of(System.getProperty("benchmark.drivers.dir", "drivers"));
+    DriverRegistry registry = new DriverRegistry();
+    ReflectionTestUtils.setField(registry, "driversDir", driversDir.toString());
+    Path pgJar =
+        Path.of(
+            Class.forName("org.postgresql.Driver", false, getClass().getClassLoader())
+                .getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI());
+
+    List<Path> allJars = new ArrayList<>(List.of(pgJar));
+    for (Target vendor : VENDORS) {
+      String driverId = registry.resolve(vendor.dbType(), null);
+      if (driverId == null) {
+        throw new IllegalStateException(
+            vendor.dbType() + " driver not installed in " + driversDir.toAbsolutePath());
+      }
+      try (Stream<Path> jars = Files.list(driversDir.resolve(driverId))) {
+        allJars.addAll(jars.filter(p -> p.toString().endsWith(".jar")).sorted().toList());
+      }
+    }
+
+    measure("PgJDBC only (current WAR)", () -> loadAll(List.of(pgJar)));
+    measure(
+        "PgJDBC + Oracle on demand (current WAR)",
+        () -> {
+          loadAll(List.of(pgJar));
+          Target oracle = VENDORS.get(0);
+          connectQuietly(registry, registry.resolve(oracle.dbType(), null), oracle.url());
+        });
+    measure("all 6 drivers on the classpath (baseline)", () -> loadAll(allJars));
+    registry.closeAll();
+  }
+
+  /** 如同 DriverManager：以 ServiceLoader 載入並初始化 Classpath 上全部的 Driver，再以 PgJDBC 連線 */
+  private static void loadAll(List<Path> jars) throws Exception {
+    URL[] urls = new URL[jars.size()];
+    for (int i = 0; i < urls.length; i++) {
+      urls[i] = jars.get(i).toUri().toURL();
+    }
+    try (URLClassLoader loader =
+        new URLClassLoader("benchmark", urls, ClassLoader.getPlatformClassLoader())) {
+      List<Driver> drivers = new ArrayList<>();
+      ServiceLoader.load(Driver.class, loader).forEach(drivers::add);
+      for (Driver driver : drivers) {
+        if (driver.acceptsURL(PG_URL)) {
+          try {
+            driver.connect(PG_URL, timeouts()).close();
+          } catch (Exception e) {
+            // 預期連線失敗，Driver 已載入
+          }
+        }
+      }
+    }
+  }
+
+  private static void connectQuietly(DriverRegistry registry, String driverId, String url) {
+    try {
+      registry.connect(driverId, url, timeouts()).close();
+    } catch (Exception e) {
+      // 預期連線失敗，Driver 已載入
+    }
+  }
+
+  private static Properties timeouts() {
+    Properties props = new Properties();
+    props.put("connectTimeout", "1");
+    props.put("loginTimeout", "1");
+    return props;
+  }
+
+  private interface Scenario {
+    void run() throws Exception;
+  }
+
+  private void measure(String label, Scenario scenario) throws Exception {
+    ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+    System.gc();
+    long classesBefore = classLoading.getTotalLoadedClassCount();
+    long metaspaceBefore = metaspaceUsed();
+    long start = System.nanoTime();
+
+    scenario.run();
+
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    long classes = classLoading.getTotalLoadedClassCount() - classesBefore;
+    long metaspaceKb = (metaspaceUsed() - metaspaceBefore) / 1024;
+    log.info("{}: {}ms, {} classes, {} KB metaspace", label, elapsedMs, classes, metaspaceKb);
+  }
+
+  private static long metaspaceUsed() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getName().equals("Metaspace"))
+        .mapToLong(pool -> pool.getUsage().getUsed())
+        .sum();
+  }
+}
@@ -0,0 +1,72 @@
+package com.sqlconsole.core.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.service.EncryptionService;
+import com.sqlconsole.core.util.EncryptionUtil;
+
+/**
+ * 比較每次解密的耗時: v1 每次 PBKDF2 (舊版行為)、v1 依 Salt 快取金鑰、v2 啟動時衍生的金鑰。
+ *
+ * <p>模擬 80 個 DbConfig 的帳號各解密一次 (連線管理頁面載入一次的量)。
+ *
+ * <p>執行方式: {@code ./gradlew test -Dbenchmark=true --tests '*EncryptionBenchmark'}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EncryptionBenchmark {
+
+  private static final String MASTER_KEY = "benchmark-master-key";
+  private static final int CONFIGS = 80;
+  private static final int ROUNDS = 5;
+
+  @Test
+  void compareDecrypt() throws Exception {
+    EncryptionService service = new EncryptionService();
+    ReflectionTestUtils.setField(service, "masterKey", MASTER_KEY);
+    ReflectionTestUtils.setField(service, "legacyKeyCacheSize", 1024);
+    ReflectionTestUtils.invokeMethod(service, "init");
+
+    String[] legacy = new String[CONFIGS];
+    String[] v2 = new String[CONFIGS];
+    for (int i = 0; i < CONFIGS; i++) {
+      legacy[i] = EncryptionUtil.encrypt("user" + i, MASTER_KEY);
+      v2[i] = service.encrypt("user" + i);
+    }
+
+    // 第一輪為 warm-up (同時填入 v1 金鑰快取)，不列入
+    long uncached = 0;
+    long cached = 0;
+    long current = 0;
+    for (int round = 0; round <= ROUNDS; round++) {
+      long t0 = System.nanoTime();
+      for (String value : legacy) {
+        EncryptionUtil.decrypt(value, MASTER_KEY);
+      }
+      long t1 = System.nanoTime();
+      for (String value : legacy) {
+        service.decrypt(value);
+      }
+      long t2 = System.nanoTime();
+      for (String value : v2) {
+        service.decrypt(value);
+      }
+      long t3 = System.nanoTime();
+      if (round > 0) {
+        uncached += t1 - t0;
+        cached += t2 - t1;
+        current += t3 - t2;
+      }
+    }
+
+    long decrypts = (long) CONFIGS * ROUNDS;
+    log.info(
+        "{} configs, avg per decrypt | v1 PBKDF2 per call={} us, v1 cached key={} us, v2={} us",
+        CONFIGS,
+        uncached / decrypts / 1_000,
+        cached / decrypts / 1_000,
+        current / decrypts / 1_000);
+  }
+}
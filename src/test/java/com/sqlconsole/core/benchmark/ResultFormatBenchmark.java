@@ -0,0 +1,108 @@
+package com.sqlconsole.core.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+import com.sqlconsole.core.model.dto.ColumnarResult;
+import com.sqlconsole.core.model.dto.SqlResult;
+
+/**
+ * 量測逐列 (LinkedHashMap) 與欄式 (ColumnarRows) 結果的 heap 與 JSON 大小。
+ *
+ * <p>執行方式: {@code ./gradlew test -Dbenchmark=true --tests '*ResultFormatBenchmark'}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ResultFormatBenchmark {
+
+  private static final int ROWS = 200_000;
+
+  @Test
+  void compareHeapAndPayload() throws Exception {
+    try (Connection conn =
+            DriverManager.getConnection("jdbc:h2:mem:format_bench;DB_CLOSE_DELAY=-1", "sa", "");
+        Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          "CREATE TABLE orders AS SELECT X AS order_id, MOD(X, 1000) AS customer_id,"
+              + " CASE MOD(X, 3) WHEN 0 THEN 'SHIPPED' ELSE 'PENDING' END AS order_status,"
+              + " CAST(X * 1.25 AS DOUBLE) AS order_amount,"
+              + " DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') AS created_at"
+              + " FROM SYSTEM_RANGE(1, "
+              + ROWS
+              + ")");
+
+      long before = usedHeap();
+      List<Map<String, Object>> mapRows = readAsMaps(stmt);
+      long mapHeap = usedHeap() - before;
+
+      before = usedHeap();
+      ColumnarRows columnarRows = readAsColumnar(stmt);
+      long columnarHeap = usedHeap() - before;
+
+      ObjectMapper mapper = new ObjectMapper();
+      List<String> columns = columnarRows.columns();
+      long rowPayload =
+          mapper.writeValueAsBytes(new SqlResult("SUCCESS", null, "", columns, mapRows)).length;
+      long columnarPayload =
+          mapper.writeValueAsBytes(
+                  ColumnarResult.from(new SqlResult("SUCCESS", null, "", columns, columnarRows)))
+              .length;
+
+      log.info(
+          "{} rows | heap: maps={} KB, columnar={} KB (estimated {} KB) | payload: rows={} KB,"
+              + " columnar={} KB",
+          ROWS,
+          mapHeap / 1024,
+          columnarHeap / 1024,
+          columnarRows.estimatedBytes() / 1024,
+          rowPayload / 1024,
+          columnarPayload / 1024);
+      stmt.execute("DROP TABLE orders");
+    }
+  }
+
+  private List<Map<String, Object>> readAsMaps(Statement stmt) throws Exception {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    try (ResultSet rs = stmt.executeQuery("SELECT * FROM orders")) {
+      ResultSetMetaData meta = rs.getMetaData();
+      while (rs.next()) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+          row.put(meta.getColumnLabel(i), rs.getObject(i));
+        }
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private ColumnarRows readAsColumnar(Statement stmt) throws Exception {
+    try (ResultSet rs = stmt.executeQuery("SELECT * FROM orders")) {
+      ColumnarRows.Builder builder = ColumnarRows.builder(rs.getMetaData());
+      while (rs.next()) {
+        builder.addRow(rs);
+      }
+      return builder.build();
+    }
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+}
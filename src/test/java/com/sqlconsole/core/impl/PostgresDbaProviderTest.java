@@ -10,10 +10,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import report.DbaReport;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.model.metadata.TableMetadata;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -56,6 +62,30 @@ class PostgresDbaProviderTest {
         verify(mockStatement, times(1)).executeQuery(contains("EXPLAIN (ANALYZE"));
     }
 
+    @Test
+    void testGetExecutionPlan_IndexSuggestionsFromMetadata() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getString(1)).thenReturn(
+                "Hash Join",
+                "  ->  Seq Scan on public.orders o",
+                "  ->  Seq Scan on audit_log");
+        TableMetadata orders = new TableMetadata("public", "orders", "TABLE",
+                List.of(new ColumnMetadata("customer_id", "int4", 32, 0, true)),
+                List.of(new IndexMetadata("orders_pkey", true, List.of("id"))),
+                List.of(new ForeignKeyMetadata("orders_customer_fk", List.of("customer_id"),
+                        "public", "customers", List.of("id"))),
+                null);
+        TableMetadata auditLog = new TableMetadata("public", "audit_log", "TABLE",
+                List.of(), List.of(), List.of(), null);
+        SchemaMetadata metadata = new SchemaMetadata("public", List.of(orders, auditLog));
+
+        DbaReport report = provider.getExecutionPlan(mockConnection, "SELECT 1", metadata);
+
+        assertEquals(3, report.suggestions().size());
+        assertTrue(report.suggestions().get(1).contains("customer_id"));
+        assertTrue(report.suggestions().get(2).contains("audit_log"));
+    }
+
     @Test
     void testSupports() {
         assertTrue(provider.supports("POSTGRESQL"));
@@ -0,0 +1,194 @@
+package com.sqlconsole.core.model.columnar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.dto.ColumnarResult;
+import com.sqlconsole.core.model.dto.SqlResult;
+
+class ColumnarRowsTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  @DisplayName("Row 檢視應與原本的 LinkedHashMap 結果相同")
+  void testRowView() {
+    ColumnarRows rows =
+        ColumnarRows.builder(List.of("ID", "NAME", "PRICE"))
+            .addRow(1, "apple", new BigDecimal("1.50"))
+            .addRow(2, null, new BigDecimal("2.00"))
+            .build();
+
+    Map<String, Object> expected = new LinkedHashMap<>();
+    expected.put("ID", 2);
+    expected.put("NAME", null);
+    expected.put("PRICE", new BigDecimal("2.00"));
+
+    assertEquals(2, rows.size());
+    assertEquals(expected, rows.get(1));
+    assertEquals("apple", rows.get(0).get("NAME"));
+    assertEquals(List.of("ID", "NAME", "PRICE"), new ArrayList<>(rows.get(0).keySet()));
+  }
+
+  @Test
+  @DisplayName("數值與日期欄位使用原生陣列，null 另外記錄")
+  void testPrimitiveVectors() throws Exception {
+    LongVector ids = (LongVector) ColumnVector.forJdbcType(Types.INTEGER, 10, 0);
+    ids.add(7);
+    ids.add(null);
+    assertEquals(7, ids.get(0));
+    assertNull(ids.get(1));
+
+    TimestampVector times = (TimestampVector) ColumnVector.forJdbcType(Types.TIMESTAMP, 0, 0);
+    times.add(new Timestamp(1_700_000_000_000L));
+    JsonNode wire = objectMapper.valueToTree(times);
+    assertEquals("timestamp", wire.get("type").asText());
+    assertEquals(1_700_000_000_000L, wire.get("values").get(0).asLong());
+
+    JsonNode idWire = objectMapper.valueToTree(ids);
+    assertEquals(1, idWire.get("nulls").get(0).asInt());
+  }
+
+  @Test
+  @DisplayName("時間戳記保留毫秒以下的精度")
+  void testTimestampNanos() {
+    Timestamp micros = Timestamp.valueOf("2024-01-01 12:34:56.123456");
+    Timestamp nanos = Timestamp.valueOf("2024-01-01 12:34:56.123456789");
+    TimestampVector times = new TimestampVector(Types.TIMESTAMP);
+    times.add(micros);
+    times.add(null);
+    times.add(nanos);
+
+    assertEquals(micros, times.get(0));
+    assertNull(times.get(1));
+    assertEquals(nanos, times.get(2));
+
+    JsonNode wire = objectMapper.valueToTree(times);
+    assertEquals(micros.getTime(), wire.get("values").get(0).asLong());
+    assertEquals(456_000, wire.get("nanos").get(0).asInt());
+    assertEquals(456_789, wire.get("nanos").get(2).asInt());
+
+    TimestampVector millisOnly = new TimestampVector(Types.TIMESTAMP);
+    millisOnly.add(new Timestamp(1_700_000_000_123L));
+    assertNull(objectMapper.valueToTree(millisOnly).get("nanos"));
+  }
+
+  @Test
+  @DisplayName("DATE 與 TIME 以不含時區的字串傳輸，不轉成 UTC")
+  void testDateAndTime() {
+    TimestampVector dates = new TimestampVector(Types.DATE);
+    dates.add(Date.valueOf("2024-01-15"));
+    dates.add(null);
+    TimestampVector times = new TimestampVector(Types.TIME);
+    times.add(Time.valueOf("08:30:00"));
+
+    assertEquals(Date.valueOf("2024-01-15"), dates.get(0));
+    assertEquals(Time.valueOf("08:30:00"), times.get(0));
+
+    JsonNode dateWire = objectMapper.valueToTree(dates);
+    assertEquals("date", dateWire.get("type").asText());
+    assertEquals("2024-01-15", dateWire.get("values").get(0).asText());
+    assertTrue(dateWire.get("values").get(1).isNull());
+    assertEquals(1, dateWire.get("nulls").get(0).asInt());
+
+    JsonNode timeWire = objectMapper.valueToTree(times);
+    assertEquals("time", timeWire.get("type").asText());
+    assertEquals("08:30:00", timeWire.get("values").get(0).asText());
+  }
+
+  @Test
+  @DisplayName("低基數字串欄位以字典編碼傳輸")
+  void testDictionaryEncoding() {
+    StringVector status = new StringVector();
+    for (int i = 0; i < 100; i++) {
+      status.add(i % 2 == 0 ? "OPEN" : "CLOSED");
+    }
+    JsonNode wire = objectMapper.valueToTree(status);
+
+    assertTrue(status.isDictionaryEncoded());
+    assertEquals(2, wire.get("dict").size());
+    assertEquals("CLOSED", wire.get("dict").get(wire.get("values").get(1).asInt()).asText());
+  }
+
+  @Test
+  @DisplayName("高基數字串欄位改為直接保存")
+  void testHighCardinalityFallsBackToPlain() {
+    StringVector ids = new StringVector();
+    for (int i = 0; i <= StringVector.MAX_DICTIONARY_SIZE; i++) {
+      ids.add("id-" + i);
+    }
+    assertFalse(ids.isDictionaryEncoded());
+    assertEquals("id-0", ids.get(0));
+    assertEquals("id-" + StringVector.MAX_DICTIONARY_SIZE, ids.get(StringVector.MAX_DICTIONARY_SIZE));
+  }
+
+  @Test
+  @DisplayName("Driver 回傳非預期型別時改用 ObjectVector")
+  void testUnexpectedTypeFallsBack() {
+    ColumnarRows.Builder builder = ColumnarRows.builder(List.of("V"));
+    ColumnarRows rows = builder.addRow(1).addRow("not-a-number").build();
+    assertEquals("not-a-number", rows.get(1).get("V"));
+  }
+
+  @Test
+  @DisplayName("欄式格式的 JSON 應明顯小於逐列格式")
+  void testPayloadReduction() throws Exception {
+    List<String> columns =
+        List.of("ORDER_ID", "CUSTOMER_ID", "ORDER_STATUS", "ORDER_AMOUNT", "CREATED_AT");
+    LongVector orderIds = new LongVector(false);
+    LongVector customerIds = new LongVector(false);
+    StringVector statuses = new StringVector();
+    DoubleVector amounts = new DoubleVector();
+    TimestampVector createdAt = new TimestampVector(Types.TIMESTAMP);
+    List<Map<String, Object>> mapRows = new ArrayList<>();
+
+    for (int i = 0; i < 2000; i++) {
+      String status = i % 3 == 0 ? "SHIPPED" : "PENDING";
+      orderIds.addLong(i);
+      customerIds.addLong(i % 100);
+      statuses.addString(status);
+      amounts.addDouble(i * 1.25);
+      createdAt.addMillis(1_700_000_000_000L + i);
+
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("ORDER_ID", (long) i);
+      row.put("CUSTOMER_ID", (long) (i % 100));
+      row.put("ORDER_STATUS", status);
+      row.put("ORDER_AMOUNT", i * 1.25);
+      row.put("CREATED_AT", 1_700_000_000_000L + i);
+      mapRows.add(row);
+    }
+
+    SqlResult rowFormat = new SqlResult("SUCCESS", null, "OK", columns, mapRows);
+    ColumnarResult columnar =
+        new ColumnarResult(
+            "SUCCESS",
+            null,
+            "OK",
+            columns,
+            2000,
+            List.of(orderIds, customerIds, statuses, amounts, createdAt),
+            null,
+            false,
+            null);
+
+    int rowBytes = objectMapper.writeValueAsBytes(rowFormat).length;
+    int columnarBytes = objectMapper.writeValueAsBytes(columnar).length;
+
+    assertTrue(
+        columnarBytes * 2 < rowBytes,
+        "columnar=" + columnarBytes + " bytes, rows=" + rowBytes + " bytes");
+  }
+}
@@ -0,0 +1,173 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.AdmissionStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.service.AdmissionControl.AdmissionRejectedException;
+import com.sqlconsole.core.service.AdmissionControl.Permit;
+
+class AdmissionControlTest {
+
+  private final AdmissionControl admission = new AdmissionControl();
+  private final DbConfig config = new DbConfig();
+
+  /** 排隊後取得許可的使用者與其許可，依取得順序 */
+  private record Granted(String username, Permit permit) {}
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(admission, "defaultMaxConcurrent", 8);
+    ReflectionTestUtils.setField(admission, "queueTimeoutMs", 5_000L);
+    ReflectionTestUtils.setField(admission, "maxQueue", 100);
+    ReflectionTestUtils.setField(admission, "userWeights", "");
+    config.setId(1L);
+    config.setName("prod");
+    config.setMaxConcurrentStatements(1);
+  }
+
+  private void enqueue(String username, BlockingQueue<Granted> granted) throws Exception {
+    int queued = admission.stats().get(0).queued();
+    Thread.startVirtualThread(
+        () -> {
+          try {
+            granted.add(new Granted(username, admission.acquire(config, username)));
+          } catch (AdmissionRejectedException e) {
+            granted.add(new Granted(username + " rejected", null));
+          }
+        });
+    // 等待進入佇列，確保排隊順序固定
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (admission.stats().get(0).queued() == queued) {
+      assertTrue(System.currentTimeMillis() < deadline, "not queued");
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  @DisplayName("一位使用者的大量請求不會餓死其他使用者")
+  void testFairAcrossUsers() throws Exception {
+    BlockingQueue<Granted> granted = new LinkedBlockingQueue<>();
+    Permit running = admission.acquire(config, "alice");
+    enqueue("alice", granted);
+    enqueue("alice", granted);
+    enqueue("alice", granted);
+    enqueue("bob", granted);
+
+    AdmissionStats stats = admission.stats().get(0);
+    assertEquals(1, stats.running());
+    assertEquals(4, stats.queued());
+    assertEquals(3, stats.queuedByUser().get("alice"));
+
+    List<String> order = new ArrayList<>();
+    running.close();
+    for (int i = 0; i < 4; i++) {
+      Granted next = granted.poll(5, TimeUnit.SECONDS);
+      assertNotNull(next);
+      order.add(next.username());
+      next.permit().close();
+    }
+    assertEquals(List.of("alice", "bob", "alice", "alice"), order);
+
+    stats = admission.stats().get(0);
+    assertEquals(0, stats.running());
+    assertEquals(0, stats.queued());
+    assertEquals(5, stats.admitted());
+    assertEquals(4, stats.queueWait().count());
+  }
+
+  @Test
+  @DisplayName("權重較高的使用者放行次數較多")
+  void testWeightedUsers() throws Exception {
+    ReflectionTestUtils.setField(admission, "userWeights", "report=1, ops=2");
+    assertEquals(2, admission.weight("ops"));
+    assertEquals(1, admission.weight("someone"));
+
+    BlockingQueue<Granted> granted = new LinkedBlockingQueue<>();
+    Permit running = admission.acquire(config, "report");
+    for (int i = 0; i < 2; i++) {
+      enqueue("report", granted);
+    }
+    for (int i = 0; i < 4; i++) {
+      enqueue("ops", granted);
+    }
+
+    List<String> order = new ArrayList<>();
+    running.close();
+    for (int i = 0; i < 6; i++) {
+      Granted next = granted.poll(5, TimeUnit.SECONDS);
+      order.add(next.username());
+      next.permit().close();
+    }
+    // 標籤 report: 1, 2；ops: 0.5, 1, 1.5, 2 (同標籤依到達順序)
+    assertEquals(List.of("ops", "report", "ops", "ops", "report", "ops"), order);
+  }
+
+  @Test
+  @DisplayName("排隊逾時拒絕執行，不影響後續請求")
+  void testQueueTimeout() throws Exception {
+    ReflectionTestUtils.setField(admission, "queueTimeoutMs", 50L);
+    Permit running = admission.acquire(config, "alice");
+
+    AdmissionRejectedException e =
+        assertThrows(AdmissionRejectedException.class, () -> admission.acquire(config, "bob"));
+    assertTrue(e.getMessage().contains("'prod' is busy"));
+    assertEquals("53000", e.getSQLState());
+
+    AdmissionStats stats = admission.stats().get(0);
+    assertEquals(1, stats.timedOut());
+    assertEquals(0, stats.queued());
+
+    running.close();
+    running.close(); // 重複 close 不重複歸還
+    admission.acquire(config, "bob").close();
+    assertEquals(0, admission.stats().get(0).running());
+  }
+
+  @Test
+  @DisplayName("佇列已滿時立即拒絕")
+  void testQueueFull() throws Exception {
+    ReflectionTestUtils.setField(admission, "maxQueue", 0);
+    Permit running = admission.acquire(config, "alice");
+
+    AdmissionRejectedException e =
+        assertThrows(AdmissionRejectedException.class, () -> admission.acquire(config, "bob"));
+    assertTrue(e.getMessage().contains("Too many statements queued"));
+    assertEquals(1, admission.stats().get(0).rejected());
+    running.close();
+  }
+
+  @Test
+  @DisplayName("提高上限後放行排隊中的請求；上限 0 表示不限制")
+  void testLimitChanges() throws Exception {
+    BlockingQueue<Granted> granted = new LinkedBlockingQueue<>();
+    Permit running = admission.acquire(config, "alice");
+    enqueue("bob", granted);
+
+    config.setMaxConcurrentStatements(null); // 使用預設值 8
+    Permit second = admission.acquire(config, "carol");
+    Granted bob = granted.poll(5, TimeUnit.SECONDS);
+    assertEquals("bob", bob.username());
+    assertEquals(3, admission.stats().get(0).running());
+
+    running.close();
+    second.close();
+    bob.permit().close();
+
+    config.setId(2L);
+    config.setMaxConcurrentStatements(0);
+    for (int i = 0; i < 20; i++) {
+      admission.acquire(config, "alice");
+    }
+    assertEquals(1, admission.stats().size()); // 不限制時不記錄狀態
+  }
+}
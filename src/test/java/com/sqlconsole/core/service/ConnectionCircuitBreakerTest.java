@@ -0,0 +1,107 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.CircuitBreakerStatus;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.service.ConnectionCircuitBreaker.CircuitOpenException;
+import com.sqlconsole.core.service.ConnectionCircuitBreaker.State;
+
+class ConnectionCircuitBreakerTest {
+
+  private final ConnectionCircuitBreaker breaker = new ConnectionCircuitBreaker();
+  private final DbConfig config = new DbConfig();
+  private long now = 1_000_000L;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(breaker, "failureThreshold", 3);
+    ReflectionTestUtils.setField(breaker, "initialBackoffMs", 5_000L);
+    ReflectionTestUtils.setField(breaker, "maxBackoffMs", 12_000L);
+    breaker.clock = () -> now;
+    config.setId(1L);
+    config.setName("prod");
+  }
+
+  private void fail() throws SQLException {
+    breaker.acquirePermission(config);
+    breaker.onFailure(1L, new SQLException("Connection refused"));
+  }
+
+  @Test
+  @DisplayName("連續失敗達門檻後斷路，斷路期間立即失敗")
+  void testOpensAfterThreshold() throws SQLException {
+    fail();
+    fail();
+    assertEquals(State.CLOSED, breaker.state(1L));
+    fail();
+    assertEquals(State.OPEN, breaker.state(1L));
+
+    CircuitOpenException e =
+        assertThrows(CircuitOpenException.class, () -> breaker.acquirePermission(config));
+    assertTrue(e.getMessage().contains("'prod'"));
+    assertTrue(e.getMessage().contains("retry in 5s"));
+    assertTrue(e.getMessage().contains("Connection refused"));
+    assertEquals("08001", e.getSQLState());
+
+    CircuitBreakerStatus status = breaker.status().get(0);
+    assertEquals("OPEN", status.state());
+    assertEquals(3, status.consecutiveFailures());
+    assertEquals(5, status.retryInSeconds());
+  }
+
+  @Test
+  @DisplayName("成功借用時重設失敗次數")
+  void testSuccessResetsFailures() throws SQLException {
+    fail();
+    fail();
+    breaker.acquirePermission(config);
+    breaker.onSuccess(1L);
+    fail();
+    fail();
+    assertEquals(State.CLOSED, breaker.state(1L));
+  }
+
+  @Test
+  @DisplayName("等待時間到期後只放行一個試探；試探成功後恢復")
+  void testHalfOpenSingleProbe() throws SQLException {
+    fail();
+    fail();
+    fail();
+    now += 5_000;
+
+    breaker.acquirePermission(config); // 試探
+    assertEquals(State.HALF_OPEN, breaker.state(1L));
+    assertThrows(CircuitOpenException.class, () -> breaker.acquirePermission(config));
+
+    breaker.onSuccess(1L);
+    assertEquals(State.CLOSED, breaker.state(1L));
+    assertDoesNotThrow(() -> breaker.acquirePermission(config));
+  }
+
+  @Test
+  @DisplayName("試探失敗時再次斷路，等待時間加倍且不超過上限")
+  void testBackoff() throws SQLException {
+    fail();
+    fail();
+    fail();
+
+    now += 5_000;
+    fail(); // 第一次試探失敗
+    assertEquals(State.OPEN, breaker.state(1L));
+    assertEquals(10, breaker.status().get(0).retryInSeconds());
+
+    now += 10_000;
+    fail();
+    assertEquals(12, breaker.status().get(0).retryInSeconds());
+
+    breaker.reset(1L);
+    assertEquals(State.CLOSED, breaker.state(1L));
+    assertTrue(breaker.status().isEmpty());
+  }
+}
@@ -0,0 +1,152 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.ConnectionHealth;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.entity.User;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.repository.DbConfigRepository;
+import com.sqlconsole.core.repository.UserRepository;
+
+class ConnectionHealthServiceTest {
+
+  private final ConnectionPoolManager connectionPoolManager = mock(ConnectionPoolManager.class);
+  private final DbConfigService dbConfigService = mock(DbConfigService.class);
+  private final ConnectionCircuitBreaker circuitBreaker = mock(ConnectionCircuitBreaker.class);
+  private final DbConfigRepository dbConfigRepository = mock(DbConfigRepository.class);
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final ReplicaRouter replicaRouter = mock(ReplicaRouter.class);
+  private final ConnectionHealthService service =
+      new ConnectionHealthService(
+          connectionPoolManager,
+          dbConfigService,
+          circuitBreaker,
+          dbConfigRepository,
+          userRepository,
+          replicaRouter);
+
+  private final Connection connection = mock(Connection.class);
+  private final Statement statement = mock(Statement.class);
+  private final DbConfig config =
+      new DbConfig("prod", DbType.ORACLE, "jdbc:oracle:thin:@db", "u", "p");
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(service, "enabled", true);
+    ReflectionTestUtils.setField(service, "timeoutSeconds", 5);
+    ReflectionTestUtils.setField(service, "degradedThresholdMs", 1000L);
+    ReflectionTestUtils.setField(service, "prewarmOnLogin", true);
+    config.setId(1L);
+    when(dbConfigRepository.findAll()).thenReturn(List.of(config));
+    when(connection.createStatement()).thenReturn(statement);
+  }
+
+  @Test
+  @DisplayName("探測直接建立連線 (不經過連線池)，成功時記錄延遲並關閉連線")
+  void testProbeUp() throws SQLException {
+    assertEquals("UNKNOWN", service.health().get(0).status());
+    when(dbConfigService.createConnection(config)).thenReturn(connection);
+
+    service.probeAll();
+    service.probeAll();
+
+    verify(statement, times(2)).execute("SELECT 1 FROM DUAL");
+    verify(statement, times(2)).setQueryTimeout(5);
+    verify(connection, times(2)).close();
+    verify(circuitBreaker, times(2)).onSuccess(1L);
+    verifyNoInteractions(connectionPoolManager);
+    ConnectionHealth health = service.health().get(0);
+    assertEquals("UP", health.status());
+    assertEquals(2, health.connect().count());
+    assertEquals(2, health.roundTrip().count());
+    assertNotNull(health.lastProbeAt());
+  }
+
+  @Test
+  @DisplayName("探測每個 Replica，往返時間交給 ReplicaRouter")
+  void testProbeReplicas() throws SQLException {
+    config.setReplicaUrls("jdbc:oracle:thin:@r1\njdbc:oracle:thin:@r2");
+    when(dbConfigService.createConnection(config)).thenReturn(connection);
+    when(dbConfigService.createConnection(config, "jdbc:oracle:thin:@r1")).thenReturn(connection);
+    when(dbConfigService.createConnection(config, "jdbc:oracle:thin:@r2"))
+        .thenThrow(new SQLException("down"));
+
+    service.probeAll();
+
+    verify(replicaRouter).recordLatency(eq(1L), eq(1), anyLong());
+    verify(replicaRouter, never()).recordLatency(eq(1L), eq(2), anyLong());
+    assertEquals("UP", service.health().get(0).status()); // Replica 不影響 Primary 的狀態
+  }
+
+  @Test
+  @DisplayName("回應超過門檻時為 DEGRADED，探測失敗時為 DOWN")
+  void testDegradedAndDown() throws SQLException {
+    ReflectionTestUtils.setField(service, "degradedThresholdMs", 10L);
+    when(dbConfigService.createConnection(config)).thenReturn(connection);
+    when(statement.execute(anyString()))
+        .thenAnswer(
+            inv -> {
+              Thread.sleep(30);
+              return true;
+            });
+    service.probeAll();
+    assertEquals("DEGRADED", service.health().get(0).status());
+
+    when(dbConfigService.createConnection(config))
+        .thenThrow(new SQLException("Connection refused"));
+    service.probeAll();
+    ConnectionHealth health = service.health().get(0);
+    assertEquals("DOWN", health.status());
+    assertEquals("Connection refused", health.lastError());
+    assertEquals(1, health.consecutiveFailures());
+    assertEquals(1, health.roundTrip().count()); // 失敗不記錄延遲
+  }
+
+  @Test
+  void testProbeSql() {
+    assertEquals("SELECT 1", ConnectionHealthService.probeSql(DbType.POSTGRESQL));
+    assertEquals("SELECT 1 FROM SYSIBM.SYSDUMMY1", ConnectionHealthService.probeSql(DbType.DB2));
+  }
+
+  @Test
+  @DisplayName("啟用時，登入後預先建立使用者可使用的資料庫的連線")
+  void testPrewarmOnLogin() throws SQLException {
+    User user = new User("alice", "x", "ROLE_USER");
+    user.setAccessibleDatabases(Set.of(config));
+    when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+    when(connectionPoolManager.getConnection(config)).thenReturn(connection);
+
+    service.onLogin(
+        new InteractiveAuthenticationSuccessEvent(
+            new TestingAuthenticationToken("alice", "x"), getClass()));
+
+    verify(connection, timeout(1000)).close();
+    verify(dbConfigRepository, never()).findAll();
+  }
+
+  @Test
+  @DisplayName("預設不預先建立連線")
+  void testPrewarmDisabled() {
+    ReflectionTestUtils.setField(service, "prewarmOnLogin", false);
+
+    service.onLogin(
+        new InteractiveAuthenticationSuccessEvent(
+            new TestingAuthenticationToken("alice", "x"), getClass()));
+
+    verifyNoInteractions(userRepository, connectionPoolManager);
+  }
+}
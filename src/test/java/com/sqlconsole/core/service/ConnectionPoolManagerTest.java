@@ -0,0 +1,111 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.PoolStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.enums.DbType;
+
+class ConnectionPoolManagerTest {
+
+  private final EncryptionService encryptionService = mock(EncryptionService.class);
+  private final ConnectionCircuitBreaker circuitBreaker = new ConnectionCircuitBreaker();
+  private final ConnectionPoolManager manager =
+      new ConnectionPoolManager(encryptionService, circuitBreaker, new DriverRegistry());
+  private final DbConfig config = new DbConfig();
+
+  @BeforeEach
+  void setUp() {
+    when(encryptionService.decrypt(anyString())).thenAnswer(inv -> inv.getArgument(0));
+    ReflectionTestUtils.setField(manager, "defaultMaxSize", 10);
+    ReflectionTestUtils.setField(manager, "defaultMinIdle", 0);
+    ReflectionTestUtils.setField(manager, "defaultIdleTimeoutSeconds", 600);
+    ReflectionTestUtils.setField(manager, "defaultMaxLifetimeSeconds", 1800);
+    ReflectionTestUtils.setField(manager, "connectionTimeoutMs", 250L);
+    ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 2);
+    ReflectionTestUtils.setField(circuitBreaker, "initialBackoffMs", 60_000L);
+    ReflectionTestUtils.setField(circuitBreaker, "maxBackoffMs", 60_000L);
+
+    config.setId(1L);
+    config.setDbType(DbType.POSTGRESQL);
+    config.setJdbcUrl("jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1");
+    config.setDbUser("sa");
+    config.setDbPassword("");
+    config.setPoolMaxSize(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    manager.closeAll();
+  }
+
+  @Test
+  @DisplayName("借出的連線為手動 Commit，歸還後可再借用同一個實體連線")
+  void testBorrowAndReturn() throws SQLException {
+    try (Connection conn = manager.getConnection(config)) {
+      assertFalse(conn.getAutoCommit());
+    }
+    try (Connection conn = manager.getConnection(config)) {
+      assertFalse(conn.getAutoCommit());
+    }
+
+    PoolStats stats = manager.stats().get(0);
+    assertEquals(1L, stats.dbId());
+    assertEquals(0, stats.active());
+    assertEquals(1, stats.total());
+    assertEquals(2, stats.maxSize());
+  }
+
+  @Test
+  @DisplayName("超過 DbConfig 設定的上限時，等待逾時丟出 SQLException")
+  void testMaxSize() throws SQLException {
+    try (Connection a = manager.getConnection(config);
+        Connection b = manager.getConnection(config)) {
+      assertEquals(2, manager.stats().get(0).active());
+      assertThrows(SQLException.class, () -> manager.getConnection(config));
+      assertThrows(SQLException.class, () -> manager.getConnection(config));
+    }
+    // 連線池已滿不是資料庫無法連線，不斷路
+    assertEquals(ConnectionCircuitBreaker.State.CLOSED, circuitBreaker.state(1L));
+  }
+
+  @Test
+  @DisplayName("資料庫無法連線時連續失敗後斷路，之後的借用不再等待；evict 後重置")
+  void testCircuitOpensWhenUnreachable() throws SQLException {
+    config.setJdbcUrl("jdbc:h2:tcp://localhost:1/unreachable");
+
+    assertThrows(SQLException.class, () -> manager.getConnection(config));
+    assertThrows(SQLException.class, () -> manager.getConnection(config));
+    assertEquals(ConnectionCircuitBreaker.State.OPEN, circuitBreaker.state(1L));
+
+    long start = System.nanoTime();
+    SQLException e = assertThrows(SQLException.class, () -> manager.getConnection(config));
+    assertInstanceOf(ConnectionCircuitBreaker.CircuitOpenException.class, e);
+    assertTrue(System.nanoTime() - start < 200_000_000L);
+
+    manager.evict(1L);
+    assertEquals(ConnectionCircuitBreaker.State.CLOSED, circuitBreaker.state(1L));
+  }
+
+  @Test
+  @DisplayName("evict 後以新的設定重建連線池")
+  void testEvictRebuildsPool() throws SQLException {
+    manager.getConnection(config).close();
+    config.setPoolMaxSize(3);
+
+    manager.evict(1L);
+    assertTrue(manager.stats().isEmpty());
+
+    manager.getConnection(config).close();
+    assertEquals(3, manager.stats().get(0).maxSize());
+  }
+}
@@ -0,0 +1,80 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.servlet.http.HttpSessionEvent;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.ConnectionStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+class ConnectionReaperTest {
+
+  private final ConnectionPoolManager connectionPoolManager = mock(ConnectionPoolManager.class);
+  private final ConnectionTracker connectionTracker = new ConnectionTracker();
+  private final DbSessionService dbSessionService = new DbSessionService();
+  private final CursorService cursorService = mock(CursorService.class);
+  private final ConnectionReaper reaper =
+      new ConnectionReaper(connectionTracker, dbSessionService, cursorService);
+
+  private final MockHttpSession session = new MockHttpSession();
+  private final Connection connection = mock(Connection.class);
+  private final DbConfig config = new DbConfig();
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(dbSessionService, "connectionPoolManager", connectionPoolManager);
+    ReflectionTestUtils.setField(dbSessionService, "connectionTracker", connectionTracker);
+    config.setId(1L);
+    when(connectionPoolManager.getConnection(config)).thenReturn(connection);
+  }
+
+  @Test
+  @DisplayName("Session 失效時回滾並關閉有未 Commit 交易的連線")
+  void testSessionDestroyed() throws SQLException {
+    reaper.sessionCreated(new HttpSessionEvent(session));
+    Connection conn = dbSessionService.getConnection(session, config);
+    dbSessionService.markInTransaction(session, 1L);
+    dbSessionService.release(session, 1L, conn);
+
+    ConnectionStats before = connectionTracker.stats();
+    assertEquals(1, before.open());
+    assertEquals(1, before.inTransaction());
+
+    reaper.sessionDestroyed(new HttpSessionEvent(session));
+
+    verify(cursorService).closeSessionCursors(session.getId());
+    verify(connection).rollback();
+    verify(connection).close();
+    ConnectionStats after = connectionTracker.stats();
+    assertEquals(0, after.open());
+    assertEquals(1, after.closedOnSessionEnd());
+    assertEquals(0, after.leaked());
+  }
+
+  @Test
+  @DisplayName("擁有者 Session 已不存在的連線視為洩漏；執行中的連線自連線池移除")
+  void testReapOrphans() throws SQLException {
+    Connection conn = dbSessionService.getConnection(session, config);
+    reaper.reapOrphans();
+    assertEquals(1, connectionTracker.stats().open()); // Session 仍存在
+
+    connectionTracker.sessionDestroyed(session.getId()); // 失效事件之後才取得連線的情況
+    reaper.reapOrphans();
+
+    verify(connectionPoolManager).evictConnection(1L, ConnectionPoolManager.PRIMARY, conn);
+    assertEquals(0, connectionTracker.stats().open());
+    assertEquals(1, connectionTracker.stats().leaked());
+
+    // 執行中的請求結束時只關閉自己的借用，不重複計算
+    dbSessionService.release(session, 1L, conn);
+    verify(connection).close();
+    assertEquals(0, connectionTracker.stats().returned());
+  }
+}
@@ -0,0 +1,74 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.repository.DbConfigRepository;
+import com.sqlconsole.core.util.EncryptionUtil;
+
+class CredentialMigrationServiceTest {
+
+  private static final String MASTER_KEY = "test-master-key";
+
+  private final DbConfigRepository repository = mock(DbConfigRepository.class);
+  private final EncryptionService encryptionService = new EncryptionService();
+  private final CredentialMigrationService migrationService =
+      new CredentialMigrationService(repository, encryptionService);
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ReflectionTestUtils.setField(encryptionService, "masterKey", MASTER_KEY);
+    ReflectionTestUtils.setField(encryptionService, "legacyKeyCacheSize", 16);
+    encryptionService.init();
+  }
+
+  @Test
+  @DisplayName("只轉換 v1 格式的資料，轉換後內容不變")
+  void testMigratesLegacyRows() throws Exception {
+    DbConfig legacy =
+        new DbConfig(
+            "legacy",
+            DbType.POSTGRESQL,
+            "jdbc:postgresql://db/app",
+            EncryptionUtil.encrypt("app", MASTER_KEY),
+            EncryptionUtil.encrypt("secret", MASTER_KEY));
+    DbConfig current =
+        new DbConfig(
+            "current",
+            DbType.POSTGRESQL,
+            "jdbc:postgresql://db/app",
+            encryptionService.encrypt("app"),
+            encryptionService.encrypt("secret"));
+    when(repository.findAll()).thenReturn(List.of(legacy, current));
+
+    assertEquals(1, migrationService.migrateDbConfigs());
+
+    verify(repository).save(legacy);
+    verify(repository, never()).save(current);
+    assertFalse(encryptionService.isLegacy(legacy.getDbUser()));
+    assertEquals("app", encryptionService.decrypt(legacy.getDbUser()));
+    assertEquals("secret", encryptionService.decrypt(legacy.getDbPassword()));
+
+    // 再次執行時沒有需要轉換的資料
+    assertEquals(0, migrationService.migrateDbConfigs());
+  }
+
+  @Test
+  @DisplayName("無法解密的資料保持原狀，不中斷其他資料的轉換")
+  void testSkipsUndecryptableRows() throws Exception {
+    String foreign = EncryptionUtil.encrypt("app", "another-key");
+    DbConfig broken = new DbConfig("broken", DbType.ORACLE, "jdbc:oracle:thin:@db", foreign, null);
+    when(repository.findAll()).thenReturn(List.of(broken));
+
+    assertEquals(0, migrationService.migrateDbConfigs());
+    assertEquals(foreign, broken.getDbUser());
+    verify(repository, never()).save(any());
+  }
+}
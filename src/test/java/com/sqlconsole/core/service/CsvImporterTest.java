@@ -0,0 +1,146 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.ImportReport;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.util.CsvReader;
+
+class CsvImporterTest {
+
+  private final CsvImporter importer = new CsvImporter(new StatementRegistry());
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(importer, "batchSize", 2);
+    ReflectionTestUtils.setField(importer, "maxRejectedRows", 3);
+    conn = DriverManager.getConnection("jdbc:h2:mem:import_test;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          "CREATE TABLE people"
+              + " (id INT PRIMARY KEY, name VARCHAR(20), born DATE, score DECIMAL(5,2))");
+    }
+    conn.setAutoCommit(false);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    conn.rollback();
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP TABLE people");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("依標題列對應欄位，以 batch 寫入且不自動 Commit")
+  void testImportWithHeader() throws Exception {
+    ImportReport report =
+        load("name,id,born\nAlice,1,2000-01-02\n\"Bob, Jr.\",2,\n Carol ,3,1999-12-31\n", true);
+
+    assertEquals("SUCCESS", report.status());
+    assertEquals("BATCH", report.mode());
+    assertEquals(3, report.rowsRead());
+    assertEquals(3, report.rowsImported());
+    assertEquals(0, report.rowsRejected());
+    assertEquals(3, count());
+    assertEquals("Bob, Jr.", queryString("SELECT name FROM people WHERE id = 2"));
+    assertNull(queryString("SELECT born FROM people WHERE id = 2"));
+
+    conn.rollback();
+    assertEquals(0, count());
+  }
+
+  @Test
+  @DisplayName("型別錯誤、欄位數不符與違反限制的列被略過，其餘照常寫入")
+  void testRejectedRows() throws Exception {
+    ImportReport report = load("1,a,,1.5\nx,b,,\n1,dup,,\n2,c\n3,d,,2\n", false);
+
+    assertEquals("SUCCESS", report.status());
+    assertEquals(5, report.rowsRead());
+    assertEquals(2, report.rowsImported());
+    assertEquals(3, report.rowsRejected());
+    assertEquals(2, report.rejected().get(0).line()); // 'x' 無法轉為 INT
+    assertTrue(report.rejected().stream().anyMatch(r -> r.line() == 3)); // 主鍵重複
+    assertTrue(report.rejected().stream().anyMatch(r -> r.line() == 4)); // 欄位數不符
+    assertEquals(2, count());
+  }
+
+  @Test
+  @DisplayName("TIMESTAMP 欄位 (Oracle DATE) 接受只有日期的值，整數接受 UNSIGNED 的範圍")
+  void testConvertLenient() {
+    assertEquals(
+        Timestamp.valueOf("2024-01-15 00:00:00"),
+        CsvImporter.convert("2024-01-15", Types.TIMESTAMP));
+    assertEquals(
+        Timestamp.valueOf("2024-01-15 08:30:00"),
+        CsvImporter.convert("2024-01-15T08:30:00", Types.TIMESTAMP));
+    assertEquals(4_294_967_295L, CsvImporter.convert("4294967295", Types.INTEGER));
+    assertEquals(
+        new BigDecimal("18446744073709551615"),
+        CsvImporter.convert("18446744073709551615", Types.BIGINT));
+    assertThrows(NumberFormatException.class, () -> CsvImporter.convert("1.5", Types.INTEGER));
+    assertThrows(NumberFormatException.class, () -> CsvImporter.convert("x", Types.BIGINT));
+  }
+
+  @Test
+  @DisplayName("rejected 超過上限時中止")
+  void testTooManyRejects() throws Exception {
+    ImportReport report = load("a\nb\nc\nd\ne\n", false);
+
+    assertEquals("ERROR", report.status());
+    assertEquals(4, report.rowsRejected());
+  }
+
+  @Test
+  @DisplayName("不合法的資料表或欄位名稱直接拒絕")
+  void testInvalidIdentifiers() {
+    assertThrows(
+        IllegalArgumentException.class, () -> load("people; DROP TABLE x", "1", false));
+    assertThrows(
+        IllegalArgumentException.class, () -> load("people", "id,\"na me\"\n1,a", true));
+  }
+
+  private ImportReport load(String content, boolean header) throws SQLException, IOException {
+    return load("people", content, header);
+  }
+
+  private ImportReport load(String table, String content, boolean header)
+      throws SQLException, IOException {
+    // H2 不是 PgJDBC 連線，即使指定 POSTGRESQL 也走 PreparedStatement batch
+    CsvReader csv = new CsvReader(new StringReader(content), ',');
+    return importer.load(conn, DbType.POSTGRESQL, table, csv, header, QueryContext.NONE);
+  }
+
+  private int count() throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM people")) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  private String queryString(String sql) throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+      rs.next();
+      return rs.getString(1);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpSession;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+
+class CursorServiceTest {
+
+  private final DbSessionService dbSessionService = mock(DbSessionService.class);
+  private final CursorService cursorService =
+      new CursorService(
+          new JdbcExecutor(new ObjectMapper(), new ColumnCodecRegistry(), new StatementRegistry()),
+          dbSessionService);
+  private final HttpSession session = mock(HttpSession.class);
+  private final Runnable releaseLease = mock(Runnable.class);
+  private final DbConfig config = new DbConfig();
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    config.setId(1L);
+    config.setDbType(DbType.POSTGRESQL);
+    ReflectionTestUtils.setField(cursorService, "pageSize", 2);
+    ReflectionTestUtils.setField(cursorService, "maxPerSession", 1);
+    ReflectionTestUtils.setField(cursorService, "idleTimeoutSeconds", 300L);
+    when(session.getId()).thenReturn("S1");
+    when(dbSessionService.retain(eq(session), eq(1L), any())).thenReturn(releaseLease);
+
+    conn = DriverManager.getConnection("jdbc:h2:mem:cursor_test;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+      stmt.execute("INSERT INTO items VALUES (1), (2), (3), (4), (5)");
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP TABLE items");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("第一頁回傳 cursorId，之後逐頁讀到結尾")
+  void testPaging() throws SQLException {
+    SqlResult first =
+        cursorService.executeFirstPage(
+            session, config, conn, "SELECT id FROM items ORDER BY id", QueryContext.NONE);
+    assertTrue(first.hasMore());
+    assertEquals(2, first.rows().size());
+
+    SqlResult second = cursorService.fetchNext(session, first.cursorId());
+    assertTrue(second.hasMore());
+    assertEquals(3, second.rows().get(0).get("ID"));
+
+    SqlResult last = cursorService.fetchNext(session, first.cursorId());
+    assertFalse(last.hasMore());
+    assertNull(last.cursorId());
+    assertEquals(1, last.rows().size());
+
+    // 讀完後 Cursor 已釋放，並結束對連線的借用
+    assertEquals("ERROR", cursorService.fetchNext(session, first.cursorId()).status());
+    verify(releaseLease).run();
+  }
+
+  @Test
+  @DisplayName("結果在第一頁內讀完時不保留 Cursor")
+  void testSinglePage() throws SQLException {
+    SqlResult result =
+        cursorService.executeFirstPage(
+            session, config, conn, "SELECT id FROM items WHERE id = 1", QueryContext.NONE);
+    assertFalse(result.hasMore());
+    assertNull(result.cursorId());
+    verify(dbSessionService, never()).retain(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("剩餘的列剛好填滿一頁時，該頁即為最後一頁")
+  void testExactPage() throws SQLException {
+    SqlResult single =
+        cursorService.executeFirstPage(
+            session, config, conn, "SELECT id FROM items WHERE id <= 2", QueryContext.NONE);
+    assertFalse(single.hasMore());
+    assertEquals(2, single.rows().size());
+    verify(dbSessionService, never()).retain(any(), any(), any());
+
+    SqlResult first =
+        cursorService.executeFirstPage(
+            session,
+            config,
+            conn,
+            "SELECT id FROM items WHERE id <= 4 ORDER BY id",
+            QueryContext.NONE);
+    assertTrue(first.hasMore());
+    SqlResult last = cursorService.fetchNext(session, first.cursorId());
+    assertFalse(last.hasMore());
+    assertNull(last.cursorId());
+    assertEquals(List.of(3, 4), last.rows().stream().map(row -> row.get("ID")).toList());
+    verify(releaseLease).run();
+  }
+
+  @Test
+  @DisplayName("超過每個 Session 的上限時，關閉最久未使用的 Cursor")
+  void testMaxPerSession() throws SQLException {
+    SqlResult first = executeAll();
+    SqlResult second = executeAll();
+
+    assertEquals("ERROR", cursorService.fetchNext(session, first.cursorId()).status());
+    assertEquals("SUCCESS", cursorService.fetchNext(session, second.cursorId()).status());
+  }
+
+  @Test
+  @DisplayName("其他 Session 不能讀取別人的 Cursor")
+  void testOtherSession() throws SQLException {
+    SqlResult first = executeAll();
+
+    HttpSession other = mock(HttpSession.class);
+    when(other.getId()).thenReturn("S2");
+    assertEquals("ERROR", cursorService.fetchNext(other, first.cursorId()).status());
+  }
+
+  private SqlResult executeAll() throws SQLException {
+    return cursorService.executeFirstPage(
+        session, config, conn, "SELECT id FROM items", QueryContext.NONE);
+  }
+}
@@ -1,11 +1,13 @@
 package com.sqlconsole.core.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.*;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +22,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import com.sqlconsole.core.model.entity.DbConfig;
 import com.sqlconsole.core.model.entity.User;
+import com.sqlconsole.core.model.enums.DbType;
 import com.sqlconsole.core.repository.DbConfigRepository;
 import com.sqlconsole.core.repository.UserRepository;
 
@@ -29,6 +32,10 @@ class DbConfigServiceTest {
   @Mock private DbConfigRepository dbConfigRepository;
   @Mock private UserRepository userRepository;
   @Mock private EncryptionService encryptionService;
+  @Mock private ResultCache resultCache;
+  @Mock private ConnectionPoolManager connectionPoolManager;
+  @Mock private ReplicaRouter replicaRouter;
+  @Mock private SchemaCacheService schemaCacheService;
 
   @Mock private SecurityContext securityContext;
   @Mock private Authentication authentication;
@@ -99,4 +106,19 @@ class DbConfigServiceTest {
     verify(dbConfigRepository, never()).findAll();
     verify(userRepository).findByUsername(username);
   }
+
+  @Test
+  void putStatementCache_EnablesDriverCaches() {
+    Properties mssql = new Properties();
+    DbConfigService.putStatementCache(mssql, DbType.MSSQL, 64);
+    assertEquals("false", mssql.get("disableStatementPooling"));
+    assertEquals("64", mssql.get("statementPoolingCacheSize"));
+
+    // 不縮小 PgJDBC 預設的 256
+    Properties postgres = new Properties();
+    DbConfigService.putStatementCache(postgres, DbType.POSTGRESQL, 64);
+    assertFalse(postgres.containsKey("preparedStatementCacheQueries"));
+    DbConfigService.putStatementCache(postgres, DbType.POSTGRESQL, 512);
+    assertEquals("512", postgres.get("preparedStatementCacheQueries"));
+  }
 }
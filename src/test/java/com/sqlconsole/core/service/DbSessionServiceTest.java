@@ -3,14 +3,17 @@ package com.sqlconsole.core.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import jakarta.servlet.http.HttpSession;
 import java.sql.Connection;
 import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpSession;
 import com.sqlconsole.core.model.entity.DbConfig;
 
 @ExtendWith(MockitoExtension.class)
@@ -18,32 +21,37 @@ class DbSessionServiceTest {
 
   @InjectMocks private DbSessionService dbSessionService;
 
-  @Mock private HttpSession session;
   @Mock private Connection connection;
-  @Mock private DbConfig dbConfig;
-  @Mock private DbConfigService dbConfigService;
+  @Mock private ConnectionPoolManager connectionPoolManager;
+  @Mock private ReplicaRouter replicaRouter;
+  @Spy private ConnectionTracker connectionTracker = new ConnectionTracker();
+
+  private final MockHttpSession session = new MockHttpSession();
+  private final DbConfig dbConfig = new DbConfig();
+
+  @BeforeEach
+  void setUp() {
+    dbConfig.setId(1L);
+  }
 
   @Test
   void testGetConnection_ExistingOpenConnection() throws SQLException {
     // Arrange
-    when(dbConfig.getId()).thenReturn(1L);
-    when(session.getAttribute("CONN_1")).thenReturn(connection);
-    when(connection.isClosed()).thenReturn(false);
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    Connection first = dbSessionService.getConnection(session, dbConfig);
 
     // Act
     Connection result = dbSessionService.getConnection(session, dbConfig);
 
-    // Assert
-    assertSame(connection, result);
-    verify(session, never()).setAttribute(anyString(), any());
+    // Assert：借用中的連線直接重用
+    assertSame(first, result);
+    verify(connectionPoolManager, times(1)).getConnection(dbConfig);
   }
 
   @Test
   void testGetConnection_NewConnection() throws SQLException {
     // Arrange
-    when(dbConfig.getId()).thenReturn(1L);
-    when(session.getAttribute("CONN_1")).thenReturn(null); // 模擬無連線
-    when(dbConfigService.createConnection(dbConfig)).thenReturn(connection);
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
 
     // Act
     Connection result = dbSessionService.getConnection(session, dbConfig);
@@ -51,28 +59,149 @@ class DbSessionServiceTest {
     // Assert
     assertSame(connection, result);
     verify(connection).setAutoCommit(false); // 驗證有設為手動 Commit
-    verify(session).setAttribute("CONN_1", connection);
-    verify(dbConfigService).createConnection(dbConfig);
+    assertNotNull(session.getAttribute("CONN_1"));
+  }
+
+  @Test
+  @DisplayName("沒有交易與其他借用時，release 將連線歸還連線池")
+  void testRelease_ReturnsToPool() throws SQLException {
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    Connection first = dbSessionService.getConnection(session, dbConfig);
+    Connection second = dbSessionService.getConnection(session, dbConfig);
+
+    dbSessionService.release(session, 1L, second);
+    verify(connection, never()).close();
+
+    dbSessionService.release(session, 1L, first);
+    verify(connection).close();
+    assertNull(session.getAttribute("CONN_1"));
+    assertEquals(0, connectionTracker.stats().open());
+    assertEquals(1, connectionTracker.stats().returned());
+  }
+
+  @Test
+  @DisplayName("有未 Commit 的寫入時固定連線，交易結束後才歸還")
+  void testRelease_PinnedWhileInTransaction() throws SQLException {
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    Connection conn = dbSessionService.getConnection(session, dbConfig);
+    dbSessionService.markInTransaction(session, 1L);
+    dbSessionService.release(session, 1L, conn);
+
+    verify(connection, never()).close();
+    assertTrue(dbSessionService.isInTransaction(session, 1L));
+    assertSame(conn, dbSessionService.getConnection(session, dbConfig));
+
+    dbSessionService.endTransaction(session, 1L);
+    dbSessionService.release(session, 1L, conn);
+    verify(connection).close();
+    assertFalse(dbSessionService.isInTransaction(session, 1L));
+  }
+
+  @Test
+  @DisplayName("SET search_path 後 COMMIT，連線自連線池移除，不歸還給其他使用者")
+  void testRelease_EvictsAfterSessionStateChange() throws SQLException {
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    Connection conn = dbSessionService.getConnection(session, dbConfig); // SET search_path TO other
+    dbSessionService.markInTransaction(session, 1L);
+    dbSessionService.markSessionStateChanged(session, 1L);
+    dbSessionService.release(session, 1L, conn);
+    verify(connectionPoolManager, never()).evictConnection(any(), anyInt(), any());
+
+    dbSessionService.getConnection(session, dbConfig); // COMMIT
+    dbSessionService.endTransaction(session, 1L);
+    dbSessionService.release(session, 1L, conn);
+
+    verify(connectionPoolManager).evictConnection(1L, ConnectionPoolManager.PRIMARY, connection);
+    verify(connection, never()).close();
+    assertNull(session.getAttribute("CONN_1"));
+    assertEquals(0, connectionTracker.stats().open());
+  }
+
+  @Test
+  @DisplayName("Cursor 的借用結束前不歸還，重複結束只生效一次")
+  void testRetain() throws SQLException {
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    Connection conn = dbSessionService.getConnection(session, dbConfig);
+    Runnable cursorDone = dbSessionService.retain(session, 1L, conn);
+    dbSessionService.release(session, 1L, conn);
+    verify(connection, never()).close();
+
+    cursorDone.run();
+    cursorDone.run();
+    verify(connection, times(1)).close();
+  }
+
+  @Test
+  @DisplayName("唯讀查詢向 Replica 借用，結束後歸還且不影響 Session 的 Primary 連線")
+  void testGetReadConnection_Replica() throws SQLException {
+    Connection replica = mock(Connection.class);
+    when(replicaRouter.hasReplicas(dbConfig)).thenReturn(true);
+    when(replicaRouter.route(dbConfig)).thenReturn(new ReplicaRouter.Routed(replica, 2));
+
+    Connection conn = dbSessionService.getReadConnection(session, dbConfig);
+
+    assertSame(replica, conn);
+    assertEquals("replica-2", dbSessionService.nodeOf(conn));
+    assertNull(session.getAttribute("CONN_1"));
+    verify(connectionPoolManager, never()).getConnection(dbConfig);
+
+    dbSessionService.release(session, 1L, conn);
+    verify(replica).close();
+    assertEquals(0, connectionTracker.stats().open());
+  }
+
+  @Test
+  @DisplayName("同一 Session 的唯讀查詢與 Cursor 共用一條 Replica 連線")
+  void testGetReadConnection_SharedReplicaLease() throws SQLException {
+    Connection replica = mock(Connection.class);
+    when(replicaRouter.hasReplicas(dbConfig)).thenReturn(true);
+    when(replicaRouter.route(dbConfig)).thenReturn(new ReplicaRouter.Routed(replica, 1));
+
+    Connection first = dbSessionService.getReadConnection(session, dbConfig);
+    Runnable cursorDone = dbSessionService.retain(session, 1L, first);
+    dbSessionService.release(session, 1L, first);
+    Connection second = dbSessionService.getReadConnection(session, dbConfig);
+
+    assertSame(first, second);
+    verify(replicaRouter, times(1)).route(dbConfig);
+
+    dbSessionService.release(session, 1L, second);
+    verify(replica, never()).close();
+    cursorDone.run();
+    verify(replica).close();
+    assertNull(session.getAttribute("REPLICA_1"));
+  }
+
+  @Test
+  @DisplayName("有未 Commit 的交易時唯讀查詢仍在 Primary 執行")
+  void testGetReadConnection_InTransaction() throws SQLException {
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    when(replicaRouter.hasReplicas(dbConfig)).thenReturn(true);
+    Connection primary = dbSessionService.getConnection(session, dbConfig);
+    dbSessionService.markInTransaction(session, 1L);
+
+    assertSame(primary, dbSessionService.getReadConnection(session, dbConfig));
+    assertEquals("primary", dbSessionService.nodeOf(primary));
+    verify(replicaRouter, never()).route(dbConfig);
   }
 
   @Test
   void testCloseConnection_Exists() throws SQLException {
     // Arrange
-    when(session.getAttribute("CONN_1")).thenReturn(connection);
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    dbSessionService.getConnection(session, dbConfig);
+    dbSessionService.markInTransaction(session, 1L);
 
     // Act
     dbSessionService.closeConnection(session, 1L);
 
     // Assert
     verify(connection).close();
-    verify(session).removeAttribute("CONN_1");
+    assertNull(session.getAttribute("CONN_1"));
   }
 
   @Test
   void testCloseConnection_NotExists() throws SQLException {
-    // Arrange
-    when(session.getAttribute("CONN_1")).thenReturn(null);
-
     // Act
     dbSessionService.closeConnection(session, 1L);
 
@@ -82,12 +211,13 @@ class DbSessionServiceTest {
 
   @Test
   void testCloseConnection_Exception() throws SQLException {
-    // 為了覆蓋 catch (Exception e) {}
-    when(session.getAttribute("CONN_1")).thenReturn(connection);
+    // 歸還失敗時只記錄，不影響呼叫端
+    when(connectionPoolManager.getConnection(dbConfig)).thenReturn(connection);
+    dbSessionService.getConnection(session, dbConfig);
     doThrow(new SQLException("Close error")).when(connection).close();
 
     // Act & Assert (Should not throw)
     assertDoesNotThrow(() -> dbSessionService.closeConnection(session, 1L));
-    verify(session).removeAttribute("CONN_1");
+    assertNull(session.getAttribute("CONN_1"));
   }
 }
@@ -0,0 +1,117 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.DriverInfo;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.util.SqlConsoleClassLoader;
+
+class DriverRegistryTest {
+
+  @TempDir Path driversDir;
+
+  private final DriverRegistry registry = new DriverRegistry();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // 以測試 Classpath 上的 H2 Jar 模擬同一個 Driver 的兩個版本
+    Class<?> h2Driver = Class.forName("org.h2.Driver");
+    Path h2Jar = Path.of(h2Driver.getProtectionDomain().getCodeSource().getLocation().toURI());
+    for (String version : List.of("1.0", "2.0")) {
+      Path dir = Files.createDirectories(driversDir.resolve("h2").resolve(version));
+      Files.copy(h2Jar, dir.resolve("h2.jar"));
+    }
+    ReflectionTestUtils.setField(registry, "driversDir", driversDir.toString());
+  }
+
+  @AfterEach
+  void tearDown() {
+    registry.closeAll();
+  }
+
+  @Test
+  @DisplayName("Driver 由各版本獨立的 ClassLoader 載入，與應用程式 Classpath 上的類別不同")
+  void testIsolatedVersions() throws Exception {
+    try (Connection v1 = registry.connect("h2/1.0", "jdbc:h2:mem:driver_v1", new Properties());
+        Connection v2 = registry.connect("h2/2.0", "jdbc:h2:mem:driver_v2", new Properties())) {
+      ClassLoader loader1 = v1.getClass().getClassLoader();
+      ClassLoader loader2 = v2.getClass().getClassLoader();
+
+      assertInstanceOf(SqlConsoleClassLoader.class, loader1);
+      assertEquals("h2/1.0", ((SqlConsoleClassLoader) loader1).getDriverId());
+      assertNotSame(loader1, loader2);
+      assertNotSame(v1.getClass(), v2.getClass());
+      assertNotSame(Class.forName("org.h2.Driver"), loader1.loadClass("org.h2.Driver"));
+      assertTrue(v1.isValid(1));
+    }
+  }
+
+  @Test
+  @DisplayName("列出 drivers 目錄下的 Driver，第一次連線後標示為已載入")
+  void testAvailable() throws SQLException {
+    List<DriverInfo> drivers = registry.available();
+    assertEquals(List.of("h2/1.0", "h2/2.0"), drivers.stream().map(DriverInfo::id).toList());
+    assertEquals(List.of("h2.jar"), drivers.get(0).jars());
+    assertFalse(drivers.get(0).loaded());
+
+    registry.connect("h2/1.0", "jdbc:h2:mem:driver_available", new Properties()).close();
+    assertTrue(registry.available().get(0).loaded());
+    assertFalse(registry.available().get(1).loaded());
+  }
+
+  @Test
+  @DisplayName("未指定 driverId 時使用 <dbType>/ 下版本最新的 Driver，PostgreSQL 使用內建的 PgJDBC")
+  void testResolveDefault() throws Exception {
+    Path h2Jar = driversDir.resolve("h2/1.0/h2.jar");
+    for (String version : List.of("19.3.0.0", "19.29.0.0", "21.1.0.0")) {
+      Path dir = Files.createDirectories(driversDir.resolve("oracle").resolve(version));
+      if (!version.startsWith("21")) { // 沒有 Jar 的目錄不列入
+        Files.copy(h2Jar, dir.resolve("ojdbc8.jar"));
+      }
+    }
+
+    assertEquals("oracle/19.29.0.0", registry.resolve(DbType.ORACLE, null));
+    assertEquals("oracle/19.3.0.0", registry.resolve(DbType.ORACLE, "oracle/19.3.0.0"));
+    assertNull(registry.resolve(DbType.MYSQL, " "));
+    assertNull(registry.resolve(DbType.POSTGRESQL, null));
+  }
+
+  @Test
+  void testCompareVersions() {
+    assertTrue(DriverRegistry.compareVersions("19.29.0.0", "19.3.0.0") > 0);
+    assertTrue(DriverRegistry.compareVersions("3.5.7", "3.5") > 0);
+    assertEquals(0, DriverRegistry.compareVersions("9.5.0", "9.5.0"));
+  }
+
+  @Test
+  void testInvalidDriver() {
+    Properties props = new Properties();
+    assertThrows(SQLException.class, () -> registry.connect("h2/9.9", "jdbc:h2:mem:x", props));
+    assertThrows(SQLException.class, () -> registry.connect("../h2", "jdbc:h2:mem:x", props));
+    SQLException e =
+        assertThrows(
+            SQLException.class, () -> registry.connect("h2/1.0", "jdbc:postgresql://db/x", props));
+    assertTrue(e.getMessage().contains("No driver in h2/1.0"));
+  }
+
+  @Test
+  @DisplayName("DataSource 供連線池使用")
+  void testDataSource() throws SQLException {
+    try (Connection conn =
+        registry.dataSource("h2/2.0", "jdbc:h2:mem:driver_ds", new Properties()).getConnection()) {
+      assertInstanceOf(SqlConsoleClassLoader.class, conn.getClass().getClassLoader());
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.util.EncryptionUtil;
+
+class EncryptionServiceTest {
+
+  private static final String MASTER_KEY = "test-master-key";
+
+  private final EncryptionService encryptionService = new EncryptionService();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ReflectionTestUtils.setField(encryptionService, "masterKey", MASTER_KEY);
+    ReflectionTestUtils.setField(encryptionService, "legacyKeyCacheSize", 2);
+    encryptionService.init();
+  }
+
+  @Test
+  @DisplayName("新密文為 v2 格式，可還原明文")
+  void testV2RoundTrip() {
+    String encrypted = encryptionService.encrypt("scott");
+
+    assertTrue(encrypted.startsWith("v2:"));
+    assertFalse(encryptionService.isLegacy(encrypted));
+    assertEquals("scott", encryptionService.decrypt(encrypted));
+    assertNotEquals(encrypted, encryptionService.encrypt("scott")); // 每次使用不同 IV
+  }
+
+  @Test
+  @DisplayName("舊格式 (v1) 密文仍可解密，且被標記為需要轉換")
+  void testLegacyCiphertext() throws Exception {
+    String legacy = EncryptionUtil.encrypt("tiger", MASTER_KEY);
+
+    assertTrue(encryptionService.isLegacy(legacy));
+    assertEquals("tiger", encryptionService.decrypt(legacy));
+    assertEquals("tiger", encryptionService.decrypt(legacy)); // 第二次使用快取的金鑰
+  }
+
+  @Test
+  @DisplayName("null 與空字串原樣回傳")
+  void testEmpty() {
+    assertNull(encryptionService.encrypt(null));
+    assertEquals("", encryptionService.decrypt(""));
+    assertFalse(encryptionService.isLegacy(null));
+  }
+
+  @Test
+  @DisplayName("master-key 不同時 v2 密文無法解密")
+  void testWrongKey() throws Exception {
+    String encrypted = encryptionService.encrypt("scott");
+
+    EncryptionService other = new EncryptionService();
+    ReflectionTestUtils.setField(other, "masterKey", "another-key");
+    ReflectionTestUtils.setField(other, "legacyKeyCacheSize", 2);
+    other.init();
+    assertThrows(RuntimeException.class, () -> other.decrypt(encrypted));
+  }
+}
@@ -0,0 +1,119 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.IdleTransactionNotice;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.entity.SqlHistory;
+import com.sqlconsole.core.repository.DbConfigRepository;
+import com.sqlconsole.core.repository.SqlHistoryRepository;
+
+class IdleTransactionWatchdogTest {
+
+  private final ConnectionPoolManager connectionPoolManager = mock(ConnectionPoolManager.class);
+  private final ConnectionTracker connectionTracker = new ConnectionTracker();
+  private final DbSessionService dbSessionService = new DbSessionService();
+  private final DbConfigRepository dbConfigRepository = mock(DbConfigRepository.class);
+  private final SqlHistoryRepository historyRepo = mock(SqlHistoryRepository.class);
+  private final IdleTransactionWatchdog watchdog =
+      new IdleTransactionWatchdog(
+          connectionTracker, dbSessionService, dbConfigRepository, historyRepo);
+
+  private final MockHttpSession session = new MockHttpSession();
+  private final DbConfig config = new DbConfig();
+  private final Connection connection = mock(Connection.class);
+  private long offsetMs;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(dbSessionService, "connectionPoolManager", connectionPoolManager);
+    ReflectionTestUtils.setField(dbSessionService, "connectionTracker", connectionTracker);
+    ReflectionTestUtils.setField(dbSessionService, "replicaRouter", mock(ReplicaRouter.class));
+    ReflectionTestUtils.setField(watchdog, "defaultWarnSeconds", 300);
+    ReflectionTestUtils.setField(watchdog, "defaultTimeoutSeconds", 1800);
+    watchdog.clock = () -> System.currentTimeMillis() + offsetMs;
+
+    config.setId(1L);
+    config.setName("prod");
+    config.setIdleTxTimeoutSeconds(600); // 覆寫預設的 1800
+    when(dbConfigRepository.findById(1L)).thenReturn(Optional.of(config));
+    when(connectionPoolManager.getConnection(config)).thenReturn(connection);
+
+    // 執行 UPDATE 後離開：連線固定在交易中，沒有執行中的請求
+    Connection conn = dbSessionService.getConnection(session, config);
+    dbSessionService.markInTransaction(session, 1L);
+    dbSessionService.release(session, 1L, conn);
+  }
+
+  @Test
+  @DisplayName("閒置超過警告門檻時提醒，尚未回滾")
+  void testWarns() throws SQLException {
+    offsetMs = 60_000;
+    watchdog.check();
+    assertTrue(watchdog.notices(session.getId()).isEmpty());
+
+    offsetMs = 400_000;
+    watchdog.check();
+    List<IdleTransactionNotice> notices = watchdog.notices(session.getId());
+    assertEquals(1, notices.size());
+    assertEquals("IDLE", notices.get(0).status());
+    assertEquals(200, notices.get(0).rollbackInSeconds(), 1);
+    assertTrue(notices.get(0).message().contains("'prod'"));
+    verify(connection, never()).rollback();
+    assertTrue(dbSessionService.isInTransaction(session, 1L));
+  }
+
+  @Test
+  @DisplayName("閒置超過上限時回滾、歸還連線並記錄於 sql_history；COMMIT 時回報交易已不存在")
+  void testRollsBack() throws SQLException {
+    offsetMs = 601_000;
+    watchdog.check();
+
+    verify(connection).rollback();
+    verify(connection).close();
+    assertFalse(dbSessionService.isInTransaction(session, 1L));
+    assertEquals(1, connectionTracker.stats().idleRolledBack());
+    assertEquals(0, connectionTracker.stats().open());
+
+    ArgumentCaptor<SqlHistory> history = ArgumentCaptor.forClass(SqlHistory.class);
+    verify(historyRepo).save(history.capture());
+    assertEquals("AUTO_ROLLBACK", history.getValue().getStatus());
+    assertEquals("prod", history.getValue().getDbName());
+
+    // 通知保留到 COMMIT/ROLLBACK 取出為止
+    assertEquals("ROLLED_BACK", watchdog.notices(session.getId()).get(0).status());
+    assertEquals(1, watchdog.notices(session.getId()).size());
+    assertTrue(watchdog.takeRolledBack(session.getId(), 1L).isPresent());
+    assertTrue(watchdog.notices(session.getId()).isEmpty());
+
+    // 下一個請求改借新的連線
+    Connection next = mock(Connection.class);
+    when(connectionPoolManager.getConnection(config)).thenReturn(next);
+    assertSame(next, dbSessionService.getConnection(session, config));
+  }
+
+  @Test
+  @DisplayName("執行中的請求不算閒置")
+  void testBusyConnectionNotRolledBack() throws SQLException {
+    Connection conn = dbSessionService.getConnection(session, config);
+    offsetMs = 3_600_000;
+    watchdog.check();
+
+    verify(connection, never()).rollback();
+    verify(historyRepo, never()).save(any());
+    dbSessionService.release(session, 1L, conn);
+    assertTrue(dbSessionService.isInTransaction(session, 1L));
+  }
+}
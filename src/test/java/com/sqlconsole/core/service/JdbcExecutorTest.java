@@ -0,0 +1,136 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.dto.StreamSummary;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+
+class JdbcExecutorTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final JdbcExecutor jdbcExecutor =
+      new JdbcExecutor(objectMapper, new ColumnCodecRegistry(), new StatementRegistry());
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    conn = DriverManager.getConnection("jdbc:h2:mem:jdbc_executor_test;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE orders (id INT PRIMARY KEY, item VARCHAR(50))");
+      stmt.execute("INSERT INTO orders VALUES (1, 'apple'), (2, 'banana'), (3, 'cherry')");
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP TABLE orders");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("executeSql - 完整載入結果集")
+  void testExecuteSql() throws SQLException {
+    SqlResult result = jdbcExecutor.executeSql(conn, "SELECT id, item FROM orders ORDER BY id;");
+
+    assertEquals("SUCCESS", result.status());
+    assertEquals(3, result.rows().size());
+    assertEquals("apple", result.rows().get(0).get("ITEM"));
+  }
+
+  @Test
+  @DisplayName("streamSql - 逐列輸出並附上 trailer")
+  void testStreamSql() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    StreamSummary summary =
+        jdbcExecutor.streamSql(
+            conn, "SELECT id, item FROM orders ORDER BY id", 2, null, QueryContext.NONE, out);
+
+    JsonNode json = objectMapper.readTree(out.toByteArray());
+    assertEquals("SUCCESS", summary.status());
+    assertEquals(3, summary.rowCount());
+    assertEquals("ID", json.get("columns").get(0).asText());
+    assertEquals(3, json.get("rows").size());
+    assertEquals("banana", json.get("rows").get(1).get(1).asText());
+    assertEquals(3, json.get("trailer").get("rowCount").asInt());
+    assertTrue(json.get("trailer").has("elapsedMs"));
+  }
+
+  @Test
+  @DisplayName("streamSql - SQL 錯誤時 trailer 應回報 ERROR 且 JSON 仍完整")
+  void testStreamSql_Error() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    StreamSummary summary =
+        jdbcExecutor.streamSql(
+            conn, "SELECT * FROM no_such_table", 100, null, QueryContext.NONE, out);
+
+    JsonNode json = objectMapper.readTree(out.toByteArray());
+    assertEquals("ERROR", summary.status());
+    assertEquals(0, json.get("rows").size());
+    assertEquals("ERROR", json.get("trailer").get("status").asText());
+  }
+
+  @Test
+  @DisplayName("openCursor - 帶有參數時以 PreparedStatement 綁定執行")
+  void testOpenCursor_Parameters() throws SQLException {
+    QueryContext ctx = new QueryContext(null, null, 0, Map.of("min", 2, "item", "cherry"));
+    try (ResultCursor cursor =
+        jdbcExecutor.openCursor(
+            conn,
+            "SELECT item FROM orders WHERE id >= :min AND item <> :item ORDER BY id;",
+            100,
+            null,
+            ctx)) {
+      List<Map<String, Object>> rows = cursor.fetch(100);
+      assertEquals(1, rows.size());
+      assertEquals("banana", rows.get(0).get("ITEM"));
+    }
+
+    ctx = new QueryContext(null, null, 0, List.of(9, "fig"));
+    try (ResultCursor cursor =
+        jdbcExecutor.openCursor(conn, "INSERT INTO orders VALUES (?, ?)", 100, null, ctx)) {
+      assertEquals(1, cursor.getUpdateCount());
+    }
+  }
+
+  @Test
+  @DisplayName("openCursor - 套用查詢逾時，執行結束後不再登記為可取消")
+  void testOpenCursor_TimeoutAndRegistration() throws SQLException {
+    StatementRegistry registry = new StatementRegistry();
+    JdbcExecutor executor = new JdbcExecutor(objectMapper, new ColumnCodecRegistry(), registry);
+    Connection mockConn = mock(Connection.class);
+    Statement mockStmt = mock(Statement.class);
+    when(mockConn.createStatement()).thenReturn(mockStmt);
+    when(mockStmt.getUpdateCount()).thenReturn(1);
+
+    QueryContext ctx = new QueryContext("S1", "R1", 30);
+    try (ResultCursor cursor =
+        executor.openCursor(mockConn, "UPDATE t SET a = 1", 100, null, ctx)) {
+      assertEquals(1, cursor.getUpdateCount());
+    }
+
+    verify(mockStmt).setQueryTimeout(30);
+    assertEquals(0, registry.inFlightCount());
+  }
+}
@@ -0,0 +1,165 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.servlet.http.HttpSession;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.SqlResult;
+
+class QueryJobServiceTest {
+
+  private final QueryJobService jobService = new QueryJobService();
+  private final HttpSession session = new MockHttpSession(null, "S1");
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(jobService, "retentionSeconds", 600L);
+    ReflectionTestUtils.setField(jobService, "maxPerSession", 2);
+    ReflectionTestUtils.setField(jobService, "sseTimeoutMs", 1000L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jobService.shutdown();
+  }
+
+  @Test
+  @DisplayName("提交後立即回傳工作編號，完成後可取得結果")
+  void testSubmitAndComplete() throws Exception {
+    QueryJob job =
+        jobService.submit(
+            session, 1L, jobId -> () -> new SqlResult("SUCCESS", null, jobId, null, null));
+
+    SqlResult result = job.getFuture().get(5, TimeUnit.SECONDS);
+    assertEquals(job.getId(), result.message()); // 工作編號即為 requestId
+    assertEquals(QueryJob.State.DONE, job.getState());
+    assertTrue(jobService.find(session, job.getId()).isPresent());
+    assertTrue(jobService.find(new MockHttpSession(null, "S2"), job.getId()).isEmpty());
+  }
+
+  @Test
+  @DisplayName("權限錯誤在提交時同步拋出")
+  void testPrepareFailsSynchronously() {
+    assertThrows(
+        AccessDeniedException.class,
+        () ->
+            jobService.submit(
+                session,
+                1L,
+                jobId -> {
+                  throw new AccessDeniedException("denied");
+                }));
+  }
+
+  @Test
+  @DisplayName("同一連線上的工作依序執行，且執行中數量有上限")
+  void testSerializedPerConnectionAndLimit() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger concurrent = new AtomicInteger();
+    AtomicInteger maxConcurrent = new AtomicInteger();
+
+    QueryJob first =
+        jobService.submit(
+            session,
+            1L,
+            jobId ->
+                () -> {
+                  maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                  awaitQuietly(release);
+                  concurrent.decrementAndGet();
+                  return new SqlResult("SUCCESS", null, "first", null, null);
+                });
+    QueryJob second =
+        jobService.submit(
+            session,
+            1L,
+            jobId ->
+                () -> {
+                  maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                  concurrent.decrementAndGet();
+                  return new SqlResult("SUCCESS", null, "second", null, null);
+                });
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            jobService.submit(
+                session, 1L, jobId -> () -> new SqlResult("SUCCESS", null, "", null, null)));
+
+    release.countDown();
+    first.getFuture().get(5, TimeUnit.SECONDS);
+    second.getFuture().get(5, TimeUnit.SECONDS);
+    assertEquals(1, maxConcurrent.get());
+  }
+
+  @Test
+  @DisplayName("執行失敗時狀態為 FAILED 並帶回錯誤訊息")
+  void testFailure() throws Exception {
+    QueryJob job =
+        jobService.submit(
+            session,
+            1L,
+            jobId ->
+                () -> {
+                  throw new IllegalStateException("Session invalidated");
+                });
+
+    SqlResult result = job.getFuture().get(5, TimeUnit.SECONDS);
+    assertEquals("ERROR", result.status());
+    assertEquals(QueryJob.State.FAILED, job.getState());
+  }
+
+  @Test
+  @DisplayName("等待同一連線上前一個工作的工作可以取消，取得連線鎖後不執行")
+  void testCancelPending() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executed = new AtomicInteger();
+    QueryJob first =
+        jobService.submit(
+            session,
+            1L,
+            jobId ->
+                () -> {
+                  awaitQuietly(release);
+                  return new SqlResult("SUCCESS", null, "first", null, null);
+                });
+    QueryJob second =
+        jobService.submit(
+            session,
+            1L,
+            jobId ->
+                () -> {
+                  executed.incrementAndGet();
+                  return new SqlResult("SUCCESS", null, "second", null, null);
+                });
+
+    assertFalse(jobService.cancel(new MockHttpSession(null, "S2"), second.getId()));
+    assertTrue(jobService.cancel(session, second.getId()));
+    assertTrue(jobService.isCancelRequested("S1", second.getId()));
+    assertFalse(jobService.isCancelRequested("S1", first.getId()));
+
+    release.countDown();
+    assertEquals("first", first.getFuture().get(5, TimeUnit.SECONDS).message());
+    assertEquals("ERROR", second.getFuture().get(5, TimeUnit.SECONDS).status());
+    assertEquals(QueryJob.State.CANCELLED, second.getState());
+    assertEquals(0, executed.get());
+    assertFalse(jobService.cancel(session, second.getId())); // 已結束
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+class ReplicaRouterTest {
+
+  private final ConnectionPoolManager connectionPoolManager = mock(ConnectionPoolManager.class);
+  private final ReplicaRouter router = new ReplicaRouter(connectionPoolManager);
+  private final DbConfig config = new DbConfig();
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(router, "strategy", ReplicaRouter.Strategy.ROUND_ROBIN);
+    ReflectionTestUtils.setField(router, "retryAfterMs", 60_000L);
+    config.setId(1L);
+    config.setReplicaUrls(
+        "jdbc:postgresql://r1/db\n jdbc:postgresql://r2/db ,jdbc:postgresql://r3/db");
+    for (int node = 1; node <= 3; node++) {
+      when(connectionPoolManager.getReplicaConnection(config, node))
+          .thenReturn(mock(Connection.class));
+    }
+  }
+
+  @Test
+  void testReplicaUrls() {
+    assertEquals(3, ConnectionPoolManager.replicaUrls(config).size());
+    assertEquals("jdbc:postgresql://r2/db", ConnectionPoolManager.replicaUrls(config).get(1));
+    config.setReplicaUrls(" ");
+    assertFalse(router.hasReplicas(config));
+    assertNull(router.route(config));
+  }
+
+  @Test
+  @DisplayName("輪流使用各 Replica")
+  void testRoundRobin() {
+    List<Integer> nodes =
+        List.of(
+            router.route(config).node(),
+            router.route(config).node(),
+            router.route(config).node(),
+            router.route(config).node());
+    assertEquals(List.of(1, 2, 3, 1), nodes);
+  }
+
+  @Test
+  @DisplayName("LEAST_LATENCY 依探測的往返延遲選擇，較慢的 Replica 不分配流量")
+  void testLeastLatency() throws SQLException {
+    ReflectionTestUtils.setField(router, "strategy", ReplicaRouter.Strategy.LEAST_LATENCY);
+    router.recordLatency(1L, 1, 50_000);
+    router.recordLatency(1L, 2, 2_000);
+    router.recordLatency(1L, 3, 8_000);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(2, router.route(config).node());
+    }
+
+    // Replica 2 變慢後 (指數移動平均) 改用 3
+    for (int i = 0; i < 10; i++) {
+      router.recordLatency(1L, 2, 100_000);
+    }
+    assertEquals(3, router.route(config).node());
+    verify(connectionPoolManager, never()).getReplicaConnection(config, 1);
+  }
+
+  @Test
+  @DisplayName("LEAST_LATENCY 尚無延遲樣本時輪流使用")
+  void testLeastLatencyWithoutSamples() {
+    ReflectionTestUtils.setField(router, "strategy", ReplicaRouter.Strategy.LEAST_LATENCY);
+    List<Integer> nodes =
+        List.of(
+            router.route(config).node(), router.route(config).node(), router.route(config).node());
+    assertEquals(List.of(1, 2, 3), nodes);
+  }
+
+  @Test
+  @DisplayName("無法連線的 Replica 暫時略過；全部無法使用時回傳 null")
+  void testSkipsUnavailable() throws SQLException {
+    when(connectionPoolManager.getReplicaConnection(config, 1))
+        .thenThrow(new SQLTransientConnectionException("timeout", "08001", new SQLException()));
+
+    assertEquals(2, router.route(config).node()); // 1 失敗，改用 2
+    assertEquals(2, router.route(config).node()); // 輪到 2
+    assertEquals(3, router.route(config).node());
+    assertEquals(2, router.route(config).node()); // 輪到 1，仍在略過期間
+    verify(connectionPoolManager, times(1)).getReplicaConnection(config, 1);
+
+    when(connectionPoolManager.getReplicaConnection(config, 2)).thenThrow(new SQLException("down"));
+    when(connectionPoolManager.getReplicaConnection(config, 3)).thenThrow(new SQLException("down"));
+    assertNull(router.route(config));
+
+    router.reset(1L); // 清除略過期間，再次嘗試 1
+    assertNull(router.route(config));
+    verify(connectionPoolManager, times(2)).getReplicaConnection(config, 1);
+  }
+
+  @Test
+  @DisplayName("連線池已滿不視為 Replica 無法使用")
+  void testPoolExhaustedNotMarkedDown() throws SQLException {
+    when(connectionPoolManager.getReplicaConnection(config, 1))
+        .thenThrow(new SQLTransientConnectionException("pool exhausted"))
+        .thenReturn(mock(Connection.class));
+
+    assertEquals(2, router.route(config).node());
+    router.reset(1L);
+    assertEquals(1, router.route(config).node());
+  }
+
+  @Test
+  @DisplayName("連線全部借出中的 Replica 不等待，直接改用下一個")
+  void testSaturatedSkippedWithoutBorrow() throws SQLException {
+    when(connectionPoolManager.isSaturated(1L, 1)).thenReturn(true);
+
+    assertEquals(2, router.route(config).node());
+    verify(connectionPoolManager, never()).getReplicaConnection(config, 1);
+
+    when(connectionPoolManager.isSaturated(1L, 2)).thenReturn(true);
+    when(connectionPoolManager.isSaturated(1L, 3)).thenReturn(true);
+    assertNull(router.route(config)); // 呼叫端改用 Primary
+  }
+}
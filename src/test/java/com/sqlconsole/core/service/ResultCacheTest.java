@@ -0,0 +1,94 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+import com.sqlconsole.core.model.dto.ResultCacheStats;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.entity.DbConfig;
+
+class ResultCacheTest {
+
+  private final ResultCache cache = new ResultCache();
+  private DbConfig config;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(cache, "maxBytes", 4096L);
+    ReflectionTestUtils.setField(cache, "maxEntryBytes", 2048L);
+    config = new DbConfig();
+    config.setId(1L);
+    config.setResultCacheTtlSeconds(60);
+  }
+
+  @Test
+  @DisplayName("以正規化後的 SQL 命中，並記錄 hit/miss")
+  void testHitAndMiss() {
+    assertTrue(cache.get(config, "SELECT 1").isEmpty());
+    cache.put(config, "SELECT 1", result(1), cache.generation(1L));
+
+    assertTrue(cache.get(config, "  SELECT\n 1 ;").isPresent());
+    ResultCacheStats stats = cache.stats();
+    assertEquals(1, stats.hits());
+    assertEquals(1, stats.misses());
+    assertEquals(1, stats.entries());
+  }
+
+  @Test
+  @DisplayName("總大小超過上限時淘汰最久未使用的結果")
+  void testEvictsLeastRecentlyUsedByBytes() {
+    long size = ResultCache.estimateBytes(result(1));
+    int fits = (int) (4096 / size);
+    for (int i = 0; i < fits; i++) {
+      cache.put(config, "SELECT " + i, result(1), cache.generation(1L));
+    }
+    cache.get(config, "SELECT 0"); // 使 SELECT 0 成為最近使用
+    cache.put(config, "SELECT 999", result(1), cache.generation(1L));
+
+    assertTrue(cache.get(config, "SELECT 0").isPresent());
+    assertTrue(cache.get(config, "SELECT 1").isEmpty());
+    assertTrue(cache.stats().bytes() <= 4096);
+    assertEquals(1, cache.stats().evictions());
+  }
+
+  @Test
+  @DisplayName("清除後不會放入清除前就開始執行的查詢結果")
+  void testInvalidateDiscardsInFlightResults() {
+    cache.put(config, "SELECT 1", result(1), cache.generation(1L));
+    long staleGeneration = cache.generation(1L);
+
+    cache.invalidate(1L);
+    cache.put(config, "SELECT 2", result(1), staleGeneration);
+
+    assertTrue(cache.get(config, "SELECT 1").isEmpty());
+    assertTrue(cache.get(config, "SELECT 2").isEmpty());
+    assertEquals(1, cache.stats().invalidations());
+  }
+
+  @Test
+  @DisplayName("未設定 TTL、非查詢語句、或過大的結果都不使用快取")
+  void testNotCached() {
+    assertTrue(cache.isEnabled(config, "SELECT 1"));
+    assertFalse(cache.isEnabled(config, "UPDATE t SET a = 1"));
+
+    config.setResultCacheTtlSeconds(null);
+    assertFalse(cache.isEnabled(config, "SELECT 1"));
+
+    config.setResultCacheTtlSeconds(60);
+    cache.put(config, "SELECT big", result(500), cache.generation(1L));
+    assertTrue(cache.get(config, "SELECT big").isEmpty());
+  }
+
+  private static SqlResult result(int rows) {
+    ColumnarRows.Builder builder = ColumnarRows.builder(List.of("n"));
+    for (int i = 0; i < rows; i++) {
+      builder.addRow((Object) ("row-" + i));
+    }
+    return new SqlResult("SUCCESS", null, "ok", List.of("n"), builder.build());
+  }
+}
@@ -0,0 +1,96 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.dto.StreamSummary;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.enums.ExportFormat;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+
+class ResultExporterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final StatementRegistry registry = new StatementRegistry();
+  private final ColumnCodecRegistry codecRegistry = new ColumnCodecRegistry();
+  private final ResultExporter exporter =
+      new ResultExporter(
+          objectMapper,
+          codecRegistry,
+          registry,
+          new JdbcExecutor(objectMapper, codecRegistry, registry));
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    conn = DriverManager.getConnection("jdbc:h2:mem:export_test;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE notes (id INT, body VARCHAR(50))");
+      stmt.execute(
+          "INSERT INTO notes VALUES (1, 'plain'), (2, 'a,b \"quoted\"'), (3, NULL), (4, 'x\ny')");
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP TABLE notes");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("CSV：標題列、NULL 為空欄位，特殊字元加上引號")
+  void testCsv() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StreamSummary summary = export("SELECT * FROM notes ORDER BY id;", ExportFormat.CSV, out);
+
+    assertTrue(summary.isSuccess());
+    assertEquals(4, summary.rowCount());
+    assertEquals(
+        "\uFEFFID,BODY\r\n1,plain\r\n2,\"a,b \"\"quoted\"\"\"\r\n3,\r\n4,\"x\ny\"\r\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("JSON Lines：每列一個 JSON 物件")
+  void testJsonLines() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StreamSummary summary = export("SELECT * FROM notes ORDER BY id", ExportFormat.JSONL, out);
+
+    assertTrue(summary.isSuccess());
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(4, lines.length);
+    JsonNode second = objectMapper.readTree(lines[1]);
+    assertEquals(2, second.get("ID").asInt());
+    assertEquals("a,b \"quoted\"", second.get("BODY").asText());
+    assertTrue(objectMapper.readTree(lines[2]).get("BODY").isNull());
+  }
+
+  @Test
+  @DisplayName("查詢失敗時回傳 ERROR 摘要，Statement 不會殘留在登記表")
+  void testFailure() throws IOException {
+    StreamSummary summary =
+        export("SELECT * FROM missing_table", ExportFormat.CSV, new ByteArrayOutputStream());
+
+    assertFalse(summary.isSuccess());
+    assertEquals(0, registry.inFlightCount());
+  }
+
+  private StreamSummary export(String sql, ExportFormat format, ByteArrayOutputStream out)
+      throws IOException {
+    return exporter.export(conn, sql, 2, DbType.POSTGRESQL, QueryContext.NONE, format, out);
+  }
+}
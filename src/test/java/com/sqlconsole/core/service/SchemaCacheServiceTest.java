@@ -0,0 +1,347 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.SchemaCacheStats;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.service.metadata.MetadataDialectRegistry;
+import com.sqlconsole.core.service.metadata.SchemaMetadataLoader;
+import com.sqlconsole.core.service.metadata.SchemaSnapshotStore;
+import com.sqlconsole.core.util.SchemaIndex;
+
+class SchemaCacheServiceTest {
+
+  private static final String URL = "jdbc:h2:mem:schema_cache_test;DB_CLOSE_DELAY=-1";
+
+  /** 每次載入: 取得 Schema 一條，資料表/欄位/索引/外鍵各一條 */
+  private static final int CONNECTIONS_PER_LOAD = 5;
+
+  private final ConnectionPoolManager connectionPoolManager = mock(ConnectionPoolManager.class);
+  private final DbConfig config = new DbConfig();
+  private SchemaSnapshotStore snapshotStore = mock(SchemaSnapshotStore.class);
+  private Connection keepAlive;
+  private long offsetMs;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    keepAlive = DriverManager.getConnection(URL, "sa", "");
+    sql("CREATE TABLE CUSTOMERS (ID INT PRIMARY KEY, NAME VARCHAR(50))");
+    sql("CREATE TABLE ORDERS (ID INT, CUSTOMER_ID INT REFERENCES CUSTOMERS (ID), AMOUNT INT)");
+    config.setId(1L);
+    config.setJdbcUrl(URL);
+    when(connectionPoolManager.getConnection(config))
+        .thenAnswer(inv -> DriverManager.getConnection(URL, "sa", ""));
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    sql("DROP ALL OBJECTS");
+    keepAlive.close();
+  }
+
+  private void sql(String sql) throws SQLException {
+    try (Statement stmt = keepAlive.createStatement()) {
+      stmt.execute(sql);
+    }
+  }
+
+  /** 未設定 DbType，由 DatabaseMetaData 讀取 H2 的 Catalog */
+  private SchemaMetadataLoader loader() {
+    SchemaMetadataLoader loader =
+        new SchemaMetadataLoader(connectionPoolManager, new MetadataDialectRegistry(List.of()));
+    ReflectionTestUtils.setField(loader, "fetchSize", 100);
+    ReflectionTestUtils.setField(loader, "parallelism", 4);
+    return loader;
+  }
+
+  private SchemaCacheService newService() {
+    return configure(new SchemaCacheService(loader(), snapshotStore));
+  }
+
+  private SchemaCacheService configure(SchemaCacheService service) {
+    ReflectionTestUtils.setField(service, "ttlSeconds", 600L);
+    service.clock = () -> System.currentTimeMillis() + offsetMs;
+    return service;
+  }
+
+  private static SchemaCacheStats stats(SchemaCacheService service) {
+    return service.stats().get(0);
+  }
+
+  /** 等待背景載入完成 */
+  private static void awaitIdle(SchemaCacheService service) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (stats(service).loading()) {
+      assertTrue(System.currentTimeMillis() < deadline, "background load did not finish");
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  @DisplayName("由 Catalog 載入資料表與欄位 (依定義順序)，之後的請求由快取回應")
+  void loadsCatalogOnceAndServesFromCache() throws Exception {
+    SchemaCacheService service = newService();
+    assertNull(service.peek(1L));
+
+    SchemaIndex schema = service.get(config);
+    assertEquals(List.of("CUSTOMERS", "ORDERS"), schema.tableNames());
+    assertEquals(List.of("ID", "CUSTOMER_ID", "AMOUNT"), schema.columns("ORDERS"));
+    assertEquals(List.of("ID", "NAME"), schema.columns("CUSTOMERS"));
+    // 相同的欄位名稱共用同一個字串
+    assertSame(schema.columns("ORDERS").get(0), schema.columns("CUSTOMERS").get(0));
+
+    assertSame(schema, service.get(config));
+    SchemaCacheStats stats = stats(service);
+    assertEquals(1, stats.loads());
+    assertEquals(1, stats.hits());
+    assertEquals(2, stats.tables());
+    assertEquals(5, stats.columns());
+    assertEquals(6, stats.names()); // ID 只算一次
+    assertFalse(stats.stale());
+    verify(connectionPoolManager, times(CONNECTIONS_PER_LOAD)).getConnection(config);
+
+    // 同一次載入的索引與外鍵供 DBA Provider 使用
+    SchemaMetadata metadata = service.peek(1L);
+    assertEquals("PUBLIC", metadata.currentSchema());
+    assertTrue(metadata.table("CUSTOMERS").orElseThrow().hasIndexOn("ID"));
+    assertEquals(
+        "CUSTOMERS",
+        metadata.table("orders").orElseThrow().foreignKeys().get(0).referencedTable());
+  }
+
+  @Test
+  @DisplayName("同時請求同一個資料庫的 Schema 時只讀取一次 Catalog")
+  void concurrentRequestsShareOneLoad() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    SchemaCacheService service =
+        configure(
+            new SchemaCacheService(loader(), snapshotStore) {
+              @Override
+              SchemaMetadata load(DbConfig config, SchemaMetadata previous) throws SQLException {
+                try {
+                  release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                return super.load(config, previous);
+              }
+            });
+
+    List<Future<SchemaIndex>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+      for (int i = 0; i < 5; i++) {
+        results.add(executor.submit(() -> service.get(config)));
+      }
+      long deadline = System.currentTimeMillis() + 5000;
+      while (service.stats().isEmpty() || stats(service).waits() < 4) {
+        assertTrue(System.currentTimeMillis() < deadline, "requests did not join the load");
+        Thread.sleep(10);
+      }
+      release.countDown();
+      SchemaIndex first = results.get(0).get(5, TimeUnit.SECONDS);
+      for (Future<SchemaIndex> result : results) {
+        assertSame(first, result.get(5, TimeUnit.SECONDS));
+      }
+    }
+    assertEquals(1, stats(service).loads());
+    verify(connectionPoolManager, times(CONNECTIONS_PER_LOAD)).getConnection(config);
+  }
+
+  @Test
+  @DisplayName("超過 TTL 後先回應舊的內容，並在背景重新載入")
+  void servesStaleWhileReloadingAfterTtl() throws Exception {
+    SchemaCacheService service = newService();
+    SchemaIndex before = service.get(config);
+    sql("CREATE TABLE INVOICES (ID INT)");
+
+    offsetMs = 601_000;
+    assertSame(before, service.get(config));
+    awaitIdle(service);
+
+    SchemaIndex after = service.get(config);
+    assertEquals(List.of("ID"), after.columns("INVOICES"));
+    assertEquals(2, stats(service).loads());
+    assertFalse(stats(service).stale());
+  }
+
+  @Test
+  @DisplayName("markStale 後的下一次請求在背景重新載入 (例如執行 DDL 後)")
+  void markStaleReloadsInBackground() throws Exception {
+    SchemaCacheService service = newService();
+    service.get(config);
+    sql("ALTER TABLE CUSTOMERS ADD EMAIL VARCHAR(100)");
+
+    service.markStale(1L);
+    assertTrue(stats(service).stale());
+    assertEquals(List.of("ID", "NAME"), service.get(config).columns("CUSTOMERS"));
+    awaitIdle(service);
+
+    assertEquals(List.of("ID", "NAME", "EMAIL"), service.get(config).columns("CUSTOMERS"));
+  }
+
+  @Test
+  @DisplayName("背景重新載入以快取的內容為基礎增量更新；第一次載入與 refresh 完整讀取")
+  void backgroundReloadIsIncremental() throws Exception {
+    List<SchemaMetadata> previous = new CopyOnWriteArrayList<>();
+    SchemaCacheService service =
+        configure(
+            new SchemaCacheService(loader(), snapshotStore) {
+              @Override
+              SchemaMetadata load(DbConfig config, SchemaMetadata base) throws SQLException {
+                previous.add(base == null ? SchemaMetadata.EMPTY : base);
+                return super.load(config, base);
+              }
+            });
+
+    service.get(config);
+    SchemaMetadata cached = service.peek(1L);
+    service.markStale(1L);
+    service.get(config);
+    awaitIdle(service);
+    service.refresh(config);
+
+    assertEquals(List.of(SchemaMetadata.EMPTY, cached, SchemaMetadata.EMPTY), previous);
+  }
+
+  @Test
+  @DisplayName("refresh 立即重新載入並回傳新的內容")
+  void refreshReloadsImmediately() throws Exception {
+    SchemaCacheService service = newService();
+    service.get(config);
+    sql("DROP TABLE ORDERS");
+    assertNotNull(service.peek(1L).table("ORDERS").orElse(null));
+
+    SchemaIndex schema = service.refresh(config);
+    assertFalse(schema.tables().containsKey("ORDERS"));
+    assertSame(schema, service.get(config));
+    assertEquals(2, stats(service).loads());
+    assertTrue(service.peek(1L).table("ORDERS").isEmpty());
+  }
+
+  @Test
+  @DisplayName("第一次載入失敗時丟出錯誤；背景重新載入失敗時保留舊的內容並延後重試")
+  void failedLoads() throws Exception {
+    AtomicReference<SQLException> failure = new AtomicReference<>();
+    SchemaCacheService service =
+        configure(
+            new SchemaCacheService(loader(), snapshotStore) {
+              @Override
+              SchemaMetadata load(DbConfig config, SchemaMetadata previous) throws SQLException {
+                if (failure.get() != null) {
+                  throw failure.get();
+                }
+                return super.load(config, previous);
+              }
+            });
+
+    failure.set(new SQLException("catalog unavailable", "08006"));
+    SQLException e = assertThrows(SQLException.class, () -> service.get(config));
+    assertEquals("08006", e.getSQLState());
+    assertEquals("catalog unavailable", stats(service).lastError());
+
+    failure.set(null);
+    SchemaIndex schema = service.get(config);
+    assertEquals(2, schema.tableCount());
+
+    failure.set(new SQLException("catalog unavailable"));
+    service.markStale(1L);
+    assertSame(schema, service.get(config));
+    awaitIdle(service);
+    assertSame(schema, service.get(config)); // 重試前不再載入
+    assertEquals(3, stats(service).loads());
+
+    failure.set(null);
+    offsetMs = 31_000;
+    service.get(config);
+    awaitIdle(service);
+    assertEquals(4, stats(service).loads());
+    assertNull(stats(service).lastError());
+  }
+
+  @Test
+  @DisplayName("invalidate 後重新由 Catalog 載入")
+  void invalidateReloads() throws Exception {
+    SchemaCacheService service = newService();
+    service.get(config);
+    service.invalidate(1L);
+    assertTrue(service.stats().isEmpty());
+    assertNull(service.peek(1L));
+    service.get(config);
+    verify(connectionPoolManager, times(2 * CONNECTIONS_PER_LOAD)).getConnection(config);
+  }
+
+  @Test
+  @DisplayName("重新啟動後先回應 Snapshot 的內容，並在背景與 Catalog 比對")
+  void restoresSnapshotAfterRestart(@TempDir Path dir) throws Exception {
+    snapshotStore = snapshotStore(dir);
+    newService().get(config);
+    // Snapshot 在回應之後寫入 (原子地換名)
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!Files.exists(dir.resolve("1.snapshot"))) {
+      assertTrue(System.currentTimeMillis() < deadline, "snapshot was not written");
+      Thread.sleep(10);
+    }
+
+    // 模擬重新啟動: 新的 Store 讀取既有的檔案，Catalog 讀取被擋住
+    CountDownLatch release = new CountDownLatch(1);
+    snapshotStore = snapshotStore(dir);
+    SchemaCacheService service =
+        configure(
+            new SchemaCacheService(loader(), snapshotStore) {
+              @Override
+              SchemaMetadata load(DbConfig config, SchemaMetadata previous) throws SQLException {
+                try {
+                  release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                return super.load(config, previous);
+              }
+            });
+
+    SchemaIndex schema = service.get(config);
+    assertEquals(List.of("CUSTOMERS", "ORDERS"), schema.tableNames());
+    assertEquals(1, service.peek(1L).table("ORDERS").orElseThrow().foreignKeys().size());
+    assertTrue(stats(service).restored());
+    assertTrue(stats(service).stale());
+
+    release.countDown();
+    awaitIdle(service);
+    assertFalse(stats(service).restored());
+    assertFalse(stats(service).stale());
+    assertEquals(1, stats(service).loads());
+
+    // invalidate 一併刪除 Snapshot
+    service.invalidate(1L);
+    assertNull(snapshotStore.read(config));
+  }
+
+  private static SchemaSnapshotStore snapshotStore(Path dir) {
+    SchemaSnapshotStore store = new SchemaSnapshotStore();
+    ReflectionTestUtils.setField(store, "snapshotDir", dir.toString());
+    return store;
+  }
+}
@@ -0,0 +1,157 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.dto.SqlResult;
+import com.sqlconsole.core.model.dto.StatementResult;
+import com.sqlconsole.core.service.codec.ColumnCodecRegistry;
+import com.sqlconsole.core.util.SqlScriptSplitter;
+
+class ScriptRunnerTest {
+
+  private final StatementRegistry registry = new StatementRegistry();
+  private final ScriptRunner runner =
+      new ScriptRunner(
+          new JdbcExecutor(new ObjectMapper(), new ColumnCodecRegistry(), registry), registry);
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    ReflectionTestUtils.setField(runner, "batchSize", 2);
+    conn = DriverManager.getConnection("jdbc:h2:mem:script_test;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+    }
+    conn.setAutoCommit(false);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    conn.rollback();
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP TABLE items");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("連續 DML 以 batch 執行，且不自動 Commit")
+  void testBatchedDml() throws SQLException {
+    List<StatementResult> results =
+        run(
+            "INSERT INTO items VALUES (1); INSERT INTO items VALUES (2);"
+                + " INSERT INTO items VALUES (3); SELECT * FROM items;"
+                + " UPDATE items SET id = id + 10",
+            false);
+
+    assertEquals(5, results.size());
+    assertTrue(results.stream().allMatch(r -> r.status().equals("SUCCESS")));
+    assertEquals(3, results.get(4).updateCount());
+    assertEquals(3, count());
+
+    conn.rollback();
+    assertEquals(0, count());
+  }
+
+  @Test
+  @DisplayName("遇錯即停：標出失敗語句，其後不執行")
+  void testStopOnError() throws SQLException {
+    List<StatementResult> results =
+        run(
+            "INSERT INTO items VALUES (1); INSERT INTO items VALUES (1);"
+                + " INSERT INTO items VALUES (2)",
+            false);
+
+    assertEquals("ERROR", results.get(1).status());
+    assertEquals("SKIPPED", results.get(2).status());
+  }
+
+  @Test
+  @DisplayName("遇錯繼續：失敗的語句以 Savepoint 回滾，其餘保留")
+  void testContinueOnError() throws SQLException {
+    List<StatementResult> results =
+        run(
+            "INSERT INTO items VALUES (1); INSERT INTO items VALUES (1);"
+                + " INSERT INTO items VALUES (2); INSERT INTO items VALUES (3)",
+            true);
+
+    assertEquals("SUCCESS", results.get(0).status());
+    assertEquals("ERROR", results.get(1).status());
+    assertEquals("SUCCESS", results.get(2).status());
+    assertEquals("SUCCESS", results.get(3).status());
+    assertEquals(3, count());
+  }
+
+  @Test
+  @DisplayName("gate 回傳結果的語句不執行 (例如待審核)")
+  void testGate() throws SQLException {
+    List<StatementResult> results =
+        runner.run(
+            conn,
+            SqlScriptSplitter.split("INSERT INTO items VALUES (1); DELETE FROM items"),
+            false,
+            QueryContext.NONE,
+            sql ->
+                sql.startsWith("DELETE")
+                    ? new SqlResult("PENDING", null, "Waiting for approval", null, null)
+                    : null)
+            .results();
+
+    assertEquals("SUCCESS", results.get(0).status());
+    assertEquals("PENDING", results.get(1).status());
+    assertEquals(1, count());
+  }
+
+  @Test
+  @DisplayName("腳本以 COMMIT 結束時沒有未 Commit 的寫入")
+  void testPendingWritesAfterCommit() throws SQLException {
+    ScriptRunner.Outcome committed =
+        outcome("INSERT INTO items VALUES (1); INSERT INTO items VALUES (2); COMMIT");
+    assertFalse(committed.pendingWrites());
+    assertTrue(committed.transactionEnded());
+
+    ScriptRunner.Outcome pending = outcome("COMMIT; INSERT INTO items VALUES (3)");
+    assertTrue(pending.pendingWrites());
+    assertTrue(pending.transactionEnded());
+
+    ScriptRunner.Outcome readOnly = outcome("SELECT * FROM items");
+    assertFalse(readOnly.pendingWrites());
+    assertFalse(readOnly.transactionEnded());
+
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DELETE FROM items");
+    }
+    conn.commit();
+  }
+
+  private List<StatementResult> run(String script, boolean continueOnError)
+      throws SQLException {
+    return runner
+        .run(conn, SqlScriptSplitter.split(script), continueOnError, QueryContext.NONE, sql -> null)
+        .results();
+  }
+
+  private ScriptRunner.Outcome outcome(String script) throws SQLException {
+    return runner.run(conn, SqlScriptSplitter.split(script), false, QueryContext.NONE, sql -> null);
+  }
+
+  private int count() throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+}
@@ -28,9 +28,11 @@ import com.sqlconsole.core.model.dto.SqlResult;
 import com.sqlconsole.core.model.entity.DbConfig;
 import com.sqlconsole.core.model.entity.User;
 import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.enums.ExportFormat;
 import com.sqlconsole.core.repository.DbConfigRepository;
 import com.sqlconsole.core.repository.SqlHistoryRepository;
 import com.sqlconsole.core.repository.UserRepository;
+import com.sqlconsole.core.util.SchemaIndex;
 
 @Slf4j
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +46,15 @@ class SqlExecutorServiceTest {
   @Mock private DbSessionService dbSessionService;
   @Mock private JdbcExecutor jdbcExecutor;
   @Mock private UserRepository userRepository;
+  @Mock private CursorService cursorService;
+  @Mock private ScriptRunner scriptRunner;
+  @Mock private CsvImporter csvImporter;
+  @Mock private ResultExporter resultExporter;
+  @Mock private ResultCache resultCache;
+  @Mock private AdmissionControl admissionControl;
+  @Mock private IdleTransactionWatchdog idleTransactionWatchdog;
+  @Mock private SchemaCacheService schemaCacheService;
+  @Mock private QueryJobService queryJobService;
   @Mock private List<DbaProvider> dbaProviders;
 
   @Mock private HttpSession session;
@@ -63,11 +74,13 @@ class SqlExecutorServiceTest {
     when(mockProvider.supports("POSTGRESQL")).thenReturn(true);
 
     DbaReport expectedReport = new DbaReport("Plan Content", List.of("Suggestion 1"), 100);
-    when(mockProvider.getExecutionPlan(connection, sql)).thenReturn(expectedReport);
+    when(mockProvider.getExecutionPlan(connection, sql, null)).thenReturn(expectedReport);
 
     // Instantiate Service Manually to inject real list
     SqlExecutorService service = new SqlExecutorService(
             auditService, dbConfigRepo, historyRepo, dbSessionService, jdbcExecutor, userRepository,
+            cursorService, scriptRunner, csvImporter, resultExporter, resultCache,
+            admissionControl, idleTransactionWatchdog, schemaCacheService, queryJobService,
             List.of(mockProvider)
     );
 
@@ -94,6 +107,8 @@ class SqlExecutorServiceTest {
     // Instantiate Service Manually
     SqlExecutorService service = new SqlExecutorService(
             auditService, dbConfigRepo, historyRepo, dbSessionService, jdbcExecutor, userRepository,
+            cursorService, scriptRunner, csvImporter, resultExporter, resultCache,
+            admissionControl, idleTransactionWatchdog, schemaCacheService, queryJobService,
             List.of(mockProvider)
     );
 
@@ -153,13 +168,17 @@ class SqlExecutorServiceTest {
     when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
 
     when(dbConfigRepo.findById(dbId)).thenReturn(Optional.of(mockConfig));
-    when(dbSessionService.getConnection(session, mockConfig)).thenReturn(connection);
+    // 唯讀查詢可由 Replica 執行
+    when(dbSessionService.getReadConnection(session, mockConfig)).thenReturn(connection);
+    when(dbSessionService.nodeOf(connection)).thenReturn("replica-1");
 
     SqlResult expectedResult =
         new SqlResult(
             "SUCCESS", null, "Query returned 1 rows", List.of("id"), List.of(Map.of("id", 100)));
 
-    when(jdbcExecutor.executeSql(connection, sql)).thenReturn(expectedResult);
+    when(cursorService.executeFirstPage(
+            eq(session), eq(mockConfig), eq(connection), eq(sql), any(QueryContext.class)))
+        .thenReturn(expectedResult);
 
     // Act
     SqlResult result = sqlExecutorService.processRequest(dbId, sql, "user1", "ROLE_USER", session);
@@ -171,8 +190,11 @@ class SqlExecutorServiceTest {
     assertEquals("SUCCESS", result.status());
     assertEquals(1, result.rows().size());
     assertEquals(100, result.rows().get(0).get("id"));
+    assertEquals("replica-1", result.node());
 
-    verify(jdbcExecutor).executeSql(connection, sql);
+    verify(cursorService)
+        .executeFirstPage(
+            eq(session), eq(mockConfig), eq(connection), eq(sql), any(QueryContext.class));
     verify(historyRepo).save(any());
   }
 
@@ -194,7 +216,9 @@ class SqlExecutorServiceTest {
     when(dbConfigRepo.findById(dbId)).thenReturn(Optional.of(mockConfig));
     when(dbSessionService.getConnection(session, mockConfig)).thenReturn(connection);
 
-    when(jdbcExecutor.executeSql(connection, sql)).thenThrow(new SQLException("Syntax Error"));
+    when(cursorService.executeFirstPage(
+            eq(session), eq(mockConfig), eq(connection), eq(sql), any(QueryContext.class)))
+        .thenThrow(new SQLException("Syntax Error"));
     when(connection.getAutoCommit()).thenReturn(false);
 
     // Act
@@ -215,6 +239,142 @@ class SqlExecutorServiceTest {
     verify(connection).rollback();
   }
 
+  @Test
+  @DisplayName("DML 執行後清除該連線的查詢快取，並固定連線直到交易結束")
+  void testProcessRequest_WriteInvalidatesResultCache() throws SQLException {
+    Long dbId = 1L;
+    String sql = "UPDATE users SET active = false";
+    DbConfig mockConfig = new DbConfig();
+    mockConfig.setId(dbId);
+    mockConfig.setName("TestDB");
+
+    when(dbConfigRepo.findById(dbId)).thenReturn(Optional.of(mockConfig));
+    when(dbSessionService.getConnection(session, mockConfig)).thenReturn(connection);
+    when(cursorService.executeFirstPage(
+            eq(session), eq(mockConfig), eq(connection), eq(sql), any(QueryContext.class)))
+        .thenReturn(new SqlResult("SUCCESS", null, "Affected rows: 3", List.of(), List.of()));
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    SqlResult result = sqlExecutorService.processRequest(dbId, sql, "admin", "ROLE_ADMIN", session);
+
+    assertEquals("SUCCESS", result.status());
+    verify(resultCache).invalidate(dbId);
+    verify(idleTransactionWatchdog).takeRolledBack(session.getId(), dbId);
+    verify(dbSessionService).markInTransaction(session, dbId);
+    verify(dbSessionService, never()).markSessionStateChanged(session, dbId);
+    verify(dbSessionService).release(session, dbId, connection);
+  }
+
+  @Test
+  @DisplayName("SET search_path 等改變 Session 狀態的語句，連線在交易結束後不歸還連線池")
+  void testProcessRequest_SessionStateChange() throws SQLException {
+    Long dbId = 1L;
+    String sql = "SET search_path TO other";
+    DbConfig mockConfig = new DbConfig();
+    mockConfig.setId(dbId);
+    mockConfig.setName("TestDB");
+
+    when(dbConfigRepo.findById(dbId)).thenReturn(Optional.of(mockConfig));
+    when(dbSessionService.getConnection(session, mockConfig)).thenReturn(connection);
+    when(cursorService.executeFirstPage(
+            eq(session), eq(mockConfig), eq(connection), eq(sql), any(QueryContext.class)))
+        .thenReturn(new SqlResult("SUCCESS", null, "Affected rows: 0", List.of(), List.of()));
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    sqlExecutorService.processRequest(dbId, sql, "admin", "ROLE_ADMIN", session);
+
+    verify(dbSessionService).markInTransaction(session, dbId);
+    verify(dbSessionService).markSessionStateChanged(session, dbId);
+  }
+
+  @Test
+  @DisplayName("排隊等待並行名額期間被取消的工作，取得名額後不執行")
+  void testProcessRequest_CancelledWhileQueued() throws SQLException {
+    DbConfig mockConfig = new DbConfig();
+    mockConfig.setId(1L);
+    mockConfig.setName("TestDB");
+    when(dbConfigRepo.findById(1L)).thenReturn(Optional.of(mockConfig));
+    when(session.getId()).thenReturn("S1");
+    when(queryJobService.isCancelRequested("S1", "job-1")).thenReturn(true);
+
+    SqlResult result =
+        sqlExecutorService.processRequest(
+            1L, "SELECT * FROM users", "admin", "ROLE_ADMIN", session, "job-1");
+
+    assertEquals("ERROR", result.status());
+    verify(admissionControl).acquire(mockConfig, "admin");
+    verify(dbSessionService, never()).getReadConnection(any(), any());
+    verifyNoInteractions(cursorService);
+  }
+
+  @Test
+  @DisplayName("串流模式拒絕所有非唯讀語句 (含 MERGE、CALL、WITH ... DELETE)")
+  void testStreamRequest_RejectsWrites() {
+    DbConfig mockConfig = new DbConfig();
+    mockConfig.setId(1L);
+    when(dbConfigRepo.findById(1L)).thenReturn(Optional.of(mockConfig));
+
+    for (String sql :
+        List.of(
+            "MERGE INTO t USING s ON (t.id = s.id) WHEN MATCHED THEN DELETE",
+            "CALL purge()",
+            "BEGIN DELETE FROM t; END;",
+            "WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d")) {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> sqlExecutorService.streamRequest(1L, sql, "admin", "ROLE_ADMIN", session, null));
+    }
+    verifyNoInteractions(dbSessionService);
+  }
+
+  @Test
+  @DisplayName("匯出拒絕非唯讀語句，不執行也不寫入歷史")
+  void testExportRequest_RejectsWrites() {
+    DbConfig mockConfig = new DbConfig();
+    mockConfig.setId(1L);
+    when(dbConfigRepo.findById(1L)).thenReturn(Optional.of(mockConfig));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            sqlExecutorService.exportRequest(
+                1L,
+                "MERGE INTO t USING s ON (t.id = s.id) WHEN MATCHED THEN DELETE",
+                "admin",
+                "ROLE_ADMIN",
+                session,
+                null,
+                ExportFormat.CSV,
+                false));
+    verifyNoInteractions(dbSessionService, resultExporter, historyRepo);
+  }
+
+  @Test
+  @DisplayName("命中查詢快取時不排隊也不取得連線")
+  void testProcessRequest_CacheHitSkipsAdmissionAndConnection() {
+    Long dbId = 1L;
+    String sql = "SELECT * FROM users";
+    DbConfig mockConfig = new DbConfig();
+    mockConfig.setId(dbId);
+    mockConfig.setName("TestDB");
+
+    when(dbConfigRepo.findById(dbId)).thenReturn(Optional.of(mockConfig));
+    when(resultCache.isEnabled(mockConfig, sql)).thenReturn(true);
+    when(resultCache.get(mockConfig, sql))
+        .thenReturn(
+            Optional.of(
+                new SqlResult(
+                    "SUCCESS", null, "Query returned 1 rows", List.of("id"), List.of())));
+
+    SqlResult result = sqlExecutorService.processRequest(dbId, sql, "admin", "ROLE_ADMIN", session);
+
+    assertEquals("SUCCESS", result.status());
+    assertEquals("Query returned 1 rows (cached)", result.message());
+    verifyNoInteractions(admissionControl, cursorService);
+    verify(dbSessionService, never()).getReadConnection(any(), any());
+    verify(dbSessionService, never()).getConnection(any(), any());
+  }
+
   @Test
   @DisplayName("測試 getTableSchema - 應回傳表格與欄位對應")
   void testGetTableSchema() throws SQLException {
@@ -235,60 +395,23 @@ class SqlExecutorServiceTest {
     when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
 
     when(dbConfigRepo.findById(dbId)).thenReturn(Optional.of(mockConfig));
-    when(dbSessionService.getConnection(session, mockConfig)).thenReturn(connection);
-
-    // Mock JDBC Result (Columns)
-    // Expected Query: SELECT table_name, column_name ...
-    // Use LinkedHashMap to ensure order for test stability, as the service relies on value order
-    Map<String, Object> row1 = new java.util.LinkedHashMap<>();
-    row1.put("table_name", "users");
-    row1.put("column_name", "id");
-
-    Map<String, Object> row2 = new java.util.LinkedHashMap<>();
-    row2.put("table_name", "users");
-    row2.put("column_name", "username");
 
-    Map<String, Object> row3 = new java.util.LinkedHashMap<>();
-    row3.put("table_name", "orders");
-    row3.put("column_name", "id");
-
-    SqlResult mockResult =
-        new SqlResult(
-            "SUCCESS", null, "OK", List.of("table_name", "column_name"), List.of(row1, row2, row3));
-
-    when(jdbcExecutor.executeSql(eq(connection), contains("information_schema")))
-        .thenReturn(mockResult);
+    // Schema 由共用的快取載入 (見 SchemaCacheServiceTest)
+    Map<String, List<String>> cached = new java.util.LinkedHashMap<>();
+    cached.put("users", List.of("id", "username"));
+    cached.put("orders", List.of("id"));
+    when(schemaCacheService.get(mockConfig)).thenReturn(new SchemaIndex(cached));
 
     // Act
     Map<String, List<String>> schema = sqlExecutorService.getTableSchema(dbId, session, auth);
 
     // Assert
     assertEquals(2, schema.size());
-    // Map order is not guaranteed, so we check carefully
-    if (schema.containsKey("users")) {
-      assertEquals(2, schema.get("users").size());
-      // Since stream collection doesn't guarantee order unless specifically collected that way,
-      // we should check for containment or ensure the mock result order is preserved.
-      // The service code uses Collectors.mapping(..., toList()), which preserves encounter order.
-      // So if the mock result has id then username, the list should match.
-      // However, verify if 'id' and 'username' are swapped in failure.
-      // Let's print out what we got if it fails, or just assert content.
-      List<String> userCols = schema.get("users");
-      if (userCols.get(0).equals("id")) {
-        assertEquals("id", userCols.get(0));
-        assertEquals("username", userCols.get(1));
-      } else {
-        assertEquals("username", userCols.get(0));
-        assertEquals("id", userCols.get(1));
-      }
-    } else {
-      throw new AssertionError("Schema should contain users");
-    }
-
-    if (schema.containsKey("orders")) {
-      assertEquals(1, schema.get("orders").size());
-    } else {
-      throw new AssertionError("Schema should contain orders");
-    }
+    assertEquals(List.of("id", "username"), schema.get("users"));
+    assertEquals(List.of("id"), schema.get("orders"));
+    // 分段取得：先取得資料表名稱，再取得單一資料表的欄位
+    assertEquals(List.of("users", "orders"), sqlExecutorService.getTableNames(dbId, auth));
+    assertEquals(
+        List.of("id", "username"), sqlExecutorService.getTableColumns(dbId, "USERS", auth));
   }
 }
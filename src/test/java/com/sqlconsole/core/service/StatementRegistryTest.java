@@ -0,0 +1,52 @@
+package com.sqlconsole.core.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StatementRegistryTest {
+
+  private final StatementRegistry registry = new StatementRegistry();
+
+  @Test
+  @DisplayName("依 Session + requestId 取消執行中的 Statement")
+  void testCancel() throws SQLException {
+    Statement stmt = mock(Statement.class);
+    QueryContext ctx = new QueryContext("S1", "R1", 0);
+    registry.register(ctx, stmt);
+
+    assertFalse(registry.cancel("S2", "R1")); // 其他 Session 不能取消
+    assertTrue(registry.cancel("S1", "R1"));
+    verify(stmt, times(1)).cancel();
+
+    registry.unregister(ctx, stmt);
+    assertFalse(registry.cancel("S1", "R1"));
+    assertEquals(0, registry.inFlightCount());
+  }
+
+  @Test
+  @DisplayName("沒有 requestId 的執行不登記")
+  void testNotCancellable() {
+    registry.register(QueryContext.NONE, mock(Statement.class));
+    registry.register(new QueryContext("S1", " ", 0), mock(Statement.class));
+    assertEquals(0, registry.inFlightCount());
+  }
+
+  @Test
+  @DisplayName("unregister 只移除同一個 Statement")
+  void testUnregisterKeepsNewerStatement() throws SQLException {
+    QueryContext ctx = new QueryContext("S1", "R1", 0);
+    Statement older = mock(Statement.class);
+    Statement newer = mock(Statement.class);
+    registry.register(ctx, older);
+    registry.register(ctx, newer);
+
+    registry.unregister(ctx, older);
+    assertTrue(registry.cancel("S1", "R1"));
+    verify(newer).cancel();
+  }
+}
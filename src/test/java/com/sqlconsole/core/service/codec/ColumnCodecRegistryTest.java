@@ -0,0 +1,144 @@
+package com.sqlconsole.core.service.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.columnar.ColumnarRows;
+import com.sqlconsole.core.model.columnar.DoubleVector;
+import com.sqlconsole.core.model.columnar.FloatVector;
+import com.sqlconsole.core.model.columnar.LongVector;
+import com.sqlconsole.core.model.columnar.StringVector;
+import com.sqlconsole.core.model.columnar.TimestampVector;
+import com.sqlconsole.core.model.enums.DbType;
+
+class ColumnCodecRegistryTest {
+
+  private final ColumnCodecRegistry registry = new ColumnCodecRegistry();
+
+  @Test
+  @DisplayName("資料庫專屬型別優先於通用 JDBC 型別")
+  void testResolve() {
+    assertSame(ColumnCodecs.LONG, registry.resolve(null, Types.BIGINT, 19, 0));
+    assertSame(ColumnCodecs.LONG, registry.resolve(DbType.ORACLE, Types.NUMERIC, 10, 0));
+    assertSame(ColumnCodecs.DECIMAL, registry.resolve(DbType.ORACLE, Types.NUMERIC, 10, 2));
+    assertSame(ColumnCodecs.DECIMAL, registry.resolve(DbType.ORACLE, Types.NUMERIC, 0, 0));
+    assertSame(
+        ColumnCodecs.OFFSET_TIMESTAMP,
+        registry.resolve(DbType.ORACLE, ColumnCodecRegistry.ORACLE_TIMESTAMPTZ, 0, 0));
+    assertSame(ColumnCodecs.STRING, registry.resolve(DbType.POSTGRESQL, Types.OTHER, 0, 0));
+    assertSame(ColumnCodecs.OBJECT, registry.resolve(DbType.MYSQL, Types.OTHER, 0, 0));
+  }
+
+  @Test
+  @DisplayName("MySQL/MariaDB 的 UNSIGNED 整數不以有號型別讀取")
+  void testResolveUnsigned() {
+    assertSame(ColumnCodecs.LONG, registry.resolve(DbType.MYSQL, Types.BIGINT, "BIGINT", 19, 0));
+    assertSame(
+        ColumnCodecs.OBJECT,
+        registry.resolve(DbType.MYSQL, Types.BIGINT, "BIGINT UNSIGNED", 20, 0));
+    assertSame(ColumnCodecs.OBJECT, registry.resolve(DbType.MARIADB, Types.BIGINT, null, 20, 0));
+    assertSame(
+        ColumnCodecs.LONG,
+        registry.resolve(DbType.MARIADB, Types.INTEGER, "INTEGER UNSIGNED", 10, 0));
+    assertSame(ColumnCodecs.INT, registry.resolve(DbType.MYSQL, Types.INTEGER, "INT", 10, 0));
+    assertSame(
+        ColumnCodecs.LONG,
+        registry.resolve(DbType.POSTGRESQL, Types.BIGINT, "BIGINT UNSIGNED", 20, 0));
+  }
+
+  @Test
+  @DisplayName("REAL 與 BINARY_FLOAT 以單精度讀取，不放大為 double 的誤差")
+  void testFloat() throws Exception {
+    assertSame(ColumnCodecs.FLOAT, registry.resolve(null, Types.REAL, 0, 0));
+    assertSame(
+        ColumnCodecs.FLOAT,
+        registry.resolve(DbType.ORACLE, ColumnCodecRegistry.ORACLE_BINARY_FLOAT, 0, 0));
+    assertSame(ColumnCodecs.DOUBLE, registry.resolve(null, Types.DOUBLE, 0, 0));
+
+    try (Connection conn =
+            DriverManager.getConnection("jdbc:h2:mem:codec_float;DB_CLOSE_DELAY=-1", "sa", "");
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT CAST(1.1 AS REAL) AS r")) {
+      RowDecoder decoder = registry.decoderFor(rs.getMetaData(), DbType.POSTGRESQL);
+      RowDecoder.Page page = decoder.newPage();
+      assertTrue(rs.next());
+      page.decodeRow(rs);
+      ColumnarRows rows = page.build();
+
+      assertInstanceOf(FloatVector.class, rows.vectors().get(0));
+      assertEquals(1.1f, rows.get(0).get("R"));
+      assertEquals(
+          "[1.1]", new ObjectMapper().valueToTree(rows.vectors().get(0)).get("values").toString());
+    }
+  }
+
+  @Test
+  @DisplayName("TIMESTAMP WITH TIME ZONE 保留時區位移")
+  void testOffsetTimestamp() throws SQLException {
+    try (Connection conn =
+            DriverManager.getConnection("jdbc:h2:mem:codec_tz_test;DB_CLOSE_DELAY=-1", "sa", "");
+        Statement stmt = conn.createStatement();
+        ResultSet rs =
+            stmt.executeQuery(
+                "SELECT TIMESTAMP WITH TIME ZONE '2024-01-01 08:00:00.123456+08:00' AS ts")) {
+      RowDecoder decoder = registry.decoderFor(rs.getMetaData(), DbType.POSTGRESQL);
+      assertTrue(rs.next());
+      assertEquals("2024-01-01T08:00:00.123456+08:00", decoder.read(rs, 0));
+    }
+  }
+
+  @Test
+  @DisplayName("RowDecoder 以 typed getter 解碼為對應的欄位向量")
+  void testDecodePage() throws SQLException {
+    try (Connection conn =
+            DriverManager.getConnection("jdbc:h2:mem:codec_test;DB_CLOSE_DELAY=-1", "sa", "");
+        Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          "CREATE TABLE t (id INT, big BIGINT, amount DOUBLE, price NUMERIC(10,2),"
+              + " name VARCHAR(20), created TIMESTAMP)");
+      stmt.execute(
+          "INSERT INTO t VALUES (1, 10, 1.5, 9.99, 'a', TIMESTAMP '2024-01-01 00:00:00'),"
+              + " (NULL, NULL, NULL, NULL, NULL, NULL)");
+
+      try (ResultSet rs = stmt.executeQuery("SELECT * FROM t ORDER BY id NULLS LAST")) {
+        RowDecoder decoder = registry.decoderFor(rs.getMetaData(), DbType.POSTGRESQL);
+        RowDecoder.Page page = decoder.newPage();
+        while (rs.next()) {
+          page.decodeRow(rs);
+        }
+        ColumnarRows rows = page.build();
+
+        assertEquals(2, rows.size());
+        assertInstanceOf(LongVector.class, rows.vectors().get(0));
+        assertInstanceOf(LongVector.class, rows.vectors().get(1));
+        assertInstanceOf(DoubleVector.class, rows.vectors().get(2));
+        assertInstanceOf(StringVector.class, rows.vectors().get(4));
+        assertInstanceOf(TimestampVector.class, rows.vectors().get(5));
+
+        Map<String, Object> first = rows.get(0);
+        assertEquals(1, first.get("ID"));
+        assertEquals(10L, first.get("BIG"));
+        assertEquals(1.5, first.get("AMOUNT"));
+        assertEquals(new BigDecimal("9.99"), first.get("PRICE"));
+        assertEquals("a", first.get("NAME"));
+
+        // wasNull() 判斷的 null 不應被讀成 0
+        for (Object value : rows.get(1).values()) {
+          assertNull(value);
+        }
+      } finally {
+        stmt.execute("DROP TABLE t");
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.sqlconsole.core.service.metadata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+
+class CatalogSqlDialectTest {
+
+  /** 資料表與欄位讀取 H2 的 information_schema；索引、外鍵與變更標記以固定的列模擬 Catalog View 的結果 */
+  private static final CatalogSqlDialect DIALECT =
+      new CatalogSqlDialect(
+          Set.of(),
+          "SELECT CURRENT_SCHEMA",
+          "SELECT table_name, table_type FROM information_schema.tables"
+              + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!' ORDER BY table_name",
+          "SELECT table_name, column_name, data_type, character_maximum_length, numeric_scale,"
+              + " is_nullable FROM information_schema.columns"
+              + " WHERE table_schema = ? AND table_name LIKE ? ESCAPE '!'"
+              + " ORDER BY table_name, ordinal_position",
+          "SELECT * FROM (VALUES"
+              + " ('ORDERS', 'IDX_ORDERS_CUSTOMER', 0, 'CUSTOMER_ID'),"
+              + " ('ORDERS', 'IDX_ORDERS_CUSTOMER', 0, 'CREATED_AT'),"
+              + " ('ORDERS', 'IDX_ORDERS_EXPR', 0, NULL),"
+              + " ('CUSTOMERS  ', 'PK_CUSTOMERS', 1, 'ID')) AS t(a, b, c, d)"
+              + " WHERE CAST(? AS VARCHAR) = 'PUBLIC' AND a LIKE ? ESCAPE '!'",
+          "SELECT * FROM (VALUES"
+              + " ('ORDER_ITEMS', 'FK_ITEMS_ORDER', 'ORDER_ID', 'PUBLIC', 'ORDERS', 'ID'),"
+              + " ('ORDER_ITEMS', 'FK_ITEMS_ORDER', 'LINE_NO', 'PUBLIC', 'ORDERS', 'LINE'))"
+              + " AS t(a, b, c, d, e, f)"
+              + " WHERE CAST(? AS VARCHAR) = 'PUBLIC' AND a LIKE ? ESCAPE '!'",
+          "SELECT * FROM (VALUES ('ORDERS', '20260101'), ('ORDER_NOTES', '20260102')) AS t(a, b)"
+              + " WHERE CAST(? AS VARCHAR) = 'PUBLIC'") {};
+
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    conn = DriverManager.getConnection("jdbc:h2:mem:catalog_sql_test;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE ORDERS (ID INT NOT NULL, NOTE VARCHAR(200))");
+      stmt.execute("CREATE VIEW ORDER_NOTES AS SELECT NOTE FROM ORDERS");
+      stmt.execute("CREATE TABLE ORDERXNOTES (ID INT)");
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP ALL OBJECTS");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("每種資料一次查詢讀取整個 Schema")
+  void testTablesAndColumns() throws SQLException {
+    assertEquals("PUBLIC", DIALECT.currentSchema(conn));
+    assertEquals(
+        Map.of("ORDERS", "TABLE", "ORDER_NOTES", "VIEW", "ORDERXNOTES", "TABLE"),
+        DIALECT.tables(conn, "PUBLIC", null, 100));
+
+    Map<String, List<ColumnMetadata>> columns = DIALECT.columns(conn, "PUBLIC", null, 100);
+    List<ColumnMetadata> orders = columns.get("ORDERS");
+    assertEquals(List.of("ID", "NOTE"), orders.stream().map(ColumnMetadata::name).toList());
+    assertFalse(orders.get(0).nullable());
+    assertEquals(200, orders.get(1).size());
+    assertTrue(orders.get(1).nullable());
+    assertEquals(Map.of(), DIALECT.tables(conn, "MISSING", null, 100));
+  }
+
+  @Test
+  @DisplayName("索引與外鍵依名稱組合多個欄位；略過沒有欄位名稱的運算式索引，並去除補齊的空白")
+  void testIndexesAndForeignKeys() throws SQLException {
+    Map<String, List<IndexMetadata>> indexes = DIALECT.indexes(conn, "PUBLIC", null, 100);
+    assertEquals(
+        List.of(
+            new IndexMetadata("IDX_ORDERS_CUSTOMER", false, List.of("CUSTOMER_ID", "CREATED_AT"))),
+        indexes.get("ORDERS"));
+    assertEquals(
+        List.of(new IndexMetadata("PK_CUSTOMERS", true, List.of("ID"))), indexes.get("CUSTOMERS"));
+
+    assertEquals(
+        List.of(
+            new ForeignKeyMetadata(
+                "FK_ITEMS_ORDER",
+                List.of("ORDER_ID", "LINE_NO"),
+                "PUBLIC",
+                "ORDERS",
+                List.of("ID", "LINE"))),
+        DIALECT.foreignKeys(conn, "PUBLIC", null, 100).get("ORDER_ITEMS"));
+    assertEquals(Map.of(), DIALECT.foreignKeys(conn, "OTHER", null, 100));
+  }
+
+  @Test
+  @DisplayName("指定資料表時以跳脫後的 LIKE 模式只讀取該資料表；變更標記只綁定 Schema")
+  void testSingleTableAndChangeMarkers() throws SQLException {
+    assertEquals(Map.of("ORDER_NOTES", "VIEW"), DIALECT.tables(conn, "PUBLIC", "ORDER_NOTES", 100));
+    assertEquals(
+        List.of("NOTE"),
+        DIALECT.columns(conn, "PUBLIC", "ORDER_NOTES", 100).get("ORDER_NOTES").stream()
+            .map(ColumnMetadata::name)
+            .toList());
+    assertEquals(Set.of("ORDERS"), DIALECT.indexes(conn, "PUBLIC", "ORDERS", 100).keySet());
+    assertEquals(Map.of(), DIALECT.foreignKeys(conn, "PUBLIC", "ORDERS", 100));
+
+    assertEquals(
+        Map.of("ORDERS", "20260101", "ORDER_NOTES", "20260102"),
+        DIALECT.changeMarkers(conn, "PUBLIC", 100));
+    assertEquals("A!_B!%C!!", CatalogSqlDialect.likeLiteral("A_B%C!"));
+  }
+
+  @Test
+  void testValueConversions() {
+    assertEquals("VIEW", CatalogSqlDialect.tableType("SYSTEM VIEW"));
+    assertEquals("TABLE", CatalogSqlDialect.tableType("BASE TABLE"));
+    assertFalse(CatalogSqlDialect.nullable("N"));
+    assertTrue(CatalogSqlDialect.nullable("YES"));
+    assertEquals("ORDERS", CatalogSqlDialect.trim("ORDERS   "));
+  }
+}
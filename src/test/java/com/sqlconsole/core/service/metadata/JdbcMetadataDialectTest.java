@@ -0,0 +1,128 @@
+package com.sqlconsole.core.service.metadata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+
+class JdbcMetadataDialectTest {
+
+  private static final String URL = "jdbc:h2:mem:jdbc_metadata_test;DB_CLOSE_DELAY=-1";
+
+  private final JdbcMetadataDialect dialect = new JdbcMetadataDialect();
+  private Connection conn;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    conn = DriverManager.getConnection(URL, "sa", "");
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE CUSTOMERS (ID INT PRIMARY KEY, NAME VARCHAR(50) NOT NULL)");
+      stmt.execute(
+          "CREATE TABLE ORDERS (ID INT PRIMARY KEY, CUSTOMER_ID INT, AMOUNT DECIMAL(10, 2),"
+              + " CONSTRAINT FK_ORDERS_CUSTOMER FOREIGN KEY (CUSTOMER_ID)"
+              + " REFERENCES CUSTOMERS (ID))");
+      stmt.execute("CREATE UNIQUE INDEX IDX_CUSTOMERS_NAME ON CUSTOMERS (NAME)");
+      stmt.execute("CREATE INDEX IDX_ORDERS_CUSTOMER_AMOUNT ON ORDERS (CUSTOMER_ID, AMOUNT)");
+      stmt.execute("CREATE VIEW BIG_ORDERS AS SELECT * FROM ORDERS WHERE AMOUNT > 100");
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP ALL OBJECTS");
+    }
+    conn.close();
+  }
+
+  @Test
+  @DisplayName("讀取目前的 Schema 與其中的資料表及 View")
+  void testTables() throws SQLException {
+    assertEquals("PUBLIC", dialect.currentSchema(conn));
+    assertEquals(
+        Map.of("CUSTOMERS", "TABLE", "ORDERS", "TABLE", "BIG_ORDERS", "VIEW"),
+        dialect.tables(conn, "PUBLIC", null, 100));
+  }
+
+  @Test
+  @DisplayName("欄位依定義順序，含長度、小數位數與可否為 NULL")
+  void testColumns() throws SQLException {
+    Map<String, List<ColumnMetadata>> columns = dialect.columns(conn, "PUBLIC", null, 100);
+
+    List<ColumnMetadata> orders = columns.get("ORDERS");
+    assertEquals(
+        List.of("ID", "CUSTOMER_ID", "AMOUNT"), orders.stream().map(ColumnMetadata::name).toList());
+    assertEquals(10, orders.get(2).size());
+    assertEquals(2, orders.get(2).scale());
+    assertTrue(orders.get(2).nullable());
+
+    ColumnMetadata name = columns.get("CUSTOMERS").get(1);
+    assertEquals(50, name.size());
+    assertFalse(name.nullable());
+    assertEquals(3, columns.get("BIG_ORDERS").size());
+  }
+
+  @Test
+  @DisplayName("索引依欄位順序組合 (含 H2 為主鍵與外鍵自動建立的索引)")
+  void testIndexes() throws SQLException {
+    Map<String, List<IndexMetadata>> indexes = dialect.indexes(conn, "PUBLIC", null, 100);
+
+    assertTrue(
+        indexes
+            .get("CUSTOMERS")
+            .contains(new IndexMetadata("IDX_CUSTOMERS_NAME", true, List.of("NAME"))));
+    assertTrue(
+        indexes
+            .get("ORDERS")
+            .contains(
+                new IndexMetadata(
+                    "IDX_ORDERS_CUSTOMER_AMOUNT", false, List.of("CUSTOMER_ID", "AMOUNT"))));
+    assertTrue(
+        indexes.get("ORDERS").stream()
+            .anyMatch(i -> i.unique() && i.columns().equals(List.of("ID"))));
+  }
+
+  @Test
+  @DisplayName("外鍵含參照的 Schema、資料表與欄位")
+  void testForeignKeys() throws SQLException {
+    Map<String, List<ForeignKeyMetadata>> foreignKeys =
+        dialect.foreignKeys(conn, "PUBLIC", null, 100);
+
+    assertEquals(
+        List.of(
+            new ForeignKeyMetadata(
+                "FK_ORDERS_CUSTOMER",
+                List.of("CUSTOMER_ID"),
+                "PUBLIC",
+                "CUSTOMERS",
+                List.of("ID"))),
+        foreignKeys.get("ORDERS"));
+    assertNull(foreignKeys.get("CUSTOMERS"));
+  }
+
+  @Test
+  @DisplayName("指定資料表時只讀取該資料表 (名稱中的 _ 不視為萬用字元)")
+  void testSingleTable() throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE BIGXORDERS (ID INT)");
+    }
+    assertEquals(Map.of("BIG_ORDERS", "VIEW"), dialect.tables(conn, "PUBLIC", "BIG_ORDERS", 100));
+    assertEquals(Set.of("BIG_ORDERS"), dialect.columns(conn, "PUBLIC", "BIG_ORDERS", 100).keySet());
+    assertEquals(Set.of("ORDERS"), dialect.indexes(conn, "PUBLIC", "ORDERS", 100).keySet());
+    assertEquals(Map.of(), dialect.foreignKeys(conn, "PUBLIC", "CUSTOMERS", 100));
+    assertEquals(Map.of(), dialect.tables(conn, "PUBLIC", "MISSING", 100));
+    assertNull(dialect.changeMarkers(conn, "PUBLIC", 100));
+  }
+}
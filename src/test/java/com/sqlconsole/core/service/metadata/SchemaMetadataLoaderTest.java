@@ -0,0 +1,204 @@
+package com.sqlconsole.core.service.metadata;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.model.metadata.TableMetadata;
+import com.sqlconsole.core.service.ConnectionPoolManager;
+
+class SchemaMetadataLoaderTest {
+
+  private static final String URL = "jdbc:h2:mem:metadata_loader_test;DB_CLOSE_DELAY=-1";
+
+  private final ConnectionPoolManager connectionPoolManager = mock(ConnectionPoolManager.class);
+  private final DbConfig config = new DbConfig();
+  private Connection keepAlive;
+
+  /** 讀取 PUBLIC 與 SALES 兩個 Schema 的 PostgreSQL 替身 */
+  private static class TwoSchemaDialect extends JdbcMetadataDialect {
+    @Override
+    public Set<DbType> dbTypes() {
+      return Set.of(DbType.POSTGRESQL);
+    }
+
+    @Override
+    public List<String> schemas(Connection conn, String currentSchema) {
+      return List.of(currentSchema, "SALES");
+    }
+  }
+
+  /** 由測試指定變更標記，並記錄逐一讀取的資料表 */
+  private static class MarkedDialect extends TwoSchemaDialect {
+    private final Map<String, Map<String, String>> markers = new ConcurrentHashMap<>();
+    private final List<String> tableReads = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Map<String, String> changeMarkers(Connection conn, String schema, int fetchSize) {
+      return markers.get(schema);
+    }
+
+    @Override
+    public Map<String, List<ColumnMetadata>> columns(
+        Connection conn, String schema, String table, int fetchSize) throws SQLException {
+      if (table != null) {
+        tableReads.add(schema + "." + table);
+      }
+      return super.columns(conn, schema, table, fetchSize);
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    keepAlive = DriverManager.getConnection(URL, "sa", "");
+    sql("CREATE TABLE ORDERS (ID INT PRIMARY KEY, STATUS VARCHAR(10))");
+    sql("CREATE SCHEMA SALES");
+    sql("CREATE TABLE SALES.INVOICES (ID INT, ORDER_ID INT REFERENCES PUBLIC.ORDERS (ID))");
+    config.setId(1L);
+    config.setDbType(DbType.POSTGRESQL);
+    when(connectionPoolManager.getConnection(config))
+        .thenAnswer(inv -> DriverManager.getConnection(URL, "sa", ""));
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    sql("DROP ALL OBJECTS");
+    keepAlive.close();
+  }
+
+  private void sql(String sql) throws SQLException {
+    try (Statement stmt = keepAlive.createStatement()) {
+      stmt.execute(sql);
+    }
+  }
+
+  private SchemaMetadataLoader loader(MetadataDialect... dialects) {
+    MetadataDialectRegistry registry = new MetadataDialectRegistry(List.of(dialects));
+    SchemaMetadataLoader loader = new SchemaMetadataLoader(connectionPoolManager, registry);
+    ReflectionTestUtils.setField(loader, "fetchSize", 100);
+    ReflectionTestUtils.setField(loader, "parallelism", 2);
+    ReflectionTestUtils.setField(loader, "incrementalMaxTables", 50);
+    return loader;
+  }
+
+  @Test
+  @DisplayName("各 Schema 的四種查詢各自借用連線；其他 Schema 的資料表加上 Schema 名稱")
+  void loadsEverySchema() throws SQLException {
+    SchemaMetadata metadata = loader(new TwoSchemaDialect()).load(config);
+
+    assertEquals("PUBLIC", metadata.currentSchema());
+    assertEquals(
+        Map.of("ORDERS", List.of("ID", "STATUS"), "SALES.INVOICES", List.of("ID", "ORDER_ID")),
+        metadata.columnNames());
+    TableMetadata invoices = metadata.table("sales.invoices").orElseThrow();
+    assertEquals("ORDERS", invoices.foreignKeys().get(0).referencedTable());
+    assertTrue(metadata.table("INVOICES").isEmpty());
+    assertTrue(metadata.table("public.orders").orElseThrow().hasIndexOn("id"));
+
+    // 相同的名稱共用同一個字串
+    assertSame(
+        metadata.table("ORDERS").orElseThrow().columns().get(0).name(),
+        invoices.columns().get(0).name());
+    verify(connectionPoolManager, times(1 + 4 * 2)).getConnection(config);
+  }
+
+  @Test
+  @DisplayName("增量更新只重新讀取標記改變或新增的資料表，並移除已刪除的資料表")
+  void reloadPatchesChangedTables() throws SQLException {
+    MarkedDialect dialect = new MarkedDialect();
+    dialect.markers.put("PUBLIC", Map.of("ORDERS", "1"));
+    dialect.markers.put("SALES", Map.of("INVOICES", "1"));
+    SchemaMetadataLoader loader = loader(dialect);
+    SchemaMetadata first = loader.load(config);
+    assertEquals("1", first.table("ORDERS").orElseThrow().changeMarker());
+    assertTrue(dialect.tableReads.isEmpty());
+
+    sql("ALTER TABLE ORDERS ADD NOTE VARCHAR(100)"); // 標記未改變，沿用前一次的結果
+    sql("ALTER TABLE SALES.INVOICES ADD AMOUNT INT");
+    sql("CREATE TABLE CUSTOMERS (ID INT)");
+    dialect.markers.put("PUBLIC", Map.of("ORDERS", "1", "CUSTOMERS", "1"));
+    dialect.markers.put("SALES", Map.of("INVOICES", "2"));
+    SchemaMetadata second = loader.reload(config, first);
+
+    assertSame(first.table("ORDERS").orElseThrow(), second.table("ORDERS").orElseThrow());
+    assertEquals(
+        List.of("ID", "ORDER_ID", "AMOUNT"), second.columnNames().get("SALES.INVOICES"));
+    assertEquals(List.of("ID"), second.columnNames().get("CUSTOMERS"));
+    assertEquals(Set.of("PUBLIC.CUSTOMERS", "SALES.INVOICES"), Set.copyOf(dialect.tableReads));
+
+    sql("DROP TABLE CUSTOMERS");
+    dialect.markers.put("PUBLIC", Map.of("ORDERS", "1"));
+    SchemaMetadata third = loader.reload(config, second);
+    assertTrue(third.table("CUSTOMERS").isEmpty());
+    assertEquals(2, third.tables().size());
+
+    // 變更的資料表過多時完整讀取
+    ReflectionTestUtils.setField(loader, "incrementalMaxTables", 0);
+    dialect.markers.put("PUBLIC", Map.of("ORDERS", "2"));
+    SchemaMetadata full = loader.reload(config, third);
+    assertEquals(List.of("ID", "STATUS", "NOTE"), full.columnNames().get("ORDERS"));
+    assertEquals(2, dialect.tableReads.size());
+  }
+
+  @Test
+  @DisplayName("不支援變更標記時完整讀取")
+  void reloadWithoutMarkersReadsEverything() throws SQLException {
+    SchemaMetadataLoader loader = loader(new TwoSchemaDialect());
+    SchemaMetadata first = loader.load(config);
+    sql("ALTER TABLE ORDERS ADD NOTE VARCHAR(100)");
+
+    SchemaMetadata second = loader.reload(config, first);
+    assertNull(second.table("ORDERS").orElseThrow().changeMarker());
+    assertEquals(List.of("ID", "STATUS", "NOTE"), second.columnNames().get("ORDERS"));
+  }
+
+  @Test
+  @DisplayName("任一查詢失敗時丟出該 SQLException")
+  void propagatesFailure() {
+    JdbcMetadataDialect failing =
+        new TwoSchemaDialect() {
+          @Override
+          public Map<String, List<ColumnMetadata>> columns(
+              Connection conn, String schema, String table, int fetchSize) throws SQLException {
+            throw new SQLException("permission denied", "42501");
+          }
+        };
+
+    SQLException e = assertThrows(SQLException.class, () -> loader(failing).load(config));
+    assertEquals("42501", e.getSQLState());
+  }
+
+  @Test
+  @DisplayName("依 DbType 選擇 Dialect；未設定或沒有專屬實作時使用 DatabaseMetaData")
+  void registryResolvesByDbType() {
+    MetadataDialect postgres = new TwoSchemaDialect();
+    MetadataDialectRegistry registry =
+        new MetadataDialectRegistry(List.of(postgres, new MysqlMetadataDialect()));
+
+    assertSame(postgres, registry.forType(DbType.POSTGRESQL));
+    assertInstanceOf(MysqlMetadataDialect.class, registry.forType(DbType.MARIADB));
+    assertEquals(JdbcMetadataDialect.class, registry.forType(DbType.ORACLE).getClass());
+    assertEquals(JdbcMetadataDialect.class, registry.forType(null).getClass());
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> new MetadataDialectRegistry(List.of(postgres, new PostgresMetadataDialect())));
+  }
+}
@@ -0,0 +1,126 @@
+package com.sqlconsole.core.service.metadata;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.sqlconsole.core.model.entity.DbConfig;
+import com.sqlconsole.core.model.enums.DbType;
+import com.sqlconsole.core.model.metadata.ColumnMetadata;
+import com.sqlconsole.core.model.metadata.ForeignKeyMetadata;
+import com.sqlconsole.core.model.metadata.IndexMetadata;
+import com.sqlconsole.core.model.metadata.SchemaMetadata;
+import com.sqlconsole.core.model.metadata.TableMetadata;
+
+class SchemaSnapshotStoreTest {
+
+  private static final SchemaMetadata METADATA =
+      new SchemaMetadata(
+          "APP",
+          List.of(
+              new TableMetadata(
+                  "APP",
+                  "ORDERS",
+                  "TABLE",
+                  List.of(
+                      new ColumnMetadata("ID", "NUMBER", 10, 0, false),
+                      new ColumnMetadata("AMOUNT", "NUMBER", 12, -2, true),
+                      new ColumnMetadata("備註", "VARCHAR2", 4000, null, true)),
+                  List.of(new IndexMetadata("PK_ORDERS", true, List.of("ID"))),
+                  List.of(
+                      new ForeignKeyMetadata(
+                          "FK_ORDERS_CUSTOMER",
+                          List.of("CUSTOMER_ID"),
+                          "CRM",
+                          "CUSTOMERS",
+                          List.of("ID"))),
+                  "20260101120000"),
+              new TableMetadata("CRM", "CUSTOMERS", "VIEW", List.of(), List.of(), List.of(), null),
+              new TableMetadata(null, "DUAL", "TABLE", List.of(), List.of(), List.of(), null)));
+
+  @TempDir Path dir;
+
+  private final DbConfig config =
+      new DbConfig("prod", DbType.ORACLE, "jdbc:oracle:thin:@db:1521/APP", "app", "secret");
+
+  private SchemaSnapshotStore store() {
+    SchemaSnapshotStore store = new SchemaSnapshotStore();
+    ReflectionTestUtils.setField(store, "snapshotDir", dir.toString());
+    store.mapExisting();
+    return store;
+  }
+
+  @BeforeEach
+  void setUp() {
+    config.setId(7L);
+  }
+
+  @Test
+  @DisplayName("寫入後重新啟動 (新的 Store 於啟動時 Map 檔案) 可還原相同的內容")
+  void roundTripAcrossRestart() {
+    store().write(config, METADATA, 1_700_000_000_000L);
+    assertTrue(Files.isRegularFile(dir.resolve("7.snapshot")));
+
+    SchemaSnapshotStore.Restored restored = store().read(config);
+    assertEquals(METADATA, restored.metadata());
+    assertEquals(1_700_000_000_000L, restored.savedAt().toEpochMilli());
+    // 相同的字串共用同一個物件
+    TableMetadata orders = restored.metadata().tables().get(0);
+    assertSame(orders.columns().get(0).name(), orders.indexes().get(0).columns().get(0));
+  }
+
+  @Test
+  @DisplayName("連線目標改變、檔案損毀或不存在時不使用 Snapshot；損毀的檔案會被刪除")
+  void rejectsMismatchedOrCorruptSnapshots() throws Exception {
+    SchemaSnapshotStore store = store();
+    assertNull(store.read(config));
+
+    store.write(config, METADATA, 1L);
+    config.setJdbcUrl("jdbc:oracle:thin:@other:1521/APP");
+    assertNull(store.read(config));
+
+    Path file = dir.resolve("7.snapshot");
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length / 2] ^= 0x5A;
+    Files.write(file, bytes);
+    config.setJdbcUrl("jdbc:oracle:thin:@db:1521/APP");
+    assertNull(store.read(config));
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  @DisplayName("Snapshot 只保存連線目標的雜湊值，JDBC URL 中的密碼不以明文寫入")
+  void fingerprintIsHashed() throws Exception {
+    config.setJdbcUrl("jdbc:postgresql://db/app?user=app&password=hunter2");
+    store().write(config, METADATA, 1L);
+
+    String content = new String(Files.readAllBytes(dir.resolve("7.snapshot")), ISO_8859_1);
+    assertFalse(content.contains("hunter2"));
+    assertFalse(content.contains("jdbc:postgresql"));
+    assertTrue(content.contains(SchemaSnapshotStore.fingerprint(config)));
+    assertEquals(64, SchemaSnapshotStore.fingerprint(config).length());
+    assertEquals(METADATA, store().read(config).metadata());
+  }
+
+  @Test
+  @DisplayName("delete 刪除 Snapshot；未設定目錄時不保存")
+  void deleteAndDisabled() {
+    SchemaSnapshotStore store = store();
+    store.write(config, METADATA, 1L);
+    store.delete(7L);
+    assertNull(store.read(config));
+
+    SchemaSnapshotStore disabled = new SchemaSnapshotStore();
+    ReflectionTestUtils.setField(disabled, "snapshotDir", "");
+    disabled.mapExisting();
+    disabled.write(config, METADATA, 1L);
+    assertNull(disabled.read(config));
+  }
+}
@@ -0,0 +1,45 @@
+package com.sqlconsole.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+  @Test
+  @DisplayName("引號內的分隔字元、換行與跳脫的引號")
+  void testQuotedFields() throws IOException {
+    CsvReader csv =
+        new CsvReader(new StringReader("\uFEFFid,name\r\n1,\"a,b\"\n2,\"x\ny \"\"z\"\"\"\n"), ',');
+
+    assertEquals(List.of("id", "name"), csv.next());
+    assertEquals(List.of("1", "a,b"), csv.next());
+    assertEquals(2, csv.recordLine());
+    assertEquals(List.of("2", "x\ny \"z\""), csv.next());
+    assertEquals(3, csv.recordLine());
+    assertNull(csv.next());
+  }
+
+  @Test
+  @DisplayName("TSV、空欄位與空行")
+  void testTabDelimitedAndEmptyFields() throws IOException {
+    CsvReader csv = new CsvReader(new StringReader("a\t\tc\n\n\t\t\n"), '\t');
+
+    assertEquals(List.of("a", "", "c"), csv.next());
+    assertEquals(List.of("", "", ""), csv.next());
+    assertEquals(3, csv.recordLine());
+    assertNull(csv.next());
+  }
+
+  @Test
+  @DisplayName("未結束的引號視為格式錯誤")
+  void testUnterminatedQuote() throws IOException {
+    CsvReader csv = new CsvReader(new StringReader("1,\"abc\n2,3\n"), ',');
+
+    assertThrows(IOException.class, csv::next);
+  }
+}
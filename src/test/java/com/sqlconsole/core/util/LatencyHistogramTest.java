@@ -0,0 +1,47 @@
+package com.sqlconsole.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.dto.LatencyStats;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testEmpty() {
+    LatencyStats stats = new LatencyHistogram().snapshot();
+    assertEquals(0, stats.count());
+    assertEquals(0, stats.p99Ms());
+  }
+
+  @Test
+  void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 94; i++) {
+      histogram.record(3); // 區間 (2, 5]
+    }
+    for (int i = 0; i < 5; i++) {
+      histogram.record(150); // 區間 (100, 200]
+    }
+    histogram.record(750);
+
+    LatencyStats stats = histogram.snapshot();
+    assertEquals(100, stats.count());
+    assertEquals(5, stats.p50Ms());
+    assertEquals(200, stats.p95Ms());
+    assertEquals(200, stats.p99Ms());
+    assertEquals(750, stats.maxMs());
+    assertEquals((94 * 3 + 5 * 150 + 750) / 100.0, stats.meanMs(), 0.001);
+  }
+
+  @Test
+  void testPercentileNotAboveMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(40_000);
+    histogram.record(-1); // 時鐘誤差視為 0
+
+    LatencyStats stats = histogram.snapshot();
+    assertEquals(0, stats.p50Ms());
+    assertEquals(40_000, stats.p99Ms());
+  }
+}
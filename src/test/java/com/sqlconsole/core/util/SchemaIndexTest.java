@@ -0,0 +1,104 @@
+package com.sqlconsole.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.model.dto.SchemaMatch;
+import com.sqlconsole.core.model.dto.SchemaSearchResult;
+
+class SchemaIndexTest {
+
+  private static SchemaIndex index() {
+    Map<String, List<String>> tables = new LinkedHashMap<>();
+    tables.put("ORDERS", List.of("ID", "CUSTOMER_ID", "ORDER_DATE"));
+    tables.put("ORDER_ITEMS", List.of("ID", "ORDER_ID", "QTY"));
+    tables.put("CUSTOMERS", List.of("ID", "NAME"));
+    tables.put("orderAudit", List.of("auditId", "orderId"));
+    return new SchemaIndex(tables);
+  }
+
+  private static List<String> names(SchemaSearchResult result) {
+    return result.matches().stream().map(m -> m.type() + ":" + m.name()).toList();
+  }
+
+  @Test
+  @DisplayName("前綴查詢不分大小寫，依大寫後的字母順序 (_ 排在字母之後)")
+  void testPrefix() {
+    SchemaSearchResult result = index().search("ord", 50);
+    assertEquals(
+        List.of(
+            "TABLE:orderAudit",
+            "COLUMN:orderId",
+            "TABLE:ORDERS",
+            "COLUMN:ORDER_DATE",
+            "COLUMN:ORDER_ID",
+            "TABLE:ORDER_ITEMS"),
+        names(result));
+    assertTrue(result.complete());
+
+    assertEquals(List.of("TABLE:ORDERS"), names(index().search("ORDERS", 50)));
+    assertEquals(List.of(), names(index().search("x", 50)));
+    assertEquals(List.of(), names(index().search(" ", 50)));
+  }
+
+  @Test
+  @DisplayName("前綴符合者之後列出名稱片段 (_ 或大小寫變化之後) 符合者")
+  void testSegments() {
+    assertEquals(
+        List.of("TABLE:CUSTOMERS", "COLUMN:CUSTOMER_ID"), names(index().search("cust", 50)));
+    assertEquals(
+        List.of(
+            "COLUMN:ID",
+            "COLUMN:auditId",
+            "COLUMN:CUSTOMER_ID",
+            "COLUMN:orderId",
+            "COLUMN:ORDER_ID"),
+        names(index().search("id", 50)));
+    assertEquals(
+        List.of("COLUMN:auditId", "TABLE:orderAudit"), names(index().search("audit", 50)));
+  }
+
+  @Test
+  @DisplayName("欄位列出所屬的資料表")
+  void testColumnTables() {
+    SchemaMatch id = index().search("ID", 1).matches().get(0);
+    assertEquals(
+        new SchemaMatch("ID", "COLUMN", List.of("ORDERS", "ORDER_ITEMS", "CUSTOMERS")), id);
+  }
+
+  @Test
+  @DisplayName("超過 limit 時截斷並標示結果不完整")
+  void testLimit() {
+    Map<String, List<String>> tables = new LinkedHashMap<>();
+    IntStream.range(0, 500).forEach(i -> tables.put("T" + i, List.of("C" + i)));
+    SchemaIndex index = new SchemaIndex(tables);
+
+    SchemaSearchResult result = index.search("T1", 10);
+    assertEquals(10, result.matches().size());
+    assertFalse(result.complete());
+    assertEquals("T1", result.matches().get(0).name());
+
+    SchemaSearchResult exact = index.search("T499", 10);
+    assertEquals(List.of("TABLE:T499"), names(exact));
+    assertTrue(exact.complete());
+  }
+
+  @Test
+  @DisplayName("分段取得資料表名稱與單一資料表的欄位")
+  void testTablesAndColumns() {
+    SchemaIndex index = index();
+    assertEquals(List.of("ORDERS", "ORDER_ITEMS", "CUSTOMERS", "orderAudit"), index.tableNames());
+    assertEquals(List.of("ID", "NAME"), index.columns("customers"));
+    assertEquals(List.of("auditId", "orderId"), index.columns("orderAudit"));
+    assertEquals(List.of(), index.columns("missing"));
+    assertEquals(4, index.tableCount());
+    assertEquals(10, index.columnCount());
+    assertEquals(12, index.nameCount());
+    assertEquals(0, SchemaIndex.EMPTY.search("a", 10).matches().size());
+  }
+}
@@ -0,0 +1,59 @@
+package com.sqlconsole.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SqlClassifierTest {
+
+  @Test
+  @DisplayName("一般查詢為唯讀，字串與註解中的關鍵字不影響判斷")
+  void testReadOnly() {
+    assertTrue(SqlClassifier.isReadOnly("select * from t where note = 'delete me';"));
+    assertTrue(SqlClassifier.isReadOnly("-- update later\nWITH x AS (SELECT 1) SELECT * FROM x"));
+    assertTrue(SqlClassifier.isReadOnly("SELECT * FROM t FETCH NEXT 10 ROWS ONLY"));
+    assertTrue(SqlClassifier.isReadOnly("SHOW search_path"));
+  }
+
+  @Test
+  @DisplayName("寫入、鎖定、序列取值與多語句都不是唯讀")
+  void testNotReadOnly() {
+    assertFalse(SqlClassifier.isReadOnly("INSERT INTO t VALUES (1)"));
+    assertFalse(SqlClassifier.isReadOnly("WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d"));
+    assertFalse(SqlClassifier.isReadOnly("SELECT * INTO t2 FROM t"));
+    assertFalse(SqlClassifier.isReadOnly("SELECT * FROM t FOR UPDATE"));
+    assertFalse(SqlClassifier.isReadOnly("SELECT nextval('seq')"));
+    assertFalse(SqlClassifier.isReadOnly("SELECT 1; DROP TABLE t"));
+    assertFalse(SqlClassifier.isReadOnly("CALL refresh_stats()"));
+  }
+
+  @Test
+  @DisplayName("DML 只影響資料列；SET、USE、CALL、DDL 可能改變 Session 狀態")
+  void testDml() {
+    assertTrue(SqlClassifier.isDml("UPDATE t SET a = 1"));
+    assertTrue(SqlClassifier.isDml("MERGE INTO t USING s ON (t.id = s.id) WHEN MATCHED THEN DELETE"));
+    assertTrue(SqlClassifier.isDml("WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d"));
+    assertFalse(SqlClassifier.isDml("SELECT 1"));
+    assertFalse(SqlClassifier.isDml("SET search_path TO other"));
+    assertFalse(SqlClassifier.isDml("ALTER SESSION SET CURRENT_SCHEMA = hr"));
+    assertFalse(SqlClassifier.isDml("CREATE TEMP TABLE tmp (id int)"));
+    assertFalse(SqlClassifier.isDml("CALL refresh()"));
+  }
+
+  @Test
+  @DisplayName("SHOW 等中繼資料指令不快取")
+  void testCacheable() {
+    assertTrue(SqlClassifier.isCacheable("SELECT 1"));
+    assertFalse(SqlClassifier.isCacheable("SHOW search_path"));
+    assertFalse(SqlClassifier.isCacheable("UPDATE t SET a = 1"));
+  }
+
+  @Test
+  @DisplayName("正規化：合併空白、去除註解與結尾分號，字串內容不變")
+  void testNormalize() {
+    assertEquals(
+        "SELECT * FROM t WHERE a = 'x  y'",
+        SqlClassifier.normalize("  SELECT *\n  FROM t /* c */\tWHERE a = 'x  y' ; -- done"));
+  }
+}
@@ -0,0 +1,69 @@
+package com.sqlconsole.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SqlParametersTest {
+
+  @Test
+  @DisplayName(":name 改為 ?，同名參數可重複；字串、註解、轉型與 := 中的冒號不是參數")
+  void testNamed() throws SQLException {
+    SqlParameters.Bound bound =
+        SqlParameters.bind(
+            "SELECT ':skip', \"a:b\", x::int /* :c */ FROM t -- :d\n"
+                + "WHERE id = :id AND (owner = :owner OR creator = :owner) AND at > '10:30'",
+            Map.of("id", 7, "owner", "alice"));
+
+    assertEquals(
+        "SELECT ':skip', \"a:b\", x::int /* :c */ FROM t -- :d\n"
+            + "WHERE id = ? AND (owner = ? OR creator = ?) AND at > '10:30'",
+        bound.sql());
+    assertEquals(List.of(7, "alice", "alice"), bound.values());
+
+    assertEquals(
+        "BEGIN v := ?; END",
+        SqlParameters.bind("BEGIN v := :1; END", Map.of("1", 1)).sql());
+    assertEquals(
+        "SELECT $$ :x ? $$, ?",
+        SqlParameters.bind("SELECT $$ :x ? $$, :y", Map.of("y", 1)).sql());
+  }
+
+  @Test
+  @DisplayName("? 依序綁定，值可為 null")
+  void testPositional() throws SQLException {
+    SqlParameters.Bound bound =
+        SqlParameters.bind(
+            "UPDATE t SET price = ?, note = ? WHERE id = ? AND tag <> '?'",
+            Arrays.asList(new BigDecimal("0.10"), null, 3L));
+
+    assertEquals("UPDATE t SET price = ?, note = ? WHERE id = ? AND tag <> '?'", bound.sql());
+    assertEquals(Arrays.asList(new BigDecimal("0.10"), null, 3L), bound.values());
+  }
+
+  @Test
+  @DisplayName("參數個數或名稱不符、混用與非純量的值皆拒絕")
+  void testInvalid() {
+    SQLException e =
+        assertThrows(
+            SQLException.class, () -> SqlParameters.bind("SELECT ?, ?", List.of(1)));
+    assertEquals("07001", e.getSQLState());
+    assertTrue(e.getMessage().contains("2 parameters but 1 values"));
+
+    e =
+        assertThrows(
+            SQLException.class, () -> SqlParameters.bind("SELECT :a, :b", Map.of("a", 1)));
+    assertTrue(e.getMessage().contains(":b"));
+
+    assertThrows(SQLException.class, () -> SqlParameters.bind("SELECT ?, :a", List.of(1, 2)));
+    assertThrows(SQLException.class, () -> SqlParameters.bind("SELECT :a", List.of(1)));
+    assertThrows(
+        SQLException.class, () -> SqlParameters.bind("SELECT ?", List.of(List.of(1, 2))));
+  }
+}
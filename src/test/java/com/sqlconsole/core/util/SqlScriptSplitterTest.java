@@ -0,0 +1,80 @@
+package com.sqlconsole.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.sqlconsole.core.util.SqlScriptSplitter.ScriptStatement;
+
+class SqlScriptSplitterTest {
+
+  @Test
+  @DisplayName("以分號切分，並記錄每個語句的起始行號")
+  void testSplit() {
+    List<ScriptStatement> statements =
+        SqlScriptSplitter.split("SELECT 1;\n\nINSERT INTO t VALUES (1);\nSELECT 2");
+
+    assertEquals(3, statements.size());
+    assertEquals("SELECT 1", statements.get(0).sql());
+    assertEquals("INSERT INTO t VALUES (1)", statements.get(1).sql());
+    assertEquals(3, statements.get(1).line());
+    assertEquals(4, statements.get(2).line());
+  }
+
+  @Test
+  @DisplayName("字串、識別字與註解中的分號不切分")
+  void testQuotesAndComments() {
+    String script =
+        "INSERT INTO t VALUES ('a;b', 'it''s;');\n"
+            + "SELECT \"x;y\" FROM t; -- trailing; comment\n"
+            + "/* block; /* nested; */ still; */ SELECT 3;\n"
+            + "-- only a comment;";
+    List<ScriptStatement> statements = SqlScriptSplitter.split(script);
+
+    assertEquals(3, statements.size());
+    assertEquals("INSERT INTO t VALUES ('a;b', 'it''s;')", statements.get(0).sql());
+    assertEquals("SELECT \"x;y\" FROM t", statements.get(1).sql());
+    assertTrue(statements.get(2).sql().endsWith("SELECT 3"));
+  }
+
+  @Test
+  @DisplayName("PostgreSQL dollar-quoting 內的分號不切分")
+  void testDollarQuoting() {
+    String script =
+        "CREATE FUNCTION f() RETURNS int AS $body$ BEGIN RETURN 1; END; $body$ LANGUAGE plpgsql;\n"
+            + "DO $$ BEGIN PERFORM 1; END $$;\n"
+            + "SELECT $1, v$session FROM dual;";
+    List<ScriptStatement> statements = SqlScriptSplitter.split(script);
+
+    assertEquals(3, statements.size());
+    assertTrue(statements.get(0).sql().endsWith("LANGUAGE plpgsql"));
+    assertEquals("DO $$ BEGIN PERFORM 1; END $$", statements.get(1).sql());
+  }
+
+  @Test
+  @DisplayName("Oracle PL/SQL 區塊以單獨一行的 / 結束")
+  void testPlsqlBlocks() {
+    String script =
+        "CREATE OR REPLACE PROCEDURE p AS\nBEGIN\n  NULL;\nEND;\n/\n"
+            + "BEGIN\n  p;\nEND;\n/\n"
+            + "SELECT 1 FROM dual;";
+
+    List<ScriptStatement> oracle = SqlScriptSplitter.split(script, true);
+    assertEquals(3, oracle.size());
+    assertTrue(oracle.get(0).sql().endsWith("END;"));
+    assertEquals(6, oracle.get(1).line());
+    assertEquals("SELECT 1 FROM dual", oracle.get(2).sql());
+
+    // 非 Oracle 時 BEGIN; 是交易指令
+    List<ScriptStatement> postgres = SqlScriptSplitter.split("BEGIN;\nSELECT 1;\nCOMMIT;");
+    assertEquals(3, postgres.size());
+  }
+
+  @Test
+  @DisplayName("leadingKeyword 略過開頭的註解")
+  void testLeadingKeyword() {
+    assertEquals("INSERT", SqlScriptSplitter.leadingKeyword("-- seed\n/* x */ insert into t"));
+    assertEquals("", SqlScriptSplitter.leadingKeyword("(SELECT 1)"));
+  }
+}